@@ -15,6 +15,7 @@
  * limitations under the License.
  */
 package org.jclouds.atmos;
+import static org.jclouds.blobstore.reference.BlobStoreConstants.PROPERTY_BLOBSTORE_LIST_FLAT;
 import static org.jclouds.blobstore.reference.BlobStoreConstants.PROPERTY_USER_METADATA_PREFIX;
 import static org.jclouds.location.reference.LocationConstants.PROPERTY_REGIONS;
 import static org.jclouds.reflect.Reflection2.typeToken;
@@ -66,6 +67,8 @@ public class AtmosApiMetadata extends BaseRestApiMetadata {
       Properties properties = BaseRestApiMetadata.defaultProperties();
       properties.setProperty(PROPERTY_REGIONS, "DEFAULT");
       properties.setProperty(PROPERTY_USER_METADATA_PREFIX, "X-Object-Meta-");
+      // atmos lists one directory at a time, even when asked to recurse
+      properties.setProperty(PROPERTY_BLOBSTORE_LIST_FLAT, "false");
       return properties;
    }
 
@@ -17,11 +17,9 @@
 package org.jclouds.atmos.filters;
 
 import static com.google.common.io.BaseEncoding.base64;
-import static com.google.common.io.ByteStreams.readBytes;
 import static org.jclouds.Constants.LOGGER_SIGNATURE;
-import static org.jclouds.crypto.Macs.asByteProcessor;
+import static org.jclouds.crypto.Macs.doFinal;
 import static org.jclouds.util.Patterns.NEWLINE_PATTERN;
-import static org.jclouds.util.Strings2.toInputStream;
 
 import java.util.Set;
 
@@ -33,6 +31,7 @@ import javax.inject.Singleton;
 
 import org.jclouds.atmos.reference.AtmosHeaders;
 import org.jclouds.crypto.Crypto;
+import org.jclouds.crypto.StringToSign;
 import org.jclouds.date.TimeStamp;
 import org.jclouds.domain.Credentials;
 import org.jclouds.http.HttpException;
@@ -50,7 +49,6 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMap.Builder;
 import com.google.common.collect.Multimaps;
 import com.google.common.collect.Sets;
-import com.google.common.io.ByteProcessor;
 import com.google.common.net.HttpHeaders;
 
 /**
@@ -101,16 +99,17 @@ public class SignRequest implements HttpRequestFilter {
 
    public String createStringToSign(HttpRequest request) {
       utils.logRequest(signatureLog, request, ">>");
-      StringBuilder buffer = new StringBuilder();
+      StringBuilder buffer = StringToSign.buffer();
       // re-sign the request
       appendMethod(request, buffer);
       appendPayloadMetadata(request, buffer);
       appendHttpHeaders(request, buffer);
       appendCanonicalizedResource(request, buffer);
       appendCanonicalizedHeaders(request, buffer);
+      String toSign = buffer.toString();
       if (signatureWire.enabled())
-         signatureWire.output(buffer.toString());
-      return buffer.toString();
+         signatureWire.output(toSign);
+      return toSign;
    }
 
    private String calculateSignature(String toSign) {
@@ -122,8 +121,7 @@ public class SignRequest implements HttpRequestFilter {
 
    public String signString(String toSign) {
       try {
-         ByteProcessor<byte[]> hmacSHA1 = asByteProcessor(crypto.hmacSHA1(base64().decode(creds.get().credential)));
-         return base64().encode(readBytes(toInputStream(toSign), hmacSHA1));
+         return base64().encode(doFinal(crypto.pooledHmacSHA1(base64().decode(creds.get().credential)), toSign));
       } catch (Exception e) {
          throw new HttpException("error signing request", e);
       }
@@ -139,7 +137,7 @@ public class SignRequest implements HttpRequestFilter {
       for (String header : headers) {
          if (header.startsWith("x-emc-") && !header.equals(AtmosHeaders.SIGNATURE)) {
             // Convert all header names to lowercase.
-            toSign.append(header.toLowerCase()).append(":");
+            StringToSign.appendLowerCase(toSign, header).append(':');
             // For headers with values that span multiple lines, convert them into one line by
             // replacing any
             // newline characters and extra embedded white spaces in the value.
@@ -177,7 +175,7 @@ public class SignRequest implements HttpRequestFilter {
    @VisibleForTesting
    void appendCanonicalizedResource(HttpRequest request, StringBuilder toSign) {
       // Path portion of the HTTP request URI, in lowercase.
-      toSign.append(request.getEndpoint().getRawPath().toLowerCase()).append("\n");
+      StringToSign.appendLowerCase(toSign, request.getEndpoint().getRawPath()).append('\n');
    }
 
 }
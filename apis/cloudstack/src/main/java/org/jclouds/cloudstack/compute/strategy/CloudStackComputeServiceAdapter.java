@@ -37,9 +37,11 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import org.jclouds.cloudstack.AsyncJobException;
 import org.jclouds.cloudstack.CloudStackApi;
 import org.jclouds.cloudstack.compute.options.CloudStackTemplateOptions;
 import org.jclouds.cloudstack.domain.AsyncCreateResponse;
+import org.jclouds.cloudstack.domain.AsyncJob;
 import org.jclouds.cloudstack.domain.Capabilities;
 import org.jclouds.cloudstack.domain.FirewallRule;
 import org.jclouds.cloudstack.domain.IPForwardingRule;
@@ -63,7 +65,7 @@ import org.jclouds.cloudstack.functions.StaticNATVirtualMachineInNetwork.Factory
 import org.jclouds.cloudstack.options.DeployVirtualMachineOptions;
 import org.jclouds.cloudstack.options.ListFirewallRulesOptions;
 import org.jclouds.cloudstack.options.ListTemplatesOptions;
-import org.jclouds.cloudstack.strategy.BlockUntilJobCompletesAndReturnResult;
+import org.jclouds.cloudstack.strategy.AsyncJobTracker;
 import org.jclouds.collect.Memoized;
 import org.jclouds.compute.ComputeServiceAdapter;
 import org.jclouds.compute.functions.GroupNamingConvention;
@@ -79,6 +81,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSet.Builder;
 import com.google.common.collect.Sets;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 /**
  * defines the connection between the {@link CloudStackApi} implementation
@@ -93,10 +96,9 @@ public class CloudStackComputeServiceAdapter implements
    protected Logger logger = Logger.NULL;
 
    private final CloudStackApi client;
-   private final Predicate<String> jobComplete;
+   private final AsyncJobTracker jobTracker;
    private final Supplier<Map<String, Network>> networkSupplier;
    private final Supplier<Map<String, Project>> projectSupplier;
-   private final BlockUntilJobCompletesAndReturnResult blockUntilJobCompletesAndReturnResult;
    private final Factory staticNATVMInNetwork;
    private final CreatePortForwardingRulesForIP setupPortForwardingRulesForIP;
    private final CreateFirewallRulesForIP setupFirewallRulesForIP;
@@ -109,10 +111,9 @@ public class CloudStackComputeServiceAdapter implements
    private final GroupNamingConvention.Factory namingConvention;
 
    @Inject
-   public CloudStackComputeServiceAdapter(CloudStackApi client, Predicate<String> jobComplete,
+   public CloudStackComputeServiceAdapter(CloudStackApi client, AsyncJobTracker jobTracker,
                                           @Memoized Supplier<Map<String, Network>> networkSupplier,
                                           @Memoized Supplier<Map<String, Project>> projectSupplier,
-                                          BlockUntilJobCompletesAndReturnResult blockUntilJobCompletesAndReturnResult,
                                           StaticNATVirtualMachineInNetwork.Factory staticNATVMInNetwork,
                                           CreatePortForwardingRulesForIP setupPortForwardingRulesForIP,
                                           CreateFirewallRulesForIP setupFirewallRulesForIP,
@@ -124,11 +125,9 @@ public class CloudStackComputeServiceAdapter implements
                                           LoadingCache<String, SshKeyPair> keyPairCache,
                                           GroupNamingConvention.Factory namingConvention) {
       this.client = checkNotNull(client, "client");
-      this.jobComplete = checkNotNull(jobComplete, "jobComplete");
+      this.jobTracker = checkNotNull(jobTracker, "jobTracker");
       this.networkSupplier = checkNotNull(networkSupplier, "networkSupplier");
       this.projectSupplier = checkNotNull(projectSupplier, "projectSupplier");
-      this.blockUntilJobCompletesAndReturnResult = checkNotNull(blockUntilJobCompletesAndReturnResult,
-         "blockUntilJobCompletesAndReturnResult");
       this.staticNATVMInNetwork = checkNotNull(staticNATVMInNetwork, "staticNATVMInNetwork");
       this.setupPortForwardingRulesForIP = checkNotNull(setupPortForwardingRulesForIP, "setupPortForwardingRulesForIP");
       this.setupFirewallRulesForIP = checkNotNull(setupFirewallRulesForIP, "setupFirewallRulesForIP");
@@ -231,7 +230,7 @@ public class CloudStackComputeServiceAdapter implements
          zoneId, options);
       AsyncCreateResponse job = client.getVirtualMachineApi().deployVirtualMachineInZone(zoneId, serviceOfferingId,
          templateId, options);
-      VirtualMachine vm = blockUntilJobCompletesAndReturnResult.<VirtualMachine>apply(job);
+      VirtualMachine vm = awaitResult(job);
       logger.debug("--- virtualmachine: %s", vm);
       LoginCredentials.Builder credentialsBuilder = LoginCredentials.builder();
       if (templateOptions.getKeyPair() != null) {
@@ -431,16 +430,32 @@ public class CloudStackComputeServiceAdapter implements
       return ipAddresses;
    }
 
+   /**
+    * Waits on all jobs at once, so that they are polled together.
+    */
    public void awaitCompletion(Iterable<String> jobs) {
       logger.debug(">> awaiting completion of jobs(%s)", jobs);
-      for (String job : jobs)
-         awaitCompletion(job);
-      logger.trace("<< completed jobs(%s)", jobs);
+      Map<String, AsyncJob<?>> completed = jobTracker.awaitCompletion(jobs);
+      for (AsyncJob<?> job : completed.values()) {
+         if (job.hasFailed())
+            throw new AsyncJobException(String.format("job %s failed with exception %s", job, job.getError()));
+      }
+      logger.trace("<< completed jobs(%s)", completed.keySet());
    }
 
    public void awaitCompletion(String job) {
-      boolean completed = jobComplete.apply(job);
-      logger.trace("<< job(%s) complete(%s)", job, completed);
+      awaitCompletion(ImmutableSet.of(job));
+   }
+
+   @SuppressWarnings("unchecked")
+   private <T> T awaitResult(AsyncCreateResponse job) {
+      AsyncJob<?> completed = jobTracker.awaitCompletion(ImmutableSet.of(job.getJobId())).get(job.getJobId());
+      checkState(completed != null, "job %s failed to complete in time", job.getJobId());
+      if (completed.getError() != null)
+         throw new UncheckedExecutionException(String.format("job %s failed with exception %s", job.getJobId(),
+               completed.getError().toString())) {
+         };
+      return (T) completed.getResult();
    }
 
    @Override
@@ -19,15 +19,14 @@ package org.jclouds.cloudstack.filters;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Throwables.propagate;
 import static com.google.common.io.BaseEncoding.base64;
-import static com.google.common.io.ByteStreams.readBytes;
 import static org.jclouds.Constants.LOGGER_SIGNATURE;
-import static org.jclouds.crypto.Macs.asByteProcessor;
+import static org.jclouds.crypto.Macs.doFinal;
 import static org.jclouds.http.Uris.uriBuilder;
 import static org.jclouds.http.utils.Queries.queryParser;
 import static org.jclouds.util.Strings2.toInputStream;
 
-import java.io.IOException;
 import java.security.InvalidKeyException;
+import java.util.Arrays;
 import java.util.Map;
 
 import javax.annotation.Resource;
@@ -35,8 +34,8 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
-import com.google.common.base.Joiner;
 import org.jclouds.crypto.Crypto;
+import org.jclouds.crypto.StringToSign;
 import org.jclouds.domain.Credentials;
 import org.jclouds.http.HttpException;
 import org.jclouds.http.HttpRequest;
@@ -50,9 +49,7 @@ import org.jclouds.util.Strings2;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.collect.Multimap;
-import com.google.common.io.ByteProcessor;
 
 /**
  * 
@@ -99,15 +96,12 @@ public class QuerySigner implements AuthenticationFilter, RequestSigner {
    public String sign(String toSign) {
       String signature;
       try {
-         ByteProcessor<byte[]> hmacSHA1 = asByteProcessor(crypto.hmacSHA1(creds.get().credential.getBytes()));
-         signature = base64().encode(readBytes(toInputStream(toSign), hmacSHA1));
+         signature = base64().encode(doFinal(crypto.pooledHmacSHA1(creds.get().credential.getBytes()), toSign));
          if (signatureWire.enabled())
             signatureWire.input(toInputStream(signature));
          return signature;
       } catch (InvalidKeyException e) {
          throw propagate(e);
-      } catch (IOException e) {
-         throw propagate(e);
       }
    }
 
@@ -115,11 +109,21 @@ public class QuerySigner implements AuthenticationFilter, RequestSigner {
    public String createStringToSign(HttpRequest request, Multimap<String, String> decodedParams) {
       utils.logRequest(signatureLog, request, ">>");
       // encode each parameter value first,
-      ImmutableSortedSet.Builder<String> builder = ImmutableSortedSet.naturalOrder();
+      String[] params = new String[decodedParams.size()];
+      int i = 0;
       for (Map.Entry<String, String> entry : decodedParams.entries())
-         builder.add(entry.getKey() + "=" + Strings2.urlEncode(entry.getValue()));
+         params[i++] = entry.getKey() + "=" + Strings2.urlEncode(entry.getValue());
+      Arrays.sort(params);
       // then, lower case the entire query string
-      String stringToSign = Joiner.on('&').join(builder.build()).toLowerCase();
+      StringBuilder buffer = StringToSign.buffer();
+      for (i = 0; i < params.length; i++) {
+         if (i > 0 && params[i].equals(params[i - 1]))
+            continue;
+         if (buffer.length() > 0)
+            buffer.append('&');
+         StringToSign.appendLowerCase(buffer, params[i]);
+      }
+      String stringToSign = buffer.toString();
       if (signatureWire.enabled())
          signatureWire.output(stringToSign);
 
@@ -80,8 +80,8 @@ public class CreateFirewallRulesForIP {
          responses.add(response);
       }
       Builder<FirewallRule> rules = ImmutableSet.builder();
-      for (AsyncCreateResponse response : responses.build()) {
-         FirewallRule rule = blockUntilJobCompletesAndReturnResult.<FirewallRule> apply(response);
+      // wait on the rules together, rather than one after another
+      for (FirewallRule rule : blockUntilJobCompletesAndReturnResult.<FirewallRule> apply(responses.build())) {
          rules.add(rule);
          getFirewallRulesByVirtualMachine.asMap().put(ip.getVirtualMachineId(), ImmutableSet.of(rule));
       }
@@ -78,8 +78,8 @@ public class CreatePortForwardingRulesForIP {
          responses.add(response);
       }
       Builder<IPForwardingRule> rules = ImmutableSet.builder();
-      for (AsyncCreateResponse response : responses.build()) {
-         IPForwardingRule rule = blockUntilJobCompletesAndReturnResult.<IPForwardingRule> apply(response);
+      // wait on the rules together, rather than one after another
+      for (IPForwardingRule rule : blockUntilJobCompletesAndReturnResult.<IPForwardingRule> apply(responses.build())) {
          rules.add(rule);
          getIPForwardingRulesByVirtualMachine.asMap().put(ip.getVirtualMachineId(), ImmutableSet.of(rule));
       }
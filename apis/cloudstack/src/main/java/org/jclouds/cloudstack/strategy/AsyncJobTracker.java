@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.cloudstack.strategy;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.jclouds.cloudstack.options.ListAsyncJobsOptions.Builder.startDate;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Resource;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.cloudstack.CloudStackApi;
+import org.jclouds.cloudstack.domain.AsyncJob;
+import org.jclouds.cloudstack.features.AsyncJobApi;
+import org.jclouds.compute.reference.ComputeServiceConstants;
+import org.jclouds.logging.Logger;
+import org.jclouds.rest.AuthorizationException;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * Keeps track of outstanding async jobs and resolves all of them with one
+ * {@link AsyncJobApi#listAsyncJobs} call per poll, rather than one {@link AsyncJobApi#getAsyncJob}
+ * call per job. A single outstanding job is still queried directly, as that is the cheaper call.
+ * <p/>
+ * Like the {@code Predicate<String>} bound for job completion, polls start every second and back
+ * off to every five seconds while no job completes, and a job is waited on for at most 20 minutes.
+ * Polls are driven by the callers of {@link #awaitCompletion}: the first one that finds no poll in
+ * progress waits for the poll period, so that other callers can add their jobs, and then polls on
+ * behalf of all of them. A job no caller waits on any more is dropped from the polls.
+ * <p/>
+ * A failure to look up a job fails only that job, and only once it failed
+ * {@link #maxLookupFailures} polls in a row, or was not authorized; until then it is looked up
+ * again on the next poll.
+ */
+@Singleton
+public class AsyncJobTracker {
+
+   @Resource
+   @Named(ComputeServiceConstants.COMPUTE_LOGGER)
+   protected Logger logger = Logger.NULL;
+
+   @VisibleForTesting
+   long initialPeriod = SECONDS.toMillis(1);
+   @VisibleForTesting
+   long maxPeriod = SECONDS.toMillis(5);
+   @VisibleForTesting
+   long timeout = MINUTES.toMillis(20);
+   @VisibleForTesting
+   int maxLookupFailures = 3;
+
+   private final CloudStackApi client;
+   private final AtomicLong period = new AtomicLong();
+   private final AtomicBoolean polling = new AtomicBoolean();
+   private final ConcurrentMap<String, OutstandingJob> outstanding = Maps.newConcurrentMap();
+
+   @Inject
+   public AsyncJobTracker(CloudStackApi client) {
+      this.client = checkNotNull(client, "client");
+   }
+
+   /**
+    * Adds a job to the next poll, if it is not already outstanding.
+    *
+    * @return a future which is set to the job once it has succeeded or failed, or fails if the
+    *         job could not be polled
+    */
+   public ListenableFuture<AsyncJob<?>> track(String jobId) {
+      return track(jobId, System.currentTimeMillis() + timeout);
+   }
+
+   /**
+    * @param deadline
+    *           until when the caller waits on the job, after which it is dropped from the polls
+    *           unless another caller waits on it longer
+    */
+   private ListenableFuture<AsyncJob<?>> track(String jobId, long deadline) {
+      OutstandingJob candidate = new OutstandingJob(deadline);
+      OutstandingJob existing = outstanding.putIfAbsent(checkNotNull(jobId, "jobId"), candidate);
+      if (existing == null)
+         return candidate.future;
+      existing.extendTo(deadline);
+      return existing.future;
+   }
+
+   /**
+    * Blocks until all jobs have succeeded or failed, or the timeout elapses.
+    *
+    * @return the jobs which completed, successfully or not, by id; jobs still in progress at the
+    *         timeout are left out
+    */
+   public Map<String, AsyncJob<?>> awaitCompletion(Iterable<String> jobIds) {
+      long deadline = System.currentTimeMillis() + timeout;
+      Map<String, ListenableFuture<AsyncJob<?>>> futures = Maps.newLinkedHashMap();
+      for (String jobId : jobIds)
+         futures.put(jobId, track(jobId, deadline));
+      ImmutableMap.Builder<String, AsyncJob<?>> completed = ImmutableMap.builder();
+      try {
+         for (Map.Entry<String, ListenableFuture<AsyncJob<?>>> future : futures.entrySet()) {
+            AsyncJob<?> job = await(future.getValue(), deadline);
+            if (job != null)
+               completed.put(future.getKey(), job);
+            else
+               logger.warn("<< job(%s) did not complete within %dms", future.getKey(), timeout);
+         }
+         expire(System.currentTimeMillis());
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw Throwables.propagate(e);
+      } catch (ExecutionException e) {
+         throw Throwables.propagate(e.getCause());
+      }
+      return completed.build();
+   }
+
+   private AsyncJob<?> await(ListenableFuture<AsyncJob<?>> future, long deadline) throws InterruptedException,
+         ExecutionException {
+      while (!future.isDone()) {
+         long remaining = deadline - System.currentTimeMillis();
+         if (remaining <= 0)
+            return null;
+         if (polling.compareAndSet(false, true)) {
+            try {
+               MILLISECONDS.sleep(Math.min(currentPeriod(), remaining));
+               poll();
+            } finally {
+               polling.set(false);
+            }
+         } else {
+            try {
+               // the poll in progress may have started before this job was added
+               return future.get(Math.max(Math.min(currentPeriod(), remaining), 1), MILLISECONDS);
+            } catch (TimeoutException e) {
+               continue;
+            }
+         }
+      }
+      try {
+         return future.get();
+      } catch (CancellationException e) {
+         // expired, as no caller waits on it any more
+         return null;
+      }
+   }
+
+   /**
+    * Drops the jobs which no caller waits on any more.
+    */
+   private void expire(long now) {
+      for (Map.Entry<String, OutstandingJob> job : outstanding.entrySet()) {
+         if (job.getValue().deadline.get() <= now && outstanding.remove(job.getKey(), job.getValue())) {
+            logger.debug("<< no longer polling job(%s)", job.getKey());
+            job.getValue().future.cancel(false);
+         }
+      }
+   }
+
+   @VisibleForTesting
+   void poll() {
+      expire(System.currentTimeMillis());
+      Map<String, OutstandingJob> batch = ImmutableMap.copyOf(outstanding);
+      if (batch.isEmpty())
+         return;
+      boolean progressed = false;
+      Map<String, AsyncJob<?>> jobs = Maps.newHashMap();
+      if (batch.size() > 1) {
+         logger.trace(">> listing %d outstanding jobs", batch.size());
+         try {
+            for (AsyncJob<?> job : client.getAsyncJobApi().listAsyncJobs(startDate(startedSince(batch.values())))) {
+               if (batch.containsKey(job.getId()))
+                  jobs.put(job.getId(), job);
+            }
+         } catch (RuntimeException e) {
+            logger.warn(e, "<< error listing jobs %s; looking them up one by one", batch.keySet());
+         }
+      }
+      // jobs of other accounts or users may not be listed
+      for (String jobId : ImmutableSet.copyOf(batch.keySet())) {
+         if (!jobs.containsKey(jobId)) {
+            try {
+               AsyncJob<?> job = client.getAsyncJobApi().getAsyncJob(jobId);
+               if (job != null)
+                  jobs.put(jobId, job);
+               batch.get(jobId).lookupFailures.set(0);
+            } catch (RuntimeException e) {
+               lookupFailed(jobId, batch.get(jobId), e);
+            }
+         }
+      }
+      for (Map.Entry<String, AsyncJob<?>> job : jobs.entrySet()) {
+         logger.trace("<< job(%s) status(%s)", job.getKey(), job.getValue().getStatus());
+         if (job.getValue().hasFailed() || job.getValue().hasSucceed()) {
+            OutstandingJob waiting = batch.get(job.getKey());
+            outstanding.remove(job.getKey(), waiting);
+            waiting.future.set(job.getValue());
+            progressed = true;
+         }
+      }
+      period.set(progressed ? initialPeriod : Math.min(currentPeriod() * 2, maxPeriod));
+   }
+
+   /**
+    * Fails the job if the failure is not one to retry on the next poll.
+    */
+   private void lookupFailed(String jobId, OutstandingJob job, RuntimeException e) {
+      int failures = job.lookupFailures.incrementAndGet();
+      if (failures < maxLookupFailures && !(e instanceof AuthorizationException)) {
+         logger.warn(e, "<< error looking up job(%s); retrying on the next poll", jobId);
+         return;
+      }
+      logger.warn(e, "<< error looking up job(%s) %d times; failing it", jobId, failures);
+      outstanding.remove(jobId, job);
+      job.future.setException(e);
+   }
+
+   private long currentPeriod() {
+      return Math.max(period.get(), initialPeriod);
+   }
+
+   /**
+    * Leaves some slack for the clock of the management server.
+    */
+   private static Date startedSince(Iterable<OutstandingJob> jobs) {
+      long earliest = Long.MAX_VALUE;
+      for (OutstandingJob job : jobs)
+         earliest = Math.min(earliest, job.tracked);
+      return new Date(earliest - MINUTES.toMillis(10));
+   }
+
+   private static class OutstandingJob {
+      private final long tracked = System.currentTimeMillis();
+      private final AtomicLong deadline;
+      private final AtomicInteger lookupFailures = new AtomicInteger();
+      private final SettableFuture<AsyncJob<?>> future = SettableFuture.create();
+
+      private OutstandingJob(long deadline) {
+         this.deadline = new AtomicLong(deadline);
+      }
+
+      private void extendTo(long deadline) {
+         long current;
+         do {
+            current = this.deadline.get();
+         } while (current < deadline && !this.deadline.compareAndSet(current, deadline));
+      }
+   }
+}
@@ -19,6 +19,9 @@ package org.jclouds.cloudstack.strategy;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
+import java.util.List;
+import java.util.Map;
+
 import javax.annotation.Resource;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -30,7 +33,10 @@ import org.jclouds.cloudstack.domain.AsyncJob;
 import org.jclouds.compute.reference.ComputeServiceConstants;
 import org.jclouds.logging.Logger;
 
+import com.google.common.base.Function;
 import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 
 @Singleton
@@ -41,11 +47,18 @@ public class BlockUntilJobCompletesAndReturnResult {
    
    private final CloudStackApi client;
    private final Predicate<String> jobComplete;
+   private final AsyncJobTracker jobTracker;
 
    @Inject
-   public BlockUntilJobCompletesAndReturnResult(CloudStackApi client, Predicate<String> jobComplete) {
+   public BlockUntilJobCompletesAndReturnResult(CloudStackApi client, Predicate<String> jobComplete,
+         AsyncJobTracker jobTracker) {
       this.client = checkNotNull(client, "client");
       this.jobComplete = checkNotNull(jobComplete, "jobComplete");
+      this.jobTracker = checkNotNull(jobTracker, "jobTracker");
+   }
+
+   public BlockUntilJobCompletesAndReturnResult(CloudStackApi client, Predicate<String> jobComplete) {
+      this(client, jobComplete, new AsyncJobTracker(client));
    }
 
    /**
@@ -66,4 +79,34 @@ public class BlockUntilJobCompletesAndReturnResult {
          };
       return jobWithResult.getResult();
    }
+
+   /**
+    * Waits on all jobs at once, so that they are polled together.
+    * 
+    * @return results of the jobs' execution, in the order of the jobs
+    * @throws ExecutionException
+    *            if a job contained an error
+    */
+   @SuppressWarnings("unchecked")
+   public <T> List<T> apply(Iterable<AsyncCreateResponse> jobs) {
+      Iterable<String> jobIds = Iterables.transform(jobs, new Function<AsyncCreateResponse, String>() {
+         @Override
+         public String apply(AsyncCreateResponse input) {
+            return input.getJobId();
+         }
+      });
+      Map<String, AsyncJob<?>> completed = jobTracker.awaitCompletion(jobIds);
+      logger.trace("<< jobs(%s) completed(%s)", jobIds, completed.keySet());
+      ImmutableList.Builder<T> results = ImmutableList.builder();
+      for (String jobId : jobIds) {
+         AsyncJob<?> jobWithResult = completed.get(jobId);
+         checkState(jobWithResult != null, "job %s failed to complete in time", jobId);
+         if (jobWithResult.getError() != null)
+            throw new UncheckedExecutionException(String.format("job %s failed with exception %s", jobId,
+                  jobWithResult.getError().toString())) {
+            };
+         results.add((T) jobWithResult.getResult());
+      }
+      return results.build();
+   }
 }
@@ -16,6 +16,7 @@
  */
 package org.jclouds.cloudstack.functions;
 
+import static org.easymock.EasyMock.anyObject;
 import static org.easymock.EasyMock.createMock;
 import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.replay;
@@ -27,12 +28,17 @@ import org.jclouds.cloudstack.domain.AsyncCreateResponse;
 import org.jclouds.cloudstack.domain.AsyncJob;
 import org.jclouds.cloudstack.domain.AsyncJobError;
 import org.jclouds.cloudstack.domain.AsyncJobError.ErrorCode;
+import org.jclouds.cloudstack.domain.AsyncJob.ResultCode;
+import org.jclouds.cloudstack.domain.AsyncJob.Status;
 import org.jclouds.cloudstack.features.AsyncJobApi;
+import org.jclouds.cloudstack.options.ListAsyncJobsOptions;
 import org.jclouds.cloudstack.strategy.BlockUntilJobCompletesAndReturnResult;
 import org.testng.annotations.Test;
 
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 
 @Test(groups = "unit", testName = "BlockUntilJobCompletesAndReturnResultTest")
@@ -113,4 +119,30 @@ public class BlockUntilJobCompletesAndReturnResultTest {
       verify(jobClient);
 
    }
+
+   public void testApplyWaitsOnAllJobsTogether() {
+      CloudStackApi client = createMock(CloudStackApi.class);
+      AsyncJobApi jobClient = createMock(AsyncJobApi.class);
+
+      expect(client.getAsyncJobApi()).andReturn(jobClient).atLeastOnce();
+      // one listing instead of a query per job
+      expect(jobClient.listAsyncJobs(anyObject(ListAsyncJobsOptions.class))).andReturn(
+            ImmutableSet.<AsyncJob<?>> of(succeeded("2", "foo"), succeeded("4", "bar")));
+
+      replay(client);
+      replay(jobClient);
+
+      assertEquals(
+            new BlockUntilJobCompletesAndReturnResult(client, Predicates.<String> alwaysFalse()).<String> apply(
+                  ImmutableList.of(AsyncCreateResponse.builder().id("1").jobId("2").build(), AsyncCreateResponse
+                        .builder().id("3").jobId("4").build())), ImmutableList.of("foo", "bar"));
+
+      verify(client);
+      verify(jobClient);
+   }
+
+   private static AsyncJob<String> succeeded(String jobId, String result) {
+      return AsyncJob.<String> builder().id(jobId).status(Status.SUCCEEDED).resultCode(ResultCode.SUCCESS)
+            .result(result).build();
+   }
 }
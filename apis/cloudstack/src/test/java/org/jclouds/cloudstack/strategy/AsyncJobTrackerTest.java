@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.cloudstack.strategy;
+
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jclouds.cloudstack.CloudStackApi;
+import org.jclouds.cloudstack.domain.AsyncJob;
+import org.jclouds.cloudstack.domain.AsyncJob.ResultCode;
+import org.jclouds.cloudstack.domain.AsyncJob.Status;
+import org.jclouds.cloudstack.features.AsyncJobApi;
+import org.jclouds.cloudstack.options.ListAsyncJobsOptions;
+import org.jclouds.rest.AuthorizationException;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ListenableFuture;
+
+@Test(groups = "unit", testName = "AsyncJobTrackerTest")
+public class AsyncJobTrackerTest {
+
+   public void testSingleJobIsQueriedDirectly() {
+      CloudStackApi client = createMock(CloudStackApi.class);
+      AsyncJobApi jobApi = createMock(AsyncJobApi.class);
+      expect(client.getAsyncJobApi()).andReturn(jobApi).anyTimes();
+      expect(jobApi.<String> getAsyncJob("1")).andReturn(inProgress("1"));
+      expect(jobApi.<String> getAsyncJob("1")).andReturn(succeeded("1"));
+      replay(client, jobApi);
+
+      Map<String, AsyncJob<?>> completed = tracker(client).awaitCompletion(ImmutableSet.of("1"));
+
+      assertEquals(completed.keySet(), ImmutableSet.of("1"));
+      assertTrue(completed.get("1").hasSucceed());
+      verify(client, jobApi);
+   }
+
+   public void testOutstandingJobsAreListedTogether() {
+      CloudStackApi client = createMock(CloudStackApi.class);
+      AsyncJobApi jobApi = createMock(AsyncJobApi.class);
+      expect(client.getAsyncJobApi()).andReturn(jobApi).anyTimes();
+      expect(jobApi.listAsyncJobs(anyObject(ListAsyncJobsOptions.class))).andReturn(
+            ImmutableSet.<AsyncJob<?>> of(succeeded("1"), inProgress("2"), failed("3"), succeeded("other")));
+      expect(jobApi.<String> getAsyncJob("2")).andReturn(succeeded("2"));
+      replay(client, jobApi);
+
+      Map<String, AsyncJob<?>> completed = tracker(client).awaitCompletion(ImmutableList.of("1", "2", "3"));
+
+      assertEquals(completed.keySet(), ImmutableSet.of("1", "2", "3"));
+      assertTrue(completed.get("3").hasFailed());
+      verify(client, jobApi);
+   }
+
+   public void testJobsMissingFromTheListingAreQueried() {
+      CloudStackApi client = createMock(CloudStackApi.class);
+      AsyncJobApi jobApi = createMock(AsyncJobApi.class);
+      expect(client.getAsyncJobApi()).andReturn(jobApi).anyTimes();
+      expect(jobApi.listAsyncJobs(anyObject(ListAsyncJobsOptions.class))).andReturn(
+            ImmutableSet.<AsyncJob<?>> of(succeeded("1")));
+      expect(jobApi.<String> getAsyncJob("2")).andReturn(succeeded("2"));
+      replay(client, jobApi);
+
+      Map<String, AsyncJob<?>> completed = tracker(client).awaitCompletion(ImmutableList.of("1", "2"));
+
+      assertEquals(completed.keySet(), ImmutableSet.of("1", "2"));
+      verify(client, jobApi);
+   }
+
+   public void testConcurrentWaitersShareOnePoll() throws Exception {
+      CloudStackApi client = createMock(CloudStackApi.class);
+      AsyncJobApi jobApi = createMock(AsyncJobApi.class);
+      expect(client.getAsyncJobApi()).andReturn(jobApi).anyTimes();
+      expect(jobApi.listAsyncJobs(anyObject(ListAsyncJobsOptions.class))).andReturn(
+            ImmutableSet.<AsyncJob<?>> of(succeeded("1"), succeeded("2")));
+      replay(client, jobApi);
+
+      final AsyncJobTracker tracker = tracker(client);
+      tracker.initialPeriod = 500;
+      ExecutorService executor = Executors.newFixedThreadPool(2);
+      try {
+         Future<Map<String, AsyncJob<?>>> first = executor.submit(awaitCompletion(tracker, "1"));
+         Future<Map<String, AsyncJob<?>>> second = executor.submit(awaitCompletion(tracker, "2"));
+         assertEquals(first.get().keySet(), ImmutableSet.of("1"));
+         assertEquals(second.get().keySet(), ImmutableSet.of("2"));
+      } finally {
+         executor.shutdownNow();
+      }
+      verify(client, jobApi);
+   }
+
+   public void testJobsInProgressAtTheTimeoutAreLeftOut() {
+      CloudStackApi client = createMock(CloudStackApi.class);
+      AsyncJobApi jobApi = createMock(AsyncJobApi.class);
+      expect(client.getAsyncJobApi()).andReturn(jobApi).anyTimes();
+      expect(jobApi.<String> getAsyncJob("1")).andReturn(inProgress("1")).anyTimes();
+      replay(client, jobApi);
+
+      AsyncJobTracker tracker = tracker(client);
+      tracker.timeout = 100;
+
+      assertTrue(tracker.awaitCompletion(ImmutableSet.of("1")).isEmpty());
+      verify(client, jobApi);
+   }
+
+   public void testJobsAreNoLongerPolledAfterTheTimeout() {
+      CloudStackApi client = createMock(CloudStackApi.class);
+      AsyncJobApi jobApi = createMock(AsyncJobApi.class);
+      expect(client.getAsyncJobApi()).andReturn(jobApi).anyTimes();
+      expect(jobApi.<String> getAsyncJob("1")).andReturn(inProgress("1")).anyTimes();
+      replay(client, jobApi);
+
+      AsyncJobTracker tracker = tracker(client);
+      tracker.timeout = 100;
+      ListenableFuture<AsyncJob<?>> future = tracker.track("1");
+
+      assertTrue(tracker.awaitCompletion(ImmutableSet.of("1")).isEmpty());
+      assertTrue(future.isCancelled());
+      assertNotSame(tracker.track("1"), future);
+      verify(client, jobApi);
+   }
+
+   public void testFailedLookupFailsOnlyThatJob() throws Exception {
+      CloudStackApi client = createMock(CloudStackApi.class);
+      AsyncJobApi jobApi = createMock(AsyncJobApi.class);
+      expect(client.getAsyncJobApi()).andReturn(jobApi).anyTimes();
+      expect(jobApi.listAsyncJobs(anyObject(ListAsyncJobsOptions.class))).andThrow(new IllegalStateException());
+      expect(jobApi.<String> getAsyncJob("1")).andThrow(new AuthorizationException());
+      expect(jobApi.<String> getAsyncJob("2")).andReturn(succeeded("2"));
+      replay(client, jobApi);
+
+      AsyncJobTracker tracker = tracker(client);
+      ListenableFuture<AsyncJob<?>> first = tracker.track("1");
+      ListenableFuture<AsyncJob<?>> second = tracker.track("2");
+      tracker.poll();
+
+      try {
+         first.get();
+         fail("expected the lookup of job 1 to fail");
+      } catch (ExecutionException e) {
+         assertTrue(e.getCause() instanceof AuthorizationException);
+      }
+      assertTrue(second.get().hasSucceed());
+      verify(client, jobApi);
+   }
+
+   public void testFailedLookupIsRetriedOnTheNextPoll() {
+      CloudStackApi client = createMock(CloudStackApi.class);
+      AsyncJobApi jobApi = createMock(AsyncJobApi.class);
+      expect(client.getAsyncJobApi()).andReturn(jobApi).anyTimes();
+      jobApi.getAsyncJob("1");
+      expectLastCall().andThrow(new IllegalStateException());
+      expect(jobApi.<String> getAsyncJob("1")).andReturn(succeeded("1"));
+      replay(client, jobApi);
+
+      Map<String, AsyncJob<?>> completed = tracker(client).awaitCompletion(ImmutableSet.of("1"));
+
+      assertEquals(completed.keySet(), ImmutableSet.of("1"));
+      verify(client, jobApi);
+   }
+
+   public void testTrackingAnOutstandingJobReturnsTheSameFuture() {
+      AsyncJobTracker tracker = tracker(createMock(CloudStackApi.class));
+
+      ListenableFuture<AsyncJob<?>> future = tracker.track("1");
+
+      assertSame(tracker.track("1"), future);
+      assertFalse(future.isDone());
+   }
+
+   private static AsyncJobTracker tracker(CloudStackApi client) {
+      AsyncJobTracker tracker = new AsyncJobTracker(client);
+      tracker.initialPeriod = 10;
+      tracker.maxPeriod = 20;
+      return tracker;
+   }
+
+   private static Callable<Map<String, AsyncJob<?>>> awaitCompletion(final AsyncJobTracker tracker,
+         final String jobId) {
+      return new Callable<Map<String, AsyncJob<?>>>() {
+         @Override
+         public Map<String, AsyncJob<?>> call() {
+            Set<String> jobIds = ImmutableSet.of(jobId);
+            return tracker.awaitCompletion(jobIds);
+         }
+      };
+   }
+
+   private static AsyncJob<String> inProgress(String id) {
+      return AsyncJob.<String> builder().id(id).status(Status.IN_PROGRESS).resultCode(ResultCode.SUCCESS).build();
+   }
+
+   private static AsyncJob<String> succeeded(String id) {
+      return AsyncJob.<String> builder().id(id).status(Status.SUCCEEDED).resultCode(ResultCode.SUCCESS).build();
+   }
+
+   private static AsyncJob<String> failed(String id) {
+      return AsyncJob.<String> builder().id(id).status(Status.FAILED).resultCode(ResultCode.FAIL).build();
+   }
+}
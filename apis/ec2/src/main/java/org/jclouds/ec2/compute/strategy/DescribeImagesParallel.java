@@ -23,7 +23,6 @@ import static com.google.common.util.concurrent.Futures.getUnchecked;
 
 import java.util.List;
 import java.util.Map.Entry;
-import java.util.Set;
 import java.util.concurrent.Callable;
 
 import javax.annotation.Resource;
@@ -57,20 +56,24 @@ public class DescribeImagesParallel implements
       this.userExecutor = userExecutor;
    }
 
+   /**
+    * Describes the images of all regions at once. Each response is parsed while it is read, so the
+    * images returned can be converted while the rest are still being downloaded.
+    */
    @Override
    public Iterable<? extends org.jclouds.ec2.domain.Image> apply(
             final Iterable<Entry<String, DescribeImagesOptions>> queries) {
-      ListenableFuture<List<Set<? extends org.jclouds.ec2.domain.Image>>> futures
+      ListenableFuture<List<Iterable<? extends org.jclouds.ec2.domain.Image>>> futures
          = allAsList(transform(
                             queries,
                             new Function<Entry<String, DescribeImagesOptions>,
-                            ListenableFuture<? extends Set<? extends org.jclouds.ec2.domain.Image>>>() {
-                               public ListenableFuture<Set<? extends org.jclouds.ec2.domain.Image>> apply(
+                            ListenableFuture<? extends Iterable<? extends org.jclouds.ec2.domain.Image>>>() {
+                               public ListenableFuture<Iterable<? extends org.jclouds.ec2.domain.Image>> apply(
                                                                                                           final Entry<String, DescribeImagesOptions> from) {
-                                  return userExecutor.submit(new Callable<Set<? extends org.jclouds.ec2.domain.Image>>() {
+                                  return userExecutor.submit(new Callable<Iterable<? extends org.jclouds.ec2.domain.Image>>() {
                                         @Override
-                                        public Set<? extends org.jclouds.ec2.domain.Image> call() throws Exception {
-                                           return api.getAMIApi().get().describeImagesInRegion(from.getKey(), from.getValue());
+                                        public Iterable<? extends org.jclouds.ec2.domain.Image> call() throws Exception {
+                                           return api.getAMIApi().get().streamImagesInRegion(from.getKey(), from.getValue());
                                         }
                                      });
                                }
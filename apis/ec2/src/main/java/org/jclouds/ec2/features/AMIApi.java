@@ -34,6 +34,7 @@ import org.jclouds.ec2.binders.BindUserIdsToIndexedFormParams;
 import org.jclouds.ec2.domain.Image;
 import org.jclouds.ec2.domain.Image.EbsBlockDevice;
 import org.jclouds.ec2.domain.Permission;
+import org.jclouds.ec2.functions.ParseDescribeImagesResponseAsStream;
 import org.jclouds.ec2.options.CreateImageOptions;
 import org.jclouds.ec2.options.DescribeImagesOptions;
 import org.jclouds.ec2.options.RegisterImageBackedByEbsOptions;
@@ -42,6 +43,7 @@ import org.jclouds.ec2.xml.BlockDeviceMappingHandler;
 import org.jclouds.ec2.xml.DescribeImagesResponseHandler;
 import org.jclouds.ec2.xml.ImageIdHandler;
 import org.jclouds.ec2.xml.PermissionHandler;
+import org.jclouds.http.functions.StreamingParseSax;
 import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.location.functions.RegionToEndpointOrProviderIfNull;
 import org.jclouds.rest.annotations.BinderParam;
@@ -49,6 +51,7 @@ import org.jclouds.rest.annotations.EndpointParam;
 import org.jclouds.rest.annotations.Fallback;
 import org.jclouds.rest.annotations.FormParams;
 import org.jclouds.rest.annotations.RequestFilters;
+import org.jclouds.rest.annotations.ResponseParser;
 import org.jclouds.rest.annotations.VirtualHost;
 import org.jclouds.rest.annotations.XMLResponseParser;
 
@@ -113,6 +116,25 @@ public interface AMIApi {
            @BinderParam(BindFiltersToIndexedFormParams.class) Multimap<String, String> filter,
            DescribeImagesOptions... options);
 
+   /**
+    * Like {@link #describeImagesInRegion}, except that the images are parsed while the response is
+    * still being read, and each is handed to the returned iterable as soon as it has been parsed.
+    * Callers should consume the iterable to its end.
+    *
+    * @param region
+    *           AMIs are tied to the Region where its files are located within Amazon S3.
+    * @see StreamingParseSax
+    */
+   @Named("DescribeImages")
+   @POST
+   @Path("/")
+   @FormParams(keys = ACTION, values = "DescribeImages")
+   @ResponseParser(ParseDescribeImagesResponseAsStream.class)
+   @Fallback(EmptySetOnNotFoundOr404.class)
+   Iterable<? extends Image> streamImagesInRegion(
+            @EndpointParam(parser = RegionToEndpointOrProviderIfNull.class) @Nullable String region,
+            DescribeImagesOptions... options);
+
    /**
     * Creates an AMI that uses an Amazon EBS root device from a "running" or "stopped" instance.
     * 
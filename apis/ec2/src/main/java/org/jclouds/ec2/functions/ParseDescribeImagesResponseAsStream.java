@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.ec2.functions;
+
+import static org.jclouds.Constants.PROPERTY_IO_WORKER_THREADS;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.jclouds.ec2.domain.Image;
+import org.jclouds.ec2.xml.DescribeImagesResponseHandler;
+import org.jclouds.http.functions.ParseSax;
+import org.jclouds.http.functions.StreamingParseSax;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+
+/**
+ * Parses the images of a DescribeImages response on the io executor while the response is still
+ * being read.
+ */
+public class ParseDescribeImagesResponseAsStream extends StreamingParseSax<Image> {
+
+   @Inject
+   public ParseDescribeImagesResponseAsStream(ParseSax.Factory factory, DescribeImagesResponseHandler handler,
+         @Named(PROPERTY_IO_WORKER_THREADS) ListeningExecutorService ioExecutor) {
+      super(factory, handler, ioExecutor);
+   }
+}
@@ -37,6 +37,7 @@ import org.jclouds.ec2.domain.Image.ImageType;
 import org.jclouds.ec2.domain.RootDeviceType;
 import org.jclouds.ec2.domain.VirtualizationType;
 import org.jclouds.http.functions.ParseSax;
+import org.jclouds.http.functions.StreamingParseSax;
 import org.jclouds.location.Region;
 import org.jclouds.logging.Logger;
 import org.xml.sax.Attributes;
@@ -49,7 +50,8 @@ import org.xml.sax.Attributes;
  * @see <a href="http://docs.amazonwebservices.com/AWSEC2/latest/APIReference/ApiReference-query-DescribeImages.html"
  *      />
  */
-public class DescribeImagesResponseHandler extends ParseSax.HandlerForGeneratedRequestWithResult<Set<Image>> {
+public class DescribeImagesResponseHandler extends ParseSax.HandlerForGeneratedRequestWithResult<Set<Image>> implements
+      StreamingParseSax.Handler<Image> {
 
    @Inject
    public DescribeImagesResponseHandler(@Region Supplier<String> defaultRegion, TagSetHandler tagSetHandler) {
@@ -96,11 +98,27 @@ public class DescribeImagesResponseHandler extends ParseSax.HandlerForGeneratedR
    private String volumeType;
    private Integer iops;
    private String rootDeviceName;
+   private StreamingParseSax.Callback<? super Image> callback;
 
    public Set<Image> getResult() {
       return contents;
    }
 
+   @Override
+   public void streamTo(StreamingParseSax.Callback<? super Image> callback) {
+      this.callback = callback;
+   }
+
+   /**
+    * Adds an image to the result, or hands it to the callback when streaming.
+    */
+   protected void add(Image image) {
+      if (callback != null)
+         callback.onElement(image);
+      else
+         contents.add(image);
+   }
+
    public void startElement(String uri, String name, String qName, Attributes attrs) {
       if (qName.equals("productCodes")) {
          inProductCodes = true;
@@ -191,7 +209,7 @@ public class DescribeImagesResponseHandler extends ParseSax.HandlerForGeneratedR
                String region = getRequest() != null ? AWSUtils.findRegionInArgsOrNull(getRequest()) : null;
                if (region == null)
                   region = defaultRegion.get();
-               contents.add(new Image(region, architecture, this.name, description, imageId, imageLocation,
+               add(new Image(region, architecture, this.name, description, imageId, imageLocation,
                         imageOwnerId, imageState, rawState, imageType, isPublic, productCodes, kernelId, platform,
                         ramdiskId, rootDeviceType, rootDeviceName, ebsBlockDevices, tags, virtualizationType, hypervisor));
             } catch (NullPointerException e) {
@@ -29,7 +29,10 @@ import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.nio.file.attribute.UserDefinedFileAttributeView;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.Date;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
@@ -41,23 +44,33 @@ import javax.inject.Provider;
 import org.jclouds.blobstore.LocalStorageStrategy;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobBuilder;
+import org.jclouds.blobstore.domain.StorageMetadata;
+import org.jclouds.blobstore.domain.StorageType;
+import org.jclouds.blobstore.domain.internal.StorageMetadataImpl;
 import org.jclouds.blobstore.options.ListContainerOptions;
+import org.jclouds.blobstore.util.BlobStoreUtils;
 import org.jclouds.domain.Location;
 import org.jclouds.filesystem.predicates.validators.FilesystemBlobKeyValidator;
 import org.jclouds.filesystem.predicates.validators.FilesystemContainerNameValidator;
 import org.jclouds.filesystem.reference.FilesystemConstants;
 import org.jclouds.filesystem.util.Utils;
+import org.jclouds.io.ByteSources;
 import org.jclouds.io.ContentMetadata;
 import org.jclouds.io.Payload;
+import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.logging.Logger;
 import org.jclouds.rest.annotations.ParamValidators;
 
 import com.google.common.base.Function;
 import com.google.common.base.Throwables;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Ordering;
 import com.google.common.collect.Sets;
 import com.google.common.hash.HashCode;
 import com.google.common.hash.Hashing;
@@ -195,6 +208,34 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
       return blobNames;
    }
 
+   @Override
+   public Iterable<StorageMetadata> getBlobMetadataInsideContainer(final String container,
+         @Nullable final String prefix, @Nullable final String marker) throws IOException {
+      filesystemContainerNameValidator.validate(container);
+      if (!containerExists(container)) {
+         return ImmutableList.of();
+      }
+      final File containerFile = openFolder(container);
+      return new FluentIterable<StorageMetadata>() {
+         @Override
+         public Iterator<StorageMetadata> iterator() {
+            return Iterators.transform(new SortedKeyIterator(containerFile, prefix, marker),
+                  new Function<KeyEntry, StorageMetadata>() {
+                     @Override
+                     public StorageMetadata apply(KeyEntry entry) {
+                        if (entry.file.isDirectory()) {
+                           return new StorageMetadataImpl(StorageType.FOLDER, /*id=*/ null, entry.key,
+                                 /*location=*/ null, /*uri=*/ null, /*eTag=*/ null, /*creationDate=*/ null,
+                                 /*lastModified=*/ null, ImmutableMap.<String, String>of());
+                        }
+                        logger.debug("Loading metadata of blob in container: %s - %s", container, entry.key);
+                        return BlobStoreUtils.copy(getBlob(container, entry.key).getMetadata());
+                     }
+                  });
+         }
+      };
+   }
+
    @Override
    public Blob getBlob(final String container, final String key) {
       BlobBuilder builder = blobBuilders.get();
@@ -263,6 +304,14 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
       return blob;
    }
 
+   /**
+    * Reads the range straight from the file, see {@link ByteSources#fileRange}.
+    */
+   @Override
+   public ByteSource getBlobRange(final String container, final String key, long offset, long length) {
+      return ByteSources.fileRange(getFileForBlobKey(container, key), offset, length);
+   }
+
    @Override
    public String putBlob(final String containerName, final Blob blob) throws IOException {
       String blobKey = blob.getMetadata().getName();
@@ -549,6 +598,92 @@ public class FilesystemStorageStrategyImpl implements LocalStorageStrategy {
       }
    }
 
+   /**
+    * A file or directory of a container, or the subtree of a directory when
+    * {@code subtree} is set. The key of a subtree ends with the separator, so
+    * that it sorts exactly where the keys of its children would.
+    */
+   private static final class KeyEntry {
+      private final String key;
+      private final File file;
+      private final boolean subtree;
+
+      private KeyEntry(String key, File file, boolean subtree) {
+         this.key = key;
+         this.file = file;
+         this.subtree = subtree;
+      }
+   }
+
+   private static final Ordering<KeyEntry> KEY_ORDER = new Ordering<KeyEntry>() {
+      @Override
+      public int compare(KeyEntry left, KeyEntry right) {
+         return left.key.compareTo(right.key);
+      }
+   };
+
+   /**
+    * Walks a container in lexicographic order of the blob keys, only listing
+    * the directories whose subtree may hold keys matching the prefix and
+    * sorting after the marker.
+    */
+   private static final class SortedKeyIterator extends AbstractIterator<KeyEntry> {
+      private final Deque<Iterator<KeyEntry>> stack = new ArrayDeque<Iterator<KeyEntry>>();
+      private final String prefix;
+      private final String marker;
+
+      private SortedKeyIterator(File containerFile, @Nullable String prefix, @Nullable String marker) {
+         this.prefix = prefix;
+         this.marker = marker;
+         stack.push(children(containerFile, ""));
+      }
+
+      @Override
+      protected KeyEntry computeNext() {
+         while (!stack.isEmpty()) {
+            Iterator<KeyEntry> current = stack.peek();
+            if (!current.hasNext()) {
+               stack.pop();
+               continue;
+            }
+            KeyEntry entry = current.next();
+            if (entry.subtree) {
+               if (mayContainMatches(entry.key)) {
+                  stack.push(children(entry.file, entry.key));
+               }
+            } else if ((prefix == null || entry.key.startsWith(prefix))
+                  && (marker == null || entry.key.compareTo(marker) > 0)) {
+               return entry;
+            }
+         }
+         return endOfData();
+      }
+
+      /** every key of the subtree starts with {@code subtreeKey} */
+      private boolean mayContainMatches(String subtreeKey) {
+         if (prefix != null && !subtreeKey.startsWith(prefix) && !prefix.startsWith(subtreeKey)) {
+            return false;
+         }
+         return marker == null || marker.startsWith(subtreeKey) || subtreeKey.compareTo(marker) > 0;
+      }
+
+      private static Iterator<KeyEntry> children(File directory, String parentKey) {
+         File[] children = directory.listFiles();
+         if (children == null) {
+            return Iterators.emptyIterator();
+         }
+         ImmutableList.Builder<KeyEntry> entries = ImmutableList.builder();
+         for (File child : children) {
+            String key = parentKey + child.getName();
+            entries.add(new KeyEntry(key, child, false));
+            if (child.isDirectory()) {
+               entries.add(new KeyEntry(key + File.separator, child, true));
+            }
+         }
+         return KEY_ORDER.sortedCopy(entries.build()).iterator();
+      }
+   }
+
    /**
     * Creates a directory and returns the result
     * 
@@ -18,11 +18,14 @@ package org.jclouds.filesystem.util.internal;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.File;
+
 import javax.inject.Provider;
 
 import org.jclouds.blobstore.LocalStorageStrategy;
 import org.jclouds.blobstore.domain.BlobBuilder;
 import org.jclouds.blobstore.options.ListContainerOptions;
+import org.jclouds.blobstore.strategy.DownloadBlobStrategy;
 import org.jclouds.blobstore.util.BlobUtils;
 import org.jclouds.filesystem.strategy.internal.FilesystemStorageStrategyImpl;
 
@@ -36,11 +39,14 @@ public class FileSystemBlobUtilsImpl implements BlobUtils {
 
    protected final FilesystemStorageStrategyImpl storageStrategy;
    protected final Provider<BlobBuilder> blobBuilders;
+   protected final Provider<DownloadBlobStrategy> downloadBlobStrategy;
 
    @Inject
-   public FileSystemBlobUtilsImpl(LocalStorageStrategy storageStrategy, Provider<BlobBuilder> blobBuilders) {
+   public FileSystemBlobUtilsImpl(LocalStorageStrategy storageStrategy, Provider<BlobBuilder> blobBuilders,
+         Provider<DownloadBlobStrategy> downloadBlobStrategy) {
       this.storageStrategy = (FilesystemStorageStrategyImpl) checkNotNull(storageStrategy, "Filesystem Storage Strategy");
       this.blobBuilders = checkNotNull(blobBuilders, "Filesystem  blobBuilders");
+      this.downloadBlobStrategy = checkNotNull(downloadBlobStrategy, "Filesystem downloadBlobStrategy");
    }
 
    @Override
@@ -73,4 +79,9 @@ public class FileSystemBlobUtilsImpl implements BlobUtils {
       storageStrategy.deleteDirectory(container, directory);
    }
 
+   @Override
+   public void downloadBlob(String container, String name, File destination) {
+      downloadBlobStrategy.get().execute(container, name, destination);
+   }
+
 }
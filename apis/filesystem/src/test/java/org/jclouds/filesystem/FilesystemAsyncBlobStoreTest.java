@@ -733,6 +733,36 @@ public class FilesystemAsyncBlobStoreTest {
         }
     }
 
+    public void testMultipleRanges() throws IOException {
+        blobStore.createContainerInLocation(null, CONTAINER_NAME);
+        String input = "abcdefgh";
+        Payload payload;
+        Blob blob = blobStore.blobBuilder("test").payload(new StringPayload(input)).build();
+        blobStore.putBlob(CONTAINER_NAME, blob);
+
+        GetOptions getOptionsRanges = new GetOptions();
+        getOptionsRanges.range(0, 1).range(4, 6).tail(1);
+        Blob blobRanges = blobStore.getBlob(CONTAINER_NAME, blob.getMetadata().getName(), getOptionsRanges);
+        payload = blobRanges.getPayload();
+        try {
+            assertEquals(payload.getContentMetadata().getContentLength(), Long.valueOf(6));
+            assertEquals(Strings2.toStringAndClose(payload.openStream()), "abefgh");
+        } finally {
+            Closeables2.closeQuietly(payload);
+        }
+
+        GetOptions getOptionsPastTheEnd = new GetOptions();
+        getOptionsPastTheEnd.range(6, 100).tail(100);
+        Blob blobPastTheEnd = blobStore.getBlob(CONTAINER_NAME, blob.getMetadata().getName(), getOptionsPastTheEnd);
+        payload = blobPastTheEnd.getPayload();
+        try {
+            assertEquals(payload.getContentMetadata().getContentLength(), Long.valueOf(10));
+            assertEquals(Strings2.toStringAndClose(payload.openStream()), "gh" + input);
+        } finally {
+            Closeables2.closeQuietly(payload);
+        }
+    }
+
     /** Test that BlobRequestSigner creates expected URIs.  */
     public void testBlobRequestSigner() throws Exception {
         String containerName = "container";
@@ -33,6 +33,7 @@ import javax.inject.Provider;
 
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobBuilder;
+import org.jclouds.blobstore.domain.StorageMetadata;
 import org.jclouds.blobstore.domain.internal.BlobBuilderImpl;
 import org.jclouds.blobstore.options.ListContainerOptions;
 import org.jclouds.filesystem.predicates.validators.internal.FilesystemBlobKeyValidatorImpl;
@@ -506,6 +507,35 @@ public class FilesystemStorageStrategyImplTest {
       }
    }
 
+   public void testGetBlobMetadataInsideContainerIsSorted() throws IOException {
+      // no container
+      assertFalse(storageStrategy.getBlobMetadataInsideContainer(CONTAINER_NAME, null, null).iterator().hasNext(),
+            "Blobs detected");
+
+      storageStrategy.createContainer(CONTAINER_NAME);
+      TestUtils.createBlobsInContainer(CONTAINER_NAME, new String[] { "a0", "a" + FS + "x", "a-c", "a" + FS + "b"
+            + FS + "y", "b" });
+
+      List<String> expected = Lists.newArrayList("a", "a-c", "a" + FS + "b", "a" + FS + "b" + FS + "y",
+            "a" + FS + "x", "a0", "b");
+      assertEquals(names(storageStrategy.getBlobMetadataInsideContainer(CONTAINER_NAME, null, null)), expected);
+
+      assertEquals(names(storageStrategy.getBlobMetadataInsideContainer(CONTAINER_NAME, "a" + FS, null)),
+            expected.subList(2, 5));
+      assertEquals(names(storageStrategy.getBlobMetadataInsideContainer(CONTAINER_NAME, null, "a" + FS + "b")),
+            expected.subList(3, 7));
+      assertEquals(names(storageStrategy.getBlobMetadataInsideContainer(CONTAINER_NAME, "a", "a-c")),
+            expected.subList(2, 6));
+   }
+
+   private static List<String> names(Iterable<StorageMetadata> metadata) {
+      List<String> names = Lists.newArrayList();
+      for (StorageMetadata md : metadata) {
+         names.add(md.getName());
+      }
+      return names;
+   }
+
    public void testCountsBlob() {
       storageStrategy.countBlobs(CONTAINER_NAME, ListContainerOptions.NONE);
    }
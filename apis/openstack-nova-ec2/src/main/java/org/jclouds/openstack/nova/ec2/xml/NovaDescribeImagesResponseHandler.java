@@ -16,8 +16,6 @@
  */
 package org.jclouds.openstack.nova.ec2.xml;
 
-import java.util.Set;
-
 import javax.inject.Inject;
 
 import org.jclouds.ec2.domain.Image;
@@ -26,10 +24,7 @@ import org.jclouds.ec2.xml.DescribeImagesResponseHandler;
 import org.jclouds.ec2.xml.TagSetHandler;
 import org.jclouds.location.Region;
 
-import com.google.common.base.Predicate;
 import com.google.common.base.Supplier;
-import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Iterables;
 
 /**
  * Adjusted to filter out non-MACHINE images
@@ -40,12 +35,9 @@ public class NovaDescribeImagesResponseHandler extends DescribeImagesResponseHan
       super(defaultRegion, tagSetHandler);
    }
 
-   public Set<Image> getResult() {
-      return ImmutableSet.copyOf(Iterables.filter(contents, new Predicate<Image>() {
-         @Override
-         public boolean apply(Image image) {
-            return image.getImageType() == ImageType.MACHINE;
-         }
-      }));
+   @Override
+   protected void add(Image image) {
+      if (image.getImageType() == ImageType.MACHINE)
+         super.add(image);
    }
 }
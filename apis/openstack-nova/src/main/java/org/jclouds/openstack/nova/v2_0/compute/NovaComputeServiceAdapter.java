@@ -18,17 +18,23 @@ package org.jclouds.openstack.nova.v2_0.compute;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
-import static com.google.common.collect.Iterables.contains;
 import static com.google.common.collect.Iterables.filter;
 import static com.google.common.collect.Iterables.transform;
 import static org.jclouds.compute.util.ComputeServiceUtils.metadataAndTagsAsCommaDelimitedValue;
 
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import javax.annotation.Resource;
-import javax.inject.Inject;
 import javax.inject.Named;
 
+import org.jclouds.Constants;
 import org.jclouds.compute.ComputeServiceAdapter;
 import org.jclouds.compute.domain.Template;
 import org.jclouds.compute.reference.ComputeServiceConstants;
@@ -40,6 +46,7 @@ import org.jclouds.openstack.nova.v2_0.NovaApi;
 import org.jclouds.openstack.nova.v2_0.compute.functions.RemoveFloatingIpFromNodeAndDeallocate;
 import org.jclouds.openstack.nova.v2_0.compute.options.NovaTemplateOptions;
 import org.jclouds.openstack.nova.v2_0.compute.strategy.ApplyNovaTemplateOptionsCreateNodesWithGroupEncodedIntoNameThenAddToSet;
+import org.jclouds.openstack.nova.v2_0.config.NovaProperties;
 import org.jclouds.openstack.nova.v2_0.domain.Flavor;
 import org.jclouds.openstack.nova.v2_0.domain.Image;
 import org.jclouds.openstack.nova.v2_0.domain.KeyPair;
@@ -53,15 +60,29 @@ import org.jclouds.openstack.nova.v2_0.domain.regionscoped.RegionAndName;
 import org.jclouds.openstack.nova.v2_0.domain.regionscoped.ServerInRegion;
 import org.jclouds.openstack.nova.v2_0.options.CreateServerOptions;
 import org.jclouds.openstack.nova.v2_0.predicates.ImagePredicates;
+import org.jclouds.rest.AuthorizationException;
 
 import com.google.common.base.Function;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.google.common.base.Supplier;
+import com.google.common.base.Throwables;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSet.Builder;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.UncheckedTimeoutException;
+import com.google.inject.Inject;
 
 /**
  * The adapter used by the NovaComputeServiceContextModule to interface the nova-specific domain
@@ -78,16 +99,27 @@ public class NovaComputeServiceAdapter implements
    protected final Supplier<Set<String>> regionIds;
    protected final RemoveFloatingIpFromNodeAndDeallocate removeFloatingIpFromNodeAndDeallocate;
    protected final LoadingCache<RegionAndName, KeyPair> keyPairCache;
+   protected final ListeningExecutorService userExecutor;
+
+   @Inject(optional = true)
+   @Named(NovaProperties.REGION_LISTING_CONCURRENCY)
+   protected int regionListingConcurrency = 4;
+
+   @Inject(optional = true)
+   @Named(NovaProperties.TIMEOUT_REGION_LISTING)
+   protected long regionListingTimeout = TimeUnit.MINUTES.toMillis(5);
 
    @Inject
    public NovaComputeServiceAdapter(NovaApi novaApi, @Region Supplier<Set<String>> regionIds,
             RemoveFloatingIpFromNodeAndDeallocate removeFloatingIpFromNodeAndDeallocate,
-            LoadingCache<RegionAndName, KeyPair> keyPairCache) {
+            LoadingCache<RegionAndName, KeyPair> keyPairCache,
+            @Named(Constants.PROPERTY_USER_THREADS) ListeningExecutorService userExecutor) {
       this.novaApi = checkNotNull(novaApi, "novaApi");
       this.regionIds = checkNotNull(regionIds, "regionIds");
       this.removeFloatingIpFromNodeAndDeallocate = checkNotNull(removeFloatingIpFromNodeAndDeallocate,
                "removeFloatingIpFromNodeAndDeallocate");
       this.keyPairCache = checkNotNull(keyPairCache, "keyPairCache");
+      this.userExecutor = checkNotNull(userExecutor, "userExecutor");
    }
 
    /**
@@ -145,84 +177,247 @@ public class NovaComputeServiceAdapter implements
 
    @Override
    public Iterable<FlavorInRegion> listHardwareProfiles() {
-      Builder<FlavorInRegion> builder = ImmutableSet.builder();
-      for (final String regionId : regionIds.get()) {
-         builder.addAll(transform(novaApi.getFlavorApi(regionId).listInDetail().concat(),
-                  new Function<Flavor, FlavorInRegion>() {
+      return listInRegions("listHardwareProfiles", regionIds.get(), new Function<String, Iterable<FlavorInRegion>>() {
 
-                     @Override
-                     public FlavorInRegion apply(Flavor arg0) {
-                        return new FlavorInRegion(arg0, regionId);
-                     }
+         @Override
+         public Iterable<FlavorInRegion> apply(final String regionId) {
+            return novaApi.getFlavorApi(regionId).listInDetail().concat()
+                     .transform(new Function<Flavor, FlavorInRegion>() {
 
-                  }));
-      }
-      return builder.build();
+                        @Override
+                        public FlavorInRegion apply(Flavor arg0) {
+                           return new FlavorInRegion(arg0, regionId);
+                        }
+
+                     });
+         }
+
+      });
    }
 
    @Override
    public Iterable<ImageInRegion> listImages() {
-      Builder<ImageInRegion> builder = ImmutableSet.builder();
       Set<String> regions = regionIds.get();
       checkState(!regions.isEmpty(), "no regions found in supplier %s", regionIds);
-      for (final String regionId : regions) {
-         Set<? extends Image> images = novaApi.getImageApi(regionId).listInDetail().concat().toSet();
-         if (images.isEmpty()) {
-            logger.debug("no images found in region %s", regionId);
-            continue;
+      return listInRegions("listImages", regions, new Function<String, Iterable<ImageInRegion>>() {
+
+         @Override
+         public Iterable<ImageInRegion> apply(final String regionId) {
+            Set<? extends Image> images = novaApi.getImageApi(regionId).listInDetail().concat().toSet();
+            if (images.isEmpty()) {
+               logger.debug("no images found in region %s", regionId);
+               return ImmutableSet.of();
+            }
+            Iterable<? extends Image> active = filter(images, ImagePredicates.statusEquals(Image.Status.ACTIVE));
+            if (images.isEmpty()) {
+               logger.debug("no images with status active in region %s; non-active: %s", regionId,
+                        transform(active, new Function<Image, String>() {
+
+                           @Override
+                           public String apply(Image input) {
+                              return MoreObjects.toStringHelper("").add("id", input.getId())
+                                       .add("status", input.getStatus()).toString();
+                           }
+
+                        }));
+               return ImmutableSet.of();
+            }
+            return transform(active, new Function<Image, ImageInRegion>() {
+
+               @Override
+               public ImageInRegion apply(Image arg0) {
+                  return new ImageInRegion(arg0, regionId);
+               }
+
+            });
          }
-         Iterable<? extends Image> active = filter(images, ImagePredicates.statusEquals(Image.Status.ACTIVE));
-         if (images.isEmpty()) {
-            logger.debug("no images with status active in region %s; non-active: %s", regionId,
-                     transform(active, new Function<Image, String>() {
 
-                        @Override
-                        public String apply(Image input) {
-                           return MoreObjects.toStringHelper("").add("id", input.getId()).add("status", input.getStatus())
-                                    .toString();
-                        }
+      });
+   }
+
+   @Override
+   public Iterable<ServerInRegion> listNodes() {
+      return listInRegions("listNodes", regionIds.get(), new Function<String, Iterable<ServerInRegion>>() {
 
-                     }));
-            continue;
+         @Override
+         public Iterable<ServerInRegion> apply(String regionId) {
+            return listServersInRegion(regionId);
          }
-         builder.addAll(transform(active, new Function<Image, ImageInRegion>() {
 
-            @Override
-            public ImageInRegion apply(Image arg0) {
-               return new ImageInRegion(arg0, regionId);
-            }
+      });
+   }
 
-         }));
+   /**
+    * Only lists the regions the ids are in, rather than filtering the nodes of all regions. Unlike
+    * {@link #listNodes}, a region which fails or times out fails the call, as leaving it out would
+    * tell callers that its nodes are gone.
+    */
+   @Override
+   public Iterable<ServerInRegion> listNodesByIds(final Iterable<String> ids) {
+      final Multimap<String, String> idsByRegion = HashMultimap.create();
+      for (String id : ids) {
+         RegionAndId regionAndId = RegionAndId.fromSlashEncoded(id);
+         idsByRegion.put(regionAndId.getRegion(), regionAndId.getId());
       }
-      return builder.build();
+      Set<String> regions = Sets.intersection(regionIds.get(), idsByRegion.keySet());
+      return listInRegions("listNodesByIds", regions, false, new Function<String, Iterable<ServerInRegion>>() {
+
+         @Override
+         public Iterable<ServerInRegion> apply(final String regionId) {
+            return listServersInRegion(regionId).filter(new Predicate<ServerInRegion>() {
+
+               @Override
+               public boolean apply(ServerInRegion server) {
+                  return idsByRegion.containsEntry(regionId, server.getServer().getId());
+               }
+
+            });
+         }
+
+      });
    }
 
-   @Override
-   public Iterable<ServerInRegion> listNodes() {
-      Builder<ServerInRegion> builder = ImmutableSet.builder();
-      for (final String regionId : regionIds.get()) {
-         builder.addAll(novaApi.getServerApi(regionId).listInDetail().concat()
-                  .transform(new Function<Server, ServerInRegion>() {
+   private FluentIterable<ServerInRegion> listServersInRegion(final String regionId) {
+      return novaApi.getServerApi(regionId).listInDetail().concat()
+               .transform(new Function<Server, ServerInRegion>() {
 
-                     @Override
-                     public ServerInRegion apply(Server arg0) {
-                        return new ServerInRegion(arg0, regionId);
-                     }
+                  @Override
+                  public ServerInRegion apply(Server arg0) {
+                     return new ServerInRegion(arg0, regionId);
+                  }
+
+               });
+   }
 
-                  }));
+   /**
+    * Lists each region on the user executor, at most {@link #regionListingConcurrency} regions at
+    * a time. A region that fails, or takes longer than {@link #regionListingTimeout}, is logged and
+    * left out of the result, so that one unhealthy region doesn't hold up or fail the others.
+    */
+   protected <T> Set<T> listInRegions(String operation, Iterable<String> regions,
+            Function<String, ? extends Iterable<T>> listInRegion) {
+      return listInRegions(operation, regions, true, listInRegion);
+   }
+
+   /**
+    * @param leaveOutFailedRegions
+    *           whether a region that fails or times out is left out, rather than failing the
+    *           listing and cancelling the regions still being listed
+    */
+   private <T> Set<T> listInRegions(String operation, Iterable<String> regions, boolean leaveOutFailedRegions,
+            Function<String, ? extends Iterable<T>> listInRegion) {
+      RegionListing<T> listing = new RegionListing<T>(regions, listInRegion);
+      listing.start();
+      Builder<T> builder = ImmutableSet.builder();
+      for (String region : listing.regions()) {
+         try {
+            builder.addAll(listing.await(region));
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            listing.cancel();
+            throw Throwables.propagate(e);
+         } catch (TimeoutException e) {
+            if (!leaveOutFailedRegions) {
+               listing.cancel();
+               throw new UncheckedTimeoutException(String.format("%s in region(%s) timed out after %dms", operation,
+                        region, regionListingTimeout));
+            }
+            logger.error("<< %s in region(%s) timed out after %dms; leaving it out", operation, region,
+                     regionListingTimeout);
+         } catch (ExecutionException e) {
+            // bad credentials are not a problem of one region
+            if (!leaveOutFailedRegions || e.getCause() instanceof AuthorizationException) {
+               listing.cancel();
+               throw Throwables.propagate(e.getCause());
+            }
+            logger.error(e.getCause(), "<< error %s in region(%s); leaving it out: %s", operation, region,
+                     e.getCause().getMessage());
+         }
       }
       return builder.build();
    }
 
-   @Override
-   public Iterable<ServerInRegion> listNodesByIds(final Iterable<String> ids) {
-      return filter(listNodes(), new Predicate<ServerInRegion>() {
+   /**
+    * Starts the next pending region each time a region completes, so that no more than
+    * {@link #regionListingConcurrency} regions are listed at once without blocking a thread on a
+    * permit. The timeout of a region counts from when it is started.
+    */
+   private class RegionListing<T> {
+      private final Queue<String> pending;
+      private final Function<String, ? extends Iterable<T>> listInRegion;
+      private final Map<String, SettableFuture<Started>> started = Maps.newLinkedHashMap();
+
+      private class Started {
+         private final ListenableFuture<Set<T>> response;
+         private final long deadline;
+
+         private Started(ListenableFuture<Set<T>> response, long deadline) {
+            this.response = response;
+            this.deadline = deadline;
+         }
+      }
+
+      private RegionListing(Iterable<String> regions, Function<String, ? extends Iterable<T>> listInRegion) {
+         this.pending = new ConcurrentLinkedQueue<String>(ImmutableSet.copyOf(regions));
+         this.listInRegion = listInRegion;
+         for (String region : pending)
+            started.put(region, SettableFuture.<Started> create());
+      }
 
+      private Set<String> regions() {
+         return started.keySet();
+      }
+
+      private void start() {
+         for (int i = 0; i < Math.max(1, regionListingConcurrency); i++)
+            startNext();
+      }
+
+      private void startNext() {
+         final String region = pending.poll();
+         if (region == null)
+            return;
+         long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(regionListingTimeout);
+         ListenableFuture<Set<T>> response = userExecutor.submit(new Callable<Set<T>>() {
             @Override
-            public boolean apply(ServerInRegion server) {
-               return contains(ids, server.slashEncode());
+            public Set<T> call() {
+               return ImmutableSet.copyOf(listInRegion.apply(region));
+            }
+
+            @Override
+            public String toString() {
+               return "listInRegion(" + region + ")";
             }
          });
+         response.addListener(new Runnable() {
+            @Override
+            public void run() {
+               startNext();
+            }
+         }, MoreExecutors.directExecutor());
+         started.get(region).set(new Started(response, deadline));
+      }
+
+      /**
+       * Stops starting regions, and cancels those which are being listed.
+       */
+      private void cancel() {
+         pending.clear();
+         for (SettableFuture<Started> listing : started.values()) {
+            if (listing.isDone())
+               Futures.getUnchecked(listing).response.cancel(true);
+         }
+      }
+
+      private Set<T> await(String region) throws InterruptedException, ExecutionException, TimeoutException {
+         Started listing = started.get(region).get();
+         try {
+            return listing.response.get(Math.max(0, listing.deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+         } catch (TimeoutException e) {
+            listing.response.cancel(true);
+            throw e;
+         }
+      }
    }
 
    @Override
@@ -38,4 +38,16 @@ public class NovaProperties {
     */
    public static final String AUTO_GENERATE_KEYPAIRS = "jclouds.openstack-nova.auto-generate-keypairs";
 
+   /**
+    * Maximum number of regions listed at the same time when listing nodes, images or hardware
+    * profiles across regions. Defaults to 4.
+    */
+   public static final String REGION_LISTING_CONCURRENCY = "jclouds.openstack-nova.region-listing.concurrency";
+
+   /**
+    * Time to wait for the listing of a single region before leaving it out of the result (in ms).
+    * Defaults to 5 minutes.
+    */
+   public static final String TIMEOUT_REGION_LISTING = "jclouds.openstack-nova.timeout.region-listing";
+
 }
@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.openstack.nova.v2_0.compute;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.easymock.IAnswer;
+import org.jclouds.collect.IterableWithMarkers;
+import org.jclouds.collect.PagedIterable;
+import org.jclouds.collect.PagedIterables;
+import org.jclouds.openstack.nova.v2_0.NovaApi;
+import org.jclouds.openstack.nova.v2_0.compute.functions.RemoveFloatingIpFromNodeAndDeallocate;
+import org.jclouds.openstack.nova.v2_0.domain.KeyPair;
+import org.jclouds.openstack.nova.v2_0.domain.Server;
+import org.jclouds.openstack.nova.v2_0.domain.regionscoped.RegionAndName;
+import org.jclouds.openstack.nova.v2_0.domain.regionscoped.ServerInRegion;
+import org.jclouds.openstack.nova.v2_0.features.ServerApi;
+import org.jclouds.openstack.nova.v2_0.parse.ParseServerTest;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Function;
+import com.google.common.base.Stopwatch;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.UncheckedTimeoutException;
+
+@Test(groups = "unit", singleThreaded = true, testName = "NovaComputeServiceAdapterTest")
+public class NovaComputeServiceAdapterTest {
+
+   private static final Supplier<Set<String>> REGIONS = Suppliers.<Set<String>> ofInstance(ImmutableSet.of("region-a",
+         "region-b", "region-c"));
+
+   private final Server server = new ParseServerTest().expected();
+
+   private ListeningExecutorService userExecutor;
+
+   @BeforeMethod
+   public void setUp() {
+      userExecutor = MoreExecutors.listeningDecorator(Executors.newCachedThreadPool());
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void tearDown() {
+      userExecutor.shutdownNow();
+   }
+
+   public void testListNodesLeavesOutFailedRegion() {
+      NovaApi api = createMock(NovaApi.class);
+      expect(api.getServerApi("region-a")).andReturn(serverApi(server));
+      expect(api.getServerApi("region-b")).andThrow(new IllegalStateException("region-b is down"));
+      expect(api.getServerApi("region-c")).andReturn(serverApi(server.toBuilder().id("71753").build()));
+      replay(api);
+
+      Set<String> ids = ids(adapter(api).listNodes());
+
+      assertEquals(ids, ImmutableSet.of("region-a/71752", "region-c/71753"));
+      verify(api);
+   }
+
+   public void testListNodesLeavesOutSlowRegion() {
+      final CountDownLatch stuck = new CountDownLatch(1);
+      NovaApi api = createMock(NovaApi.class);
+      expect(api.getServerApi("region-a")).andReturn(serverApi(server));
+      expect(api.getServerApi("region-b")).andAnswer(new IAnswer<ServerApi>() {
+         @Override
+         public ServerApi answer() throws Throwable {
+            stuck.await();
+            throw new AssertionError("region-b should have been cancelled");
+         }
+      });
+      expect(api.getServerApi("region-c")).andReturn(serverApi(server.toBuilder().id("71753").build()));
+      replay(api);
+
+      NovaComputeServiceAdapter adapter = adapter(api);
+      adapter.regionListingTimeout = 200;
+      Stopwatch stopwatch = Stopwatch.createStarted();
+      Set<String> ids = ids(adapter.listNodes());
+
+      assertEquals(ids, ImmutableSet.of("region-a/71752", "region-c/71753"));
+      assertTrue(stopwatch.elapsed(TimeUnit.MILLISECONDS) < 5000, "a slow region should not stall the listing");
+      verify(api);
+   }
+
+   public void testListNodesRespectsConcurrency() {
+      final AtomicInteger running = new AtomicInteger();
+      final AtomicInteger maxRunning = new AtomicInteger();
+      NovaApi api = createMock(NovaApi.class);
+      for (String region : REGIONS.get()) {
+         expect(api.getServerApi(region)).andAnswer(new IAnswer<ServerApi>() {
+            @Override
+            public ServerApi answer() throws Throwable {
+               int now = running.incrementAndGet();
+               maxRunning.set(Math.max(maxRunning.get(), now));
+               Thread.sleep(50);
+               running.decrementAndGet();
+               return serverApi(server);
+            }
+         });
+      }
+      replay(api);
+
+      NovaComputeServiceAdapter adapter = adapter(api);
+      adapter.regionListingConcurrency = 1;
+
+      assertEquals(ids(adapter.listNodes()), ImmutableSet.of("region-a/71752", "region-b/71752", "region-c/71752"));
+      assertEquals(maxRunning.get(), 1);
+      verify(api);
+   }
+
+   public void testListNodesByIdsOnlyListsTheirRegions() {
+      NovaApi api = createMock(NovaApi.class);
+      expect(api.getServerApi("region-b")).andReturn(
+            serverApi(server, server.toBuilder().id("71753").build(), server.toBuilder().id("71754").build()));
+      replay(api);
+
+      Set<String> ids = ids(adapter(api).listNodesByIds(ImmutableList.of("region-b/71752", "region-b/71754",
+            "region-z/71752")));
+
+      assertEquals(ids, ImmutableSet.of("region-b/71752", "region-b/71754"));
+      verify(api);
+   }
+
+   @Test(expectedExceptions = IllegalStateException.class, expectedExceptionsMessageRegExp = "region-b is down")
+   public void testListNodesByIdsFailsWithTheirRegion() {
+      NovaApi api = createMock(NovaApi.class);
+      expect(api.getServerApi("region-a")).andReturn(serverApi(server));
+      expect(api.getServerApi("region-b")).andThrow(new IllegalStateException("region-b is down"));
+      replay(api);
+
+      adapter(api).listNodesByIds(ImmutableList.of("region-a/71752", "region-b/71752"));
+   }
+
+   @Test(expectedExceptions = UncheckedTimeoutException.class)
+   public void testListNodesByIdsFailsWhenTheirRegionTimesOut() {
+      final CountDownLatch stuck = new CountDownLatch(1);
+      NovaApi api = createMock(NovaApi.class);
+      expect(api.getServerApi("region-b")).andAnswer(new IAnswer<ServerApi>() {
+         @Override
+         public ServerApi answer() throws Throwable {
+            stuck.await();
+            throw new AssertionError("region-b should have been cancelled");
+         }
+      });
+      replay(api);
+
+      NovaComputeServiceAdapter adapter = adapter(api);
+      adapter.regionListingTimeout = 200;
+      adapter.listNodesByIds(ImmutableList.of("region-b/71752"));
+   }
+
+   private NovaComputeServiceAdapter adapter(NovaApi api) {
+      return new NovaComputeServiceAdapter(api, REGIONS, createMock(RemoveFloatingIpFromNodeAndDeallocate.class),
+            CacheBuilder.newBuilder().build(new CacheLoader<RegionAndName, KeyPair>() {
+               @Override
+               public KeyPair load(RegionAndName key) {
+                  throw new UnsupportedOperationException();
+               }
+            }), userExecutor);
+   }
+
+   private static ServerApi serverApi(Server... servers) {
+      ServerApi serverApi = createMock(ServerApi.class);
+      PagedIterable<Server> page = PagedIterables.onlyPage(IterableWithMarkers.from(ImmutableList.copyOf(servers)));
+      expect(serverApi.listInDetail()).andReturn(page);
+      expectLastCall().anyTimes();
+      replay(serverApi);
+      return serverApi;
+   }
+
+   private static Set<String> ids(Iterable<ServerInRegion> servers) {
+      return ImmutableSet.copyOf(Iterables.transform(servers, new Function<ServerInRegion, String>() {
+         @Override
+         public String apply(ServerInRegion input) {
+            return input.slashEncode();
+         }
+      }));
+   }
+}
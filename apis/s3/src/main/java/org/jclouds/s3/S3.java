@@ -16,8 +16,13 @@
  */
 package org.jclouds.s3;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.List;
+
 import org.jclouds.collect.IterableWithMarker;
 import org.jclouds.collect.IterableWithMarkers;
+import org.jclouds.collect.KeyRanges;
 import org.jclouds.collect.PagedIterable;
 import org.jclouds.collect.PagedIterables;
 import org.jclouds.s3.domain.ListBucketResponse;
@@ -25,6 +30,8 @@ import org.jclouds.s3.domain.ObjectMetadata;
 import org.jclouds.s3.options.ListBucketOptions;
 
 import com.google.common.base.Function;
+import com.google.common.base.Optional;
+import com.google.common.collect.Iterables;
 
 /**
  * Utilities for using S3.
@@ -70,6 +77,64 @@ public class S3 {
             });
    }
 
+   /**
+    * Lists a bucket as ordered shards, which can be listed concurrently, splitting its keys where
+    * {@link KeyRanges#bisect bisecting} them finds some.
+    *
+    * @param shards
+    *           how many shards to split the bucket into at most
+    * @see #listBucketInRanges(S3Client, String, ListBucketOptions, List)
+    */
+   public static List<PagedIterable<ObjectMetadata>> listBucketInRanges(final S3Client s3Client,
+         final String bucket, final ListBucketOptions options, int shards) {
+      List<String> boundaries = KeyRanges.bisect(new Function<String, Optional<String>>() {
+         @Override
+         public Optional<String> apply(String marker) {
+            ListBucketOptions firstKey = options.clone().maxResults(1);
+            if (marker != null)
+               firstKey.afterMarker(marker);
+            ObjectMetadata first = Iterables.getFirst(s3Client.listBucket(bucket, firstKey), null);
+            return first == null ? Optional.<String> absent() : Optional.of(first.getKey());
+         }
+      }, options.getMarker(), KeyRanges.PRINTABLE_ASCII, shards);
+      return listBucketInRanges(s3Client, bucket, options, boundaries);
+   }
+
+   /**
+    * Lists a bucket as ordered shards, split at the given keys, which can be listed concurrently.
+    * Each shard lists after the boundary before it, and stops at the first page which passes its
+    * own. ex.
+    *
+    * <pre>
+    * shards = listBucketInRanges(s3Client, bucket, options, KeyRanges.split(&quot;0123456789abcdef&quot;, 16));
+    * </pre>
+    *
+    * @param options
+    *           the {@link ListBucketOptions} describing the listBucket requests, without a
+    *           delimiter, as ranges are of keys
+    * @param boundaries
+    *           the last key of each shard but the last, in {@link KeyRanges#KEY_ORDER}
+    * @return the shards, which list when iterated
+    */
+   public static List<PagedIterable<ObjectMetadata>> listBucketInRanges(final S3Client s3Client,
+         final String bucket, final ListBucketOptions options, List<String> boundaries) {
+      checkArgument(options.getDelimiter() == null, "cannot list common prefixes in ranges");
+      return KeyRanges.listInRanges(new Function<String, PagedIterable<ObjectMetadata>>() {
+         @Override
+         public PagedIterable<ObjectMetadata> apply(String marker) {
+            return listBucket(s3Client, bucket, marker == null ? options : options.clone().afterMarker(marker));
+         }
+      }, ToKey.INSTANCE, options.getMarker(), boundaries);
+   }
+
+   private enum ToKey implements Function<ObjectMetadata, String> {
+      INSTANCE;
+      @Override
+      public String apply(ObjectMetadata in) {
+         return in.getKey();
+      }
+   }
+
    private enum ToIterableWithMarker implements Function<ListBucketResponse, IterableWithMarker<ObjectMetadata>> {
       INSTANCE;
       @Override
@@ -0,0 +1,356 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.s3.blobstore.strategy.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static org.jclouds.s3.reference.S3Constants.PROPERTY_S3_MPU_BUFFERS;
+import static org.jclouds.s3.reference.S3Constants.PROPERTY_S3_MPU_DIRECT_BUFFERS;
+import static org.jclouds.s3.reference.S3Constants.PROPERTY_S3_MPU_PART_SIZE;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.Resource;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.Constants;
+import org.jclouds.blobstore.KeyNotFoundException;
+import org.jclouds.blobstore.domain.Blob;
+import org.jclouds.blobstore.reference.BlobStoreConstants;
+import org.jclouds.http.HttpUtils;
+import org.jclouds.io.ContentMetadata;
+import org.jclouds.io.Payload;
+import org.jclouds.io.Payloads;
+import org.jclouds.logging.Logger;
+import org.jclouds.s3.S3Client;
+import org.jclouds.s3.blobstore.functions.BlobToObject;
+import org.jclouds.s3.blobstore.strategy.StreamingMultipartUploadStrategy;
+import org.jclouds.s3.domain.ObjectMetadataBuilder;
+import org.jclouds.s3.domain.S3Object;
+import org.jclouds.s3.options.PutObjectOptions;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.ByteSource;
+import com.google.common.io.Closeables;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.inject.Inject;
+
+/**
+ * Reads the payload once, into a ring of part buffers, and uploads each part on the io executor as
+ * soon as its buffer is full. Reading waits for a buffer to be uploaded once all of them are in
+ * use, so memory stays bounded by {@link #buffers} times {@link #partSize}, whatever the size of
+ * the payload. Payloads which fit in one part are put as a single object.
+ * <p/>
+ * Unlike slicing the payload, this neither needs its length nor reads any byte of it twice, so it
+ * suits one-shot payloads such as an {@code InputStream}.
+ * <p/>
+ * Direct buffers are costly to allocate and only freed once collected, so up to {@link #buffers} of
+ * them are kept from one upload to the next. Concurrent uploads each still need a ring of their
+ * own, and direct memory must allow for as many rings as there are concurrent uploads.
+ */
+@Singleton
+public class BufferRingMultipartUploadStrategy implements StreamingMultipartUploadStrategy {
+
+   public static final int MAX_NUMBER_OF_PARTS = 10000;
+
+   @Resource
+   @Named(BlobStoreConstants.BLOBSTORE_LOGGER)
+   protected Logger logger = Logger.NULL;
+
+   @Inject(optional = true)
+   @Named(PROPERTY_S3_MPU_PART_SIZE)
+   @VisibleForTesting
+   int partSize = 32 * 1024 * 1024;
+
+   @Inject(optional = true)
+   @Named(PROPERTY_S3_MPU_BUFFERS)
+   @VisibleForTesting
+   int buffers = 4;
+
+   @Inject(optional = true)
+   @Named(PROPERTY_S3_MPU_DIRECT_BUFFERS)
+   @VisibleForTesting
+   boolean directBuffers = false;
+
+   private final S3Client client;
+   private final BlobToObject blobToObject;
+   private final ListeningExecutorService ioExecutor;
+   @VisibleForTesting
+   final BlockingQueue<ByteBuffer> idle = new LinkedBlockingQueue<ByteBuffer>();
+
+   @Inject
+   public BufferRingMultipartUploadStrategy(S3Client client, BlobToObject blobToObject,
+         @Named(Constants.PROPERTY_IO_WORKER_THREADS) ListeningExecutorService ioExecutor) {
+      this.client = checkNotNull(client, "client");
+      this.blobToObject = checkNotNull(blobToObject, "blobToObject");
+      this.ioExecutor = checkNotNull(ioExecutor, "ioExecutor");
+   }
+
+   @Override
+   public String execute(String container, Blob blob, PutObjectOptions options) {
+      String key = blob.getMetadata().getName();
+      BufferRing ring = new BufferRing();
+      InputStream in = null;
+      try {
+         in = blob.getPayload().openStream();
+         ReadableByteChannel channel = Channels.newChannel(in);
+         ByteBuffer first = ring.take();
+         if (!fill(channel, first)) {
+            S3Object object = blobToObject.apply(blob);
+            object.setPayload(partPayload(first, blob.getPayload().getContentMetadata()));
+            return client.putObject(container, object, options);
+         }
+         String uploadId = client.initiateMultipartUpload(container, objectMetadata(blob).build(), options);
+         try {
+            return client.completeMultipartUpload(container, key, uploadId,
+                  uploadParts(container, key, uploadId, channel, first, ring));
+         } catch (IOException e) {
+            abort(container, key, uploadId, e);
+            throw e;
+         } catch (RuntimeException e) {
+            abort(container, key, uploadId, e);
+            throw e;
+         }
+      } catch (IOException e) {
+         throw Throwables.propagate(e);
+      } finally {
+         Closeables.closeQuietly(in);
+         ring.close();
+      }
+   }
+
+   private void abort(String container, String key, String uploadId, Exception cause) {
+      logger.debug("<< aborting multipart upload %s of %s/%s: %s", uploadId, container, key, cause.getMessage());
+      client.abortMultipartUpload(container, key, uploadId);
+   }
+
+   private SortedMap<Integer, String> uploadParts(String container, String key, String uploadId,
+         ReadableByteChannel channel, ByteBuffer first, BufferRing ring) throws IOException {
+      AtomicReference<RuntimeException> failure = new AtomicReference<RuntimeException>();
+      List<ListenableFuture<String>> parts = Lists.newArrayList();
+      ByteBuffer buffer = first;
+      boolean more = true;
+      for (int part = 1;; part++) {
+         checkState(part <= MAX_NUMBER_OF_PARTS, "%s/%s needs more than %s parts of %s bytes", container, key,
+               MAX_NUMBER_OF_PARTS, partSize);
+         parts.add(uploadPart(container, key, uploadId, part, buffer, ring, failure));
+         if (!more)
+            break;
+         buffer = ring.take();
+         if (failure.get() != null) {
+            ring.release(buffer);
+            break;
+         }
+         more = fill(channel, buffer);
+         if (buffer.position() == 0) {
+            ring.release(buffer);
+            break;
+         }
+      }
+      try {
+         List<String> etags = Futures.allAsList(parts).get();
+         SortedMap<Integer, String> partsToEtags = Maps.newTreeMap();
+         for (int i = 0; i < etags.size(); i++)
+            partsToEtags.put(i + 1, etags.get(i));
+         return partsToEtags;
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw Throwables.propagate(e);
+      } catch (ExecutionException e) {
+         throw Throwables.propagate(e.getCause());
+      }
+   }
+
+   private ListenableFuture<String> uploadPart(final String container, final String key, final String uploadId,
+         final int part, final ByteBuffer buffer, final BufferRing ring,
+         final AtomicReference<RuntimeException> failure) {
+      final Payload payload = partPayload(buffer, null);
+      return ioExecutor.submit(new Callable<String>() {
+         @Override
+         public String call() {
+            try {
+               logger.trace(">> uploading part %s of %s/%s", part, container, key);
+               try {
+                  return client.uploadPart(container, key, part, uploadId, payload);
+               } catch (KeyNotFoundException e) {
+                  // the upload id may not be visible yet
+                  return client.uploadPart(container, key, part, uploadId, payload);
+               }
+            } catch (RuntimeException e) {
+               failure.compareAndSet(null, e);
+               throw e;
+            } finally {
+               ring.release(buffer);
+            }
+         }
+      });
+   }
+
+   /**
+    * Reads until the buffer is full or the stream ends.
+    *
+    * @return whether the buffer is full, in which case the stream may have more to read
+    */
+   private static boolean fill(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+      while (buffer.hasRemaining()) {
+         if (channel.read(buffer) < 0)
+            return false;
+      }
+      return true;
+   }
+
+   private static ObjectMetadataBuilder objectMetadata(Blob blob) {
+      ContentMetadata metadata = blob.getMetadata().getContentMetadata();
+      ObjectMetadataBuilder builder = ObjectMetadataBuilder.create().key(blob.getMetadata().getName())
+            .contentType(metadata.getContentType())
+            .contentDisposition(metadata.getContentDisposition())
+            .contentEncoding(metadata.getContentEncoding());
+      Map<String, String> userMetadata = blob.getMetadata().getUserMetadata();
+      if (userMetadata != null)
+         builder.userMetadata(userMetadata);
+      return builder;
+   }
+
+   /**
+    * Wraps the bytes read into the buffer, which may be read again if the part is retried.
+    */
+   private static Payload partPayload(ByteBuffer buffer, ContentMetadata metadata) {
+      final ByteBuffer content = ((ByteBuffer) buffer.flip()).asReadOnlyBuffer();
+      Payload payload = Payloads.newByteSourcePayload(new ByteSource() {
+         @Override
+         public InputStream openStream() {
+            return new ByteBufferInputStream(content.duplicate());
+         }
+
+         @Override
+         public long size() {
+            return content.remaining();
+         }
+      });
+      if (metadata != null)
+         HttpUtils.copy(metadata, payload.getContentMetadata());
+      payload.getContentMetadata().setContentLength((long) content.remaining());
+      return payload;
+   }
+
+   private ByteBuffer allocate() {
+      ByteBuffer buffer = idle.poll();
+      if (buffer != null)
+         return buffer;
+      return directBuffers ? ByteBuffer.allocateDirect(partSize) : ByteBuffer.allocate(partSize);
+   }
+
+   /**
+    * Keeps a direct buffer for the next upload, unless enough of them already are; heap buffers are
+    * left to the garbage collector.
+    */
+   private synchronized void recycle(ByteBuffer buffer) {
+      if (buffer.isDirect() && idle.size() < buffers)
+         idle.add(buffer);
+   }
+
+   /**
+    * Hands out at most {@link #buffers} buffers, taking them from the idle ones or allocating them
+    * as they are first needed, and then blocks until one is released.
+    */
+   private final class BufferRing {
+      private final BlockingQueue<ByteBuffer> free = new LinkedBlockingQueue<ByteBuffer>();
+      private int allocated;
+      // guarded by this
+      private boolean closed;
+
+      private ByteBuffer take() {
+         ByteBuffer buffer = free.poll();
+         if (buffer != null)
+            return buffer;
+         if (allocated < buffers) {
+            allocated++;
+            return allocate();
+         }
+         try {
+            return free.take();
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Throwables.propagate(e);
+         }
+      }
+
+      private synchronized void release(ByteBuffer buffer) {
+         buffer.clear();
+         if (closed)
+            recycle(buffer);
+         else
+            free.add(buffer);
+      }
+
+      /**
+       * Recycles the released buffers, and those of parts still uploading once they are.
+       */
+      private synchronized void close() {
+         closed = true;
+         for (ByteBuffer buffer = free.poll(); buffer != null; buffer = free.poll())
+            recycle(buffer);
+      }
+   }
+
+   private static final class ByteBufferInputStream extends InputStream {
+      private final ByteBuffer buffer;
+
+      private ByteBufferInputStream(ByteBuffer buffer) {
+         this.buffer = buffer;
+      }
+
+      @Override
+      public int read() {
+         return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) {
+         if (len == 0)
+            return 0;
+         if (!buffer.hasRemaining())
+            return -1;
+         int count = Math.min(len, buffer.remaining());
+         buffer.get(b, off, count);
+         return count;
+      }
+
+      @Override
+      public int available() {
+         return buffer.remaining();
+      }
+   }
+}
@@ -18,6 +18,7 @@ package org.jclouds.s3.config;
 import static org.jclouds.reflect.Reflection2.typeToken;
 
 import java.net.URI;
+import java.util.Date;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
@@ -197,6 +198,16 @@ public class S3RestClientModule<S extends S3Client, A extends S3AsyncClient> ext
       return cache.get();
    }
 
+   @Provides
+   @TimeStamp
+   protected Supplier<Date> provideTimeStampDate() {
+      return new Supplier<Date>() {
+         public Date get() {
+            return new Date();
+         }
+      };
+   }
+
    /**
     * borrowing concurrency code to ensure that caching takes place properly
     */
@@ -19,12 +19,12 @@ package org.jclouds.s3.filters;
 import static com.google.common.base.Charsets.UTF_8;
 import static com.google.common.collect.Iterables.get;
 import static com.google.common.io.BaseEncoding.base64;
-import static com.google.common.io.ByteStreams.readBytes;
 import static org.jclouds.aws.reference.AWSConstants.PROPERTY_AUTH_TAG;
 import static org.jclouds.aws.reference.AWSConstants.PROPERTY_HEADER_TAG;
-import static org.jclouds.crypto.Macs.asByteProcessor;
+import static org.jclouds.crypto.Macs.doFinal;
 import static org.jclouds.http.utils.Queries.queryParser;
 import static org.jclouds.s3.reference.S3Constants.PROPERTY_S3_SERVICE_PATH;
+import static org.jclouds.s3.reference.S3Constants.PROPERTY_S3_SIGNATURE_V4;
 import static org.jclouds.s3.reference.S3Constants.PROPERTY_S3_VIRTUAL_HOST_BUCKETS;
 import static org.jclouds.util.Strings2.toInputStream;
 
@@ -42,6 +42,7 @@ import javax.inject.Singleton;
 import org.jclouds.Constants;
 import org.jclouds.aws.domain.SessionCredentials;
 import org.jclouds.crypto.Crypto;
+import org.jclouds.crypto.StringToSign;
 import org.jclouds.date.TimeStamp;
 import org.jclouds.domain.Credentials;
 import org.jclouds.http.HttpException;
@@ -62,7 +63,6 @@ import com.google.common.collect.Multimap;
 import com.google.common.collect.Ordering;
 import com.google.common.collect.SortedSetMultimap;
 import com.google.common.collect.TreeMultimap;
-import com.google.common.io.ByteProcessor;
 import com.google.common.net.HttpHeaders;
 
 /**
@@ -92,6 +92,13 @@ public class RequestAuthorizeSignature implements HttpRequestFilter, RequestSign
    @Named(Constants.LOGGER_SIGNATURE)
    Logger signatureLog = Logger.NULL;
 
+   @com.google.inject.Inject(optional = true)
+   @Named(PROPERTY_S3_SIGNATURE_V4)
+   boolean signatureV4 = false;
+
+   @Inject
+   Provider<RequestAuthorizeSignatureV4> signatureV4Filter;
+
    private final String authTag;
    private final String headerTag;
    private final String servicePath;
@@ -115,19 +122,25 @@ public class RequestAuthorizeSignature implements HttpRequestFilter, RequestSign
    }
 
    public HttpRequest filter(HttpRequest request) throws HttpException {
-      request = replaceDateHeader(request);
-      Credentials current = creds.get();
-      if (current instanceof SessionCredentials) {
-         request = replaceSecurityTokenHeader(request, SessionCredentials.class.cast(current));
-      }
+      if (signatureV4)
+         return signatureV4Filter.get().filter(request);
+      request = replaceSigningHeaders(request);
       String signature = calculateSignature(createStringToSign(request));
       request = replaceAuthorizationHeader(request, signature);
       utils.logRequest(signatureLog, request, "<<");
       return request;
    }
 
-   HttpRequest replaceSecurityTokenHeader(HttpRequest request, SessionCredentials current) {
-      return request.toBuilder().replaceHeader("x-amz-security-token", current.getSessionToken()).build();
+   /**
+    * Replaces the date and, for session credentials, the security token in one copy of the request.
+    */
+   HttpRequest replaceSigningHeaders(HttpRequest request) {
+      HttpRequest.Builder<?> builder = request.toBuilder().replaceHeader(HttpHeaders.DATE, timeStampProvider.get());
+      Credentials current = creds.get();
+      if (current instanceof SessionCredentials) {
+         builder.replaceHeader("x-amz-security-token", SessionCredentials.class.cast(current).getSessionToken());
+      }
+      return builder.build();
    }
 
    protected HttpRequest replaceAuthorizationHeader(HttpRequest request, String signature) {
@@ -136,15 +149,10 @@ public class RequestAuthorizeSignature implements HttpRequestFilter, RequestSign
       return request;
    }
 
-   HttpRequest replaceDateHeader(HttpRequest request) {
-      request = request.toBuilder().replaceHeader(HttpHeaders.DATE, timeStampProvider.get()).build();
-      return request;
-   }
-
    public String createStringToSign(HttpRequest request) {
       utils.logRequest(signatureLog, request, ">>");
       SortedSetMultimap<String, String> canonicalizedHeaders = TreeMultimap.create();
-      StringBuilder buffer = new StringBuilder();
+      StringBuilder buffer = StringToSign.buffer();
       // re-sign the request
       appendMethod(request, buffer);
       appendPayloadMetadata(request, buffer);
@@ -158,9 +166,10 @@ public class RequestAuthorizeSignature implements HttpRequestFilter, RequestSign
       appendAmzHeaders(canonicalizedHeaders, buffer);
       appendBucketName(request, buffer);
       appendUriPath(request, buffer);
+      String toSign = buffer.toString();
       if (signatureWire.enabled())
-         signatureWire.output(buffer.toString());
-      return buffer.toString();
+         signatureWire.output(toSign);
+      return toSign;
    }
 
    String calculateSignature(String toSign) throws HttpException {
@@ -172,23 +181,23 @@ public class RequestAuthorizeSignature implements HttpRequestFilter, RequestSign
 
    public String sign(String toSign) {
       try {
-         ByteProcessor<byte[]> hmacSHA1 = asByteProcessor(crypto.hmacSHA1(creds.get().credential.getBytes(UTF_8)));
-         return base64().encode(readBytes(toInputStream(toSign), hmacSHA1));
+         return base64().encode(doFinal(crypto.pooledHmacSHA1(creds.get().credential.getBytes(UTF_8)), toSign));
       } catch (Exception e) {
          throw new HttpException("error signing request", e);
       }
    }
 
    void appendMethod(HttpRequest request, StringBuilder toSign) {
-      toSign.append(request.getMethod()).append("\n");
+      toSign.append(request.getMethod()).append('\n');
    }
 
    @VisibleForTesting
    void appendAmzHeaders(SortedSetMultimap<String, String> canonicalizedHeaders, StringBuilder toSign) {
+      String prefix = "x-" + headerTag + "-";
       for (Entry<String, String> header : canonicalizedHeaders.entries()) {
          String key = header.getKey();
-         if (key.startsWith("x-" + headerTag + "-")) {
-            toSign.append(String.format("%s:%s\n", key.toLowerCase(), header.getValue()));
+         if (key.startsWith(prefix)) {
+            StringToSign.appendLowerCase(toSign, key).append(':').append(header.getValue()).append('\n');
          }
       }
    }
@@ -210,13 +219,14 @@ public class RequestAuthorizeSignature implements HttpRequestFilter, RequestSign
    @VisibleForTesting
    void appendHttpHeaders(HttpRequest request, SortedSetMultimap<String, String> canonicalizedHeaders) {
       Multimap<String, String> headers = request.getHeaders();
+      String prefix = "x-" + headerTag + "-";
       for (Entry<String, String> header : headers.entries()) {
          if (header.getKey() == null)
             continue;
          String key = header.getKey().toString().toLowerCase(Locale.getDefault());
          // Ignore any headers that are not particularly interesting.
          if (key.equalsIgnoreCase(HttpHeaders.CONTENT_TYPE) || key.equalsIgnoreCase("Content-MD5")
-                  || key.equalsIgnoreCase(HttpHeaders.DATE) || key.startsWith("x-" + headerTag + "-")) {
+                  || key.equalsIgnoreCase(HttpHeaders.DATE) || key.startsWith(prefix)) {
             canonicalizedHeaders.put(key, header.getValue());
          }
       }
@@ -0,0 +1,466 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.s3.filters;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.io.BaseEncoding.base16;
+import static org.jclouds.crypto.Macs.doFinal;
+import static org.jclouds.io.ByteStreams2.hashAndClose;
+import static org.jclouds.util.Strings2.toInputStream;
+import static org.jclouds.util.Strings2.urlDecode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ExecutionException;
+
+import javax.annotation.Resource;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.Constants;
+import org.jclouds.aws.domain.SessionCredentials;
+import org.jclouds.crypto.Crypto;
+import org.jclouds.crypto.StringToSign;
+import org.jclouds.date.DateService;
+import org.jclouds.date.TimeStamp;
+import org.jclouds.domain.Credentials;
+import org.jclouds.http.HttpException;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpRequestFilter;
+import org.jclouds.http.HttpUtils;
+import org.jclouds.http.internal.SignatureWire;
+import org.jclouds.io.ContentMetadata;
+import org.jclouds.io.MutableContentMetadata;
+import org.jclouds.io.Payload;
+import org.jclouds.logging.Logger;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Splitter;
+import com.google.common.base.Supplier;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.google.common.net.HttpHeaders;
+
+/**
+ * Signs the S3 request with AWS signature version 4.
+ * <p/>
+ * Repeatable payloads are hashed into the signature. A payload which can only be read once is not
+ * read ahead of the request: it is sent with {@code aws-chunked} content encoding instead, each
+ * chunk signed on its way out, chained to the signature of the request. Payloads of unknown length
+ * are sent unsigned.
+ * <p/>
+ * The signing key only changes with the day, so it is derived once per day, region and secret.
+ *
+ * @see <a href="http://docs.aws.amazon.com/AmazonS3/latest/API/sig-v4-authenticating-requests.html" />
+ * @see <a href="http://docs.aws.amazon.com/AmazonS3/latest/API/sigv4-streaming.html" />
+ */
+@Singleton
+public class RequestAuthorizeSignatureV4 implements HttpRequestFilter {
+
+   static final String ALGORITHM = "AWS4-HMAC-SHA256";
+   static final String STREAMING_PAYLOAD = "STREAMING-AWS4-HMAC-SHA256-PAYLOAD";
+   static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+   static final String EMPTY_PAYLOAD_HASH = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+   static final String DEFAULT_REGION = "us-east-1";
+   private static final String SERVICE = "s3";
+   private static final String TERMINATOR = "aws4_request";
+   private static final String CHUNK_SIGNATURE = ";chunk-signature=";
+
+   @VisibleForTesting
+   int chunkSize = 64 * 1024;
+
+   private final SignatureWire signatureWire;
+   private final Supplier<Credentials> creds;
+   private final Supplier<Date> timeStampProvider;
+   private final DateService dateService;
+   private final Crypto crypto;
+   private final HttpUtils utils;
+   private final LoadingCache<List<String>, byte[]> signingKeys;
+
+   @Resource
+   @Named(Constants.LOGGER_SIGNATURE)
+   Logger signatureLog = Logger.NULL;
+
+   @Inject
+   public RequestAuthorizeSignatureV4(SignatureWire signatureWire,
+            @org.jclouds.location.Provider Supplier<Credentials> creds, @TimeStamp Supplier<Date> timeStampProvider,
+            DateService dateService, Crypto crypto, HttpUtils utils) {
+      this.signatureWire = signatureWire;
+      this.creds = creds;
+      this.timeStampProvider = timeStampProvider;
+      this.dateService = dateService;
+      this.crypto = crypto;
+      this.utils = utils;
+      this.signingKeys = CacheBuilder.newBuilder().maximumSize(16).build(new CacheLoader<List<String>, byte[]>() {
+         @Override
+         public byte[] load(List<String> scope) throws InvalidKeyException {
+            return deriveSigningKey(scope.get(0), scope.get(1), scope.get(2), scope.get(3));
+         }
+      });
+   }
+
+   public HttpRequest filter(HttpRequest request) throws HttpException {
+      Map<String, String> query = canonicalQuery(request);
+      if (query.containsKey("X-Amz-Signature") || query.containsKey("Signature"))
+         return request;
+      Credentials current = creds.get();
+      String timestamp = amzDate(timeStampProvider.get());
+      String date = timestamp.substring(0, 8);
+      String host = request.getFirstHeaderOrNull(HttpHeaders.HOST) != null ? request
+               .getFirstHeaderOrNull(HttpHeaders.HOST) : request.getEndpoint().getHost();
+      String region = region(host);
+      String scope = date + "/" + region + "/" + SERVICE + "/" + TERMINATOR;
+
+      Payload payload = request.getPayload();
+      String payloadHash;
+      ChunkedPayload chunked = null;
+      if (payload == null) {
+         payloadHash = EMPTY_PAYLOAD_HASH;
+      } else if (payload.isRepeatable()) {
+         payloadHash = hash(payload);
+      } else if (payload.getContentMetadata().getContentLength() != null) {
+         payloadHash = STREAMING_PAYLOAD;
+         chunked = new ChunkedPayload(payload, timestamp, scope);
+      } else {
+         payloadHash = UNSIGNED_PAYLOAD;
+      }
+
+      HttpRequest.Builder<?> builder = request.toBuilder()
+               .removeHeader(HttpHeaders.DATE)
+               .removeHeader(HttpHeaders.AUTHORIZATION)
+               .replaceHeader("x-amz-date", timestamp)
+               .replaceHeader("x-amz-content-sha256", payloadHash);
+      if (current instanceof SessionCredentials)
+         builder.replaceHeader("x-amz-security-token", SessionCredentials.class.cast(current).getSessionToken());
+      if (chunked != null)
+         builder.replaceHeader("x-amz-decoded-content-length",
+                  String.valueOf(payload.getContentMetadata().getContentLength())).payload(chunked);
+      request = builder.build();
+
+      SortedMap<String, String> headers = canonicalHeaders(request, host);
+      String signedHeaders = signedHeaders(headers.keySet());
+      StringBuilder canonicalRequest = StringToSign.buffer();
+      canonicalRequest.append(request.getMethod()).append('\n');
+      String path = request.getEndpoint().getRawPath();
+      canonicalRequest.append(path == null || path.isEmpty() ? "/" : path).append('\n');
+      appendQuery(query, canonicalRequest);
+      for (Map.Entry<String, String> header : headers.entrySet())
+         canonicalRequest.append(header.getKey()).append(':').append(header.getValue()).append('\n');
+      canonicalRequest.append('\n').append(signedHeaders).append('\n').append(payloadHash);
+      String canonical = canonicalRequest.toString();
+      utils.logRequest(signatureLog, request, ">>");
+      if (signatureWire.enabled())
+         signatureWire.output(canonical);
+
+      String toSign = ALGORITHM + "\n" + timestamp + "\n" + scope + "\n" + hex(sha256(canonical));
+      byte[] signingKey = signingKey(current.credential, date, region);
+      String signature = hex(hmac(signingKey, toSign));
+      if (signatureWire.enabled())
+         signatureWire.input(toInputStream(signature));
+      if (chunked != null)
+         chunked.seed(signingKey, signature);
+
+      request = request.toBuilder().replaceHeader(HttpHeaders.AUTHORIZATION,
+               ALGORITHM + " Credential=" + current.identity + "/" + scope + ",SignedHeaders=" + signedHeaders
+                        + ",Signature=" + signature).build();
+      utils.logRequest(signatureLog, request, "<<");
+      return request;
+   }
+
+   /**
+    * Signs the host, the {@code x-amz-} headers and any other header already set on the request;
+    * the payload headers are left to the payload, except for the ones of a chunked payload.
+    */
+   private SortedMap<String, String> canonicalHeaders(HttpRequest request, String host) {
+      SortedMap<String, String> headers = Maps.newTreeMap();
+      for (Map.Entry<String, String> header : request.getHeaders().entries()) {
+         String key = header.getKey().toLowerCase(Locale.US);
+         if (key.equals("authorization"))
+            continue;
+         String value = header.getValue().trim().replaceAll(" +", " ");
+         String existing = headers.get(key);
+         headers.put(key, existing == null ? value : existing + "," + value);
+      }
+      headers.put("host", host);
+      if (request.getPayload() instanceof ChunkedPayload) {
+         ContentMetadata metadata = request.getPayload().getContentMetadata();
+         headers.put("content-encoding", metadata.getContentEncoding());
+         headers.put("content-length", String.valueOf(metadata.getContentLength()));
+      }
+      return headers;
+   }
+
+   private static String signedHeaders(Iterable<String> names) {
+      StringBuilder buffer = new StringBuilder();
+      for (String name : names) {
+         if (buffer.length() > 0)
+            buffer.append(';');
+         buffer.append(name);
+      }
+      return buffer.toString();
+   }
+
+   private static Map<String, String> canonicalQuery(HttpRequest request) {
+      SortedMap<String, String> params = Maps.newTreeMap();
+      String query = request.getEndpoint().getRawQuery();
+      if (query == null)
+         return params;
+      for (String param : Splitter.on('&').omitEmptyStrings().split(query)) {
+         int eq = param.indexOf('=');
+         String name = urlDecode(eq < 0 ? param : param.substring(0, eq));
+         params.put(name, eq < 0 ? "" : urlDecode(param.substring(eq + 1)));
+      }
+      return params;
+   }
+
+   private static void appendQuery(Map<String, String> query, StringBuilder buffer) {
+      boolean first = true;
+      for (Map.Entry<String, String> param : query.entrySet()) {
+         if (!first)
+            buffer.append('&');
+         buffer.append(encode(param.getKey())).append('=').append(encode(param.getValue()));
+         first = false;
+      }
+      buffer.append('\n');
+   }
+
+   /**
+    * Percent-encodes all but the unreserved characters of RFC 3986, as signature version 4 requires.
+    */
+   @VisibleForTesting
+   static String encode(String in) {
+      StringBuilder out = new StringBuilder(in.length());
+      for (byte b : in.getBytes(UTF_8)) {
+         char c = (char) (b & 0xff);
+         if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_'
+                  || c == '.' || c == '~')
+            out.append(c);
+         else
+            out.append('%').append(base16().encode(new byte[] { b }));
+      }
+      return out.toString();
+   }
+
+   /**
+    * Finds the region in the AWS S3 endpoints {@code s3-<region>.amazonaws.com} and
+    * {@code s3.<region>.amazonaws.com}, with or without a bucket in front. Only the labels just
+    * before {@code amazonaws} are read, as bucket names may look like endpoints too. Other hosts,
+    * including {@code s3.amazonaws.com} and S3 clones, are taken to be in {@value #DEFAULT_REGION}.
+    */
+   @VisibleForTesting
+   static String region(String host) {
+      List<String> labels = Splitter.on('.').splitToList(host.toLowerCase(Locale.US));
+      int amazonaws = labels.lastIndexOf("amazonaws");
+      if (amazonaws < 1)
+         return DEFAULT_REGION;
+      String label = labels.get(amazonaws - 1);
+      if (label.startsWith("s3-") && !label.equals("s3-external-1"))
+         return label.substring(3);
+      if (!label.equals("s3") && amazonaws >= 2 && labels.get(amazonaws - 2).equals("s3"))
+         return label;
+      return DEFAULT_REGION;
+   }
+
+   private String amzDate(Date date) {
+      // 2013-05-24T00:00:00Z -> 20130524T000000Z
+      return dateService.iso8601SecondsDateFormat(date).replace("-", "").replace(":", "");
+   }
+
+   @VisibleForTesting
+   byte[] signingKey(String secret, String date, String region) {
+      try {
+         return signingKeys.get(ImmutableList.of(secret, date, region, SERVICE));
+      } catch (ExecutionException e) {
+         throw new HttpException("error deriving signing key", e.getCause());
+      }
+   }
+
+   private byte[] deriveSigningKey(String secret, String date, String region, String service)
+            throws InvalidKeyException {
+      byte[] key = crypto.hmacSHA256(("AWS4" + secret).getBytes(UTF_8)).doFinal(date.getBytes(UTF_8));
+      key = crypto.hmacSHA256(key).doFinal(region.getBytes(UTF_8));
+      key = crypto.hmacSHA256(key).doFinal(service.getBytes(UTF_8));
+      return crypto.hmacSHA256(key).doFinal(TERMINATOR.getBytes(UTF_8));
+   }
+
+   private byte[] hmac(byte[] key, String toSign) {
+      try {
+         return doFinal(crypto.pooledHmacSHA256(key), toSign);
+      } catch (InvalidKeyException e) {
+         throw new HttpException("error signing request", e);
+      }
+   }
+
+   private static String hash(Payload payload) {
+      try {
+         return hashAndClose(payload.openStream(), Hashing.sha256()).toString();
+      } catch (IOException e) {
+         throw new HttpException("error hashing payload", e);
+      }
+   }
+
+   private static byte[] sha256(String in) {
+      return Hashing.sha256().hashString(in, UTF_8).asBytes();
+   }
+
+   private static String hex(byte[] bytes) {
+      return base16().lowerCase().encode(bytes);
+   }
+
+   /**
+    * The length of {@code length} bytes of payload once sent in chunks of {@code chunkSize}, each
+    * framed as {@code hex-size;chunk-signature=signature\r\ndata\r\n}, and ended by an empty chunk.
+    */
+   @VisibleForTesting
+   static long encodedLength(long length, int chunkSize) {
+      long fullChunks = length / chunkSize;
+      long rest = length % chunkSize;
+      return fullChunks * frameLength(chunkSize) + (rest > 0 ? frameLength(rest) : 0) + frameLength(0);
+   }
+
+   private static long frameLength(long dataLength) {
+      return Long.toHexString(dataLength).length() + CHUNK_SIGNATURE.length() + 64 + 2 + dataLength + 2;
+   }
+
+   /**
+    * The payload of a request signed with {@value RequestAuthorizeSignatureV4#STREAMING_PAYLOAD},
+    * which signs each chunk of the original payload as it is read.
+    */
+   private final class ChunkedPayload extends org.jclouds.io.payloads.BasePayload<Payload> {
+      private final String timestamp;
+      private final String scope;
+      private byte[] signingKey;
+      private String seedSignature;
+
+      private ChunkedPayload(Payload payload, String timestamp, String scope) {
+         super(payload);
+         this.timestamp = timestamp;
+         this.scope = scope;
+         MutableContentMetadata metadata = getContentMetadata();
+         HttpUtils.copy(payload.getContentMetadata(), metadata);
+         String encoding = payload.getContentMetadata().getContentEncoding();
+         metadata.setContentEncoding(encoding == null ? "aws-chunked" : "aws-chunked," + encoding);
+         metadata.setContentLength(encodedLength(payload.getContentMetadata().getContentLength(), chunkSize));
+      }
+
+      private void seed(byte[] signingKey, String seedSignature) {
+         this.signingKey = signingKey;
+         this.seedSignature = seedSignature;
+      }
+
+      @Override
+      public InputStream openStream() throws IOException {
+         return new ChunkSigningInputStream(content.openStream(), signingKey, seedSignature, timestamp, scope);
+      }
+
+      @Override
+      public boolean isRepeatable() {
+         return false;
+      }
+
+      @Override
+      public void release() {
+         content.release();
+      }
+   }
+
+   private final class ChunkSigningInputStream extends InputStream {
+      private final InputStream in;
+      private final byte[] signingKey;
+      private final String stringToSignPrefix;
+      private final byte[] data = new byte[chunkSize];
+      private final MessageDigest sha256;
+      private String previousSignature;
+      private byte[] frame = new byte[0];
+      private int position;
+      private boolean ended;
+
+      private ChunkSigningInputStream(InputStream in, byte[] signingKey, String seedSignature, String timestamp,
+               String scope) {
+         this.in = checkNotNull(in, "in");
+         this.signingKey = checkNotNull(signingKey, "signingKey");
+         this.previousSignature = seedSignature;
+         this.stringToSignPrefix = ALGORITHM + "-PAYLOAD\n" + timestamp + "\n" + scope + "\n";
+         try {
+            this.sha256 = MessageDigest.getInstance("SHA-256");
+         } catch (NoSuchAlgorithmException e) {
+            throw Throwables.propagate(e);
+         }
+      }
+
+      @Override
+      public int read() throws IOException {
+         if (!fill())
+            return -1;
+         return frame[position++] & 0xff;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+         if (len == 0)
+            return 0;
+         if (!fill())
+            return -1;
+         int count = Math.min(len, frame.length - position);
+         System.arraycopy(frame, position, b, off, count);
+         position += count;
+         return count;
+      }
+
+      private boolean fill() throws IOException {
+         if (position < frame.length)
+            return true;
+         if (ended)
+            return false;
+         int length = ByteStreams.read(in, data, 0, chunkSize);
+         sha256.update(data, 0, length);
+         String toSign = stringToSignPrefix + previousSignature + "\n" + EMPTY_PAYLOAD_HASH + "\n"
+                  + hex(sha256.digest());
+         previousSignature = hex(hmac(signingKey, toSign));
+         byte[] header = (Integer.toHexString(length) + CHUNK_SIGNATURE + previousSignature + "\r\n").getBytes(UTF_8);
+         frame = new byte[header.length + length + 2];
+         System.arraycopy(header, 0, frame, 0, header.length);
+         System.arraycopy(data, 0, frame, header.length, length);
+         frame[frame.length - 2] = '\r';
+         frame[frame.length - 1] = '\n';
+         position = 0;
+         ended = length == 0;
+         return true;
+      }
+
+      @Override
+      public void close() throws IOException {
+         in.close();
+      }
+   }
+}
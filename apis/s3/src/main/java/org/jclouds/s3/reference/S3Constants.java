@@ -31,6 +31,25 @@ public final class S3Constants {
    public static final String DELIMITER = "delimiter";
    public static final String PROPERTY_S3_SERVICE_PATH = "jclouds.s3.service-path";
    public static final String PROPERTY_S3_VIRTUAL_HOST_BUCKETS = "jclouds.s3.virtual-host-buckets";
+   /**
+    * Whether requests are signed with AWS signature version 4 rather than version 2. Presigned
+    * requests are still signed with version 2.
+    */
+   public static final String PROPERTY_S3_SIGNATURE_V4 = "jclouds.s3.signature-v4";
+   /**
+    * Size in bytes of the parts of a streaming multipart upload, 32MB by default. All but the last
+    * part must be at least 5MB.
+    */
+   public static final String PROPERTY_S3_MPU_PART_SIZE = "jclouds.s3.mpu.part-size";
+   /**
+    * Number of part buffers of a streaming multipart upload, 4 by default, which bounds both its
+    * memory and the number of parts it uploads at once.
+    */
+   public static final String PROPERTY_S3_MPU_BUFFERS = "jclouds.s3.mpu.buffers";
+   /**
+    * Whether the part buffers of a streaming multipart upload are allocated outside of the heap.
+    */
+   public static final String PROPERTY_S3_MPU_DIRECT_BUFFERS = "jclouds.s3.mpu.direct-buffers";
 
    private S3Constants() {
       throw new AssertionError("intentionally unimplemented");
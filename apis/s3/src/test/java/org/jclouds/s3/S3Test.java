@@ -18,17 +18,27 @@ package org.jclouds.s3;
 
 import static org.easymock.EasyMock.createMock;
 import static org.easymock.EasyMock.expect;
+import static org.jclouds.s3.options.ListBucketOptions.Builder.afterMarker;
 import static org.testng.Assert.assertEquals;
 
+import java.net.URI;
+import java.util.List;
+
 import org.easymock.EasyMock;
 import org.jclouds.collect.PagedIterable;
 import org.jclouds.s3.domain.ListBucketResponse;
+import org.jclouds.s3.domain.MutableObjectMetadata;
 import org.jclouds.s3.domain.ObjectMetadata;
 import org.jclouds.s3.domain.internal.ListBucketResponseImpl;
+import org.jclouds.s3.domain.internal.MutableObjectMetadataImpl;
 import org.jclouds.s3.options.ListBucketOptions;
 import org.jclouds.s3.xml.ListBucketHandlerTest;
 import org.testng.annotations.Test;
 
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
 /**
  * Tests behavior of {@code S3}.
  */
@@ -86,4 +96,47 @@ public class S3Test {
       assertEquals(result.concat().size(), 20);
    }
 
+   /**
+    * Tests {@link S3#listBucketInRanges(S3Client, String, ListBucketOptions, java.util.List)}
+    * where the first shard stops at the page which passes its boundary.
+    */
+   @Test
+   public void testShardsStopAtTheirBoundaries() {
+      S3Client api = createMock(S3Client.class);
+      ListBucketOptions options = new ListBucketOptions();
+
+      expect(api.listBucket("bucket", options)).andReturn(response(null, "n", "a", "k", "n")).once();
+      expect(api.listBucket("bucket", afterMarker("m"))).andReturn(response("m", null, "n", "z")).once();
+
+      EasyMock.replay(api);
+
+      List<PagedIterable<ObjectMetadata>> shards = S3.listBucketInRanges(api, "bucket", options,
+            ImmutableList.of("m"));
+
+      assertEquals(shards.size(), 2);
+      assertEquals(shards.get(0).concat().transform(ToKey.INSTANCE).toList(), ImmutableList.of("a", "k"));
+      assertEquals(shards.get(1).concat().transform(ToKey.INSTANCE).toList(), ImmutableList.of("n", "z"));
+
+      EasyMock.verify(api);
+   }
+
+   private static ListBucketResponse response(String marker, String nextMarker, String... keys) {
+      ImmutableList.Builder<ObjectMetadata> contents = ImmutableList.builder();
+      for (String key : keys) {
+         MutableObjectMetadata object = new MutableObjectMetadataImpl();
+         object.setKey(key);
+         object.setUri(URI.create("https://bucket.s3.amazonaws.com/" + key));
+         contents.add(object);
+      }
+      return new ListBucketResponseImpl("bucket", contents.build(), null, marker, nextMarker, 1000, null,
+            nextMarker != null, ImmutableSet.<String> of());
+   }
+
+   private enum ToKey implements Function<ObjectMetadata, String> {
+      INSTANCE;
+      @Override
+      public String apply(ObjectMetadata in) {
+         return in.getKey();
+      }
+   }
 }
@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.s3.blobstore.strategy.internal;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static org.easymock.EasyMock.anyInt;
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.EasyMock.getCurrentArguments;
+import static org.easymock.EasyMock.isA;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+
+import org.easymock.IAnswer;
+import org.jclouds.ContextBuilder;
+import org.jclouds.blobstore.domain.Blob;
+import org.jclouds.blobstore.domain.internal.BlobBuilderImpl;
+import org.jclouds.http.HttpResponseException;
+import org.jclouds.io.Payload;
+import org.jclouds.io.Payloads;
+import org.jclouds.s3.S3Client;
+import org.jclouds.s3.blobstore.functions.BlobToObject;
+import org.jclouds.s3.domain.ObjectMetadata;
+import org.jclouds.s3.domain.S3Object;
+import org.jclouds.s3.options.PutObjectOptions;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+
+@Test(groups = "unit", testName = "BufferRingMultipartUploadStrategyTest")
+public class BufferRingMultipartUploadStrategyTest {
+
+   private ListeningExecutorService executor;
+   private BlobToObject blobToObject;
+
+   @BeforeClass
+   void setup() {
+      executor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(3));
+      blobToObject = ContextBuilder.newBuilder("s3").credentials("identity", "credential").buildInjector()
+            .getInstance(BlobToObject.class);
+   }
+
+   @AfterClass(alwaysRun = true)
+   void shutdown() {
+      executor.shutdownNow();
+   }
+
+   public void testReadsAnInputStreamOfUnknownLengthOnceIntoParts() {
+      S3Client client = createMock(S3Client.class);
+      ConcurrentMap<Integer, String> uploaded = Maps.newConcurrentMap();
+      expect(client.initiateMultipartUpload(eq("container"), isA(ObjectMetadata.class),
+            isA(PutObjectOptions.class))).andReturn("upload-id");
+      expect(client.uploadPart(eq("container"), eq("foo"), eq(1), eq("upload-id"), isA(Payload.class)))
+            .andAnswer(recordPart(uploaded));
+      expect(client.uploadPart(eq("container"), eq("foo"), eq(2), eq("upload-id"), isA(Payload.class)))
+            .andAnswer(recordPart(uploaded));
+      expect(client.uploadPart(eq("container"), eq("foo"), eq(3), eq("upload-id"), isA(Payload.class)))
+            .andAnswer(recordPart(uploaded));
+      expect(client.completeMultipartUpload("container", "foo", "upload-id",
+            ImmutableMap.of(1, "etag-1", 2, "etag-2", 3, "etag-3"))).andReturn("fff");
+      replay(client);
+
+      BufferRingMultipartUploadStrategy strategy = new BufferRingMultipartUploadStrategy(client, blobToObject,
+            executor);
+      strategy.partSize = 6;
+      strategy.buffers = 2;
+
+      assertEquals(strategy.execute("container", blob("0123456789abcdef"), new PutObjectOptions()), "fff");
+      assertEquals(uploaded, ImmutableMap.of(1, "012345", 2, "6789ab", 3, "cdef"));
+      verify(client);
+   }
+
+   public void testDirectBuffers() {
+      S3Client client = createMock(S3Client.class);
+      ConcurrentMap<Integer, String> uploaded = Maps.newConcurrentMap();
+      expect(client.initiateMultipartUpload(eq("container"), isA(ObjectMetadata.class),
+            isA(PutObjectOptions.class))).andReturn("upload-id");
+      expect(client.uploadPart(eq("container"), eq("foo"), eq(1), eq("upload-id"), isA(Payload.class)))
+            .andAnswer(recordPart(uploaded));
+      expect(client.uploadPart(eq("container"), eq("foo"), eq(2), eq("upload-id"), isA(Payload.class)))
+            .andAnswer(recordPart(uploaded));
+      expect(client.completeMultipartUpload("container", "foo", "upload-id",
+            ImmutableMap.of(1, "etag-1", 2, "etag-2"))).andReturn("fff");
+      replay(client);
+
+      BufferRingMultipartUploadStrategy strategy = new BufferRingMultipartUploadStrategy(client, blobToObject,
+            MoreExecutors.sameThreadExecutor());
+      strategy.partSize = 8;
+      strategy.buffers = 1;
+      strategy.directBuffers = true;
+
+      assertEquals(strategy.execute("container", blob("0123456789abcdef"), new PutObjectOptions()), "fff");
+      assertEquals(uploaded, ImmutableMap.of(1, "01234567", 2, "89abcdef"));
+      verify(client);
+   }
+
+   public void testDirectBuffersAreKeptForTheNextUpload() {
+      S3Client client = createMock(S3Client.class);
+      expect(client.initiateMultipartUpload(eq("container"), isA(ObjectMetadata.class),
+            isA(PutObjectOptions.class))).andReturn("upload-id").times(2);
+      expect(client.uploadPart(eq("container"), eq("foo"), anyInt(), eq("upload-id"), isA(Payload.class)))
+            .andReturn("etag").times(6);
+      expect(client.completeMultipartUpload(eq("container"), eq("foo"), eq("upload-id"),
+            anyObject(Map.class))).andReturn("fff").times(2);
+      replay(client);
+
+      BufferRingMultipartUploadStrategy strategy = new BufferRingMultipartUploadStrategy(client, blobToObject,
+            executor);
+      strategy.partSize = 6;
+      strategy.buffers = 2;
+      strategy.directBuffers = true;
+
+      strategy.execute("container", blob("0123456789abcdef"), new PutObjectOptions());
+      Set<ByteBuffer> kept = Sets.newIdentityHashSet();
+      kept.addAll(strategy.idle);
+      assertEquals(kept.size(), 2);
+
+      strategy.execute("container", blob("0123456789abcdef"), new PutObjectOptions());
+      Set<ByteBuffer> reused = Sets.newIdentityHashSet();
+      reused.addAll(strategy.idle);
+      assertEquals(reused, kept);
+      verify(client);
+   }
+
+   public void testPayloadWhichFitsInOnePartIsPutAsOneObject() {
+      S3Client client = createMock(S3Client.class);
+      expect(client.putObject(eq("container"), isA(S3Object.class), isA(PutObjectOptions.class))).andAnswer(
+            new IAnswer<String>() {
+               @Override
+               public String answer() throws Throwable {
+                  S3Object object = (S3Object) getCurrentArguments()[1];
+                  assertEquals(object.getMetadata().getKey(), "foo");
+                  assertEquals(object.getPayload().getContentMetadata().getContentLength(), Long.valueOf(5));
+                  assertEquals(read(object.getPayload()), "01234");
+                  return "etag";
+               }
+            });
+      replay(client);
+
+      BufferRingMultipartUploadStrategy strategy = new BufferRingMultipartUploadStrategy(client, blobToObject,
+            executor);
+      strategy.partSize = 6;
+
+      assertEquals(strategy.execute("container", blob("01234"), new PutObjectOptions()), "etag");
+      verify(client);
+   }
+
+   public void testAbortsWhenAPartFails() {
+      S3Client client = createMock(S3Client.class);
+      HttpResponseException failure = new HttpResponseException("bad part", null, null);
+      expect(client.initiateMultipartUpload(eq("container"), isA(ObjectMetadata.class),
+            isA(PutObjectOptions.class))).andReturn("upload-id");
+      expect(client.uploadPart(eq("container"), eq("foo"), eq(1), eq("upload-id"), isA(Payload.class)))
+            .andThrow(failure);
+      expect(client.uploadPart(eq("container"), eq("foo"), eq(2), eq("upload-id"), anyObject(Payload.class)))
+            .andReturn("etag-2").anyTimes();
+      client.abortMultipartUpload("container", "foo", "upload-id");
+      expectLastCall();
+      replay(client);
+
+      BufferRingMultipartUploadStrategy strategy = new BufferRingMultipartUploadStrategy(client, blobToObject,
+            MoreExecutors.sameThreadExecutor());
+      strategy.partSize = 6;
+
+      try {
+         strategy.execute("container", blob("0123456789abcdef"), new PutObjectOptions());
+         fail("expected the failure of the part");
+      } catch (HttpResponseException e) {
+         assertEquals(e, failure);
+      }
+      verify(client);
+   }
+
+   private static Blob blob(String content) {
+      Payload payload = Payloads.newInputStreamPayload(new ByteArrayInputStream(content.getBytes(UTF_8)));
+      return new BlobBuilderImpl().name("foo").payload(payload).build();
+   }
+
+   private static IAnswer<String> recordPart(final Map<Integer, String> uploaded) {
+      return new IAnswer<String>() {
+         @Override
+         public String answer() throws Throwable {
+            Integer part = (Integer) getCurrentArguments()[2];
+            uploaded.put(part, read((Payload) getCurrentArguments()[4]));
+            return "etag-" + part;
+         }
+      };
+   }
+
+   private static String read(Payload payload) throws IOException {
+      return new String(ByteStreams.toByteArray(payload.openStream()), UTF_8);
+   }
+}
@@ -17,14 +17,18 @@
 package org.jclouds.s3.internal;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.io.BaseEncoding.base16;
 import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static com.google.common.util.concurrent.Futures.transform;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Date;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -35,6 +39,7 @@ import javax.inject.Singleton;
 import org.jclouds.Constants;
 import org.jclouds.aws.domain.Region;
 import org.jclouds.blobstore.AsyncBlobStore;
+import org.jclouds.blobstore.ContainerNotFoundException;
 import org.jclouds.blobstore.KeyNotFoundException;
 import org.jclouds.blobstore.LocalAsyncBlobStore;
 import org.jclouds.blobstore.domain.Blob;
@@ -47,7 +52,9 @@ import org.jclouds.date.DateService;
 import org.jclouds.domain.Location;
 import org.jclouds.domain.LocationBuilder;
 import org.jclouds.domain.LocationScope;
+import org.jclouds.http.HttpUtils;
 import org.jclouds.http.options.GetOptions;
+import org.jclouds.io.Payload;
 import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.lifecycle.Closer;
 import org.jclouds.s3.S3AsyncClient;
@@ -68,14 +75,20 @@ import org.jclouds.s3.domain.ListBucketResponse;
 import org.jclouds.s3.domain.ObjectMetadata;
 import org.jclouds.s3.domain.Payer;
 import org.jclouds.s3.domain.S3Object;
+import org.jclouds.s3.domain.internal.MutableObjectMetadataImpl;
 import org.jclouds.s3.options.CopyObjectOptions;
 import org.jclouds.s3.options.ListBucketOptions;
 import org.jclouds.s3.options.PutBucketOptions;
 import org.jclouds.s3.options.PutObjectOptions;
+import org.jclouds.util.Closeables2;
 
 import com.google.common.base.Function;
+import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 
@@ -330,6 +343,99 @@ public class StubS3AsyncClient implements S3AsyncClient {
       return immediateFuture(null);
    }
 
+   /**
+    * A multipart upload in progress. Its parts are kept in memory until it is completed or aborted.
+    */
+   private static final class Upload {
+      private final String bucketName;
+      private final ObjectMetadata metadata;
+      private final PutObjectOptions[] options;
+      private final ConcurrentMap<Integer, byte[]> parts = new ConcurrentHashMap<Integer, byte[]>();
+
+      private Upload(String bucketName, ObjectMetadata metadata, PutObjectOptions[] options) {
+         this.bucketName = bucketName;
+         this.metadata = metadata;
+         this.options = options;
+      }
+   }
+
+   private final ConcurrentMap<String, Upload> uploads = new ConcurrentHashMap<String, Upload>();
+
+   @Override
+   public ListenableFuture<String> initiateMultipartUpload(String bucketName, ObjectMetadata objectMetadata,
+            PutObjectOptions... options) {
+      if (!containerToBlobs.containsKey(bucketName))
+         return immediateFailedFuture(new ContainerNotFoundException(bucketName, "initiating multipart upload"));
+      String uploadId = UUID.randomUUID().toString();
+      uploads.put(uploadId, new Upload(bucketName, objectMetadata, options));
+      return immediateFuture(uploadId);
+   }
+
+   @Override
+   public ListenableFuture<Void> abortMultipartUpload(String bucketName, String key, String uploadId) {
+      if (getUpload(bucketName, key, uploadId) != null)
+         uploads.remove(uploadId);
+      return immediateFuture(null);
+   }
+
+   @Override
+   public ListenableFuture<String> uploadPart(String bucketName, String key, int partNumber, String uploadId,
+            Payload part) {
+      Upload upload = getUpload(bucketName, key, uploadId);
+      if (upload == null)
+         return immediateFailedFuture(LocalAsyncBlobStore.returnResponseException(404));
+      byte[] bytes;
+      try {
+         InputStream in = part.openStream();
+         try {
+            bytes = ByteStreams.toByteArray(in);
+         } finally {
+            Closeables2.closeQuietly(in);
+         }
+      } catch (IOException e) {
+         return immediateFailedFuture(e);
+      }
+      upload.parts.put(partNumber, bytes);
+      return immediateFuture(eTag(bytes));
+   }
+
+   /**
+    * Puts the listed parts, in order of part number, as the object of the upload.
+    */
+   @Override
+   public ListenableFuture<String> completeMultipartUpload(String bucketName, String key, String uploadId,
+            Map<Integer, String> parts) {
+      Upload upload = getUpload(bucketName, key, uploadId);
+      if (upload == null)
+         return immediateFailedFuture(LocalAsyncBlobStore.returnResponseException(404));
+      ByteArrayOutputStream content = new ByteArrayOutputStream();
+      for (Map.Entry<Integer, String> entry : ImmutableSortedMap.copyOf(parts).entrySet()) {
+         byte[] part = upload.parts.get(entry.getKey());
+         if (part == null || !eTag(part).equals(entry.getValue().replace("\"", "")))
+            return immediateFailedFuture(LocalAsyncBlobStore.returnResponseException(400));
+         content.write(part, 0, part.length);
+      }
+      uploads.remove(uploadId);
+      S3Object object = objectProvider.create(new MutableObjectMetadataImpl(upload.metadata));
+      object.setPayload(content.toByteArray());
+      HttpUtils.copy(upload.metadata.getContentMetadata(), object.getPayload().getContentMetadata());
+      object.getPayload().getContentMetadata().setContentLength((long) content.size());
+      object.getPayload().getContentMetadata().setContentMD5((HashCode) null);
+      return putObject(bucketName, object, upload.options);
+   }
+
+   @Nullable
+   private Upload getUpload(String bucketName, String key, String uploadId) {
+      Upload upload = uploads.get(uploadId);
+      if (upload == null || !upload.bucketName.equals(bucketName) || !upload.metadata.getKey().equals(key))
+         return null;
+      return upload;
+   }
+
+   private static String eTag(byte[] bytes) {
+      return base16().lowerCase().encode(Hashing.md5().hashBytes(bytes).asBytes());
+   }
+
    @Override
    public ListenableFuture<Boolean> objectExists(String bucketName, String key) {
       return immediateFuture(containerToBlobs.get(bucketName).containsKey(key));
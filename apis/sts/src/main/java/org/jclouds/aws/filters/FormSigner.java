@@ -21,7 +21,6 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.Ordering.natural;
 import static com.google.common.io.BaseEncoding.base64;
-import static com.google.common.io.ByteStreams.readBytes;
 import static org.jclouds.aws.reference.FormParameters.ACTION;
 import static org.jclouds.aws.reference.FormParameters.AWS_ACCESS_KEY_ID;
 import static org.jclouds.aws.reference.FormParameters.SECURITY_TOKEN;
@@ -30,7 +29,7 @@ import static org.jclouds.aws.reference.FormParameters.SIGNATURE_METHOD;
 import static org.jclouds.aws.reference.FormParameters.SIGNATURE_VERSION;
 import static org.jclouds.aws.reference.FormParameters.TIMESTAMP;
 import static org.jclouds.aws.reference.FormParameters.VERSION;
-import static org.jclouds.crypto.Macs.asByteProcessor;
+import static org.jclouds.crypto.Macs.doFinal;
 import static org.jclouds.http.utils.Queries.encodeQueryLine;
 import static org.jclouds.http.utils.Queries.queryParser;
 import static org.jclouds.util.Strings2.toInputStream;
@@ -47,6 +46,7 @@ import javax.inject.Singleton;
 import org.jclouds.Constants;
 import org.jclouds.aws.domain.SessionCredentials;
 import org.jclouds.crypto.Crypto;
+import org.jclouds.crypto.StringToSign;
 import org.jclouds.date.TimeStamp;
 import org.jclouds.domain.Credentials;
 import org.jclouds.http.HttpException;
@@ -64,7 +64,6 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.TreeMultimap;
-import com.google.common.io.ByteProcessor;
 import com.google.common.net.HttpHeaders;
 
 /**
@@ -164,8 +163,7 @@ public class FormSigner implements HttpRequestFilter, RequestSigner {
    public String sign(String toSign) {
       String signature;
       try {
-         ByteProcessor<byte[]> hmacSHA256 = asByteProcessor(crypto.hmacSHA256(creds.get().credential.getBytes(UTF_8)));
-         signature = base64().encode(readBytes(toInputStream(toSign), hmacSHA256));
+         signature = base64().encode(doFinal(crypto.pooledHmacSHA256(creds.get().credential.getBytes(UTF_8)), toSign));
          if (signatureWire.enabled())
             signatureWire.input(toInputStream(signature));
       } catch (Exception e) {
@@ -177,18 +175,19 @@ public class FormSigner implements HttpRequestFilter, RequestSigner {
    @VisibleForTesting
    public String createStringToSign(HttpRequest request, Multimap<String, String> decodedParams) {
       utils.logRequest(signatureLog, request, ">>");
-      StringBuilder stringToSign = new StringBuilder();
+      StringBuilder stringToSign = StringToSign.buffer();
       // StringToSign = HTTPVerb + "\n" +
-      stringToSign.append(request.getMethod()).append("\n");
+      stringToSign.append(request.getMethod()).append('\n');
       // ValueOfHostHeaderInLowercase + "\n" +
-      stringToSign.append(request.getFirstHeaderOrNull(HttpHeaders.HOST).toLowerCase()).append("\n");
+      StringToSign.appendLowerCase(stringToSign, request.getFirstHeaderOrNull(HttpHeaders.HOST)).append('\n');
       // HTTPRequestURI + "\n" +
-      stringToSign.append(request.getEndpoint().getPath()).append("\n");
+      stringToSign.append(request.getEndpoint().getPath()).append('\n');
       // CanonicalizedFormString <from the preceding step>
       stringToSign.append(buildCanonicalizedString(decodedParams));
+      String toSign = stringToSign.toString();
       if (signatureWire.enabled())
-         signatureWire.output(stringToSign.toString());
-      return stringToSign.toString();
+         signatureWire.output(toSign);
+      return toSign;
    }
 
    @VisibleForTesting
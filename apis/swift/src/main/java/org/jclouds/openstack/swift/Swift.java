@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.openstack.swift;
+
+import java.util.List;
+
+import org.jclouds.blobstore.domain.PageSet;
+import org.jclouds.collect.IterableWithMarker;
+import org.jclouds.collect.IterableWithMarkers;
+import org.jclouds.collect.KeyRanges;
+import org.jclouds.collect.PagedIterable;
+import org.jclouds.collect.PagedIterables;
+import org.jclouds.openstack.swift.domain.ObjectInfo;
+import org.jclouds.openstack.swift.options.ListContainerOptions;
+
+import com.google.common.base.Function;
+import com.google.common.base.Optional;
+import com.google.common.collect.Iterables;
+
+/**
+ * Utilities for using Swift.
+ */
+public class Swift {
+
+   /**
+    * List all objects in a container, in a way that manages pagination, based on the criteria in
+    * the {@link ListContainerOptions} passed in.
+    *
+    * @see PagedIterable
+    */
+   public static PagedIterable<ObjectInfo> listObjects(final CommonSwiftClient swiftClient, final String container,
+         final ListContainerOptions options) {
+      return PagedIterables.advance(ToIterableWithMarker.INSTANCE.apply(swiftClient.listObjects(container, options)),
+            new Function<Object, IterableWithMarker<ObjectInfo>>() {
+
+               @Override
+               public IterableWithMarker<ObjectInfo> apply(Object input) {
+                  return ToIterableWithMarker.INSTANCE.apply(swiftClient.listObjects(container,
+                        options.clone().afterMarker(input.toString())));
+               }
+
+               @Override
+               public String toString() {
+                  return "listObjects(" + options + ")";
+               }
+            });
+   }
+
+   /**
+    * Lists a container as ordered shards, which can be listed concurrently, splitting its objects
+    * where {@link KeyRanges#bisect bisecting} their names finds some.
+    *
+    * @param shards
+    *           how many shards to split the container into at most
+    * @see #listObjectsInRanges(CommonSwiftClient, String, ListContainerOptions, List)
+    */
+   public static List<PagedIterable<ObjectInfo>> listObjectsInRanges(final CommonSwiftClient swiftClient,
+         final String container, final ListContainerOptions options, int shards) {
+      List<String> boundaries = KeyRanges.bisect(new Function<String, Optional<String>>() {
+         @Override
+         public Optional<String> apply(String marker) {
+            ListContainerOptions firstName = options.clone().maxResults(1);
+            if (marker != null)
+               firstName.afterMarker(marker);
+            ObjectInfo first = Iterables.getFirst(swiftClient.listObjects(container, firstName), null);
+            return first == null ? Optional.<String> absent() : Optional.of(first.getName());
+         }
+      }, options.getMarker(), KeyRanges.PRINTABLE_ASCII, shards);
+      return listObjectsInRanges(swiftClient, container, options, boundaries);
+   }
+
+   /**
+    * Lists a container as ordered shards, split at the given names, which can be listed
+    * concurrently. Each shard lists after the boundary before it, and stops at the first page
+    * which passes its own.
+    *
+    * @param boundaries
+    *           the last name of each shard but the last, in {@link KeyRanges#KEY_ORDER}
+    * @return the shards, which list when iterated
+    */
+   public static List<PagedIterable<ObjectInfo>> listObjectsInRanges(final CommonSwiftClient swiftClient,
+         final String container, final ListContainerOptions options, List<String> boundaries) {
+      return KeyRanges.listInRanges(new Function<String, PagedIterable<ObjectInfo>>() {
+         @Override
+         public PagedIterable<ObjectInfo> apply(String marker) {
+            return listObjects(swiftClient, container, marker == null ? options : options.clone().afterMarker(marker));
+         }
+      }, ToName.INSTANCE, options.getMarker(), boundaries);
+   }
+
+   private enum ToName implements Function<ObjectInfo, String> {
+      INSTANCE;
+      @Override
+      public String apply(ObjectInfo in) {
+         return in.getName();
+      }
+   }
+
+   private enum ToIterableWithMarker implements Function<PageSet<ObjectInfo>, IterableWithMarker<ObjectInfo>> {
+      INSTANCE;
+      @Override
+      public IterableWithMarker<ObjectInfo> apply(PageSet<ObjectInfo> in) {
+         return IterableWithMarkers.from(in, in.getNextMarker());
+      }
+   }
+
+}
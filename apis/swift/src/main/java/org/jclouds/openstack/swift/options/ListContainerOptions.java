@@ -21,6 +21,8 @@ import static com.google.common.base.Preconditions.checkState;
 
 import org.jclouds.http.options.BaseHttpRequestOptions;
 
+import com.google.common.collect.ImmutableSet;
+
 /**
  * Contains options supported in the REST API for the GET container operation. <h2>
  */
@@ -34,7 +36,7 @@ public class ListContainerOptions extends BaseHttpRequestOptions {
     * the marker.
     */
    public ListContainerOptions afterMarker(String marker) {
-      queryParameters.put("marker", checkNotNull(marker, "marker"));
+      queryParameters.replaceValues("marker", ImmutableSet.of(checkNotNull(marker, "marker")));
       return this;
    }
 
@@ -49,7 +51,7 @@ public class ListContainerOptions extends BaseHttpRequestOptions {
    public ListContainerOptions maxResults(int limit) {
       checkState(limit >= 0, "limit must be >= 0");
       checkState(limit <= 10000, "limit must be <= 10000");
-      queryParameters.put("limit", Integer.toString(limit));
+      queryParameters.replaceValues("limit", ImmutableSet.of(Integer.toString(limit)));
       return this;
    }
 
@@ -129,4 +131,11 @@ public class ListContainerOptions extends BaseHttpRequestOptions {
       }
 
    }
+
+   @Override
+   public ListContainerOptions clone() {
+      ListContainerOptions newOptions = new ListContainerOptions();
+      newOptions.queryParameters.putAll(queryParameters);
+      return newOptions;
+   }
 }
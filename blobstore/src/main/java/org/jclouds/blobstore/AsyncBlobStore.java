@@ -16,6 +16,7 @@
  */
 package org.jclouds.blobstore;
 
+import java.io.File;
 import java.util.Set;
 
 import org.jclouds.blobstore.domain.Blob;
@@ -157,6 +158,16 @@ public interface AsyncBlobStore {
     */
    ListenableFuture<Void> removeBlob(String container, String key);
 
+   /**
+    * @see BlobStore#removeBlobs
+    */
+   ListenableFuture<Void> removeBlobs(String container, Iterable<String> names);
+
+   /**
+    * @see BlobStore#downloadBlob
+    */
+   ListenableFuture<Void> downloadBlob(String container, String key, File destination);
+
    /**
     * @see BlobStore#countBlobs(String)
     */
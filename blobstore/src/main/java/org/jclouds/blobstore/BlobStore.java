@@ -16,6 +16,7 @@
  */
 package org.jclouds.blobstore;
 
+import java.io.File;
 import java.util.Set;
 
 import org.jclouds.blobstore.domain.Blob;
@@ -276,6 +277,37 @@ public interface BlobStore {
     */
    void removeBlob(String container, String name);
 
+   /**
+    * Deletes the {@code Blob}s at locations {@code container/name}, in as few requests as the
+    * provider allows. Providers without a bulk delete remove them one at a time.
+    * 
+    * @param container
+    *           container where these exist.
+    * @param names
+    *           fully qualified names relative to the container.
+    * @throws ContainerNotFoundException
+    *            if the container doesn't exist
+    */
+   void removeBlobs(String container, Iterable<String> names);
+
+   /**
+    * Downloads a {@code Blob} representing the data at location {@code container/name} into a
+    * file, getting byte ranges of it in parallel where the blob store supports them.
+    * 
+    * @param container
+    *           container where this exists.
+    * @param name
+    *           fully qualified name relative to the container.
+    * @param destination
+    *           file to write the blob to, replacing any existing content; it is deleted if the
+    *           download fails.
+    * @throws KeyNotFoundException
+    *            if the blob doesn't exist
+    * @throws ContainerNotFoundException
+    *            if the container doesn't exist
+    */
+   void downloadBlob(String container, String name, File destination);
+
    /**
     * @return a count of all blobs in the container, excluding directory markers
     */
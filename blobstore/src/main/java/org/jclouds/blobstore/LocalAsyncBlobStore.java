@@ -17,10 +17,8 @@
 package org.jclouds.blobstore;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Throwables.getCausalChain;
 import static com.google.common.collect.Iterables.filter;
-import static com.google.common.collect.Iterables.find;
 import static com.google.common.collect.Iterables.size;
 import static com.google.common.collect.Iterables.transform;
 import static com.google.common.collect.Sets.filter;
@@ -28,9 +26,9 @@ import static com.google.common.collect.Sets.newTreeSet;
 import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.regex.Pattern;
@@ -50,7 +48,6 @@ import org.jclouds.blobstore.domain.StorageMetadata;
 import org.jclouds.blobstore.domain.StorageType;
 import org.jclouds.blobstore.domain.internal.MutableStorageMetadataImpl;
 import org.jclouds.blobstore.domain.internal.PageSetImpl;
-import org.jclouds.blobstore.domain.internal.StorageMetadataImpl;
 import org.jclouds.blobstore.internal.BaseAsyncBlobStore;
 import org.jclouds.blobstore.options.CreateContainerOptions;
 import org.jclouds.blobstore.options.GetOptions;
@@ -66,18 +63,20 @@ import org.jclouds.http.HttpRequest;
 import org.jclouds.http.HttpResponse;
 import org.jclouds.http.HttpResponseException;
 import org.jclouds.http.HttpUtils;
-import org.jclouds.io.ByteStreams2;
 import org.jclouds.io.ContentMetadata;
 import org.jclouds.io.ContentMetadataCodec;
 import org.jclouds.io.Payload;
+import org.jclouds.io.Payloads;
+import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.logging.Logger;
 
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 import com.google.common.base.Supplier;
 import com.google.common.base.Throwables;
-import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import com.google.common.io.ByteSource;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
@@ -126,83 +125,58 @@ public class LocalAsyncBlobStore extends BaseAsyncBlobStore {
       if (!storageStrategy.containerExists(container))
          return immediateFailedFuture(cnfe(container));
 
-      // Loading blobs from container
-      Iterable<String> blobBelongingToContainer = null;
+      final String prefix = options != null ? options.getDir() : null;
+
+      // Streaming blob metadata from container, in name order
+      Iterable<StorageMetadata> blobBelongingToContainer = null;
       try {
-         blobBelongingToContainer = storageStrategy.getBlobKeysInsideContainer(container);
+         blobBelongingToContainer = storageStrategy.getBlobMetadataInsideContainer(container, prefix,
+               options != null ? options.getMarker() : null);
       } catch (IOException e) {
          logger.error(e, "An error occurred loading blobs contained into container %s", container);
          Throwables.propagate(e);
       }
 
-      SortedSet<StorageMetadata> contents = newTreeSet(transform(blobBelongingToContainer,
-            new Function<String, StorageMetadata>() {
-               public StorageMetadata apply(String key) {
-                  if (!storageStrategy.blobExists(container, key)) {
-                     // handle directory
-                     return new StorageMetadataImpl(StorageType.FOLDER, /*id=*/ null, key,
-                           /*location=*/ null, /*uri=*/ null, /*eTag=*/ null, /*creationDate=*/ null,
-                           /*lastModified=*/ null, ImmutableMap.<String, String>of());
-                  }
-                  Blob oldBlob = loadBlob(container, key);
-                  checkState(oldBlob != null, "blob " + key + " is not present although it was in the list of "
-                        + container);
-                  checkState(oldBlob.getMetadata() != null, "blob " + container + "/" + key + " has no metadata");
-                  MutableBlobMetadata md = BlobStoreUtils.copy(oldBlob.getMetadata());
-                  String directoryName = ifDirectoryReturnName.execute(md);
-                  if (directoryName != null) {
-                     md.setName(directoryName);
-                     md.setType(StorageType.RELATIVE_PATH);
+      if (prefix != null) {
+         blobBelongingToContainer = filter(blobBelongingToContainer, new Predicate<StorageMetadata>() {
+            public boolean apply(StorageMetadata o) {
+               return o != null && !o.getName().equals(prefix);
+            }
+         });
+      }
+
+      Iterable<StorageMetadata> metadata = transform(blobBelongingToContainer,
+            new Function<StorageMetadata, StorageMetadata>() {
+               public StorageMetadata apply(StorageMetadata md) {
+                  if (md instanceof MutableBlobMetadata) {
+                     String directoryName = ifDirectoryReturnName.execute((MutableBlobMetadata) md);
+                     if (directoryName != null) {
+                        MutableBlobMetadata.class.cast(md).setName(directoryName);
+                        MutableBlobMetadata.class.cast(md).setType(StorageType.RELATIVE_PATH);
+                     }
                   }
                   return md;
                }
-            }));
-
-      String marker = null;
-      if (options != null) {
-         if (options.getMarker() != null) {
-            final String finalMarker = options.getMarker();
-            StorageMetadata lastMarkerMetadata = find(contents, new Predicate<StorageMetadata>() {
-               public boolean apply(StorageMetadata metadata) {
-                  return metadata.getName().compareTo(finalMarker) > 0;
-               }
             });
-            contents = contents.tailSet(lastMarkerMetadata);
-         }
-
-         final String prefix = options.getDir();
-         if (prefix != null) {
-            contents = newTreeSet(filter(contents, new Predicate<StorageMetadata>() {
-               public boolean apply(StorageMetadata o) {
-                  return o != null && o.getName().startsWith(prefix) && !o.getName().equals(prefix);
-               }
-            }));
-         }
 
+      SortedSet<StorageMetadata> contents = newTreeSet();
+      String marker = null;
+      if (options == null) {
+         Iterables.addAll(contents, metadata);
+      } else {
          int maxResults = options.getMaxResults() != null ? options.getMaxResults() : 1000;
-         if (!contents.isEmpty()) {
-            StorageMetadata lastElement = contents.last();
-            contents = newTreeSet(Iterables.limit(contents, maxResults));
-            if (!contents.contains(lastElement)) {
+         // only the page and the entries telling whether it is the last one are loaded
+         Iterator<StorageMetadata> iterator = metadata.iterator();
+         if (options.isRecursive()) {
+            for (int i = 0; i < maxResults && iterator.hasNext(); i++) {
+               contents.add(iterator.next());
+            }
+            if (iterator.hasNext() && !contents.isEmpty()) {
                // Partial listing
                marker = contents.last().getName();
             }
-         }
-
-         if (!options.isRecursive()) {
-            String delimiter = storageStrategy.getSeparator();
-            SortedSet<String> commonPrefixes = newTreeSet(
-                   transform(contents, new CommonPrefixes(prefix, delimiter)));
-            commonPrefixes.remove(CommonPrefixes.NO_PREFIX);
-
-            contents = newTreeSet(filter(contents, new DelimiterFilter(prefix, delimiter)));
-
-            for (String o : commonPrefixes) {
-               MutableStorageMetadata md = new MutableStorageMetadataImpl();
-               md.setType(StorageType.RELATIVE_PATH);
-               md.setName(o);
-               contents.add(md);
-            }
+         } else {
+            marker = listDelimited(iterator, prefix, options.getMarker(), maxResults, contents);
          }
 
          // trim metadata, if the response isn't supposed to be detailed.
@@ -218,6 +192,50 @@ public class LocalAsyncBlobStore extends BaseAsyncBlobStore {
 
    }
 
+   /**
+    * Adds the next {@code maxResults} entries of a listing to {@code contents}, folding the keys
+    * below each common prefix into one entry as it counts them.
+    * 
+    * @return the marker of the next page, which is the common prefix itself when the page ends
+    *         with one, so that the next page starts past its keys; or null when this is the last
+    */
+   private String listDelimited(Iterator<StorageMetadata> iterator, @Nullable String prefix, @Nullable String after,
+         int maxResults, SortedSet<StorageMetadata> contents) {
+      String delimiter = storageStrategy.getSeparator();
+      DelimiterFilter inDirectory = new DelimiterFilter(prefix, delimiter);
+      CommonPrefixes commonPrefixes = new CommonPrefixes(prefix, delimiter);
+      String directory = prefix == null ? "" : prefix.endsWith(delimiter) ? prefix : prefix + delimiter;
+      // a marker ending with the delimiter is a common prefix returned by the last page
+      String skipped = after != null && after.endsWith(delimiter) ? after : null;
+      String marker = null;
+      int count = 0;
+      while (iterator.hasNext()) {
+         StorageMetadata md = iterator.next();
+         if (skipped != null && md.getName().startsWith(skipped))
+            continue;
+         String commonPrefix = null;
+         if (!inDirectory.apply(md)) {
+            commonPrefix = commonPrefixes.apply(md);
+            if (CommonPrefixes.NO_PREFIX.equals(commonPrefix))
+               continue;
+         }
+         if (count == maxResults)
+            return marker;
+         if (commonPrefix == null) {
+            contents.add(md);
+            marker = md.getName();
+         } else {
+            MutableStorageMetadata folder = new MutableStorageMetadataImpl();
+            folder.setType(StorageType.RELATIVE_PATH);
+            folder.setName(commonPrefix);
+            contents.add(folder);
+            marker = skipped = directory + commonPrefix + delimiter;
+         }
+         count++;
+      }
+      return null;
+   }
+
    private ContainerNotFoundException cnfe(final String name) {
       return new ContainerNotFoundException(name, String.format(
             "container %s not in %s", name,
@@ -335,7 +353,7 @@ public class LocalAsyncBlobStore extends BaseAsyncBlobStore {
          if (prefix == null)
             return metadata.getName().indexOf(delimiter) == -1;
          // ensure we don't accidentally append twice
-         String toMatch = prefix.endsWith("/") ? prefix : prefix + delimiter;
+         String toMatch = prefix.endsWith(delimiter) ? prefix : prefix + delimiter;
          if (metadata.getName().startsWith(toMatch)) {
             String unprefixedName = metadata.getName().replaceFirst(Pattern.quote(toMatch), "");
             if (unprefixedName.equals("")) {
@@ -362,7 +380,7 @@ public class LocalAsyncBlobStore extends BaseAsyncBlobStore {
          String working = metadata.getName();
          if (prefix != null) {
             // ensure we don't accidentally append twice
-            String toMatch = prefix.endsWith("/") ? prefix : prefix + delimiter;
+            String toMatch = prefix.endsWith(delimiter) ? prefix : prefix + delimiter;
             if (working.startsWith(toMatch)) {
                working = working.replaceFirst(Pattern.quote(toMatch), "");
             }
@@ -471,26 +489,28 @@ public class LocalAsyncBlobStore extends BaseAsyncBlobStore {
          blob = copyBlob(blob);
 
          if (options.getRanges() != null && !options.getRanges().isEmpty()) {
-            byte[] data;
+            // only the requested ranges are read, and only when the payload is
+            long size;
             try {
-               data = ByteStreams2.toByteArrayAndClose(blob.getPayload().openStream());
+               size = storageStrategy.getBlobRange(containerName, key, 0, Long.MAX_VALUE).size();
             } catch (IOException e) {
                return immediateFailedFuture(new RuntimeException(e));
             }
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImmutableList.Builder<ByteSource> slices = ImmutableList.builder();
+            long length = 0;
             for (String s : options.getRanges()) {
-               // HTTP uses a closed interval while Java array indexing uses a
-               // half-open interval.
-               int offset = 0;
-               int last = data.length - 1;
+               // HTTP uses a closed interval while slices are an offset and
+               // a length.
+               long offset = 0;
+               long last = size - 1;
                if (s.startsWith("-")) {
-                  offset = last - Integer.parseInt(s.substring(1)) + 1;
+                  offset = Math.max(0, last - Long.parseLong(s.substring(1)) + 1);
                } else if (s.endsWith("-")) {
-                  offset = Integer.parseInt(s.substring(0, s.length() - 1));
+                  offset = Long.parseLong(s.substring(0, s.length() - 1));
                } else if (s.contains("-")) {
                   String[] firstLast = s.split("\\-");
-                  offset = Integer.parseInt(firstLast[0]);
-                  last = Integer.parseInt(firstLast[1]);
+                  offset = Long.parseLong(firstLast[0]);
+                  last = Long.parseLong(firstLast[1]);
                } else {
                   return immediateFailedFuture(new IllegalArgumentException("illegal range: " + s));
                }
@@ -498,16 +518,19 @@ public class LocalAsyncBlobStore extends BaseAsyncBlobStore {
                if (offset > last) {
                   return immediateFailedFuture(new IllegalArgumentException("illegal range: " + s));
                }
-               if (last + 1 > data.length) {
-                  last = data.length - 1;
+               if (last + 1 > size) {
+                  last = size - 1;
+               }
+               // a range past the end of the blob has no bytes
+               if (offset <= last) {
+                  slices.add(storageStrategy.getBlobRange(containerName, key, offset, last - offset + 1));
+                  length += last - offset + 1;
                }
-               out.write(data, offset, last - offset + 1);
             }
             ContentMetadata cmd = blob.getPayload().getContentMetadata();
-            byte[] byteArray = out.toByteArray();
-            blob.setPayload(byteArray);
+            blob.setPayload(Payloads.newByteSourcePayload(ByteSource.concat(slices.build())));
             HttpUtils.copy(cmd, blob.getPayload().getContentMetadata());
-            blob.getPayload().getContentMetadata().setContentLength(Long.valueOf(byteArray.length));
+            blob.getPayload().getContentMetadata().setContentLength(length);
          }
       }
       checkNotNull(blob.getPayload(), "payload " + blob);
@@ -19,8 +19,12 @@ package org.jclouds.blobstore;
 import java.io.IOException;
 
 import org.jclouds.blobstore.domain.Blob;
+import org.jclouds.blobstore.domain.StorageMetadata;
 import org.jclouds.blobstore.options.ListContainerOptions;
 import org.jclouds.domain.Location;
+import org.jclouds.javax.annotation.Nullable;
+
+import com.google.common.io.ByteSource;
 
 /**
  * Strategy for local operations related to container and blob
@@ -88,6 +92,23 @@ public interface LocalStorageStrategy {
      */
     Iterable<String> getBlobKeysInsideContainer(String container) throws IOException;
 
+    /**
+     * Returns the metadata of the blobs and directories inside a container, in
+     * lexicographic order of their names. Metadata is loaded lazily while
+     * iterating and payloads are never opened, so callers only pay for the
+     * entries they consume.
+     *
+     * @param container
+     * @param prefix
+     *           if not null, only entries whose name starts with it are returned
+     * @param marker
+     *           if not null, only entries whose name sorts after it are returned
+     * @return
+     * @throws IOException
+     */
+    Iterable<StorageMetadata> getBlobMetadataInsideContainer(String container, @Nullable String prefix,
+          @Nullable String marker) throws IOException;
+
     /**
      * Load the blob with the given key belonging to the container with the given
      * name. There must exist a resource on the file system whose complete name
@@ -102,6 +123,22 @@ public interface LocalStorageStrategy {
      */
     Blob getBlob(String containerName, String blobName);
 
+    /**
+     * Returns a view of at most {@code length} bytes of the payload of a blob,
+     * starting at {@code offset}. Only those bytes are read from storage, and
+     * only when the view is read.
+     *
+     * @param containerName
+     *           it's the name of the container the blob belongs to
+     * @param blobName
+     *           it's the key of the blob
+     * @param offset
+     *           the first byte of the range
+     * @param length
+     *           the number of bytes in the range
+     */
+    ByteSource getBlobRange(String containerName, String blobName, long offset, long length);
+
     /**
      * Write a {@link Blob} into a file
      * @param container
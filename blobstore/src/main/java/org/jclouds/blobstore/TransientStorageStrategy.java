@@ -17,19 +17,25 @@
 package org.jclouds.blobstore;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.io.BaseEncoding.base16;
 import static org.jclouds.http.Uris.uriBuilder;
 
 import java.io.IOException;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 import javax.inject.Inject;
 
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.Blob.Factory;
+import org.jclouds.blobstore.domain.StorageMetadata;
 import org.jclouds.blobstore.options.ListContainerOptions;
 import org.jclouds.blobstore.util.BlobStoreUtils;
 import org.jclouds.date.DateService;
@@ -39,9 +45,12 @@ import org.jclouds.io.ContentMetadataCodec;
 import org.jclouds.io.MutableContentMetadata;
 import org.jclouds.io.Payload;
 import org.jclouds.io.Payloads;
+import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.util.Closeables2;
 
 import com.google.common.base.Supplier;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Multimaps;
 import com.google.common.hash.HashCode;
@@ -52,7 +61,7 @@ import com.google.common.io.ByteStreams;
 import com.google.common.net.HttpHeaders;
 
 public class TransientStorageStrategy implements LocalStorageStrategy {
-   private final ConcurrentMap<String, ConcurrentMap<String, Blob>> containerToBlobs = new ConcurrentHashMap<String, ConcurrentMap<String, Blob>>();
+   private final ConcurrentMap<String, ConcurrentNavigableMap<String, Blob>> containerToBlobs = new ConcurrentHashMap<String, ConcurrentNavigableMap<String, Blob>>();
    private final ConcurrentMap<String, Location> containerToLocation = new ConcurrentHashMap<String, Location>();
    private final Supplier<Location> defaultLocation;
    private final DateService dateService;
@@ -80,8 +89,8 @@ public class TransientStorageStrategy implements LocalStorageStrategy {
 
    @Override
    public boolean createContainerInLocation(final String containerName, final Location location) {
-      ConcurrentMap<String, Blob> origValue = containerToBlobs.putIfAbsent(
-            containerName, new ConcurrentHashMap<String, Blob>());
+      ConcurrentNavigableMap<String, Blob> origValue = containerToBlobs.putIfAbsent(
+            containerName, new ConcurrentSkipListMap<String, Blob>());
       if (origValue != null) {
          return false;
       }
@@ -116,12 +125,54 @@ public class TransientStorageStrategy implements LocalStorageStrategy {
       return containerToBlobs.get(containerName).keySet();
    }
 
+   @Override
+   public Iterable<StorageMetadata> getBlobMetadataInsideContainer(final String containerName,
+         @Nullable final String prefix, @Nullable final String marker) {
+      NavigableMap<String, Blob> blobs = containerToBlobs.get(containerName);
+      if (marker != null && (prefix == null || marker.compareTo(prefix) >= 0)) {
+         blobs = blobs.tailMap(marker, false);
+      } else if (prefix != null) {
+         blobs = blobs.tailMap(prefix, true);
+      }
+      final Iterable<Blob> sortedBlobs = blobs.values();
+      return new FluentIterable<StorageMetadata>() {
+         @Override
+         public Iterator<StorageMetadata> iterator() {
+            final Iterator<Blob> iterator = sortedBlobs.iterator();
+            return new AbstractIterator<StorageMetadata>() {
+               @Override
+               protected StorageMetadata computeNext() {
+                  if (!iterator.hasNext()) {
+                     return endOfData();
+                  }
+                  Blob blob = iterator.next();
+                  // names sharing the prefix are contiguous, so the first mismatch ends the listing
+                  if (prefix != null && !blob.getMetadata().getName().startsWith(prefix)) {
+                     return endOfData();
+                  }
+                  return BlobStoreUtils.copy(blob.getMetadata());
+               }
+            };
+         }
+      };
+   }
+
    @Override
    public Blob getBlob(final String containerName, final String blobName) {
       Map<String, Blob> map = containerToBlobs.get(containerName);
       return map == null ? null : map.get(blobName);
    }
 
+   /**
+    * Slices the array a blob is stored in, without copying it.
+    */
+   @Override
+   public ByteSource getBlobRange(final String containerName, final String blobName, long offset, long length) {
+      Blob blob = getBlob(containerName, blobName);
+      checkState(blob != null, "blob %s/%s does not exist", containerName, blobName);
+      return ((ByteSource) blob.getPayload().getRawContent()).slice(offset, length);
+   }
+
    @Override
    public String putBlob(final String containerName, final Blob blob) throws IOException {
       byte[] payload;
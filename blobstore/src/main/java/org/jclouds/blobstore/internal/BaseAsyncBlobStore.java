@@ -21,6 +21,8 @@ import static com.google.common.base.Preconditions.checkState;
 import static org.jclouds.blobstore.options.ListContainerOptions.Builder.recursive;
 import static org.jclouds.util.Predicates2.retry;
 
+import java.io.File;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
 
@@ -40,8 +42,10 @@ import org.jclouds.blobstore.util.BlobUtils;
 import org.jclouds.collect.Memoized;
 import org.jclouds.domain.Location;
 
+import com.google.common.base.Functions;
 import com.google.common.base.Predicate;
 import com.google.common.base.Supplier;
+import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
@@ -162,6 +166,46 @@ public abstract class BaseAsyncBlobStore implements AsyncBlobStore {
       });
    }
 
+   /**
+    * This implementation invokes {@link #removeBlob} for each name, and completes when all of them
+    * have.
+    * 
+    * @param container
+    *           container name
+    */
+   @Override
+   public ListenableFuture<Void> removeBlobs(String container, Iterable<String> names) {
+      List<ListenableFuture<Void>> removals = Lists.newArrayList();
+      for (String name : names) {
+         removals.add(removeBlob(container, name));
+      }
+      return Futures.transform(Futures.allAsList(removals), Functions.<Void> constant(null));
+   }
+
+   /**
+    * This implementation invokes {@link BlobUtilsImpl#downloadBlob}
+    * 
+    * @param container
+    *           container name
+    * @param key
+    *           blob key
+    */
+   @Override
+   public ListenableFuture<Void> downloadBlob(final String container, final String key, final File destination) {
+      return userExecutor.submit(new Callable<Void>() {
+
+         public Void call() throws Exception {
+            blobUtils.downloadBlob(container, key, destination);
+            return null;
+         }
+
+         @Override
+         public String toString() {
+            return "downloadBlob(" + container + "," + key + ")";
+         }
+      });
+   }
+
    /**
     * This implementation invokes {@link BlobUtilsImpl#deleteDirectory}.
     * 
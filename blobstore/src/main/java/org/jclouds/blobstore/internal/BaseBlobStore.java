@@ -21,6 +21,7 @@ import static com.google.common.base.Preconditions.checkState;
 import static org.jclouds.blobstore.options.ListContainerOptions.Builder.recursive;
 import static org.jclouds.util.Predicates2.retry;
 
+import java.io.File;
 import java.util.Set;
 
 import javax.inject.Inject;
@@ -164,6 +165,32 @@ public abstract class BaseBlobStore implements BlobStore {
       blobUtils.deleteDirectory(containerName, directory);
    }
 
+   /**
+    * This implementation invokes {@link #removeBlob} for each name.
+    * 
+    * @param container
+    *           container name
+    */
+   @Override
+   public void removeBlobs(String container, Iterable<String> names) {
+      for (String name : names) {
+         removeBlob(container, name);
+      }
+   }
+
+   /**
+    * This implementation invokes {@link BlobUtilsImpl#downloadBlob}.
+    * 
+    * @param container
+    *           container name
+    * @param key
+    *           blob key
+    */
+   @Override
+   public void downloadBlob(String container, String key, File destination) {
+      blobUtils.downloadBlob(container, key, destination);
+   }
+
    /**
     * This implementation invokes
     * {@link #getBlob(String,String,org.jclouds.blobstore.options.GetOptions)}
@@ -53,6 +53,39 @@ public final class BlobStoreConstants {
     */
    public static final String PROPERTY_USER_METADATA_PREFIX = "jclouds.blobstore.metaprefix";
 
+   /**
+    * Size in bytes of the ranges a blob is downloaded in by {@link org.jclouds.blobstore.BlobStore#downloadBlob};
+    * defaults to 32MB.
+    */
+   public static final String PROPERTY_BLOBSTORE_DOWNLOAD_PART_SIZE = "jclouds.blobstore.download.part-size";
+
+   /**
+    * Number of ranges of a blob downloaded concurrently by
+    * {@link org.jclouds.blobstore.BlobStore#downloadBlob}; defaults to 4.
+    */
+   public static final String PROPERTY_BLOBSTORE_DOWNLOAD_PARALLELISM = "jclouds.blobstore.download.parallelism";
+
+   /**
+    * Number of blobs a container is cleared of by each
+    * {@link org.jclouds.blobstore.BlobStore#removeBlobs} call; defaults to 1, which removes each
+    * blob on its own. Providers with a bulk delete set this to the most keys it accepts.
+    */
+   public static final String PROPERTY_BLOBSTORE_DELETE_BATCH_SIZE = "jclouds.blobstore.delete.batch-size";
+
+   /**
+    * Number of folders of a container listed concurrently when crawling it with
+    * {@link org.jclouds.blobstore.strategy.StreamBlobsInContainer}; defaults to 4.
+    */
+   public static final String PROPERTY_BLOBSTORE_LIST_PARALLELISM = "jclouds.blobstore.list.parallelism";
+
+   /**
+    * Whether a {@link org.jclouds.blobstore.options.ListContainerOptions#recursive() recursive}
+    * listing returns the blobs of all folders, so that crawling a container lists it flat rather
+    * than folder by folder; defaults to true. Providers which ignore the recursive option set it to
+    * false.
+    */
+   public static final String PROPERTY_BLOBSTORE_LIST_FLAT = "jclouds.blobstore.list.flat";
+
    public static final String BLOBSTORE_LOGGER = "jclouds.blobstore";
 
    private BlobStoreConstants() {
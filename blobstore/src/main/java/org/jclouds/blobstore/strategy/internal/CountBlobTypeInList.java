@@ -21,7 +21,7 @@ import javax.inject.Singleton;
 
 import org.jclouds.blobstore.options.ListContainerOptions;
 import org.jclouds.blobstore.strategy.CountListStrategy;
-import org.jclouds.blobstore.strategy.ListBlobsInContainer;
+import org.jclouds.blobstore.strategy.StreamBlobsInContainer;
 
 import com.google.common.collect.Iterables;
 
@@ -30,10 +30,10 @@ import com.google.common.collect.Iterables;
  */
 @Singleton
 public class CountBlobTypeInList implements CountListStrategy {
-   protected final ListBlobsInContainer getAllBlobMetadata;
+   protected final StreamBlobsInContainer getAllBlobMetadata;
 
    @Inject
-   CountBlobTypeInList(ListBlobsInContainer getAllBlobMetadata) {
+   CountBlobTypeInList(StreamBlobsInContainer getAllBlobMetadata) {
       this.getAllBlobMetadata = getAllBlobMetadata;
    }
 
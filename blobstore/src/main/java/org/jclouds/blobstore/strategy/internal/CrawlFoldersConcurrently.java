@@ -0,0 +1,298 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.blobstore.strategy.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.jclouds.blobstore.reference.BlobStoreConstants.PROPERTY_BLOBSTORE_LIST_FLAT;
+import static org.jclouds.blobstore.reference.BlobStoreConstants.PROPERTY_BLOBSTORE_LIST_PARALLELISM;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.annotation.Resource;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.Constants;
+import org.jclouds.blobstore.BlobStore;
+import org.jclouds.blobstore.domain.BlobMetadata;
+import org.jclouds.blobstore.domain.PageSet;
+import org.jclouds.blobstore.domain.StorageMetadata;
+import org.jclouds.blobstore.options.ListContainerOptions;
+import org.jclouds.blobstore.reference.BlobStoreConstants;
+import org.jclouds.blobstore.strategy.StreamBlobsInContainer;
+import org.jclouds.logging.Logger;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.inject.Inject;
+
+/**
+ * Lists the folders of a container concurrently, up to {@link #parallelism} at a time, and
+ * requests the next page of each listing while the blobs of the current one are consumed. A
+ * recursive crawl of a provider which lists {@link #flat} takes a single recursive listing; otherwise
+ * each folder is listed on its own, without its subfolders, which a recursive crawl then lists in
+ * turn.
+ * <p/>
+ * Listed pages wait in a queue as long as the parallelism, and listing blocks while it is full, so
+ * memory depends on how far the listing is ahead of its consumer rather than on the number of
+ * blobs in the container. A crawl which is not consumed to its end, nor closed, gives up once no
+ * page was taken for {@link #timeout} milliseconds.
+ */
+@Singleton
+public class CrawlFoldersConcurrently implements StreamBlobsInContainer {
+
+   private static final Object END = new Object();
+
+   @Resource
+   @Named(BlobStoreConstants.BLOBSTORE_LOGGER)
+   protected Logger logger = Logger.NULL;
+
+   @Inject(optional = true)
+   @Named(PROPERTY_BLOBSTORE_LIST_PARALLELISM)
+   @VisibleForTesting
+   int parallelism = 4;
+
+   @Inject(optional = true)
+   @Named(PROPERTY_BLOBSTORE_LIST_FLAT)
+   @VisibleForTesting
+   boolean flat = true;
+
+   @VisibleForTesting
+   long timeout = MINUTES.toMillis(10);
+
+   private final BlobStore blobStore;
+   private final ListeningExecutorService userExecutor;
+
+   @Inject
+   CrawlFoldersConcurrently(BlobStore blobStore,
+         @Named(Constants.PROPERTY_USER_THREADS) ListeningExecutorService userExecutor) {
+      this.blobStore = checkNotNull(blobStore, "blobStore");
+      this.userExecutor = checkNotNull(userExecutor, "userExecutor");
+   }
+
+   @Override
+   public Iterable<BlobMetadata> execute(final String containerName, ListContainerOptions options) {
+      final ListContainerOptions template = options == null ? ListContainerOptions.NONE : options;
+      return new Iterable<BlobMetadata>() {
+         @Override
+         public Iterator<BlobMetadata> iterator() {
+            return new Crawl(containerName, template).start();
+         }
+
+         @Override
+         public String toString() {
+            return "crawl(" + containerName + "," + template + ")";
+         }
+      };
+   }
+
+   private final class Crawl extends AbstractIterator<BlobMetadata> implements Closeable {
+      private final String containerName;
+      private final ListContainerOptions template;
+      private final boolean crawlFolders;
+      private final BlockingQueue<Object> pages = new ArrayBlockingQueue<Object>(parallelism);
+      // guarded by this
+      private final Deque<ListContainerOptions> pending = new ArrayDeque<ListContainerOptions>();
+      // guarded by this
+      private final Set<String> scheduled = Sets.newHashSet();
+      // guarded by this
+      private int running;
+      private volatile boolean closed;
+      private volatile boolean failed;
+      private volatile RuntimeException abandoned;
+      private Iterator<BlobMetadata> page = Iterators.emptyIterator();
+
+      private Crawl(String containerName, ListContainerOptions template) {
+         this.containerName = containerName;
+         this.template = template;
+         this.crawlFolders = template.isRecursive() && !flat;
+      }
+
+      private Crawl start() {
+         if (template.isRecursive() && flat) {
+            schedule(template.clone());
+            return this;
+         }
+         ListContainerOptions options = inDirectory(template.getDir());
+         schedule(template.getMarker() != null ? options.afterMarker(template.getMarker()) : options);
+         return this;
+      }
+
+      /**
+       * Schedules listing a folder, unless it already was, as when a provider returns both a
+       * directory marker and a common prefix for it.
+       */
+      private synchronized void scheduleFolder(String directory) {
+         if (scheduled.add(directory))
+            schedule(inDirectory(directory));
+      }
+
+      private synchronized void schedule(ListContainerOptions options) {
+         // depth first, which keeps fewer folders pending than breadth first
+         pending.push(options);
+         startPending();
+      }
+
+      // guarded by this
+      private void startPending() {
+         while (!closed && !failed && running < parallelism && !pending.isEmpty()) {
+            running++;
+            final ListContainerOptions next = pending.pop();
+            userExecutor.execute(new Runnable() {
+               @Override
+               public void run() {
+                  list(next);
+               }
+            });
+         }
+      }
+
+      private void list(ListContainerOptions options) {
+         try {
+            logger.trace(">> listing %s/%s", containerName, options.getDir() != null ? options.getDir() : "");
+            PageSet<? extends StorageMetadata> listing = blobStore.list(containerName, options);
+            if (listing.getNextMarker() != null)
+               schedule(options.clone().afterMarker(listing.getNextMarker()));
+            List<BlobMetadata> blobs = Lists.newArrayList();
+            for (StorageMetadata md : listing) {
+               switch (md.getType()) {
+               case BLOB:
+                  blobs.add((BlobMetadata) md);
+                  break;
+               case FOLDER:
+               case RELATIVE_PATH:
+                  if (!crawlFolders)
+                     break;
+                  String directory = options.getDir() != null ? options.getDir() + "/" + md.getName() : md
+                        .getName();
+                  if (!directory.equals(options.getDir()))
+                     scheduleFolder(directory);
+                  break;
+               default:
+                  break;
+               }
+            }
+            if (!blobs.isEmpty())
+               offer(blobs);
+         } catch (Throwable e) {
+            failed = true;
+            offer(e);
+         } finally {
+            if (finished())
+               offer(END);
+         }
+      }
+
+      /**
+       * @return options listing only the folder, and not its subfolders, whether or not the crawl
+       *         is recursive
+       */
+      private ListContainerOptions inDirectory(String directory) {
+         ListContainerOptions options = new ListContainerOptions();
+         if (template.getMaxResults() != null)
+            options.maxResults(template.getMaxResults());
+         if (template.isDetailed())
+            options.withDetails();
+         return directory != null ? options.inDirectory(directory) : options;
+      }
+
+      /**
+       * @return whether this was the last listing
+       */
+      private synchronized boolean finished() {
+         running--;
+         startPending();
+         return running == 0 && (closed || failed || pending.isEmpty());
+      }
+
+      private void offer(Object item) {
+         long deadline = System.nanoTime() + MILLISECONDS.toNanos(timeout);
+         try {
+            while (!closed && !pages.offer(item, 100, MILLISECONDS)) {
+               if (System.nanoTime() - deadline >= 0) {
+                  abandon();
+                  return;
+               }
+            }
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+         }
+      }
+
+      /**
+       * Fails the crawl, as its consumer stopped taking pages without closing it.
+       */
+      private void abandon() {
+         logger.warn("no blobs of %s taken for %dms; abandoning the crawl", containerName, timeout);
+         abandoned = new IllegalStateException(String.format("no blobs taken for %dms; abandoned the crawl",
+               timeout));
+         failed = true;
+         close();
+         pages.offer(abandoned);
+      }
+
+      @Override
+      protected BlobMetadata computeNext() {
+         while (!page.hasNext()) {
+            if (abandoned != null)
+               throw abandoned;
+            Object next;
+            try {
+               next = pages.take();
+            } catch (InterruptedException e) {
+               close();
+               Thread.currentThread().interrupt();
+               throw Throwables.propagate(e);
+            }
+            if (next == END) {
+               close();
+               return endOfData();
+            } else if (next instanceof Throwable) {
+               close();
+               throw Throwables.propagate((Throwable) next);
+            }
+            @SuppressWarnings("unchecked")
+            List<BlobMetadata> blobs = (List<BlobMetadata>) next;
+            page = blobs.iterator();
+         }
+         return page.next();
+      }
+
+      /**
+       * Stops listing, after the listings already requested.
+       */
+      @Override
+      public void close() {
+         closed = true;
+         pages.clear();
+      }
+   }
+}
@@ -20,6 +20,7 @@ import static org.jclouds.blobstore.options.ListContainerOptions.Builder.recursi
 
 import java.util.HashSet;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Semaphore;
@@ -36,6 +37,7 @@ import org.jclouds.blobstore.BlobStore;
 import org.jclouds.blobstore.ContainerNotFoundException;
 import org.jclouds.blobstore.domain.PageSet;
 import org.jclouds.blobstore.domain.StorageMetadata;
+import org.jclouds.blobstore.domain.StorageType;
 import org.jclouds.blobstore.internal.BlobRuntimeException;
 import org.jclouds.blobstore.options.ListContainerOptions;
 import org.jclouds.blobstore.reference.BlobStoreConstants;
@@ -45,6 +47,7 @@ import org.jclouds.http.handlers.BackoffLimitedRetryHandler;
 import org.jclouds.logging.Logger;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -75,6 +78,9 @@ public class DeleteAllKeysInList implements ClearListStrategy, ClearContainerStr
    /** Maximum parallel deletes. */
    private int maxParallelDeletes;
 
+   /** Number of blobs removed by each delete; 1 removes them one at a time. */
+   private int deleteBatchSize = 1;
+
    @Inject
    DeleteAllKeysInList(@Named(Constants.PROPERTY_USER_THREADS) ListeningExecutorService executorService,
          BlobStore blobStore, BackoffLimitedRetryHandler retryHandler,
@@ -95,6 +101,11 @@ public class DeleteAllKeysInList implements ClearListStrategy, ClearContainerStr
       this.maxErrors = maxErrors;
    }
 
+   @Inject(optional = true)
+   void setDeleteBatchSize(@Named(BlobStoreConstants.PROPERTY_BLOBSTORE_DELETE_BATCH_SIZE) int deleteBatchSize) {
+      this.deleteBatchSize = deleteBatchSize;
+   }
+
    public void execute(String containerName) {
       execute(containerName, recursive());
    }
@@ -197,8 +208,9 @@ public class DeleteAllKeysInList implements ClearListStrategy, ClearContainerStr
     * Delete the blobs from a given PageSet. The PageSet may contain blobs or
     * directories. If there are directories, they are expected to be empty.
     *
-    * The logic of acquiring a semaphore, submitting a callable to the
-    * executorService and releasing the semaphore resides here.
+    * Blobs are removed in batches of deleteBatchSize when it is more than one,
+    * and one at a time otherwise. Each delete submitted to the executorService
+    * holds a semaphore permit until it completes.
     *
     * @param containerName
     *           The container from which the objects are listed.
@@ -223,22 +235,25 @@ public class DeleteAllKeysInList implements ClearListStrategy, ClearContainerStr
          final AtomicBoolean deleteFailure,
          final Set<ListenableFuture<Void>> outstandingFutures)
          throws TimeoutException {
+      List<String> batch = Lists.newArrayList();
       for (final StorageMetadata md : listing) {
          final String fullPath = parentIsFolder(options, md) ? options.getDir()
                + "/" + md.getName() : md.getName();
 
-         // Attempt to acquire a semaphore within the time limit. At least
-         // one outstanding future should complete within this period for the
-         // semaphore to be acquired.
-         try {
-            if (!semaphore.tryAcquire(maxTime, TimeUnit.MILLISECONDS)) {
-               throw new TimeoutException("Timeout waiting for semaphore");
+         // Blobs are removed in batches when the provider has a bulk delete.
+         // Each batch, rather than each blob, then holds a semaphore permit.
+         if (deleteBatchSize > 1 && md.getType() == StorageType.BLOB) {
+            batch.add(fullPath);
+            if (batch.size() == deleteBatchSize) {
+               deleteBatch(containerName, batch, semaphore, deleteFailure,
+                     outstandingFutures);
+               batch = Lists.newArrayList();
             }
-         } catch (InterruptedException ie) {
-            logger.debug("Interrupted while deleting blobs");
-            Thread.currentThread().interrupt();
+            continue;
          }
 
+         acquirePermit(semaphore);
+
          final ListenableFuture<Void> blobDelFuture;
          switch (md.getType()) {
          case BLOB:
@@ -263,41 +278,83 @@ public class DeleteAllKeysInList implements ClearListStrategy, ClearContainerStr
             blobDelFuture = null;
          }
 
-         // If a future to delete a blob/directory actually got created above,
-         // keep a reference of that in the outstandingFutures list. This is
-         // useful in case of a timeout exception. All outstanding futures can
-         // then be cancelled.
-         if (blobDelFuture != null) {
-            outstandingFutures.add(blobDelFuture);
-
-            // Add a callback to release the semaphore. This is required for
-            // other threads waiting to acquire a semaphore above to make
-            // progress.
-            Futures.addCallback(blobDelFuture, new FutureCallback<Object>() {
-               @Override
-               public void onSuccess(final Object o) {
-                  outstandingFutures.remove(blobDelFuture);
-                  semaphore.release();
-               }
+         track(blobDelFuture, semaphore, deleteFailure, outstandingFutures);
+      }
+      if (!batch.isEmpty()) {
+         deleteBatch(containerName, batch, semaphore, deleteFailure,
+               outstandingFutures);
+      }
+   }
 
+   private void deleteBatch(final String containerName,
+         final List<String> names, final Semaphore semaphore,
+         final AtomicBoolean deleteFailure,
+         final Set<ListenableFuture<Void>> outstandingFutures)
+         throws TimeoutException {
+      acquirePermit(semaphore);
+      ListenableFuture<Void> batchDelFuture = executorService
+            .submit(new Callable<Void>() {
                @Override
-               public void onFailure(final Throwable t) {
-                  // Make a note the fact that some blob/directory could not be
-                  // deleted successfully. This is used for retrying later.
-                  deleteFailure.set(true);
-                  outstandingFutures.remove(blobDelFuture);
-                  semaphore.release();
+               public Void call() {
+                  blobStore.removeBlobs(containerName, names);
+                  return null;
                }
             });
-         } else {
-            // It is possible above to acquire a semaphore but not submit any
-            // task to the executorService. For e.g. if the listing contains
-            // an object of type 'FOLDER' and the ListContianerOptions are *not*
-            // recursive. In this case, there is no blobDelFuture and therefore
-            // no FutureCallback to release the semaphore. This semaphore is
-            // released here.
-            semaphore.release();
+      track(batchDelFuture, semaphore, deleteFailure, outstandingFutures);
+   }
+
+   private void acquirePermit(final Semaphore semaphore)
+         throws TimeoutException {
+      // Attempt to acquire a semaphore within the time limit. At least
+      // one outstanding future should complete within this period for the
+      // semaphore to be acquired.
+      try {
+         if (!semaphore.tryAcquire(maxTime, TimeUnit.MILLISECONDS)) {
+            throw new TimeoutException("Timeout waiting for semaphore");
          }
+      } catch (InterruptedException ie) {
+         logger.debug("Interrupted while deleting blobs");
+         Thread.currentThread().interrupt();
+      }
+   }
+
+   private void track(final ListenableFuture<Void> blobDelFuture,
+         final Semaphore semaphore, final AtomicBoolean deleteFailure,
+         final Set<ListenableFuture<Void>> outstandingFutures) {
+      // If a future to delete a blob/directory actually got created above,
+      // keep a reference of that in the outstandingFutures list. This is
+      // useful in case of a timeout exception. All outstanding futures can
+      // then be cancelled.
+      if (blobDelFuture != null) {
+         outstandingFutures.add(blobDelFuture);
+
+         // Add a callback to release the semaphore. This is required for
+         // other threads waiting to acquire a semaphore above to make
+         // progress.
+         Futures.addCallback(blobDelFuture, new FutureCallback<Object>() {
+            @Override
+            public void onSuccess(final Object o) {
+               outstandingFutures.remove(blobDelFuture);
+               semaphore.release();
+            }
+
+            @Override
+            public void onFailure(final Throwable t) {
+               // Make a note the fact that some blob/directory could not be
+               // deleted successfully. This is used for retrying later.
+               deleteFailure.set(true);
+               outstandingFutures.remove(blobDelFuture);
+               semaphore.release();
+            }
+         });
+      } else {
+         // It is possible above to acquire a semaphore but not submit any
+         // task to the executorService. For e.g. if the listing contains
+         // an object of type 'FOLDER' and the ListContianerOptions are *not*
+         // recursive. In this case, there is no blobDelFuture and therefore
+         // no FutureCallback to release the semaphore. This semaphore is
+         // released here.
+         semaphore.release();
       }
    }
 
@@ -0,0 +1,271 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.blobstore.strategy.internal;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.jclouds.util.Throwables2.getFirstThrowableOfType;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import javax.annotation.Resource;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.Constants;
+import org.jclouds.blobstore.BlobStore;
+import org.jclouds.blobstore.ContainerNotFoundException;
+import org.jclouds.blobstore.KeyNotFoundException;
+import org.jclouds.blobstore.domain.Blob;
+import org.jclouds.blobstore.domain.BlobMetadata;
+import org.jclouds.blobstore.internal.BlobRuntimeException;
+import org.jclouds.blobstore.options.GetOptions;
+import org.jclouds.blobstore.reference.BlobStoreConstants;
+import org.jclouds.blobstore.strategy.DownloadBlobStrategy;
+import org.jclouds.http.HttpResponseException;
+import org.jclouds.http.handlers.BackoffLimitedRetryHandler;
+import org.jclouds.logging.Logger;
+import org.jclouds.util.Closeables2;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.inject.Inject;
+
+/**
+ * Downloads a blob by splitting it into ranges of
+ * {@link BlobStoreConstants#PROPERTY_BLOBSTORE_DOWNLOAD_PART_SIZE} bytes, and getting
+ * {@link BlobStoreConstants#PROPERTY_BLOBSTORE_DOWNLOAD_PARALLELISM} of them at a time. Each range
+ * is written at its offset in the file as it arrives, and retried on its own when it fails.
+ * <p/>
+ * Ranges are only served while the blob keeps the ETag it had when the download started. A range
+ * refused because the blob changed or was removed fails the download without being retried. The
+ * finished file is checked against the MD5 of the blob, when the blob store reports it.
+ */
+@Singleton
+public class GetBlobRangesInParallel implements DownloadBlobStrategy {
+   @Resource
+   @Named(BlobStoreConstants.BLOBSTORE_LOGGER)
+   protected Logger logger = Logger.NULL;
+
+   private static final Pattern MD5_ETAG = Pattern.compile("\"?[0-9a-fA-F]{32}\"?");
+
+   protected final BlobStore blobStore;
+   protected final BackoffLimitedRetryHandler retryHandler;
+   private final ListeningExecutorService userExecutor;
+
+   @Inject(optional = true)
+   @Named(BlobStoreConstants.PROPERTY_BLOBSTORE_DOWNLOAD_PART_SIZE)
+   @VisibleForTesting
+   long partSize = 32 * 1024 * 1024;
+
+   @Inject(optional = true)
+   @Named(BlobStoreConstants.PROPERTY_BLOBSTORE_DOWNLOAD_PARALLELISM)
+   @VisibleForTesting
+   int parallelism = 4;
+
+   /** Maximum times to retry a range. */
+   @Inject(optional = true)
+   @Named(Constants.PROPERTY_MAX_RETRIES)
+   @VisibleForTesting
+   int maxRetries = 5;
+
+   @Inject
+   GetBlobRangesInParallel(@Named(Constants.PROPERTY_USER_THREADS) ListeningExecutorService userExecutor,
+         BlobStore blobStore, BackoffLimitedRetryHandler retryHandler) {
+      this.userExecutor = checkNotNull(userExecutor, "userExecutor");
+      this.blobStore = checkNotNull(blobStore, "blobStore");
+      this.retryHandler = checkNotNull(retryHandler, "retryHandler");
+   }
+
+   @Override
+   public void execute(String containerName, String blobName, File destination) {
+      checkArgument(partSize > 0, "part size must be positive but was: %s", partSize);
+      checkArgument(parallelism > 0, "parallelism must be positive but was: %s", parallelism);
+      BlobMetadata metadata = blobStore.blobMetadata(containerName, blobName);
+      if (metadata == null)
+         throw new KeyNotFoundException(containerName, blobName, "downloading blob");
+      Long contentLength = metadata.getContentMetadata().getContentLength();
+      checkArgument(contentLength != null, "blob %s/%s has no content length", containerName, blobName);
+      Download download = new Download(containerName, blobName, metadata.getETag(), contentLength);
+
+      boolean done = false;
+      try {
+         FileChannel channel = FileChannel.open(destination.toPath(), CREATE, WRITE, TRUNCATE_EXISTING);
+         try {
+            download.into(channel);
+         } finally {
+            channel.close();
+         }
+         verify(download, metadata, destination);
+         done = true;
+      } catch (IOException e) {
+         throw new BlobRuntimeException("error downloading " + download, e);
+      } finally {
+         if (!done)
+            destination.delete();
+      }
+   }
+
+   private void verify(Download download, BlobMetadata metadata, File destination) throws IOException {
+      HashCode expected = null;
+      if (metadata.getContentMetadata().getContentMD5AsHashCode() != null)
+         expected = metadata.getContentMetadata().getContentMD5AsHashCode();
+      else if (metadata.getETag() != null && MD5_ETAG.matcher(metadata.getETag()).matches())
+         expected = HashCode.fromString(metadata.getETag().replace("\"", "").toLowerCase());
+      if (expected == null) {
+         logger.debug("<< downloaded %s, which has no md5 to check", download);
+         return;
+      }
+      HashCode actual = Files.asByteSource(destination).hash(Hashing.md5());
+      if (!actual.equals(expected))
+         throw new IOException(String.format("md5 of download %s does not match %s", actual, expected));
+      logger.debug("<< downloaded %s, md5 %s", download, actual);
+   }
+
+   private class Download {
+      private final String containerName;
+      private final String blobName;
+      private final String eTag;
+      private final long size;
+      private final AtomicLong nextOffset = new AtomicLong();
+      private final AtomicBoolean failed = new AtomicBoolean();
+
+      private Download(String containerName, String blobName, String eTag, long size) {
+         this.containerName = containerName;
+         this.blobName = blobName;
+         this.eTag = eTag;
+         this.size = size;
+      }
+
+      private void into(final FileChannel channel) throws IOException {
+         long parts = (size + partSize - 1) / partSize;
+         List<ListenableFuture<Void>> workers = Lists.newArrayList();
+         // each worker gets the next range until none are left, which keeps parallelism ranges in flight
+         for (long i = 0; i < Math.min(parts, parallelism); i++) {
+            workers.add(userExecutor.submit(new Callable<Void>() {
+               @Override
+               public Void call() throws IOException {
+                  byte[] buffer = new byte[64 * 1024];
+                  for (long offset = nextOffset.getAndAdd(partSize); offset < size && !failed.get(); offset = nextOffset
+                        .getAndAdd(partSize)) {
+                     getRange(channel, offset, Math.min(partSize, size - offset), buffer);
+                  }
+                  return null;
+               }
+            }));
+         }
+         try {
+            Futures.allAsList(workers).get();
+         } catch (InterruptedException e) {
+            failed.set(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted downloading " + this, e);
+         } catch (ExecutionException e) {
+            failed.set(true);
+            for (ListenableFuture<Void> worker : workers)
+               worker.cancel(true);
+            if (e.getCause() instanceof IOException)
+               throw (IOException) e.getCause();
+            throw new IOException(e.getCause());
+         }
+      }
+
+      private void getRange(FileChannel channel, long offset, long length, byte[] buffer) throws IOException {
+         for (int attempt = 1;; attempt++) {
+            try {
+               writeRange(channel, offset, length, buffer);
+               return;
+            } catch (RuntimeException e) {
+               retryOrFail(offset, length, attempt, e);
+            } catch (IOException e) {
+               retryOrFail(offset, length, attempt, e);
+            }
+         }
+      }
+
+      private void retryOrFail(long offset, long length, int attempt, Exception e) throws IOException {
+         String range = String.format("%s bytes %s-%s", this, offset, offset + length - 1);
+         if (failed.get() || attempt > maxRetries || isPermanent(e)) {
+            failed.set(true);
+            throw new IOException("error getting " + range, e);
+         }
+         logger.debug("<< error getting %s, attempt %d: %s", range, attempt, e.getMessage());
+         retryHandler.imposeBackoffExponentialDelay(attempt, "get " + range);
+      }
+
+      private void writeRange(FileChannel channel, long offset, long length, byte[] buffer) throws IOException {
+         GetOptions options = new GetOptions().range(offset, offset + length - 1);
+         if (eTag != null)
+            options.ifETagMatches(eTag);
+         Blob blob = blobStore.getBlob(containerName, blobName, options);
+         if (blob == null)
+            throw new KeyNotFoundException(containerName, blobName, "downloading range");
+         InputStream in = blob.getPayload().openStream();
+         try {
+            long position = offset;
+            int read;
+            while (position < offset + length && (read = in.read(buffer, 0, (int) Math.min(buffer.length, offset
+                  + length - position))) != -1) {
+               ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, read);
+               while (bytes.hasRemaining())
+                  position += channel.write(bytes, position);
+            }
+            if (position != offset + length)
+               throw new IOException(String.format("range ended after %d of %d bytes", position - offset, length));
+         } finally {
+            Closeables2.closeQuietly(in);
+         }
+      }
+
+      /**
+       * Retrying cannot help once the blob no longer has the ETag the download started with, or is
+       * gone.
+       */
+      private boolean isPermanent(Exception e) {
+         if (getFirstThrowableOfType(e, KeyNotFoundException.class) != null
+               || getFirstThrowableOfType(e, ContainerNotFoundException.class) != null)
+            return true;
+         HttpResponseException responseException = getFirstThrowableOfType(e, HttpResponseException.class);
+         return responseException != null && responseException.getResponse() != null
+               && responseException.getResponse().getStatusCode() == 412;
+      }
+
+      @Override
+      public String toString() {
+         return containerName + "/" + blobName;
+      }
+   }
+}
@@ -16,6 +16,8 @@
  */
 package org.jclouds.blobstore.util;
 
+import java.io.File;
+
 import org.jclouds.blobstore.domain.BlobBuilder;
 import org.jclouds.blobstore.options.ListContainerOptions;
 import org.jclouds.blobstore.util.internal.BlobUtilsImpl;
@@ -35,4 +37,6 @@ public interface BlobUtils {
    void clearContainer(String container, ListContainerOptions options);
 
    void deleteDirectory(String container, String directory);
+
+   void downloadBlob(String container, String name, File destination);
 }
@@ -18,6 +18,8 @@ package org.jclouds.blobstore.util.internal;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.File;
+
 import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.inject.Singleton;
@@ -27,6 +29,7 @@ import org.jclouds.blobstore.options.ListContainerOptions;
 import org.jclouds.blobstore.strategy.ClearListStrategy;
 import org.jclouds.blobstore.strategy.CountListStrategy;
 import org.jclouds.blobstore.strategy.DeleteDirectoryStrategy;
+import org.jclouds.blobstore.strategy.DownloadBlobStrategy;
 import org.jclouds.blobstore.strategy.GetDirectoryStrategy;
 import org.jclouds.blobstore.strategy.MkdirStrategy;
 import org.jclouds.blobstore.util.BlobUtils;
@@ -43,17 +46,19 @@ public class BlobUtilsImpl implements BlobUtils {
    protected final MkdirStrategy mkdirStrategy;
    protected final DeleteDirectoryStrategy rmDirStrategy;
    protected final CountListStrategy countBlobsStrategy;
+   protected final Provider<DownloadBlobStrategy> downloadBlobStrategy;
 
    @Inject
    protected BlobUtilsImpl(Provider<BlobBuilder> blobBuilders, ClearListStrategy clearContainerStrategy,
          GetDirectoryStrategy getDirectoryStrategy, MkdirStrategy mkdirStrategy, CountListStrategy countBlobsStrategy,
-         DeleteDirectoryStrategy rmDirStrategy) {
+         DeleteDirectoryStrategy rmDirStrategy, Provider<DownloadBlobStrategy> downloadBlobStrategy) {
       this.blobBuilders = checkNotNull(blobBuilders, "blobBuilders");
       this.clearContainerStrategy = checkNotNull(clearContainerStrategy, "clearContainerStrategy");
       this.getDirectoryStrategy = checkNotNull(getDirectoryStrategy, "getDirectoryStrategy");
       this.mkdirStrategy = checkNotNull(mkdirStrategy, "mkdirStrategy");
       this.rmDirStrategy = checkNotNull(rmDirStrategy, "rmDirStrategy");
       this.countBlobsStrategy = checkNotNull(countBlobsStrategy, "countBlobsStrategy");
+      this.downloadBlobStrategy = checkNotNull(downloadBlobStrategy, "downloadBlobStrategy");
    }
    
    @Override
@@ -81,4 +86,8 @@ public class BlobUtilsImpl implements BlobUtils {
       rmDirStrategy.execute(container, directory);
    }
 
+   public void downloadBlob(String container, String name, File destination) {
+      downloadBlobStrategy.get().execute(container, name, destination);
+   }
+
 }
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.blobstore;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import org.jclouds.blobstore.LocalAsyncBlobStore.CommonPrefixes;
+import org.jclouds.blobstore.LocalAsyncBlobStore.DelimiterFilter;
+import org.jclouds.blobstore.domain.MutableStorageMetadata;
+import org.jclouds.blobstore.domain.StorageMetadata;
+import org.jclouds.blobstore.domain.StorageType;
+import org.jclouds.blobstore.domain.internal.MutableStorageMetadataImpl;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "LocalAsyncBlobStoreTest")
+public class LocalAsyncBlobStoreTest {
+
+   public void testDelimiterFilterWithAPrefixEndingWithTheDelimiter() {
+      DelimiterFilter inDirectory = new DelimiterFilter("dir\\", "\\");
+      assertTrue(inDirectory.apply(blob("dir\\a")));
+      assertFalse(inDirectory.apply(blob("dir\\sub\\b")));
+      assertFalse(inDirectory.apply(blob("dir\\")));
+   }
+
+   public void testCommonPrefixesWithAPrefixEndingWithTheDelimiter() {
+      CommonPrefixes commonPrefixes = new CommonPrefixes("dir\\", "\\");
+      assertEquals(commonPrefixes.apply(blob("dir\\sub\\b")), "sub");
+      assertEquals(commonPrefixes.apply(blob("dir\\a")), CommonPrefixes.NO_PREFIX);
+   }
+
+   private static StorageMetadata blob(String name) {
+      MutableStorageMetadata md = new MutableStorageMetadataImpl();
+      md.setType(StorageType.BLOB);
+      md.setName(name);
+      return md;
+   }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.blobstore;
+
+import static org.jclouds.blobstore.options.ListContainerOptions.Builder.afterMarker;
+import static org.testng.Assert.assertEquals;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.PerformanceTest;
+import org.jclouds.blobstore.domain.PageSet;
+import org.jclouds.blobstore.domain.StorageMetadata;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Shows that listing a page of a local blobstore container does not depend on
+ * the size of the container.
+ */
+@Test(groups = "performance", singleThreaded = true, testName = "LocalBlobStoreListPerformanceTest")
+public class LocalBlobStoreListPerformanceTest extends PerformanceTest {
+   private static final int PAGE_SIZE = 100;
+
+   private BlobStoreContext context;
+   private BlobStore blobStore;
+
+   @BeforeClass
+   void setUpContext() {
+      context = ContextBuilder.newBuilder("transient").build(BlobStoreContext.class);
+      blobStore = context.getBlobStore();
+   }
+
+   @AfterClass
+   void tearDownContext() {
+      context.close();
+   }
+
+   public void testPageLatencyIsIndependentOfContainerSize() {
+      for (int size : new int[] { 1000, 10000, 100000 }) {
+         String container = "list-" + size;
+         fillContainer(container, size);
+         // warm up
+         listPage(container, size);
+         long start = System.nanoTime();
+         for (int i = 0; i < LOOP_COUNT; i++) {
+            listPage(container, size);
+         }
+         System.out.printf("TIMING: listing a page of %d from a container of %d blobs took %.3fms%n", PAGE_SIZE,
+               size, (double) (System.nanoTime() - start) / LOOP_COUNT / 1000000);
+         blobStore.deleteContainer(container);
+      }
+   }
+
+   private void listPage(String container, int size) {
+      PageSet<? extends StorageMetadata> page = blobStore.list(container,
+            afterMarker(key(size / 2)).maxResults(PAGE_SIZE));
+      assertEquals(page.size(), PAGE_SIZE);
+   }
+
+   private void fillContainer(String container, int size) {
+      blobStore.createContainerInLocation(null, container);
+      for (int i = 0; i < size; i++) {
+         blobStore.putBlob(container, blobStore.blobBuilder(key(i)).payload("").build());
+      }
+   }
+
+   private static String key(int i) {
+      return String.format("blob-%08d", i);
+   }
+}
@@ -17,11 +17,15 @@
 package org.jclouds.blobstore.integration;
 
 import static com.google.common.collect.Iterables.getOnlyElement;
+import static org.jclouds.blobstore.options.ListContainerOptions.Builder.afterMarker;
 import static org.jclouds.blobstore.options.ListContainerOptions.Builder.maxResults;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
+import java.util.List;
+
 import javax.ws.rs.core.MediaType;
 
 import org.jclouds.blobstore.BlobStore;
@@ -33,6 +37,7 @@ import org.jclouds.blobstore.integration.internal.BaseContainerIntegrationTest;
 import org.jclouds.domain.Location;
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
 @Test(groups = { "integration", "live" })
@@ -80,4 +85,34 @@ public class TransientContainerIntegrationTest extends BaseContainerIntegrationT
       created = blobStore.createContainerInLocation(location, container);
       assertFalse(created);
    }
+
+   @Test(groups = { "integration", "live" })
+   public void testPagesCountEachCommonPrefixOnce() throws InterruptedException {
+      BlobStore blobStore = view.getBlobStore();
+      String containerName = getContainerName();
+      try {
+         for (String key : ImmutableList.of("a/1", "a/2", "a/3", "b", "c/1", "c/2", "d"))
+            blobStore.putBlob(containerName, blobStore.blobBuilder(key).payload(TEST_STRING).build());
+
+         PageSet<? extends StorageMetadata> page = blobStore.list(containerName, maxResults(2));
+         assertEquals(names(page), ImmutableList.of("a", "b"));
+         page = blobStore.list(containerName, afterMarker(page.getNextMarker()).maxResults(2));
+         assertEquals(names(page), ImmutableList.of("c", "d"));
+         assertNull(page.getNextMarker());
+
+         page = blobStore.list(containerName, maxResults(1));
+         assertEquals(names(page), ImmutableList.of("a"));
+         page = blobStore.list(containerName, afterMarker(page.getNextMarker()).maxResults(1));
+         assertEquals(names(page), ImmutableList.of("b"));
+      } finally {
+         returnContainer(containerName);
+      }
+   }
+
+   private static List<String> names(Iterable<? extends StorageMetadata> page) {
+      ImmutableList.Builder<String> names = ImmutableList.builder();
+      for (StorageMetadata md : page)
+         names.add(md.getName());
+      return names.build();
+   }
 }
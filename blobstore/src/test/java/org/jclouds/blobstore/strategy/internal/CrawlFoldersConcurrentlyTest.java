@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.blobstore.strategy.internal;
+
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.getCurrentArguments;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.jclouds.blobstore.options.ListContainerOptions.Builder.afterMarker;
+import static org.jclouds.blobstore.options.ListContainerOptions.Builder.inDirectory;
+import static org.jclouds.blobstore.options.ListContainerOptions.Builder.recursive;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.easymock.EasyMock;
+import org.easymock.IAnswer;
+import org.jclouds.blobstore.BlobStore;
+import org.jclouds.blobstore.ContainerNotFoundException;
+import org.jclouds.blobstore.domain.BlobMetadata;
+import org.jclouds.blobstore.domain.MutableBlobMetadata;
+import org.jclouds.blobstore.domain.MutableStorageMetadata;
+import org.jclouds.blobstore.domain.PageSet;
+import org.jclouds.blobstore.domain.StorageMetadata;
+import org.jclouds.blobstore.domain.StorageType;
+import org.jclouds.blobstore.domain.internal.MutableBlobMetadataImpl;
+import org.jclouds.blobstore.domain.internal.MutableStorageMetadataImpl;
+import org.jclouds.blobstore.domain.internal.PageSetImpl;
+import org.jclouds.blobstore.options.ListContainerOptions;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Ordering;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+
+@Test(groups = "unit", testName = "CrawlFoldersConcurrentlyTest")
+public class CrawlFoldersConcurrentlyTest {
+
+   private static final String CONTAINER = "container";
+
+   private ListeningExecutorService userExecutor;
+
+   @BeforeClass
+   void setup() {
+      userExecutor = MoreExecutors.listeningDecorator(Executors.newCachedThreadPool());
+   }
+
+   @AfterClass(alwaysRun = true)
+   void shutdown() {
+      userExecutor.shutdownNow();
+   }
+
+   public void testListsFlatInOneRecursiveListing() {
+      BlobStore blobStore = createMock(BlobStore.class);
+      expectList(blobStore, recursive(), "m1", blob("a"), folder("d1"), blob("d1/x"));
+      expectList(blobStore, recursive().afterMarker("m1"), null, blob("d1/sub/z"), folder("d1/sub"));
+      replay(blobStore);
+
+      CrawlFoldersConcurrently crawler = new CrawlFoldersConcurrently(blobStore, userExecutor);
+
+      assertEquals(names(crawler.execute(CONTAINER, recursive())), ImmutableList.of("a", "d1/sub/z", "d1/x"));
+      verify(blobStore);
+   }
+
+   public void testCrawlsFoldersAndPagesUnlessFlat() {
+      BlobStore blobStore = createMock(BlobStore.class);
+      expectList(blobStore, new ListContainerOptions(), "m1", blob("a"), folder("d1"), folder("d2"));
+      expectList(blobStore, afterMarker("m1"), null, blob("b"));
+      expectList(blobStore, inDirectory("d1"), null, folder("sub"), blob("d1/x"));
+      expectList(blobStore, inDirectory("d1/sub"), null, blob("d1/sub/z"));
+      expectList(blobStore, inDirectory("d2"), null);
+      replay(blobStore);
+
+      CrawlFoldersConcurrently crawler = new CrawlFoldersConcurrently(blobStore, userExecutor);
+      crawler.flat = false;
+      crawler.parallelism = 2;
+
+      assertEquals(names(crawler.execute(CONTAINER, recursive())),
+            ImmutableList.of("a", "b", "d1/sub/z", "d1/x"));
+      verify(blobStore);
+   }
+
+   public void testListsEachFolderOnceDespiteDirectoryMarkers() {
+      BlobStore blobStore = createMock(BlobStore.class);
+      // a directory marker and a common prefix for d1, as providers list both
+      expectList(blobStore, inDirectory("base"), null, blob("base/a"), folder("d1"), folder("d1"));
+      expectList(blobStore, inDirectory("base/d1"), null, blob("base/d1/b"));
+      replay(blobStore);
+
+      CrawlFoldersConcurrently crawler = new CrawlFoldersConcurrently(blobStore, userExecutor);
+      crawler.flat = false;
+
+      assertEquals(names(crawler.execute(CONTAINER, recursive().inDirectory("base"))),
+            ImmutableList.of("base/a", "base/d1/b"));
+      verify(blobStore);
+   }
+
+   public void testDoesNotEnterFoldersUnlessRecursive() {
+      BlobStore blobStore = createMock(BlobStore.class);
+      expectList(blobStore, new ListContainerOptions(), "m1", blob("a"), folder("d1"));
+      expectList(blobStore, new ListContainerOptions().afterMarker("m1"), null, blob("b"));
+      replay(blobStore);
+
+      CrawlFoldersConcurrently crawler = new CrawlFoldersConcurrently(blobStore, userExecutor);
+
+      assertEquals(names(crawler.execute(CONTAINER, ListContainerOptions.NONE)), ImmutableList.of("a", "b"));
+      verify(blobStore);
+   }
+
+   public void testFailureOfAListingIsThrownToTheConsumer() {
+      BlobStore blobStore = createMock(BlobStore.class);
+      expectList(blobStore, new ListContainerOptions(), null, blob("a"), folder("d1"));
+      EasyMock.<PageSet<? extends StorageMetadata>> expect(
+            blobStore.list(CONTAINER, inDirectory("d1"))).andThrow(new ContainerNotFoundException());
+      replay(blobStore);
+
+      CrawlFoldersConcurrently crawler = new CrawlFoldersConcurrently(blobStore, userExecutor);
+      crawler.flat = false;
+
+      try {
+         Iterables.size(crawler.execute(CONTAINER, recursive()));
+         fail("expected the failure of the listing of d1");
+      } catch (ContainerNotFoundException e) {
+         // expected
+      }
+   }
+
+   public void testListingStopsWhenTheConsumerDoes() throws IOException, InterruptedException {
+      AtomicInteger listings = new AtomicInteger();
+      BlobStore blobStore = endlessListing(listings);
+
+      CrawlFoldersConcurrently crawler = new CrawlFoldersConcurrently(blobStore, userExecutor);
+      crawler.parallelism = 1;
+
+      Iterator<BlobMetadata> blobs = crawler.execute(CONTAINER, recursive()).iterator();
+      assertEquals(blobs.next().getName(), "blob-1");
+      assertEquals(blobs.next().getName(), "blob-2");
+      Thread.sleep(200);
+      // the crawl is at most one page in the queue and one being listed ahead of its consumer
+      assertTrue(listings.get() <= 4, "listed " + listings.get() + " pages");
+
+      ((Closeable) blobs).close();
+      Thread.sleep(300);
+      int listed = listings.get();
+      Thread.sleep(300);
+      assertEquals(listings.get(), listed);
+   }
+
+   public void testCrawlIsAbandonedWhenNotConsumedNorClosed() throws InterruptedException {
+      AtomicInteger listings = new AtomicInteger();
+      BlobStore blobStore = endlessListing(listings);
+
+      CrawlFoldersConcurrently crawler = new CrawlFoldersConcurrently(blobStore, userExecutor);
+      crawler.parallelism = 1;
+      crawler.timeout = 200;
+
+      Iterator<BlobMetadata> blobs = crawler.execute(CONTAINER, recursive()).iterator();
+      assertEquals(blobs.next().getName(), "blob-1");
+      Thread.sleep(600);
+      int listed = listings.get();
+      Thread.sleep(300);
+      assertEquals(listings.get(), listed);
+
+      try {
+         while (blobs.hasNext())
+            blobs.next();
+         fail("expected the crawl to have been abandoned");
+      } catch (IllegalStateException e) {
+         // expected
+      }
+   }
+
+   private static BlobStore endlessListing(final AtomicInteger listings) {
+      BlobStore blobStore = createMock(BlobStore.class);
+      EasyMock.<PageSet<? extends StorageMetadata>> expect(
+            blobStore.list(eq(CONTAINER), anyObject(ListContainerOptions.class))).andAnswer(
+            new IAnswer<PageSet<? extends StorageMetadata>>() {
+               @Override
+               public PageSet<? extends StorageMetadata> answer() {
+                  int page = listings.incrementAndGet();
+                  return new PageSetImpl<StorageMetadata>(ImmutableList.of(blob("blob-" + page)), "m" + page);
+               }
+            }).anyTimes();
+      replay(blobStore);
+      return blobStore;
+   }
+
+   private static void expectList(BlobStore blobStore, ListContainerOptions options, String nextMarker,
+         StorageMetadata... contents) {
+      EasyMock.<PageSet<? extends StorageMetadata>> expect(blobStore.list(CONTAINER, options)).andAnswer(
+            answer(new PageSetImpl<StorageMetadata>(ImmutableList.copyOf(contents), nextMarker)));
+   }
+
+   private static IAnswer<PageSet<? extends StorageMetadata>> answer(final PageSet<StorageMetadata> page) {
+      return new IAnswer<PageSet<? extends StorageMetadata>>() {
+         @Override
+         public PageSet<? extends StorageMetadata> answer() {
+            assertEquals(getCurrentArguments()[0], CONTAINER);
+            return page;
+         }
+      };
+   }
+
+   private static StorageMetadata blob(String name) {
+      MutableBlobMetadata md = new MutableBlobMetadataImpl();
+      md.setType(StorageType.BLOB);
+      md.setName(name);
+      return md;
+   }
+
+   private static StorageMetadata folder(String name) {
+      MutableStorageMetadata md = new MutableStorageMetadataImpl();
+      md.setType(StorageType.RELATIVE_PATH);
+      md.setName(name);
+      return md;
+   }
+
+   /**
+    * @return the names of the blobs, sorted as they are listed concurrently
+    */
+   private static List<String> names(Iterable<BlobMetadata> blobs) {
+      return Ordering.natural().sortedCopy(Iterables.transform(blobs, new Function<BlobMetadata, String>() {
+         @Override
+         public String apply(BlobMetadata input) {
+            return input.getName();
+         }
+      }));
+   }
+}
@@ -19,8 +19,10 @@ package org.jclouds.blobstore.strategy.internal;
 import static org.easymock.EasyMock.createMock;
 import static org.easymock.EasyMock.createMockBuilder;
 import static org.easymock.EasyMock.createControl;
+import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.isA;
 import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
@@ -41,17 +43,23 @@ import org.jclouds.blobstore.BlobStore;
 import org.jclouds.blobstore.ContainerNotFoundException;
 import org.jclouds.blobstore.options.ListContainerOptions;
 import org.jclouds.util.Closeables2;
+import org.jclouds.blobstore.domain.MutableStorageMetadata;
 import org.jclouds.blobstore.domain.PageSet;
 import org.jclouds.blobstore.domain.StorageMetadata;
+import org.jclouds.blobstore.domain.StorageType;
+import org.jclouds.blobstore.domain.internal.MutableStorageMetadataImpl;
+import org.jclouds.blobstore.domain.internal.PageSetImpl;
 import org.jclouds.blobstore.internal.BlobRuntimeException;
 import org.jclouds.http.handlers.BackoffLimitedRetryHandler;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.inject.Injector;
 
 @Test(testName = "DeleteAllKeysInListTest", singleThreaded = true)
@@ -98,6 +106,32 @@ public class DeleteAllKeysInListTest {
       assertEquals(blobstore.countBlobs(containerName), 1111);
    }
 
+   public void testExecuteInBatches() {
+      deleter.setDeleteBatchSize(100);
+      deleter.execute(containerName);
+      assertEquals(blobstore.countBlobs(containerName), 0);
+   }
+
+   public void testBlobsOfAPageAreRemovedInBatches() {
+      BlobStore blobStore = createMock(BlobStore.class);
+      DeleteAllKeysInList testDeleter = new DeleteAllKeysInList(
+            MoreExecutors.sameThreadExecutor(), blobStore, retryHandler,
+            maxParallelDeletes);
+      testDeleter.setDeleteBatchSize(2);
+      EasyMock.<PageSet<? extends StorageMetadata>> expect(blobStore.list(
+                  eq(containerName), isA(ListContainerOptions.class)))
+            .andReturn(new PageSetImpl<StorageMetadata>(ImmutableList.of(
+                  blob("a"), blob("b"), blob("c"), blob("d"), blob("e")), null));
+      blobStore.removeBlobs(containerName, ImmutableList.of("a", "b"));
+      blobStore.removeBlobs(containerName, ImmutableList.of("c", "d"));
+      blobStore.removeBlobs(containerName, ImmutableList.of("e"));
+      replay(blobStore);
+
+      testDeleter.execute(containerName, ListContainerOptions.NONE);
+
+      verify(blobStore);
+   }
+
    public void testContainerNotFound() {
       IMocksControl mockControl = createControl();
       BlobStore blobStore = mockControl.createMock(BlobStore.class);
@@ -214,6 +248,13 @@ public class DeleteAllKeysInListTest {
       assertTrue(deleteFailure.get());
    }
 
+   private static StorageMetadata blob(String name) {
+      MutableStorageMetadata md = new MutableStorageMetadataImpl();
+      md.setType(StorageType.BLOB);
+      md.setName(name);
+      return md;
+   }
+
    /**
     * Create a container "container" with 1111 blobs named "blob-%d".  Create a
     * subdirectory "directory" which contains 2222 more blobs named
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.blobstore.strategy.internal;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.isA;
+import static org.easymock.EasyMock.replay;
+import static org.jclouds.util.Throwables2.getFirstThrowableOfType;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.blobstore.BlobStore;
+import org.jclouds.blobstore.KeyNotFoundException;
+import org.jclouds.blobstore.domain.BlobMetadata;
+import org.jclouds.blobstore.internal.BlobRuntimeException;
+import org.jclouds.blobstore.options.GetOptions;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.HttpResponseException;
+import org.jclouds.http.handlers.BackoffLimitedRetryHandler;
+import org.jclouds.util.Closeables2;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.inject.Injector;
+
+@Test(groups = "unit", testName = "GetBlobRangesInParallelTest", singleThreaded = true)
+public class GetBlobRangesInParallelTest {
+   private static final String containerName = "container";
+
+   private BlobStore blobstore;
+   private GetBlobRangesInParallel downloader;
+   private BackoffLimitedRetryHandler retryHandler;
+   private File destination;
+
+   @BeforeMethod
+   void setupBlobStore() throws IOException {
+      Injector injector = ContextBuilder.newBuilder("transient").buildInjector();
+      blobstore = injector.getInstance(BlobStore.class);
+      downloader = injector.getInstance(GetBlobRangesInParallel.class);
+      downloader.partSize = 1000;
+      downloader.parallelism = 3;
+      retryHandler = injector.getInstance(BackoffLimitedRetryHandler.class);
+      blobstore.createContainerInLocation(null, containerName);
+      destination = File.createTempFile("download", ".bin");
+   }
+
+   @AfterMethod
+   void close() {
+      destination.delete();
+      Closeables2.closeQuietly(blobstore.getContext());
+   }
+
+   public void testDownloadsAllParts() throws IOException {
+      byte[] content = new byte[10 * 1000 + 7];
+      new Random(42).nextBytes(content);
+      blobstore.putBlob(containerName, blobstore.blobBuilder("blob").payload(content).build());
+
+      downloader.execute(containerName, "blob", destination);
+
+      assertEquals(Files.toByteArray(destination), content);
+   }
+
+   public void testDownloadsBlobSmallerThanAPart() throws IOException {
+      blobstore.putBlob(containerName, blobstore.blobBuilder("blob").payload("small").build());
+
+      blobstore.downloadBlob(containerName, "blob", destination);
+
+      assertEquals(Files.toString(destination, Charsets.UTF_8), "small");
+   }
+
+   public void testDownloadsEmptyBlob() throws IOException {
+      Files.write(new byte[] { 1, 2, 3 }, destination);
+      blobstore.putBlob(containerName, blobstore.blobBuilder("blob").payload(new byte[0]).build());
+
+      downloader.execute(containerName, "blob", destination);
+
+      assertEquals(destination.length(), 0);
+   }
+
+   @Test(expectedExceptions = KeyNotFoundException.class)
+   public void testBlobNotFound() {
+      downloader.execute(containerName, "blob", destination);
+   }
+
+   public void testDeletesDestinationAfterMaxRetries() {
+      blobstore.putBlob(containerName, blobstore.blobBuilder("blob").payload(new byte[2500]).build());
+      BlobMetadata metadata = blobstore.blobMetadata(containerName, "blob");
+      BlobStore failing = createMock(BlobStore.class);
+      expect(failing.blobMetadata(containerName, "blob")).andReturn(metadata);
+      expect(failing.getBlob(isA(String.class), isA(String.class), isA(GetOptions.class))).andThrow(
+            new IllegalStateException("connection reset")).anyTimes();
+      replay(failing);
+      GetBlobRangesInParallel testDownloader = new GetBlobRangesInParallel(
+            MoreExecutors.listeningDecorator(MoreExecutors.sameThreadExecutor()), failing, retryHandler);
+      testDownloader.partSize = 1000;
+      testDownloader.maxRetries = 1;
+
+      try {
+         testDownloader.execute(containerName, "blob", destination);
+         fail("expected a BlobRuntimeException");
+      } catch (BlobRuntimeException e) {
+         assertFalse(destination.exists(), "a failed download should not leave a partial file");
+      }
+   }
+
+   public void testDoesNotRetryRangeOfChangedBlob() {
+      blobstore.putBlob(containerName, blobstore.blobBuilder("blob").payload(new byte[2500]).build());
+      BlobMetadata metadata = blobstore.blobMetadata(containerName, "blob");
+      BlobStore failing = createMock(BlobStore.class);
+      expect(failing.blobMetadata(containerName, "blob")).andReturn(metadata);
+      // a retry would fail with an unexpected call rather than the precondition
+      expect(failing.getBlob(isA(String.class), isA(String.class), isA(GetOptions.class))).andThrow(
+            new HttpResponseException("precondition failed", null, HttpResponse.builder().statusCode(412).build()));
+      replay(failing);
+      GetBlobRangesInParallel testDownloader = new GetBlobRangesInParallel(
+            MoreExecutors.listeningDecorator(MoreExecutors.sameThreadExecutor()), failing, retryHandler);
+      testDownloader.partSize = 1000;
+
+      try {
+         testDownloader.execute(containerName, "blob", destination);
+         fail("expected a BlobRuntimeException");
+      } catch (BlobRuntimeException e) {
+         assertNotNull(getFirstThrowableOfType(e, HttpResponseException.class), e.toString());
+         assertFalse(destination.exists(), "a failed download should not leave a partial file");
+      }
+   }
+}
@@ -17,10 +17,8 @@
 package org.jclouds.azure.storage.filters;
 
 import static com.google.common.io.BaseEncoding.base64;
-import static com.google.common.io.ByteStreams.readBytes;
-import static org.jclouds.crypto.Macs.asByteProcessor;
+import static org.jclouds.crypto.Macs.doFinal;
 import static org.jclouds.util.Patterns.NEWLINE_PATTERN;
-import static org.jclouds.util.Strings2.toInputStream;
 
 import java.util.Collection;
 import java.util.Set;
@@ -33,6 +31,7 @@ import javax.inject.Singleton;
 
 import org.jclouds.Constants;
 import org.jclouds.crypto.Crypto;
+import org.jclouds.crypto.StringToSign;
 import org.jclouds.date.TimeStamp;
 import org.jclouds.domain.Credentials;
 import org.jclouds.http.HttpException;
@@ -47,11 +46,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableMap.Builder;
-import com.google.common.collect.Multimaps;
 import com.google.common.collect.Sets;
-import com.google.common.io.ByteProcessor;
 import com.google.common.net.HttpHeaders;
 
 /**
@@ -99,25 +94,22 @@ public class SharedKeyLiteAuthentication implements HttpRequestFilter {
    }
 
    HttpRequest replaceDateHeader(HttpRequest request) {
-      Builder<String, String> builder = ImmutableMap.builder();
-      String date = timeStampProvider.get();
-      builder.put(HttpHeaders.DATE, date);
-      request = request.toBuilder().replaceHeaders(Multimaps.forMap(builder.build())).build();
-      return request;
+      return request.toBuilder().replaceHeader(HttpHeaders.DATE, timeStampProvider.get()).build();
    }
 
    public String createStringToSign(HttpRequest request) {
       utils.logRequest(signatureLog, request, ">>");
-      StringBuilder buffer = new StringBuilder();
+      StringBuilder buffer = StringToSign.buffer();
       // re-sign the request
       appendMethod(request, buffer);
       appendPayloadMetadata(request, buffer);
       appendHttpHeaders(request, buffer);
       appendCanonicalizedHeaders(request, buffer);
       appendCanonicalizedResource(request, buffer);
+      String toSign = buffer.toString();
       if (signatureWire.enabled())
-         signatureWire.output(buffer.toString());
-      return buffer.toString();
+         signatureWire.output(toSign);
+      return toSign;
    }
 
    private void appendPayloadMetadata(HttpRequest request, StringBuilder buffer) {
@@ -138,8 +130,7 @@ public class SharedKeyLiteAuthentication implements HttpRequestFilter {
 
    public String signString(String toSign) {
       try {
-         ByteProcessor<byte[]> hmacSHA256 = asByteProcessor(crypto.hmacSHA256(base64().decode(creds.get().credential)));
-         return base64().encode(readBytes(toInputStream(toSign), hmacSHA256));
+         return base64().encode(doFinal(crypto.pooledHmacSHA256(base64().decode(creds.get().credential)), toSign));
       } catch (Exception e) {
          throw new HttpException("error signing request", e);
       }
@@ -154,7 +145,7 @@ public class SharedKeyLiteAuthentication implements HttpRequestFilter {
       Set<String> headers = Sets.newTreeSet(request.getHeaders().keySet());
       for (String header : headers) {
          if (header.startsWith("x-ms-")) {
-            toSign.append(header.toLowerCase()).append(":");
+            StringToSign.appendLowerCase(toSign, header).append(':');
             for (String value : request.getHeaders().get(header)) {
                toSign.append(NEWLINE_PATTERN.matcher(value).replaceAll("")).append(",");
             }
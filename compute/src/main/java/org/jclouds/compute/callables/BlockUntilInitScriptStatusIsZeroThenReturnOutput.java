@@ -20,6 +20,9 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.jclouds.util.Predicates2.retry;
 
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -28,11 +31,14 @@ import java.util.concurrent.TimeoutException;
 import javax.annotation.Resource;
 
 import org.jclouds.Constants;
+import org.jclouds.compute.domain.ExecChannel;
 import org.jclouds.compute.domain.ExecResponse;
 import org.jclouds.compute.events.StatementOnNodeCompletion;
 import org.jclouds.compute.events.StatementOnNodeFailure;
 import org.jclouds.compute.reference.ComputeServiceConstants;
 import org.jclouds.logging.Logger;
+import org.jclouds.util.Closeables2;
+import org.jclouds.util.Strings2;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
@@ -42,6 +48,7 @@ import com.google.common.base.Predicates;
 import com.google.common.eventbus.EventBus;
 import com.google.common.primitives.Ints;
 import com.google.common.util.concurrent.AbstractFuture;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
@@ -49,6 +56,10 @@ import com.google.inject.name.Named;
 
 /**
  * A future that works in tandem with a task that was invoked by {@link InitScript}
+ * <p/>
+ * The status of the task is polled, unless
+ * {@link org.jclouds.compute.config.ComputeServiceProperties#INIT_STATUS_WAIT} is set, in which case
+ * the task is waited on over a single channel, falling back to polling if that fails.
  */
 public class BlockUntilInitScriptStatusIsZeroThenReturnOutput extends AbstractFuture<ExecResponse> implements Runnable {
 
@@ -70,11 +81,19 @@ public class BlockUntilInitScriptStatusIsZeroThenReturnOutput extends AbstractFu
 
    private Predicate<String> notRunningAnymore;
 
+   @VisibleForTesting
+   boolean waitForCompletion;
+
+   @VisibleForTesting
+   long waitTimeout = 600 * 1000;
+
    @Inject
    public BlockUntilInitScriptStatusIsZeroThenReturnOutput(
             @Named(Constants.PROPERTY_USER_THREADS) ListeningExecutorService userExecutor, EventBus eventBus,
             ComputeServiceConstants.InitStatusProperties properties, @Assisted SudoAwareInitManager commandRunner) {
       this(userExecutor, eventBus, Predicates.<String> alwaysTrue(), commandRunner);
+      this.waitForCompletion = properties.initStatusWait;
+      this.waitTimeout = properties.initStatusWaitTimeout;
       // this is mutable only until we can determine how to decouple "this" from here
       notRunningAnymore = loopUntilTrueOrThrowCancellationException(new ExitStatusOfCommandGreaterThanZero(
                commandRunner), properties.initStatusMaxPeriod, properties.initStatusInitialPeriod, this);
@@ -131,7 +150,13 @@ public class BlockUntilInitScriptStatusIsZeroThenReturnOutput extends AbstractFu
    @Override
    public void run() {
       try {
-         ExecResponse exec = null;
+         ExecResponse exec = waitForCompletion ? waitForCompletion() : null;
+         if (exec != null) {
+            logger.debug("<< complete(%s) status(%s)", commandRunner.getStatement().getInstanceName(), exec
+                     .getExitStatus());
+            set(exec);
+            return;
+         }
          do {
             notRunningAnymore.apply("status");
             String stdout = commandRunner.runAction("stdout").getOutput();
@@ -147,6 +172,63 @@ public class BlockUntilInitScriptStatusIsZeroThenReturnOutput extends AbstractFu
       }
    }
 
+   /**
+    * Runs the {@code wait} action of the init script, which blocks on the node until the script
+    * has written its exit status or stopped running. Its output is read for at most
+    * {@code waitTimeout} milliseconds.
+    * 
+    * @return the output and exit status of the script, or null if they could not be waited on
+    */
+   @VisibleForTesting
+   ExecResponse waitForCompletion() {
+      String marker = "jclouds-exit-status-" + UUID.randomUUID();
+      String output;
+      try {
+         final ExecChannel channel = commandRunner.execChannel("wait " + marker);
+         ListenableFuture<String> read = userExecutor.submit(new Callable<String>() {
+            @Override
+            public String call() throws IOException {
+               return Strings2.toStringAndClose(channel.getOutput());
+            }
+         });
+         try {
+            output = read.get(waitTimeout, MILLISECONDS);
+         } finally {
+            read.cancel(true);
+            Closeables2.closeQuietly(channel);
+         }
+      } catch (TimeoutException e) {
+         logger.debug("<< no exit status after waiting %dms for %s, polling its status instead", waitTimeout,
+               commandRunner);
+         return null;
+      } catch (Exception e) {
+         logger.debug("<< could not wait for %s, polling its status instead: %s", commandRunner, e.getMessage());
+         return null;
+      }
+      ExecResponse exec = parseWaitOutput(output, marker);
+      if (exec == null)
+         logger.debug("<< no exit status waiting for %s, polling its status instead", commandRunner);
+      return exec;
+   }
+
+   /**
+    * The {@code wait} action prints the stdout of the script, a line with the marker and the exit
+    * status, and then the stderr of the script.
+    */
+   @VisibleForTesting
+   static ExecResponse parseWaitOutput(String output, String marker) {
+      int start = output.indexOf("\n" + marker + " ");
+      if (start == -1)
+         return null;
+      int end = output.indexOf('\n', start + 1);
+      if (end == -1)
+         return null;
+      Integer exitStatus = Ints.tryParse(output.substring(start + marker.length() + 2, end).trim());
+      if (exitStatus == null)
+         return null;
+      return new ExecResponse(output.substring(0, start), output.substring(end + 1), exitStatus);
+   }
+
    @Override
    protected boolean set(ExecResponse value) {
       eventBus.post(new StatementOnNodeCompletion(getCommandRunner().getStatement(), getCommandRunner().getNode(),
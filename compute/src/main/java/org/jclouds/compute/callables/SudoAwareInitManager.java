@@ -19,9 +19,13 @@ package org.jclouds.compute.callables;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
+import java.io.Closeable;
+import java.io.IOException;
+
 import javax.annotation.Resource;
 import javax.inject.Named;
 
+import org.jclouds.compute.domain.ExecChannel;
 import org.jclouds.compute.domain.ExecResponse;
 import org.jclouds.compute.domain.NodeMetadata;
 import org.jclouds.compute.reference.ComputeServiceConstants;
@@ -93,6 +97,38 @@ public class SudoAwareInitManager {
       return returnVal;
    }
 
+   /**
+    * Runs an action on a channel of its own. The ssh client stays connected until the channel is
+    * closed.
+    * 
+    * @return the running action, which the caller must close
+    */
+   public ExecChannel execChannel(String action) {
+      checkState(ssh != null, "please call init() before invoking call");
+      String command = execScriptAsDefaultUser(action);
+      logger.trace(">> running [%s] as %s@%s on its own channel", command, ssh.getUsername(), ssh.getHostAddress());
+      final SshClient connected = ssh;
+      connected.connect();
+      final ExecChannel channel;
+      try {
+         channel = connected.execChannel(command);
+      } catch (RuntimeException e) {
+         connected.disconnect();
+         throw e;
+      }
+      return new ExecChannel(channel.getInput(), channel.getOutput(), channel.getError(), channel.getExitStatus(),
+            new Closeable() {
+               @Override
+               public void close() throws IOException {
+                  try {
+                     channel.close();
+                  } finally {
+                     connected.disconnect();
+                  }
+               }
+            });
+   }
+
    ExecResponse runCommand(String command) {
       String statement = String.format("[%s] as %s@%s", command.replace(
             node.getCredentials().getOptionalPassword().isPresent() ? node.getCredentials().getOptionalPassword().get() : "XXXXX", "XXXXX"), ssh
@@ -30,6 +30,19 @@ public interface ComputeServiceProperties {
    public static final String INIT_STATUS_INITIAL_PERIOD = "jclouds.compute.init-status.initial-period";
    public static final String INIT_STATUS_MAX_PERIOD = "jclouds.compute.init-status.max-period";
 
+   /**
+    * When true, the completion of an init script is waited on with one long running ssh command,
+    * which returns the output and exit status of the script as soon as it ends, instead of polling
+    * its status. Polling is still used if that command fails. Defaults to false.
+    */
+   public static final String INIT_STATUS_WAIT = "jclouds.compute.init-status.wait";
+
+   /**
+    * Milliseconds to wait for the output of an init script when {@link #INIT_STATUS_WAIT} is set.
+    * After that its status is polled instead. Defaults to 600000.
+    */
+   public static final String INIT_STATUS_WAIT_TIMEOUT = "jclouds.compute.init-status.wait-timeout";
+
    /**
     * Initial period between the ComputeService's node polls. Subsequent periods increase exponentially
     * (based on the backoff factor) and become constant when the maximum period is reached.
@@ -44,6 +57,26 @@ public interface ComputeServiceProperties {
     */
    public static final String POLL_MAX_PERIOD = "jclouds.compute.poll-status.max-period";
 
+   /**
+    * When true, nodes waited on concurrently are refreshed together with one
+    * {@link org.jclouds.compute.strategy.ListNodesStrategy#listNodesByIds} call per region instead of one
+    * {@link org.jclouds.compute.strategy.GetNodeMetadataStrategy#getNode} call per node. Defaults to false.
+    */
+   public static final String POLL_STATUS_IN_BATCH = "jclouds.compute.poll-status.batch";
+
+   /**
+    * Maximum number of idle ssh connections kept open for each node and login, so that later
+    * scripts, init script status checks and file transfers on the node skip the key exchange and
+    * authentication. Set to 0 to disconnect ssh clients as soon as they are done. Defaults to 2.
+    */
+   public static final String SSH_POOL_MAX_IDLE_PER_NODE = "jclouds.compute.ssh-pool.max-idle-per-node";
+
+   /**
+    * Time in milliseconds after which an idle pooled ssh connection is disconnected. Defaults to
+    * 60000.
+    */
+   public static final String SSH_POOL_IDLE_TIMEOUT = "jclouds.compute.ssh-pool.idle-timeout";
+
    /**
     * time in milliseconds to wait for an image to finish creating.
     * 
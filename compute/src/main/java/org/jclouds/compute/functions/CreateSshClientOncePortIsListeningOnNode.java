@@ -32,6 +32,7 @@ import org.jclouds.compute.reference.ComputeServiceConstants.Timeouts;
 import org.jclouds.compute.util.OpenSocketFinder;
 import org.jclouds.logging.Logger;
 import org.jclouds.ssh.SshClient;
+import org.jclouds.ssh.internal.SshClientPool;
 
 import com.google.common.base.Function;
 import com.google.common.net.HostAndPort;
@@ -47,12 +48,15 @@ public class CreateSshClientOncePortIsListeningOnNode implements Function<NodeMe
    SshClient.Factory sshFactory;
 
    private final OpenSocketFinder openSocketFinder;
+   private final SshClientPool sshClientPool;
 
    private final long timeoutMs;
    
    @Inject
-   public CreateSshClientOncePortIsListeningOnNode(OpenSocketFinder openSocketFinder, Timeouts timeouts) {
+   public CreateSshClientOncePortIsListeningOnNode(OpenSocketFinder openSocketFinder, Timeouts timeouts,
+         SshClientPool sshClientPool) {
       this.openSocketFinder = openSocketFinder;
+      this.sshClientPool = sshClientPool;
       this.timeoutMs = timeouts.portOpen;
    }
 
@@ -65,6 +69,6 @@ public class CreateSshClientOncePortIsListeningOnNode implements Function<NodeMe
                .getCredentials().identity, node.getId());
       HostAndPort socket = openSocketFinder.findOpenSocketOnNode(node, node.getLoginPort(), 
                timeoutMs, TimeUnit.MILLISECONDS);
-      return sshFactory.create(socket, node.getCredentials());
+      return sshClientPool.create(sshFactory, socket, node.getCredentials());
    }
 }
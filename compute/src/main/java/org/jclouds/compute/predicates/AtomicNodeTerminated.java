@@ -20,15 +20,21 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.jclouds.compute.domain.NodeMetadata;
 import org.jclouds.compute.domain.NodeMetadata.Status;
+import org.jclouds.compute.predicates.internal.NodeStatusPoller;
 import org.jclouds.compute.predicates.internal.TrueIfNullOrDeletedRefreshAndDoubleCheckOnFalse;
 import org.jclouds.compute.strategy.GetNodeMetadataStrategy;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.inject.Inject;
 
 public class AtomicNodeTerminated extends TrueIfNullOrDeletedRefreshAndDoubleCheckOnFalse<NodeMetadata.Status, NodeMetadata> {
 
    private final GetNodeMetadataStrategy client;
 
+   @Inject(optional = true)
+   @VisibleForTesting
+   NodeStatusPoller poller;
+
    @Inject
    public AtomicNodeTerminated(GetNodeMetadataStrategy client) {
       super(Status.TERMINATED);
@@ -39,6 +45,8 @@ public class AtomicNodeTerminated extends TrueIfNullOrDeletedRefreshAndDoubleChe
    protected NodeMetadata refreshOrNull(NodeMetadata resource) {
       if (resource == null || resource.getId() == null)
          return null;
+      if (poller != null && poller.isEnabled())
+         return poller.refresh(resource);
       return client.getNode(resource.getId());
    }
 }
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.compute.predicates.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.jclouds.compute.config.ComputeServiceProperties.POLL_STATUS_IN_BATCH;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Resource;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.compute.domain.NodeMetadata;
+import org.jclouds.compute.reference.ComputeServiceConstants;
+import org.jclouds.compute.reference.ComputeServiceConstants.PollPeriod;
+import org.jclouds.compute.strategy.GetNodeMetadataStrategy;
+import org.jclouds.compute.strategy.ListNodesStrategy;
+import org.jclouds.domain.Location;
+import org.jclouds.domain.LocationScope;
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.logging.Logger;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.inject.Inject;
+
+/**
+ * Coalesces the refreshes of nodes which are waited on concurrently, so that each poll issues one
+ * {@link ListNodesStrategy#listNodesByIds} call per region for all nodes pending at that time.
+ * <p/>
+ * No thread of its own is used: the first caller that finds no poll in progress waits for the
+ * current poll period, so that other callers can join the batch, and then polls on behalf of all
+ * of them. The period doubles, up to {@link PollPeriod#pollMaxPeriod}, whenever a poll fails and
+ * halves, down to {@link PollPeriod#pollInitialPeriod}, whenever one succeeds.
+ * <p/>
+ * A node missing from the listing of its region is looked up with
+ * {@link GetNodeMetadataStrategy#getNode} before it is reported gone, as a provider may leave out
+ * a region which it could not list.
+ */
+@Singleton
+public class NodeStatusPoller {
+
+   @Resource
+   @Named(ComputeServiceConstants.COMPUTE_LOGGER)
+   protected Logger logger = Logger.NULL;
+
+   @Inject(optional = true)
+   @Named(POLL_STATUS_IN_BATCH)
+   @VisibleForTesting
+   boolean enabled = false;
+
+   private final ListNodesStrategy listNodes;
+   private final GetNodeMetadataStrategy getNode;
+   private final long initialPeriod;
+   private final long maxPeriod;
+   private final AtomicLong period;
+   private final AtomicBoolean polling = new AtomicBoolean();
+   private final ConcurrentMap<String, PendingNode> pending = Maps.newConcurrentMap();
+
+   @Inject
+   NodeStatusPoller(ListNodesStrategy listNodes, GetNodeMetadataStrategy getNode, PollPeriod pollPeriod) {
+      this.listNodes = checkNotNull(listNodes, "listNodes");
+      this.getNode = checkNotNull(getNode, "getNode");
+      this.initialPeriod = pollPeriod.pollInitialPeriod;
+      this.maxPeriod = Math.max(pollPeriod.pollMaxPeriod, pollPeriod.pollInitialPeriod);
+      this.period = new AtomicLong(initialPeriod);
+   }
+
+   public boolean isEnabled() {
+      return enabled;
+   }
+
+   /**
+    * Blocks until the next poll that includes this node completes.
+    *
+    * @return the current state of the node, or null if the provider no longer knows it
+    */
+   @Nullable
+   public NodeMetadata refresh(NodeMetadata node) {
+      PendingNode candidate = new PendingNode(regionOf(node));
+      PendingNode existing = pending.putIfAbsent(node.getId(), candidate);
+      SettableFuture<NodeMetadata> future = existing != null ? existing.future : candidate.future;
+      try {
+         while (!future.isDone()) {
+            if (polling.compareAndSet(false, true)) {
+               try {
+                  MILLISECONDS.sleep(period.get());
+                  poll();
+               } finally {
+                  polling.set(false);
+               }
+            } else {
+               try {
+                  // the poll in progress may have started before this node was added
+                  return future.get(Math.max(period.get(), 1), MILLISECONDS);
+               } catch (TimeoutException e) {
+                  continue;
+               }
+            }
+         }
+         return future.get();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw Throwables.propagate(e);
+      } catch (ExecutionException e) {
+         throw Throwables.propagate(e.getCause());
+      }
+   }
+
+   @VisibleForTesting
+   long getPeriod() {
+      return period.get();
+   }
+
+   private void poll() {
+      Map<String, PendingNode> batch = Maps.newHashMap();
+      for (String id : ImmutableSet.copyOf(pending.keySet())) {
+         PendingNode node = pending.remove(id);
+         if (node != null)
+            batch.put(id, node);
+      }
+      Multimap<String, String> idsByRegion = ArrayListMultimap.create();
+      for (Map.Entry<String, PendingNode> entry : batch.entrySet()) {
+         idsByRegion.put(entry.getValue().region, entry.getKey());
+      }
+      boolean failed = false;
+      for (Map.Entry<String, Collection<String>> region : idsByRegion.asMap().entrySet()) {
+         logger.trace("<< refreshing %d nodes in region %s", region.getValue().size(), region.getKey());
+         try {
+            for (NodeMetadata node : listNodes.listNodesByIds(region.getValue())) {
+               PendingNode waiting = batch.remove(node.getId());
+               if (waiting != null)
+                  waiting.future.set(node);
+            }
+         } catch (RuntimeException e) {
+            failed = true;
+            logger.warn(e, "<< error refreshing nodes %s", region.getValue());
+            for (String id : region.getValue()) {
+               PendingNode waiting = batch.remove(id);
+               if (waiting != null)
+                  waiting.future.setException(e);
+            }
+         }
+      }
+      // only the provider knows whether a node it didn't return is gone or in a region it left out
+      for (Map.Entry<String, PendingNode> missing : batch.entrySet()) {
+         try {
+            missing.getValue().future.set(getNode.getNode(missing.getKey()));
+         } catch (RuntimeException e) {
+            failed = true;
+            logger.warn(e, "<< error refreshing node %s", missing.getKey());
+            missing.getValue().future.setException(e);
+         }
+      }
+      long current = period.get();
+      period.set(failed ? Math.min(current * 2, maxPeriod) : Math.max(current / 2, initialPeriod));
+   }
+
+   @Nullable
+   private static String regionOf(NodeMetadata node) {
+      for (Location location = node.getLocation(); location != null; location = location.getParent()) {
+         if (location.getScope() == LocationScope.REGION)
+            return location.getId();
+      }
+      return null;
+   }
+
+   private static class PendingNode {
+      private final String region;
+      private final SettableFuture<NodeMetadata> future = SettableFuture.create();
+
+      private PendingNode(@Nullable String region) {
+         this.region = region;
+      }
+   }
+}
@@ -26,6 +26,7 @@ import org.jclouds.compute.domain.NodeMetadata;
 import org.jclouds.compute.domain.NodeMetadata.Status;
 import org.jclouds.compute.strategy.GetNodeMetadataStrategy;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableSet;
 import com.google.inject.Inject;
 
@@ -40,6 +41,10 @@ public class RefreshNodeAndDoubleCheckOnFailUnlessStatusInvalid extends RefreshA
 
    private final GetNodeMetadataStrategy client;
 
+   @Inject(optional = true)
+   @VisibleForTesting
+   NodeStatusPoller poller;
+
    @Inject
    public RefreshNodeAndDoubleCheckOnFailUnlessStatusInvalid(Status intended, GetNodeMetadataStrategy client) {
       this(intended, ImmutableSet.of(Status.ERROR), client);
@@ -55,6 +60,8 @@ public class RefreshNodeAndDoubleCheckOnFailUnlessStatusInvalid extends RefreshA
    protected NodeMetadata refreshOrNull(NodeMetadata resource) {
       if (resource == null || resource.getId() == null)
          return null;
+      if (poller != null && poller.isEnabled())
+         return poller.refresh(resource);
       return client.getNode(resource.getId());
    }
 }
@@ -17,6 +17,8 @@
 package org.jclouds.compute.reference;
 import static org.jclouds.compute.config.ComputeServiceProperties.INIT_STATUS_INITIAL_PERIOD;
 import static org.jclouds.compute.config.ComputeServiceProperties.INIT_STATUS_MAX_PERIOD;
+import static org.jclouds.compute.config.ComputeServiceProperties.INIT_STATUS_WAIT;
+import static org.jclouds.compute.config.ComputeServiceProperties.INIT_STATUS_WAIT_TIMEOUT;
 import static org.jclouds.compute.config.ComputeServiceProperties.OS_VERSION_MAP_JSON;
 import static org.jclouds.compute.config.ComputeServiceProperties.POLL_INITIAL_PERIOD;
 import static org.jclouds.compute.config.ComputeServiceProperties.POLL_MAX_PERIOD;
@@ -67,6 +69,14 @@ public final class ComputeServiceConstants {
       @Inject(optional = true)
       @Named(INIT_STATUS_MAX_PERIOD)
       public long initStatusMaxPeriod = 5000;
+
+      @Inject(optional = true)
+      @Named(INIT_STATUS_WAIT)
+      public boolean initStatusWait = false;
+
+      @Inject(optional = true)
+      @Named(INIT_STATUS_WAIT_TIMEOUT)
+      public long initStatusWaitTimeout = 600 * 1000;
    }
 
    @Singleton
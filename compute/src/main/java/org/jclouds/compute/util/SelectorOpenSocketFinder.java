@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.compute.util;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Throwables.propagate;
+import static com.google.common.util.concurrent.Atomics.newReference;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.jclouds.compute.config.ComputeServiceProperties.SOCKET_FINDER_ALLOWED_INTERFACES;
+import static org.jclouds.compute.config.ComputeServiceProperties.TIMEOUT_NODE_RUNNING;
+import static org.jclouds.compute.util.ConcurrentOpenSocketFinder.checkNodeHasIps;
+import static org.jclouds.util.Closeables2.closeQuietly;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.Resource;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.compute.domain.NodeMetadata;
+import org.jclouds.compute.reference.ComputeServiceConstants;
+import org.jclouds.compute.util.ConcurrentOpenSocketFinder.AllowedInterfaces;
+import org.jclouds.lifecycle.Closer;
+import org.jclouds.logging.Logger;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import com.google.common.net.HostAndPort;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.inject.Inject;
+
+/**
+ * An {@link OpenSocketFinder} that probes the sockets of all nodes from a single thread, using
+ * non-blocking connects multiplexed over one {@link Selector}, instead of a blocking
+ * {@link org.jclouds.predicates.SocketOpen} task per address and attempt.
+ * <p/>
+ * As with {@link ConcurrentOpenSocketFinder}, each address is attempted once per second until one
+ * accepts a connection, the timeout expires or the node is no longer running. To use it, bind it in
+ * a module passed to the context:
+ *
+ * <pre>
+ * bind(OpenSocketFinder.class).to(SelectorOpenSocketFinder.class);
+ * </pre>
+ */
+@Singleton
+public class SelectorOpenSocketFinder implements OpenSocketFinder, Closeable {
+
+   @Resource
+   @Named(ComputeServiceConstants.COMPUTE_LOGGER)
+   private Logger logger = Logger.NULL;
+
+   private static final long ATTEMPT_NANOS = SECONDS.toNanos(1);
+
+   private final Predicate<AtomicReference<NodeMetadata>> nodeRunning;
+   private final Queue<Probe> newProbes = new ConcurrentLinkedQueue<Probe>();
+   private Selector selector;
+   private Thread prober;
+   private volatile boolean closed;
+
+   @Inject(optional = true)
+   @Named(SOCKET_FINDER_ALLOWED_INTERFACES)
+   private AllowedInterfaces allowedInterfaces = AllowedInterfaces.ALL;
+
+   @Inject
+   @VisibleForTesting
+   SelectorOpenSocketFinder(@Named(TIMEOUT_NODE_RUNNING) Predicate<AtomicReference<NodeMetadata>> nodeRunning,
+         Closer closer) {
+      this.nodeRunning = checkNotNull(nodeRunning, "nodeRunning");
+      closer.addToClose(this);
+   }
+
+   @Override
+   public HostAndPort findOpenSocketOnNode(NodeMetadata node, final int port, long timeout, TimeUnit timeUnits) {
+      Set<HostAndPort> sockets = checkNodeHasIps(node, allowedInterfaces).transform(
+            new Function<String, HostAndPort>() {
+
+               @Override
+               public HostAndPort apply(String from) {
+                  return HostAndPort.fromParts(from, port);
+               }
+            }).toSet();
+
+      SettableFuture<HostAndPort> found = SettableFuture.create();
+      long deadline = System.nanoTime() + timeUnits.toNanos(timeout);
+      logger.debug(">> probing sockets %s for %d %s", sockets, timeout, timeUnits);
+      try {
+         for (long remaining = timeUnits.toNanos(timeout); remaining > 0; remaining = deadline - System.nanoTime()) {
+            long attemptDeadline = System.nanoTime() + Math.min(ATTEMPT_NANOS, remaining);
+            for (HostAndPort socket : sockets) {
+               probe(new Probe(socket, found, attemptDeadline));
+            }
+            try {
+               HostAndPort result = found.get(Math.max(attemptDeadline - System.nanoTime(), 0), NANOSECONDS);
+               logger.debug("<< socket %s opened", result);
+               return result;
+            } catch (TimeoutException e) {
+               if (!nodeRunning.apply(newReference(node))) {
+                  throw new IllegalStateException(node.getId() + " is no longer running; aborting socket open loop");
+               }
+            }
+         }
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw propagate(e);
+      } catch (ExecutionException e) {
+         throw propagate(e.getCause());
+      } finally {
+         // lets the prober drop the attempts still in flight for this node
+         found.cancel(false);
+      }
+      logger.warn("<< sockets %s didn't open after %d %s", sockets, timeout, timeUnits);
+      throw new NoSuchElementException(format("could not connect to any ip address port %d on node %s", port, node));
+   }
+
+   private void probe(Probe probe) {
+      if (probe.address.isUnresolved()) {
+         logger.debug("<< could not resolve %s", probe.socket);
+         return;
+      }
+      ensureProberStarted();
+      newProbes.add(probe);
+      selector.wakeup();
+   }
+
+   private synchronized void ensureProberStarted() {
+      checkState(!closed, "socket finder is closed");
+      if (prober != null)
+         return;
+      try {
+         selector = Selector.open();
+      } catch (IOException e) {
+         throw propagate(e);
+      }
+      prober = new Thread(new Runnable() {
+         @Override
+         public void run() {
+            try {
+               while (!closed) {
+                  selector.select(100);
+                  try {
+                     connectNewProbes();
+                     finishConnects();
+                     dropExpiredProbes();
+                  } catch (RuntimeException e) {
+                     logger.warn(e, "error probing sockets");
+                  }
+               }
+            } catch (IOException e) {
+               logger.error(e, "socket prober stopped");
+            } finally {
+               for (SelectionKey key : selector.keys()) {
+                  closeQuietly(key.channel());
+               }
+               closeQuietly(selector);
+            }
+         }
+      }, "socket prober");
+      prober.setDaemon(true);
+      prober.start();
+   }
+
+   private void connectNewProbes() {
+      for (Probe probe = newProbes.poll(); probe != null; probe = newProbes.poll()) {
+         if (probe.found.isDone())
+            continue;
+         SocketChannel channel = null;
+         try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            if (channel.connect(probe.address)) {
+               probe.found.set(probe.socket);
+               closeQuietly(channel);
+            } else {
+               channel.register(selector, SelectionKey.OP_CONNECT, probe);
+            }
+         } catch (IOException e) {
+            logger.trace("<< %s not reachable: %s", probe.socket, e.getMessage());
+            closeQuietly(channel);
+         }
+      }
+   }
+
+   private void finishConnects() {
+      for (SelectionKey key : selector.selectedKeys()) {
+         Probe probe = (Probe) key.attachment();
+         SocketChannel channel = (SocketChannel) key.channel();
+         try {
+            if (channel.finishConnect())
+               probe.found.set(probe.socket);
+         } catch (IOException e) {
+            logger.trace("<< %s not reachable: %s", probe.socket, e.getMessage());
+         } finally {
+            key.cancel();
+            closeQuietly(channel);
+         }
+      }
+      selector.selectedKeys().clear();
+   }
+
+   private void dropExpiredProbes() {
+      long now = System.nanoTime();
+      for (SelectionKey key : selector.keys()) {
+         Probe probe = (Probe) key.attachment();
+         if (key.isValid() && (probe.found.isDone() || now - probe.deadline >= 0)) {
+            key.cancel();
+            closeQuietly(key.channel());
+         }
+      }
+   }
+
+   /**
+    * Stops the probing thread; called when the context is closed.
+    */
+   @Override
+   public void close() {
+      closed = true;
+      synchronized (this) {
+         if (selector != null)
+            selector.wakeup();
+      }
+   }
+
+   private static class Probe {
+      private final HostAndPort socket;
+      private final InetSocketAddress address;
+      private final SettableFuture<HostAndPort> found;
+      private final long deadline;
+
+      private Probe(HostAndPort socket, SettableFuture<HostAndPort> found, long deadline) {
+         this.socket = socket;
+         this.address = new InetSocketAddress(socket.getHostText(), socket.getPort());
+         this.found = found;
+         this.deadline = deadline;
+      }
+   }
+}
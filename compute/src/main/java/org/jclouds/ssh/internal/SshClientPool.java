@@ -0,0 +1,313 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.ssh.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.compute.config.ComputeServiceProperties.SSH_POOL_IDLE_TIMEOUT;
+import static org.jclouds.compute.config.ComputeServiceProperties.SSH_POOL_MAX_IDLE_PER_NODE;
+
+import java.io.Closeable;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.compute.domain.ExecChannel;
+import org.jclouds.compute.domain.ExecResponse;
+import org.jclouds.compute.reference.ComputeServiceConstants;
+import org.jclouds.domain.LoginCredentials;
+import org.jclouds.io.Payload;
+import org.jclouds.logging.Logger;
+import org.jclouds.ssh.SshClient;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Objects;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.net.HostAndPort;
+import com.google.inject.Inject;
+
+/**
+ * Keeps connected ssh clients open after use, so that the next client for the same node and login
+ * reuses the connection instead of going through key exchange and authentication again. Exec and
+ * sftp channels are opened on the pooled connection as usual.
+ * <p/>
+ * The clients handed out connect by borrowing an idle connection, or opening a new one, and
+ * disconnect by returning it. A connection which failed while borrowed is disconnected rather than
+ * returned. At most {@link org.jclouds.compute.config.ComputeServiceProperties#SSH_POOL_MAX_IDLE_PER_NODE}
+ * idle connections are kept per node and login, and connections idle for longer than
+ * {@link org.jclouds.compute.config.ComputeServiceProperties#SSH_POOL_IDLE_TIMEOUT} are disconnected
+ * the next time the pool is used, or when the context is closed.
+ */
+@Singleton
+public class SshClientPool implements Closeable {
+
+   @Resource
+   @Named(ComputeServiceConstants.COMPUTE_LOGGER)
+   protected Logger logger = Logger.NULL;
+
+   @Inject(optional = true)
+   @Named(SSH_POOL_MAX_IDLE_PER_NODE)
+   @VisibleForTesting
+   int maxIdlePerNode = 2;
+
+   @Inject(optional = true)
+   @Named(SSH_POOL_IDLE_TIMEOUT)
+   @VisibleForTesting
+   long idleTimeout = 60 * 1000;
+
+   private final Map<Key, Deque<IdleClient>> idle = Maps.newHashMap();
+   private boolean closed;
+
+   /**
+    * @return a client for the node at {@code socket} which connects through the pool, or a client
+    *         of the factory itself if pooling is disabled
+    */
+   public SshClient create(SshClient.Factory factory, HostAndPort socket, LoginCredentials credentials) {
+      checkNotNull(factory, "factory");
+      if (maxIdlePerNode <= 0)
+         return factory.create(socket, credentials);
+      return new PooledSshClient(factory, new Key(checkNotNull(socket, "socket"), checkNotNull(credentials,
+            "credentials")));
+   }
+
+   SshClient borrow(SshClient.Factory factory, Key key) {
+      disconnectAll(evictExpired());
+      SshClient client = null;
+      synchronized (this) {
+         Deque<IdleClient> clients = idle.get(key);
+         if (clients != null && !clients.isEmpty())
+            client = clients.removeFirst().client;
+      }
+      if (client != null) {
+         logger.trace("<< reusing ssh connection to %s", key);
+         return client;
+      }
+      client = factory.create(key.socket, key.credentials);
+      client.connect();
+      return client;
+   }
+
+   void release(Key key, SshClient client, boolean broken) {
+      List<SshClient> toDisconnect = evictExpired();
+      if (broken) {
+         toDisconnect.add(client);
+      } else {
+         synchronized (this) {
+            if (closed) {
+               toDisconnect.add(client);
+            } else {
+               Deque<IdleClient> clients = idle.get(key);
+               if (clients == null)
+                  idle.put(key, clients = Lists.<IdleClient> newLinkedList());
+               clients.addFirst(new IdleClient(client));
+               while (clients.size() > maxIdlePerNode)
+                  toDisconnect.add(clients.removeLast().client);
+            }
+         }
+      }
+      disconnectAll(toDisconnect);
+   }
+
+   private synchronized List<SshClient> evictExpired() {
+      List<SshClient> expired = Lists.newArrayList();
+      long now = System.currentTimeMillis();
+      for (Iterator<Deque<IdleClient>> clients = idle.values().iterator(); clients.hasNext();) {
+         Deque<IdleClient> forNode = clients.next();
+         // most recently used first, so the oldest are at the end
+         while (!forNode.isEmpty() && now - forNode.getLast().since >= idleTimeout)
+            expired.add(forNode.removeLast().client);
+         if (forNode.isEmpty())
+            clients.remove();
+      }
+      return expired;
+   }
+
+   private void disconnectAll(Iterable<SshClient> clients) {
+      for (SshClient client : clients) {
+         try {
+            client.disconnect();
+         } catch (RuntimeException e) {
+            logger.warn(e, "<< error disconnecting %s", client);
+         }
+      }
+   }
+
+   /**
+    * Disconnects all idle connections. Clients still borrowed are disconnected when returned.
+    */
+   @PreDestroy
+   @Override
+   public void close() {
+      List<SshClient> toDisconnect = Lists.newArrayList();
+      synchronized (this) {
+         closed = true;
+         for (Deque<IdleClient> clients : idle.values()) {
+            for (IdleClient client : clients)
+               toDisconnect.add(client.client);
+         }
+         idle.clear();
+      }
+      disconnectAll(toDisconnect);
+   }
+
+   private static final class IdleClient {
+      private final SshClient client;
+      private final long since = System.currentTimeMillis();
+
+      private IdleClient(SshClient client) {
+         this.client = client;
+      }
+   }
+
+   static final class Key {
+      private final HostAndPort socket;
+      private final LoginCredentials credentials;
+
+      private Key(HostAndPort socket, LoginCredentials credentials) {
+         this.socket = socket;
+         this.credentials = credentials;
+      }
+
+      @Override
+      public boolean equals(Object obj) {
+         if (this == obj)
+            return true;
+         if (!(obj instanceof Key))
+            return false;
+         Key that = (Key) obj;
+         return socket.equals(that.socket) && credentials.equals(that.credentials);
+      }
+
+      @Override
+      public int hashCode() {
+         return Objects.hashCode(socket, credentials);
+      }
+
+      @Override
+      public String toString() {
+         return credentials.getUser() + "@" + socket;
+      }
+   }
+
+   /**
+    * Not thread safe, like the clients it borrows.
+    */
+   private final class PooledSshClient implements SshClient {
+      private final SshClient.Factory factory;
+      private final Key key;
+      private SshClient borrowed;
+      private boolean broken;
+
+      private PooledSshClient(SshClient.Factory factory, Key key) {
+         this.factory = factory;
+         this.key = key;
+      }
+
+      @Override
+      public void connect() {
+         if (borrowed == null) {
+            borrowed = borrow(factory, key);
+            broken = false;
+         }
+      }
+
+      @Override
+      public void disconnect() {
+         if (borrowed != null) {
+            SshClient client = borrowed;
+            borrowed = null;
+            release(key, client, broken);
+         }
+      }
+
+      private SshClient borrowed() {
+         connect();
+         return borrowed;
+      }
+
+      @Override
+      public ExecResponse exec(String command) {
+         try {
+            return borrowed().exec(command);
+         } catch (RuntimeException e) {
+            broken = true;
+            throw e;
+         }
+      }
+
+      @Override
+      public ExecChannel execChannel(String command) {
+         try {
+            return borrowed().execChannel(command);
+         } catch (RuntimeException e) {
+            broken = true;
+            throw e;
+         }
+      }
+
+      @Override
+      public void put(String path, Payload contents) {
+         try {
+            borrowed().put(path, contents);
+         } catch (RuntimeException e) {
+            broken = true;
+            throw e;
+         }
+      }
+
+      @Override
+      public void put(String path, String contents) {
+         try {
+            borrowed().put(path, contents);
+         } catch (RuntimeException e) {
+            broken = true;
+            throw e;
+         }
+      }
+
+      @Override
+      public Payload get(String path) {
+         try {
+            return borrowed().get(path);
+         } catch (RuntimeException e) {
+            broken = true;
+            throw e;
+         }
+      }
+
+      @Override
+      public String getUsername() {
+         return key.credentials.getUser();
+      }
+
+      @Override
+      public String getHostAddress() {
+         return key.socket.getHostText();
+      }
+
+      @Override
+      public String toString() {
+         return borrowed != null ? borrowed.toString() : key.toString();
+      }
+   }
+}
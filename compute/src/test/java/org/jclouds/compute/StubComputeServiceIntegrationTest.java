@@ -21,11 +21,13 @@ import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.reportMatcher;
+import static org.jclouds.compute.config.ComputeServiceProperties.SSH_POOL_MAX_IDLE_PER_NODE;
 import static org.jclouds.util.Predicates2.retry;
 import static org.testng.Assert.assertEquals;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -65,6 +67,14 @@ public class StubComputeServiceIntegrationTest extends BaseComputeServiceLiveTes
       provider = "stub";
    }
 
+   @Override
+   protected Properties setupProperties() {
+      Properties overrides = super.setupProperties();
+      // the ssh clients below expect a connection per script
+      overrides.setProperty(SSH_POOL_MAX_IDLE_PER_NODE, "0");
+      return overrides;
+   }
+
    @Override
    public void testCorrectAuthException() throws Exception {
    }
@@ -15,28 +15,44 @@
  * limitations under the License.
  */
 package org.jclouds.compute.callables;
+import static com.google.common.base.Charsets.UTF_8;
 import static org.easymock.EasyMock.createMockBuilder;
 import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.getCurrentArguments;
 import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.startsWith;
 import static org.easymock.EasyMock.verify;
 import static org.jclouds.compute.callables.BlockUntilInitScriptStatusIsZeroThenReturnOutput.loopUntilTrueOrThrowCancellationException;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.easymock.IAnswer;
 import org.jclouds.compute.callables.BlockUntilInitScriptStatusIsZeroThenReturnOutput.ExitStatusOfCommandGreaterThanZero;
+import org.jclouds.compute.domain.ExecChannel;
 import org.jclouds.compute.domain.ExecResponse;
 import org.jclouds.compute.domain.NodeMetadata;
 import org.jclouds.compute.domain.NodeMetadataBuilder;
 import org.jclouds.scriptbuilder.InitScript;
+import org.jclouds.ssh.SshException;
 import org.testng.annotations.Test;
 
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
+import com.google.common.base.Suppliers;
 import com.google.common.eventbus.EventBus;
+import com.google.common.io.ByteStreams;
 import com.google.common.util.concurrent.AbstractFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
@@ -272,6 +288,139 @@ public class BlockUntilInitScriptStatusIsZeroThenReturnOutputTest {
 
    }
 
+   public void testParseWaitOutput() {
+      assertEquals(BlockUntilInitScriptStatusIsZeroThenReturnOutput.parseWaitOutput(
+            "line1\nline2\nmarker 444\nerr\n", "marker"), new ExecResponse("line1\nline2", "err\n", 444));
+      assertEquals(BlockUntilInitScriptStatusIsZeroThenReturnOutput.parseWaitOutput("\nmarker 0\n", "marker"),
+            new ExecResponse("", "", 0));
+      assertNull(BlockUntilInitScriptStatusIsZeroThenReturnOutput.parseWaitOutput("stdout\n", "marker"));
+      assertNull(BlockUntilInitScriptStatusIsZeroThenReturnOutput.parseWaitOutput("\nmarker \n", "marker"));
+   }
+
+   public void testWaitForCompletionReturnsExecResponseWithoutPolling() throws InterruptedException,
+            ExecutionException {
+      ListeningExecutorService userExecutor = MoreExecutors.newDirectExecutorService();
+      Predicate<String> notRunningAnymore = Predicates.alwaysTrue();
+      SudoAwareInitManager commandRunner = createMockBuilder(SudoAwareInitManager.class).addMockedMethod("execChannel")
+               .addMockedMethod("runAction").addMockedMethod("getStatement").addMockedMethod("getNode")
+               .addMockedMethod("toString").createStrictMock();
+      InitScript initScript = createMockBuilder(InitScript.class).addMockedMethod("getInstanceName").createStrictMock();
+
+      expect(commandRunner.execChannel(startsWith("wait "))).andAnswer(new IAnswer<ExecChannel>() {
+         @Override
+         public ExecChannel answer() {
+            String marker = getCurrentArguments()[0].toString().substring("wait ".length());
+            return execChannel("stdout\n" + marker + " 444\nstderr");
+         }
+      });
+
+      toStringAndEventBusExpectations(commandRunner, initScript);
+
+      replay(commandRunner, initScript);
+
+      BlockUntilInitScriptStatusIsZeroThenReturnOutput future = new BlockUntilInitScriptStatusIsZeroThenReturnOutput(
+               userExecutor, eventBus, notRunningAnymore, commandRunner);
+      future.waitForCompletion = true;
+
+      future.run();
+
+      assertEquals(future.get(), new ExecResponse("stdout", "stderr", 444));
+
+      verify(commandRunner, initScript);
+   }
+
+   public void testWaitForCompletionFallsBackToPolling() throws InterruptedException, ExecutionException {
+      ListeningExecutorService userExecutor = MoreExecutors.newDirectExecutorService();
+      Predicate<String> notRunningAnymore = Predicates.alwaysTrue();
+      SudoAwareInitManager commandRunner = createMockBuilder(SudoAwareInitManager.class).addMockedMethod("execChannel")
+               .addMockedMethod("runAction").addMockedMethod("getStatement").addMockedMethod("getNode")
+               .addMockedMethod("toString").createStrictMock();
+      InitScript initScript = createMockBuilder(InitScript.class).addMockedMethod("getInstanceName").createStrictMock();
+
+      expect(commandRunner.execChannel(startsWith("wait "))).andThrow(new SshException("exec channel refused"));
+      expect(commandRunner.runAction("stdout")).andReturn(new ExecResponse("stdout", "", 0));
+      expect(commandRunner.runAction("stderr")).andReturn(new ExecResponse("stderr", "", 0));
+      expect(commandRunner.runAction("exitstatus")).andReturn(new ExecResponse("444\n", "", 0));
+
+      toStringAndEventBusExpectations(commandRunner, initScript);
+
+      replay(commandRunner, initScript);
+
+      BlockUntilInitScriptStatusIsZeroThenReturnOutput future = new BlockUntilInitScriptStatusIsZeroThenReturnOutput(
+               userExecutor, eventBus, notRunningAnymore, commandRunner);
+      future.waitForCompletion = true;
+
+      future.run();
+
+      assertEquals(future.get(), new ExecResponse("stdout", "stderr", 444));
+
+      verify(commandRunner, initScript);
+   }
+
+   public void testWaitForCompletionTimesOutAndFallsBackToPolling() throws InterruptedException,
+            ExecutionException {
+      ListeningExecutorService userExecutor = MoreExecutors.listeningDecorator(Executors.newCachedThreadPool());
+      Predicate<String> notRunningAnymore = Predicates.alwaysTrue();
+      SudoAwareInitManager commandRunner = createMockBuilder(SudoAwareInitManager.class).addMockedMethod("execChannel")
+               .addMockedMethod("runAction").addMockedMethod("getStatement").addMockedMethod("getNode")
+               .addMockedMethod("toString").createStrictMock();
+      InitScript initScript = createMockBuilder(InitScript.class).addMockedMethod("getInstanceName").createStrictMock();
+
+      // the output of the channel ends only once it is closed
+      final CountDownLatch closed = new CountDownLatch(1);
+      InputStream silent = new InputStream() {
+         @Override
+         public int read() throws IOException {
+            try {
+               closed.await();
+            } catch (InterruptedException e) {
+               throw new InterruptedIOException();
+            }
+            return -1;
+         }
+      };
+      expect(commandRunner.execChannel(startsWith("wait "))).andReturn(
+            new ExecChannel(ByteStreams.nullOutputStream(), silent, new ByteArrayInputStream(new byte[0]), Suppliers
+                  .ofInstance(0), new Closeable() {
+               @Override
+               public void close() {
+                  closed.countDown();
+               }
+            }));
+      expect(commandRunner.runAction("stdout")).andReturn(new ExecResponse("stdout", "", 0));
+      expect(commandRunner.runAction("stderr")).andReturn(new ExecResponse("stderr", "", 0));
+      expect(commandRunner.runAction("exitstatus")).andReturn(new ExecResponse("444\n", "", 0));
+
+      toStringAndEventBusExpectations(commandRunner, initScript);
+
+      replay(commandRunner, initScript);
+
+      BlockUntilInitScriptStatusIsZeroThenReturnOutput future = new BlockUntilInitScriptStatusIsZeroThenReturnOutput(
+               userExecutor, eventBus, notRunningAnymore, commandRunner);
+      future.waitForCompletion = true;
+      future.waitTimeout = 100;
+
+      try {
+         future.run();
+
+         assertEquals(future.get(), new ExecResponse("stdout", "stderr", 444));
+         assertEquals(closed.getCount(), 0, "the channel should be closed after timing out");
+      } finally {
+         userExecutor.shutdownNow();
+      }
+
+      verify(commandRunner, initScript);
+   }
+
+   private static ExecChannel execChannel(String output) {
+      return new ExecChannel(ByteStreams.nullOutputStream(), new ByteArrayInputStream(output.getBytes(UTF_8)),
+            new ByteArrayInputStream(new byte[0]), Suppliers.ofInstance(0), new Closeable() {
+               @Override
+               public void close() {
+               }
+            });
+   }
+
    private void toStringAndEventBusExpectations(SudoAwareInitManager commandRunner, InitScript initScript) {
       toStringExpectations(commandRunner, initScript);
       expect(commandRunner.getStatement()).andReturn(initScript);
@@ -16,13 +16,26 @@
  */
 package org.jclouds.compute.callables;
 
+import static com.google.common.base.Charsets.UTF_8;
+import static com.google.common.base.Preconditions.checkState;
 import static org.easymock.EasyMock.createMock;
 import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
 import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.verify;
 import static org.jclouds.scriptbuilder.domain.Statements.exec;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.easymock.IAnswer;
+import org.jclouds.compute.domain.ExecChannel;
 import org.jclouds.compute.domain.ExecResponse;
 import org.jclouds.compute.domain.NodeMetadata;
 import org.jclouds.compute.domain.NodeMetadataBuilder;
@@ -33,11 +46,14 @@ import org.jclouds.scriptbuilder.InitScript;
 import org.jclouds.scriptbuilder.domain.OsFamily;
 import org.jclouds.scriptbuilder.domain.Statement;
 import org.jclouds.ssh.SshClient;
+import org.jclouds.util.Strings2;
 import org.testng.annotations.Test;
 
 import com.google.common.base.Functions;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.eventbus.EventBus;
+import com.google.common.io.ByteStreams;
 
 @Test(groups = "unit", singleThreaded = true, testName = "RunScriptOnNodeAsInitScriptUsingSshTest")
 public class RunScriptOnNodeAsInitScriptUsingSshTest {
@@ -181,4 +197,58 @@ public class RunScriptOnNodeAsInitScriptUsingSshTest {
       testMe.call();
       verify(sshClient);
    }
+
+   public void testExecChannelStaysConnectedUntilClosed() throws IOException {
+      Statement command = exec("doFoo");
+      NodeMetadata node = new NodeMetadataBuilder().ids("id").status(Status.RUNNING).credentials(
+            LoginCredentials.builder().user("tester").password("notalot").build()).build();
+
+      SshClient sshClient = createMock(SshClient.class);
+      final AtomicBoolean connected = new AtomicBoolean();
+
+      expect(sshClient.getUsername()).andReturn("tester").atLeastOnce();
+      expect(sshClient.getHostAddress()).andReturn("somewhere.example.com").atLeastOnce();
+      sshClient.connect();
+      expectLastCall().andAnswer(setTo(connected, true));
+      // reading fails like a channel of a disconnected client
+      InputStream output = new ByteArrayInputStream("done".getBytes(UTF_8)) {
+         @Override
+         public synchronized int read(byte[] b, int off, int len) {
+            checkState(connected.get(), "disconnected");
+            return super.read(b, off, len);
+         }
+      };
+      expect(sshClient.execChannel("/tmp/init-jclouds-script-0 wait marker")).andReturn(
+            new ExecChannel(ByteStreams.nullOutputStream(), output, new ByteArrayInputStream(new byte[0]), Suppliers
+                  .<Integer> ofInstance(0), new Closeable() {
+                     @Override
+                     public void close() {
+                     }
+                  }));
+      sshClient.disconnect();
+      expectLastCall().andAnswer(setTo(connected, false));
+      replay(sshClient);
+
+      RunScriptOnNodeAsInitScriptUsingSsh testMe = new RunScriptOnNodeAsInitScriptUsingSsh(Functions
+               .forMap(ImmutableMap.of(node, sshClient)), eventBus, InitScriptConfigurationForTasks.create()
+               .appendIncrementingNumberToAnonymousTaskNames(), node, command, new RunScriptOptions());
+
+      testMe.init();
+      ExecChannel channel = testMe.execChannel("wait marker");
+      assertEquals(Strings2.toStringAndClose(channel.getOutput()), "done");
+      assertTrue(connected.get(), "the client should stay connected until the channel is closed");
+      channel.close();
+      assertFalse(connected.get(), "closing the channel should disconnect the client");
+      verify(sshClient);
+   }
+
+   private static IAnswer<Void> setTo(final AtomicBoolean flag, final boolean value) {
+      return new IAnswer<Void>() {
+         @Override
+         public Void answer() {
+            flag.set(value);
+            return null;
+         }
+      };
+   }
 }
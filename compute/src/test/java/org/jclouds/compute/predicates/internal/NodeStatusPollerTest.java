@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.compute.predicates.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jclouds.compute.domain.ComputeMetadata;
+import org.jclouds.compute.domain.NodeMetadata;
+import org.jclouds.compute.domain.NodeMetadata.Status;
+import org.jclouds.compute.domain.NodeMetadataBuilder;
+import org.jclouds.compute.reference.ComputeServiceConstants.PollPeriod;
+import org.jclouds.compute.strategy.GetNodeMetadataStrategy;
+import org.jclouds.compute.strategy.ListNodesStrategy;
+import org.jclouds.domain.Location;
+import org.jclouds.domain.LocationBuilder;
+import org.jclouds.domain.LocationScope;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+@Test(groups = "unit", testName = "NodeStatusPollerTest")
+public class NodeStatusPollerTest {
+   private static final Location REGION_A = new LocationBuilder().scope(LocationScope.REGION).id("a")
+         .description("a").build();
+   private static final Location REGION_B = new LocationBuilder().scope(LocationScope.REGION).id("b")
+         .description("b").build();
+   private static final Location ZONE_A1 = new LocationBuilder().scope(LocationScope.ZONE).id("a-1")
+         .description("a-1").parent(REGION_A).build();
+
+   public void testConcurrentRefreshesShareOneCallPerRegion() throws Exception {
+      RecordingListNodesStrategy listNodes = new RecordingListNodesStrategy();
+      final NodeStatusPoller poller = new NodeStatusPoller(listNodes, listNodes, pollPeriod(200, 1000));
+      List<Callable<NodeMetadata>> refreshes = Lists.newArrayList();
+      for (int i = 0; i < 10; i++) {
+         final NodeMetadata node = node("node-" + i, i % 2 == 0 ? ZONE_A1 : REGION_B);
+         refreshes.add(new Callable<NodeMetadata>() {
+            @Override
+            public NodeMetadata call() {
+               return poller.refresh(node);
+            }
+         });
+      }
+      ExecutorService executor = Executors.newFixedThreadPool(10);
+      try {
+         List<Future<NodeMetadata>> results = executor.invokeAll(refreshes);
+         for (int i = 0; i < 10; i++) {
+            NodeMetadata refreshed = results.get(i).get();
+            assertEquals(refreshed.getId(), "node-" + i);
+            assertEquals(refreshed.getStatus(), Status.RUNNING);
+         }
+      } finally {
+         executor.shutdownNow();
+      }
+      assertEquals(listNodes.calls.size(), 2);
+      assertEquals(listNodes.calls.get(0).size() + listNodes.calls.get(1).size(), 10);
+   }
+
+   public void testMissingNodeRefreshesToNull() {
+      RecordingListNodesStrategy listNodes = new RecordingListNodesStrategy();
+      listNodes.missing = true;
+      listNodes.gone = true;
+      NodeStatusPoller poller = new NodeStatusPoller(listNodes, listNodes, pollPeriod(1, 10));
+      assertNull(poller.refresh(node("gone", REGION_A)));
+      assertEquals(listNodes.gets, ImmutableList.of("gone"));
+   }
+
+   public void testNodeLeftOutOfTheListingIsLookedUp() {
+      RecordingListNodesStrategy listNodes = new RecordingListNodesStrategy();
+      listNodes.missing = true;
+      NodeStatusPoller poller = new NodeStatusPoller(listNodes, listNodes, pollPeriod(1, 10));
+      NodeMetadata refreshed = poller.refresh(node("unlisted", REGION_A));
+      assertEquals(refreshed.getId(), "unlisted");
+      assertEquals(refreshed.getStatus(), Status.RUNNING);
+   }
+
+   public void testFailedPollBacksOff() {
+      RecordingListNodesStrategy listNodes = new RecordingListNodesStrategy();
+      listNodes.failure = new IllegalStateException("rate limited");
+      NodeStatusPoller poller = new NodeStatusPoller(listNodes, listNodes, pollPeriod(1, 10));
+      for (long expected : new long[] { 2, 4, 8, 10 }) {
+         try {
+            poller.refresh(node("node", REGION_A));
+            fail("expected the failure of the poll to propagate");
+         } catch (IllegalStateException e) {
+            assertEquals(poller.getPeriod(), expected);
+         }
+      }
+      listNodes.failure = null;
+      poller.refresh(node("node", REGION_A));
+      assertEquals(poller.getPeriod(), 5);
+   }
+
+   private static NodeMetadata node(String id, Location location) {
+      return new NodeMetadataBuilder().id(id).location(location).status(Status.PENDING).build();
+   }
+
+   private static PollPeriod pollPeriod(long initial, long max) {
+      PollPeriod period = new PollPeriod();
+      period.pollInitialPeriod = initial;
+      period.pollMaxPeriod = max;
+      return period;
+   }
+
+   private static class RecordingListNodesStrategy implements ListNodesStrategy, GetNodeMetadataStrategy {
+      private final List<List<String>> calls = Lists.newCopyOnWriteArrayList();
+      private final List<String> gets = Lists.newCopyOnWriteArrayList();
+      private volatile boolean missing;
+      private volatile boolean gone;
+      private volatile RuntimeException failure;
+
+      @Override
+      public Iterable<? extends NodeMetadata> listNodesByIds(Iterable<String> ids) {
+         calls.add(ImmutableList.copyOf(ids));
+         if (failure != null)
+            throw failure;
+         ImmutableList.Builder<NodeMetadata> nodes = ImmutableList.builder();
+         if (!missing) {
+            for (String id : ids) {
+               nodes.add(new NodeMetadataBuilder().id(id).status(Status.RUNNING).build());
+            }
+         }
+         return nodes.build();
+      }
+
+      @Override
+      public NodeMetadata getNode(String id) {
+         gets.add(id);
+         return gone ? null : new NodeMetadataBuilder().id(id).status(Status.RUNNING).build();
+      }
+
+      @Override
+      public Iterable<? extends ComputeMetadata> listNodes() {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public Iterable<? extends NodeMetadata> listDetailsOnNodesMatching(Predicate<ComputeMetadata> filter) {
+         throw new UnsupportedOperationException();
+      }
+   }
+}
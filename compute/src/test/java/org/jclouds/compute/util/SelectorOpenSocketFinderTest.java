@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.compute.util;
+
+import static com.google.common.base.Predicates.alwaysFalse;
+import static com.google.common.base.Predicates.alwaysTrue;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.jclouds.compute.domain.NodeMetadata.Status.RUNNING;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jclouds.compute.domain.NodeMetadata;
+import org.jclouds.compute.domain.NodeMetadataBuilder;
+import org.jclouds.lifecycle.Closer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Predicate;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.net.HostAndPort;
+
+@Test(groups = "unit", singleThreaded = true, testName = "SelectorOpenSocketFinderTest")
+public class SelectorOpenSocketFinderTest {
+
+   private static final String LOOPBACK = "127.0.0.1";
+
+   private final Predicate<AtomicReference<NodeMetadata>> nodeRunning = alwaysTrue();
+   private final Predicate<AtomicReference<NodeMetadata>> nodeNotRunning = alwaysFalse();
+
+   private Closer closer;
+   private ServerSocket server;
+
+   @BeforeMethod
+   public void setUp() throws IOException {
+      closer = new Closer();
+      server = new ServerSocket(0, 50, InetAddress.getByName(LOOPBACK));
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void tearDown() throws IOException {
+      server.close();
+      closer.close();
+   }
+
+   public void testReturnsReachable() {
+      OpenSocketFinder finder = new SelectorOpenSocketFinder(nodeRunning, closer);
+
+      HostAndPort result = finder.findOpenSocketOnNode(node(LOOPBACK), server.getLocalPort(), 2000, MILLISECONDS);
+
+      assertEquals(result, HostAndPort.fromParts(LOOPBACK, server.getLocalPort()));
+   }
+
+   public void testRespectsTimeout() throws IOException {
+      int closedPort = server.getLocalPort();
+      server.close();
+      OpenSocketFinder finder = new SelectorOpenSocketFinder(nodeRunning, closer);
+
+      Stopwatch stopwatch = Stopwatch.createStarted();
+      try {
+         finder.findOpenSocketOnNode(node(LOOPBACK), closedPort, 1500, MILLISECONDS);
+         fail();
+      } catch (NoSuchElementException success) {
+         // expected
+      }
+      long timetaken = stopwatch.elapsed(MILLISECONDS);
+      assertTrue(timetaken >= 1490 && timetaken <= 2200, "timetaken=" + timetaken);
+   }
+
+   @Test(expectedExceptions = IllegalStateException.class)
+   public void testAbortsWhenNodeNotRunning() throws IOException {
+      int closedPort = server.getLocalPort();
+      server.close();
+      OpenSocketFinder finder = new SelectorOpenSocketFinder(nodeNotRunning, closer);
+
+      finder.findOpenSocketOnNode(node(LOOPBACK), closedPort, 10000, MILLISECONDS);
+   }
+
+   public void testProbesManyNodesConcurrently() throws Exception {
+      final OpenSocketFinder finder = new SelectorOpenSocketFinder(nodeRunning, closer);
+      List<Callable<HostAndPort>> searches = Lists.newArrayList();
+      for (int i = 0; i < 50; i++) {
+         final NodeMetadata node = node(LOOPBACK);
+         searches.add(new Callable<HostAndPort>() {
+            @Override
+            public HostAndPort call() {
+               return finder.findOpenSocketOnNode(node, server.getLocalPort(), 2000, MILLISECONDS);
+            }
+         });
+      }
+      ExecutorService executor = Executors.newFixedThreadPool(50);
+      try {
+         for (Future<HostAndPort> result : executor.invokeAll(searches)) {
+            assertEquals(result.get(), HostAndPort.fromParts(LOOPBACK, server.getLocalPort()));
+         }
+      } finally {
+         executor.shutdownNow();
+      }
+   }
+
+   private static NodeMetadata node(String ip) {
+      return new NodeMetadataBuilder().id("myid").status(RUNNING).privateAddresses(ImmutableSet.of(ip)).build();
+   }
+}
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.ssh.internal;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.createStrictMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.fail;
+
+import org.jclouds.compute.domain.ExecResponse;
+import org.jclouds.domain.LoginCredentials;
+import org.jclouds.ssh.SshClient;
+import org.jclouds.ssh.SshException;
+import org.testng.annotations.Test;
+
+import com.google.common.net.HostAndPort;
+
+@Test(groups = "unit", testName = "SshClientPoolTest")
+public class SshClientPoolTest {
+   private static final HostAndPort SOCKET = HostAndPort.fromParts("192.168.1.1", 22);
+   private static final LoginCredentials LOGIN = LoginCredentials.builder().user("root").password("password")
+         .build();
+   private static final ExecResponse OK = new ExecResponse("", "", 0);
+
+   public void testReusesConnectionOfSameNodeAndLogin() {
+      SshClient.Factory factory = createMock(SshClient.Factory.class);
+      SshClient client = createStrictMock(SshClient.class);
+      expect(factory.create(SOCKET, LOGIN)).andReturn(client);
+      client.connect();
+      expect(client.exec("status")).andReturn(OK).times(2);
+      replay(factory, client);
+
+      SshClientPool pool = new SshClientPool();
+      for (int i = 0; i < 2; i++) {
+         SshClient ssh = pool.create(factory, SOCKET, LOGIN);
+         ssh.connect();
+         assertSame(ssh.exec("status"), OK);
+         ssh.disconnect();
+      }
+      verify(factory, client);
+   }
+
+   public void testDoesNotReuseConnectionOfOtherLogin() {
+      LoginCredentials admin = LoginCredentials.builder().user("admin").password("password").build();
+      SshClient.Factory factory = createMock(SshClient.Factory.class);
+      SshClient rootClient = createMock(SshClient.class);
+      SshClient adminClient = createMock(SshClient.class);
+      expect(factory.create(SOCKET, LOGIN)).andReturn(rootClient);
+      expect(factory.create(SOCKET, admin)).andReturn(adminClient);
+      rootClient.connect();
+      adminClient.connect();
+      replay(factory, rootClient, adminClient);
+
+      SshClientPool pool = new SshClientPool();
+      SshClient ssh = pool.create(factory, SOCKET, LOGIN);
+      ssh.connect();
+      ssh.disconnect();
+      ssh = pool.create(factory, SOCKET, admin);
+      ssh.connect();
+      ssh.disconnect();
+      verify(factory, rootClient, adminClient);
+   }
+
+   public void testDisconnectsConnectionWhichFailed() {
+      SshClient.Factory factory = createMock(SshClient.Factory.class);
+      SshClient failed = createStrictMock(SshClient.class);
+      SshClient replacement = createStrictMock(SshClient.class);
+      expect(factory.create(SOCKET, LOGIN)).andReturn(failed);
+      expect(factory.create(SOCKET, LOGIN)).andReturn(replacement);
+      failed.connect();
+      expect(failed.exec("status")).andThrow(new SshException("connection reset"));
+      failed.disconnect();
+      replacement.connect();
+      expect(replacement.exec("status")).andReturn(OK);
+      replay(factory, failed, replacement);
+
+      SshClientPool pool = new SshClientPool();
+      SshClient ssh = pool.create(factory, SOCKET, LOGIN);
+      ssh.connect();
+      try {
+         ssh.exec("status");
+         fail("expected an SshException");
+      } catch (SshException e) {
+         ssh.disconnect();
+      }
+      ssh.connect();
+      assertSame(ssh.exec("status"), OK);
+      verify(factory, failed, replacement);
+   }
+
+   public void testKeepsAtMostMaxIdlePerNode() {
+      SshClient.Factory factory = createMock(SshClient.Factory.class);
+      SshClient first = createStrictMock(SshClient.class);
+      SshClient second = createStrictMock(SshClient.class);
+      expect(factory.create(SOCKET, LOGIN)).andReturn(first);
+      expect(factory.create(SOCKET, LOGIN)).andReturn(second);
+      first.connect();
+      second.connect();
+      first.disconnect();
+      replay(factory, first, second);
+
+      SshClientPool pool = new SshClientPool();
+      pool.maxIdlePerNode = 1;
+      SshClient ssh1 = pool.create(factory, SOCKET, LOGIN);
+      SshClient ssh2 = pool.create(factory, SOCKET, LOGIN);
+      ssh1.connect();
+      ssh2.connect();
+      ssh1.disconnect();
+      // the least recently used connection goes first
+      ssh2.disconnect();
+      verify(factory, first, second);
+   }
+
+   public void testDisconnectsExpiredConnections() {
+      SshClient.Factory factory = createMock(SshClient.Factory.class);
+      SshClient expired = createStrictMock(SshClient.class);
+      SshClient fresh = createStrictMock(SshClient.class);
+      expect(factory.create(SOCKET, LOGIN)).andReturn(expired);
+      expect(factory.create(SOCKET, LOGIN)).andReturn(fresh);
+      expired.connect();
+      expired.disconnect();
+      fresh.connect();
+      replay(factory, expired, fresh);
+
+      SshClientPool pool = new SshClientPool();
+      pool.idleTimeout = 0;
+      SshClient ssh = pool.create(factory, SOCKET, LOGIN);
+      ssh.connect();
+      ssh.disconnect();
+      ssh.connect();
+      verify(factory, expired, fresh);
+   }
+
+   public void testCloseDisconnectsIdleConnections() {
+      SshClient.Factory factory = createMock(SshClient.Factory.class);
+      SshClient client = createStrictMock(SshClient.class);
+      expect(factory.create(SOCKET, LOGIN)).andReturn(client).times(2);
+      client.connect();
+      client.disconnect();
+      client.connect();
+      client.disconnect();
+      replay(factory, client);
+
+      SshClientPool pool = new SshClientPool();
+      SshClient ssh = pool.create(factory, SOCKET, LOGIN);
+      ssh.connect();
+      ssh.disconnect();
+      pool.close();
+      // clients returned after close are disconnected
+      ssh.connect();
+      ssh.disconnect();
+      verify(factory, client);
+   }
+
+   public void testPoolingDisabled() {
+      SshClient.Factory factory = createMock(SshClient.Factory.class);
+      SshClient client = createMock(SshClient.class);
+      expect(factory.create(SOCKET, LOGIN)).andReturn(client);
+      replay(factory, client);
+
+      SshClientPool pool = new SshClientPool();
+      pool.maxIdlePerNode = 0;
+      assertSame(pool.create(factory, SOCKET, LOGIN), client);
+      verify(factory, client);
+   }
+
+   public void testDescribesNodeWithoutConnecting() {
+      SshClient.Factory factory = createMock(SshClient.Factory.class);
+      replay(factory);
+
+      SshClient ssh = new SshClientPool().create(factory, SOCKET, LOGIN);
+      assertEquals(ssh.getUsername(), "root");
+      assertEquals(ssh.getHostAddress(), "192.168.1.1");
+      verify(factory);
+   }
+}
@@ -303,6 +303,16 @@ public final class Constants {
     */
    public static final String PROPERTY_MAX_PARALLEL_DELETES = "jclouds.max-parallel-deletes";
 
+   /**
+    * Boolean property. Default (false).
+    * <p/>
+    * When true, contexts create their singletons when first used, rather than while they are
+    * built, which suits short-lived programs using a little of a context. Call
+    * {@link ContextBuilder#warmUp(Context)} to create the rest up front, such as after starting
+    * quickly.
+    */
+   public static final String PROPERTY_LAZY_START = "jclouds.lazy-start";
+
    private Constants() {
       throw new AssertionError("intentionally unimplemented");
    }
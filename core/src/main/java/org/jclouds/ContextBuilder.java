@@ -40,17 +40,25 @@ import static org.jclouds.Constants.PROPERTY_BUILD_VERSION;
 import static org.jclouds.Constants.PROPERTY_CREDENTIAL;
 import static org.jclouds.Constants.PROPERTY_ENDPOINT;
 import static org.jclouds.Constants.PROPERTY_IDENTITY;
+import static org.jclouds.Constants.PROPERTY_IO_WORKER_THREADS;
 import static org.jclouds.Constants.PROPERTY_ISO3166_CODES;
+import static org.jclouds.Constants.PROPERTY_LAZY_START;
 import static org.jclouds.Constants.PROPERTY_PROVIDER;
+import static org.jclouds.Constants.PROPERTY_USER_THREADS;
 import static org.jclouds.reflect.Reflection2.typeToken;
 import static org.jclouds.util.Throwables2.propagateAuthorizationOrOriginalException;
 
 import java.io.Closeable;
+import java.net.URI;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+import javax.xml.parsers.SAXParserFactory;
 
 import org.jclouds.apis.ApiMetadata;
 import org.jclouds.apis.Apis;
@@ -61,13 +69,34 @@ import org.jclouds.config.BindApiContextWithWildcardExtendsExplicitAndRawType;
 import org.jclouds.config.BindNameToContext;
 import org.jclouds.config.BindPropertiesToExpandedValues;
 import org.jclouds.config.BindRestContextWithWildcardExtendsExplicitAndRawType;
+import org.jclouds.config.SharedWithDerivedContexts;
 import org.jclouds.domain.Credentials;
 import org.jclouds.events.config.ConfiguresEventBus;
 import org.jclouds.events.config.EventBusModule;
 import org.jclouds.http.config.ConfiguresHttpCommandExecutorService;
 import org.jclouds.http.config.JavaUrlHttpCommandExecutorServiceModule;
+import org.jclouds.http.functions.SAXParserPool;
 import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.json.Json;
 import org.jclouds.lifecycle.config.LifeCycleModule;
+import org.jclouds.location.Iso3166;
+import org.jclouds.location.Provider;
+import org.jclouds.location.Region;
+import org.jclouds.location.Zone;
+import org.jclouds.location.suppliers.LocationIdToIso3166CodesSupplier;
+import org.jclouds.location.suppliers.ProviderURISupplier;
+import org.jclouds.location.suppliers.RegionIdToURISupplier;
+import org.jclouds.location.suppliers.RegionIdToZoneIdsSupplier;
+import org.jclouds.location.suppliers.RegionIdsSupplier;
+import org.jclouds.location.suppliers.ZoneIdToURISupplier;
+import org.jclouds.location.suppliers.ZoneIdsSupplier;
+import org.jclouds.location.suppliers.fromconfig.LocationIdToIso3166CodesFromConfiguration;
+import org.jclouds.location.suppliers.fromconfig.ProviderURIFromProviderMetadata;
+import org.jclouds.location.suppliers.fromconfig.RegionIdToURIFromConfigurationOrDefaultToProvider;
+import org.jclouds.location.suppliers.fromconfig.RegionIdToZoneIdsFromConfiguration;
+import org.jclouds.location.suppliers.fromconfig.RegionIdsFromConfiguration;
+import org.jclouds.location.suppliers.fromconfig.ZoneIdToURIFromConfigurationOrDefaultToProvider;
+import org.jclouds.location.suppliers.fromconfig.ZoneIdsFromConfiguration;
 import org.jclouds.logging.config.LoggingModule;
 import org.jclouds.logging.jdk.config.JDKLoggingModule;
 import org.jclouds.providers.ProviderMetadata;
@@ -96,16 +125,28 @@ import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableMultimap.Builder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.SetMultimap;
 import com.google.common.reflect.TypeToken;
 import com.google.common.util.concurrent.ExecutionList;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.TimeLimiter;
+import com.google.gson.Gson;
+import com.google.inject.AbstractModule;
+import com.google.inject.Binding;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 import com.google.inject.Key;
 import com.google.inject.Module;
+import com.google.inject.spi.LinkedKeyBinding;
 import com.google.inject.Stage;
 import com.google.inject.TypeLiteral;
+import com.google.inject.name.Names;
+import com.google.inject.util.Modules;
 
 /**
  * Creates {@link Context} or {@link Injector} configured to an api and
@@ -152,6 +193,68 @@ public class ContextBuilder {
 
    private static final Stage GUICE_STAGE = Stage.PRODUCTION;
 
+   /**
+    * The settings a context was built with, before expanding its properties, which contexts derived
+    * from it are built with too.
+    */
+   private static final Key<ContextBuilder> DERIVED_CONTEXTS = Key.get(ContextBuilder.class,
+         Names.named("jclouds.derived-contexts"));
+
+   /**
+    * Resources which do not depend on credentials, and which derived contexts share with their
+    * parent, besides those of {@link SharedWithDerivedContexts} modules.
+    */
+   private static final Set<Key<?>> SHARED_KEYS = ImmutableSet.<Key<?>> of(
+         Key.get(ListeningExecutorService.class, Names.named(PROPERTY_USER_THREADS)),
+         Key.get(ListeningExecutorService.class, Names.named(PROPERTY_IO_WORKER_THREADS)),
+         Key.get(ExecutorService.class, Names.named(PROPERTY_USER_THREADS)),
+         Key.get(ExecutorService.class, Names.named(PROPERTY_IO_WORKER_THREADS)),
+         Key.get(TimeLimiter.class),
+         Key.get(SAXParserFactory.class),
+         Key.get(SAXParserPool.class),
+         Key.get(Gson.class),
+         Key.get(Json.class));
+
+   /**
+    * Memoized location suppliers which derived contexts share with their parent too, each with the
+    * suppliers it reads. They are shared when the parent reads all of those from configuration,
+    * and the derived context has the same properties besides its credentials. Locations read from
+    * the api, such as regions listed in a service catalog, may differ by credentials, and so does
+    * the implicit location and the set of locations, which join both kinds; each context reads
+    * these itself.
+    */
+   private static final SetMultimap<Key<?>, Class<?>> SHARED_LOCATION_KEYS = ImmutableSetMultimap
+         .<Key<?>, Class<?>> builder()
+         .put(Key.get(new TypeLiteral<Supplier<URI>>() {}, Provider.class),
+               ProviderURISupplier.class)
+         .put(Key.get(new TypeLiteral<Supplier<Set<String>>>() {}, Region.class),
+               RegionIdsSupplier.class)
+         .put(Key.get(new TypeLiteral<Supplier<Set<String>>>() {}, Zone.class),
+               ZoneIdsSupplier.class)
+         .putAll(Key.get(new TypeLiteral<Supplier<Map<String, Supplier<URI>>>>() {}, Region.class),
+               RegionIdToURISupplier.class, ProviderURISupplier.class)
+         .putAll(Key.get(new TypeLiteral<Supplier<Map<String, Supplier<URI>>>>() {}, Zone.class),
+               ZoneIdToURISupplier.class, ProviderURISupplier.class)
+         .put(Key.get(new TypeLiteral<Supplier<Map<String, Supplier<Set<String>>>>>() {}, Zone.class),
+               RegionIdToZoneIdsSupplier.class)
+         .put(Key.get(new TypeLiteral<Supplier<Map<String, Supplier<Set<String>>>>>() {}, Iso3166.class),
+               LocationIdToIso3166CodesSupplier.class)
+         .build();
+
+   /**
+    * The implementations of location suppliers which read configuration, rather than the api.
+    */
+   private static final Map<Class<?>, Class<?>> LOCATIONS_FROM_CONFIGURATION = ImmutableMap
+         .<Class<?>, Class<?>> builder()
+         .put(ProviderURISupplier.class, ProviderURIFromProviderMetadata.class)
+         .put(RegionIdsSupplier.class, RegionIdsFromConfiguration.class)
+         .put(ZoneIdsSupplier.class, ZoneIdsFromConfiguration.class)
+         .put(RegionIdToURISupplier.class, RegionIdToURIFromConfigurationOrDefaultToProvider.class)
+         .put(ZoneIdToURISupplier.class, ZoneIdToURIFromConfigurationOrDefaultToProvider.class)
+         .put(RegionIdToZoneIdsSupplier.class, RegionIdToZoneIdsFromConfiguration.class)
+         .put(LocationIdToIso3166CodesSupplier.class, LocationIdToIso3166CodesFromConfiguration.class)
+         .build();
+
    /**
     * looks up a provider or api with the given id
     * 
@@ -193,6 +296,31 @@ public class ContextBuilder {
       }
    }
 
+   /**
+    * Derives a builder for another context of the api or provider of {@code parent}, with its
+    * properties and modules, which only needs {@link #credentials credentials}. The context it
+    * builds shares the executors, http connection pools, parsers and json of its parent, rather
+    * than creating its own, while the credentials, and what depends on them, such as auth tokens
+    * and the endpoints they list, are its own. ex.
+    * 
+    * <pre>
+    * tenant = ContextBuilder.newBuilder(parent)
+    *                        .credentials(apikey, secret)
+    *                        .buildView(BlobStoreContext.class);
+    * </pre>
+    * 
+    * Closing the derived context leaves what it shares open; close the parent last, as that
+    * shuts down the executors of its derived contexts too. The parent must have been built by a
+    * {@code ContextBuilder}.
+    */
+   public static ContextBuilder newBuilder(Context parent) {
+      Injector injector = checkNotNull(parent, "parent").utils().injector();
+      ContextBuilder builder = injector.getInstance(DERIVED_CONTEXTS).forDerivedContexts();
+      builder.parent = Optional.of(injector);
+      return builder;
+   }
+
+   protected Optional<Injector> parent = Optional.absent();
    protected Optional<String> name = Optional.absent();
    protected Optional<ProviderMetadata> providerMetadata = Optional.absent();
    protected final String providerId;
@@ -207,6 +335,24 @@ public class ContextBuilder {
    protected Optional<Properties> overrides = Optional.absent();
    protected List<Module> modules = newArrayListWithCapacity(3);
 
+   /**
+    * Copies the settings which do not depend on credentials, leaving properties such as endpoints
+    * unexpanded, as they may refer to the identity.
+    */
+   private ContextBuilder forDerivedContexts() {
+      ContextBuilder copy = new ContextBuilder(providerMetadata.orNull(), apiMetadata);
+      copy.endpoint = endpoint;
+      copy.apiVersion = apiVersion;
+      copy.buildVersion = buildVersion;
+      if (overrides.isPresent()) {
+         Properties properties = new Properties();
+         properties.putAll(overrides.get());
+         copy.overrides(properties);
+      }
+      copy.modules(modules);
+      return copy;
+   }
+
    @Override
    public String toString() {
       return toStringHelper("").add("providerMetadata", providerMetadata).add("apiMetadata", apiMetadata).toString();
@@ -325,9 +471,16 @@ public class ContextBuilder {
 
       // We use either the specified name (optional) or a hash of provider/api, endpoint, api version & identity. Hash
       // is used to be something readable.
+      final ContextBuilder forDerivedContexts = forDerivedContexts();
+      List<Module> modules = ImmutableList.<Module> builder().addAll(this.modules).add(new AbstractModule() {
+         @Override
+         protected void configure() {
+            bind(DERIVED_CONTEXTS).toInstance(forDerivedContexts);
+         }
+      }).build();
       return buildInjector(name.or(String.valueOf(Objects.hashCode(providerMetadata.getId(),
             providerMetadata.getEndpoint(), providerMetadata.getApiMetadata().getVersion(), credentialsSupplier))),
-            providerMetadata, credentialsSupplier, modules);
+            providerMetadata, credentialsSupplier, modules, parent);
    }
 
    protected Supplier<Credentials> buildCredentialsSupplier(Properties expanded) {
@@ -385,6 +538,11 @@ public class ContextBuilder {
    }
 
    public static Injector buildInjector(String name, ProviderMetadata providerMetadata, Supplier<Credentials> creds, List<Module> inputModules) {
+      return buildInjector(name, providerMetadata, creds, inputModules, Optional.<Injector> absent());
+   }
+
+   static Injector buildInjector(String name, ProviderMetadata providerMetadata, Supplier<Credentials> creds,
+         List<Module> inputModules, Optional<Injector> parent) {
       List<Module> modules = newArrayList();
       modules.addAll(inputModules);
       boolean apiModuleSpecifiedByUser = apiModulePresent(inputModules);
@@ -398,14 +556,107 @@ public class ContextBuilder {
       addExecutorServiceIfNotPresent(modules);
       addEventBusIfNotPresent(modules);
       addCredentialStoreIfNotPresent(modules);
-      modules.add(new LifeCycleModule());
+      modules.add(new LifeCycleModule(!parent.isPresent()));
       modules.add(new BindProviderMetadataContextAndCredentials(providerMetadata, creds));
       modules.add(new BindNameToContext(name));
-      Injector returnVal = Guice.createInjector(GUICE_STAGE, modules);
+      boolean lazy = Boolean.parseBoolean(providerMetadata.getDefaultProperties().getProperty(PROPERTY_LAZY_START));
+      final StartupProfile profile = new StartupProfile(lazy ? Stage.DEVELOPMENT : GUICE_STAGE);
+      modules.add(new AbstractModule() {
+         @Override
+         protected void configure() {
+            bind(StartupProfile.class).toInstance(profile);
+         }
+      });
+      long start = System.nanoTime();
+      List<Module> timedModules = newArrayListWithCapacity(modules.size());
+      for (Module module : modules)
+         timedModules.add(profile.time(module));
+      Injector returnVal = Guice.createInjector(profile.getStage(), parent.isPresent() ? ImmutableList.of(Modules
+            .override(timedModules).with(shareBindingsOf(parent.get(), providerMetadata, modules))) : timedModules);
       returnVal.getInstance(ExecutionList.class).execute();
+      profile.injectorCreated(System.nanoTime() - start);
       return returnVal;
    }
 
+   /**
+    * Creates the singletons of the context which building it did not, as when built with
+    * {@link Constants#PROPERTY_LAZY_START}, so that using it later does not wait for them. ex.
+    * 
+    * <pre>
+    * BlobStoreContext context = ContextBuilder.newBuilder("aws-s3")
+    *                                          .overrides(lazyStart)
+    *                                          .buildView(BlobStoreContext.class);
+    * // use the context straight away, then while idle
+    * System.out.println(ContextBuilder.warmUp(context.unwrap()));
+    * </pre>
+    * 
+    * @return where the context spent time starting, including how long each singleton took to
+    *         create while warming up
+    */
+   public static StartupProfile warmUp(Context context) {
+      Injector injector = checkNotNull(context, "context").utils().injector();
+      StartupProfile profile = injector.getInstance(StartupProfile.class);
+      profile.warmUp(injector);
+      return profile;
+   }
+
+   /**
+    * Binds the shared keys to the instances of the parent, without injecting them again.
+    */
+   private static Module shareBindingsOf(final Injector parent, ProviderMetadata providerMetadata,
+         List<Module> modules) {
+      final ImmutableSet.Builder<Key<?>> keys = ImmutableSet.<Key<?>> builder().addAll(SHARED_KEYS);
+      for (SharedWithDerivedContexts module : Iterables.filter(modules, SharedWithDerivedContexts.class))
+         keys.addAll(module.getSharedKeys());
+      if (sameSettings(parent.getInstance(ProviderMetadata.class), providerMetadata)) {
+         for (Map.Entry<Key<?>, Collection<Class<?>>> location : SHARED_LOCATION_KEYS.asMap().entrySet()) {
+            if (Iterables.all(location.getValue(), new ReadFromConfiguration(parent)))
+               keys.add(location.getKey());
+         }
+      }
+      return new AbstractModule() {
+         @Override
+         protected void configure() {
+            for (Key<?> key : keys.build())
+               share(key);
+         }
+
+         private <T> void share(Key<T> key) {
+            Binding<T> binding = parent.getExistingBinding(key);
+            if (binding != null)
+               bind(key).toProvider(com.google.inject.util.Providers.of(binding.getProvider().get()));
+         }
+      };
+   }
+
+   /**
+    * Whether contexts were built with the same settings, besides credentials, which are not among
+    * those of their provider metadata.
+    */
+   private static boolean sameSettings(ProviderMetadata parent, ProviderMetadata derived) {
+      return parent.equals(derived) && parent.getIso3166Codes().equals(derived.getIso3166Codes())
+            && parent.getDefaultProperties().equals(derived.getDefaultProperties());
+   }
+
+   /**
+    * Whether the parent reads a location supplier from configuration.
+    */
+   private static final class ReadFromConfiguration implements Predicate<Class<?>> {
+      private final Injector parent;
+
+      private ReadFromConfiguration(Injector parent) {
+         this.parent = parent;
+      }
+
+      @Override
+      public boolean apply(Class<?> supplier) {
+         Binding<?> binding = parent.getExistingBinding(Key.get(supplier));
+         return binding instanceof LinkedKeyBinding
+               && ((LinkedKeyBinding<?>) binding).getLinkedKey().getTypeLiteral().getRawType()
+                     .equals(LOCATIONS_FROM_CONFIGURATION.get(supplier));
+      }
+   }
+
    static Properties resolveProperties(Properties mutable, String providerId, Set<String> keys, Set<String> optionalKeys) throws NoSuchElementException {
       for (String key : keys) {
          String scopedProperty = Iterables.get(Splitter.on('.').split(key), 1);
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Ordering;
+import com.google.inject.AbstractModule;
+import com.google.inject.Binding;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.Scopes;
+import com.google.inject.Stage;
+
+/**
+ * Where building a context spent its time: configuring each module, creating the injector and,
+ * once {@link ContextBuilder#warmUp(Context) warmed up}, creating each singleton. A singleton's
+ * time includes the dependencies it was first to need. ex.
+ *
+ * <pre>
+ * System.out.println(context.utils().injector().getInstance(StartupProfile.class));
+ * </pre>
+ */
+@Beta
+public final class StartupProfile {
+
+   private static final int REPORTED = 10;
+
+   private final Stage stage;
+   private final ConcurrentMap<String, Long> moduleNanos = Maps.newConcurrentMap();
+   private final ConcurrentMap<Key<?>, Long> bindingNanos = Maps.newConcurrentMap();
+   private volatile long injectorNanos;
+   private volatile long warmUpNanos;
+
+   StartupProfile(Stage stage) {
+      this.stage = checkNotNull(stage, "stage");
+   }
+
+   /**
+    * @return the stage the injector was created in, which is {@link Stage#DEVELOPMENT} when
+    *         starting lazily
+    */
+   public Stage getStage() {
+      return stage;
+   }
+
+   /**
+    * @return nanoseconds spent configuring each module, by class, including those it installs
+    */
+   public Map<String, Long> getModuleNanos() {
+      return ImmutableMap.copyOf(moduleNanos);
+   }
+
+   /**
+    * @return nanoseconds spent creating each singleton while warming up
+    */
+   public Map<Key<?>, Long> getBindingNanos() {
+      return ImmutableMap.copyOf(bindingNanos);
+   }
+
+   /**
+    * @return nanoseconds spent creating the injector, including configuring modules and creating
+    *         eager singletons
+    */
+   public long getInjectorNanos() {
+      return injectorNanos;
+   }
+
+   /**
+    * @return nanoseconds spent warming up, or 0 if the context was not warmed up
+    */
+   public long getWarmUpNanos() {
+      return warmUpNanos;
+   }
+
+   /**
+    * Wraps the module so that configuring it is timed. Modules it installs are configured once, in
+    * the first module installing them.
+    */
+   Module time(final Module module) {
+      return new AbstractModule() {
+         @Override
+         protected void configure() {
+            long start = System.nanoTime();
+            install(module);
+            moduleNanos.put(module.getClass().getName(), System.nanoTime() - start);
+         }
+      };
+   }
+
+   void injectorCreated(long nanos) {
+      this.injectorNanos = nanos;
+   }
+
+   /**
+    * Creates the singletons of the injector which have not been yet, timing each. These include
+    * the just-in-time bindings of {@code @Singleton} classes, which are most of them.
+    */
+   void warmUp(Injector injector) {
+      long start = System.nanoTime();
+      for (Binding<?> binding : ImmutableList.copyOf(injector.getAllBindings().values())) {
+         if (!Scopes.isSingleton(binding))
+            continue;
+         long created = System.nanoTime();
+         binding.getProvider().get();
+         bindingNanos.put(binding.getKey(), System.nanoTime() - created);
+      }
+      warmUpNanos = System.nanoTime() - start;
+   }
+
+   @Override
+   public String toString() {
+      StringBuilder report = new StringBuilder();
+      report.append(String.format("started in %s stage: created injector in %dms, warmed up in %dms", stage,
+            NANOSECONDS.toMillis(injectorNanos), NANOSECONDS.toMillis(warmUpNanos)));
+      appendSlowest(report, "modules", moduleNanos);
+      appendSlowest(report, "bindings", bindingNanos);
+      return report.toString();
+   }
+
+   private static void appendSlowest(StringBuilder report, String name, Map<?, Long> nanos) {
+      if (nanos.isEmpty())
+         return;
+      report.append(String.format("%nslowest %s:", name));
+      for (Map.Entry<?, Long> entry : Ordering.natural().reverse().onResultOf(ValueFunction.INSTANCE)
+            .leastOf(nanos.entrySet(), REPORTED))
+         report.append(String.format("%n  %8.1fms %s", entry.getValue() / 1e6, entry.getKey()));
+   }
+
+   private enum ValueFunction implements Function<Map.Entry<?, Long>, Long> {
+      INSTANCE;
+      @Override
+      public Long apply(Map.Entry<?, Long> in) {
+         return in.getValue();
+      }
+   }
+}
@@ -0,0 +1,356 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.collect;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.jclouds.javax.annotation.Nullable;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Function;
+import com.google.common.base.Optional;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Ordering;
+import com.google.common.primitives.Ints;
+
+/**
+ * Splits the keys of a flat namespace, such as an S3 bucket or a Swift container, into ranges
+ * which can be listed concurrently.
+ * <p/>
+ * A range is listed after a marker, which it excludes, up to a boundary, which it includes. This
+ * only needs the listing to accept the last key it returned as a marker, as S3 and Swift do. The
+ * ranges between boundaries are returned as ordered shards: each is in key order, and all the keys
+ * of a shard precede those of the next. ex.
+ *
+ * <pre>
+ * for (final PagedIterable&lt;ObjectMetadata&gt; shard : S3.listBucketInRanges(s3Client, bucket, options, 8)) {
+ *    executor.submit(new Runnable() {
+ *       public void run() {
+ *          for (ObjectMetadata object : shard.concat())
+ *             process(object);
+ *       }
+ *    });
+ * }
+ * </pre>
+ */
+@Beta
+public final class KeyRanges {
+
+   /**
+    * The characters of most keys, which {@link #bisect} splits between by default.
+    */
+   public static final String PRINTABLE_ASCII;
+
+   static {
+      StringBuilder printable = new StringBuilder();
+      for (char c = ' '; c <= '~'; c++)
+         printable.append(c);
+      PRINTABLE_ASCII = printable.toString();
+   }
+
+   /**
+    * Orders keys by code point, which is the order of their UTF-8 bytes that S3 and Swift list
+    * them in. Unlike {@link String#compareTo} it also orders supplementary characters that way.
+    */
+   public static final Ordering<String> KEY_ORDER = new Ordering<String>() {
+      @Override
+      public int compare(String left, String right) {
+         int i = 0;
+         int j = 0;
+         while (i < left.length() && j < right.length()) {
+            int l = left.codePointAt(i);
+            int r = right.codePointAt(j);
+            if (l != r)
+               return l < r ? -1 : 1;
+            i += Character.charCount(l);
+            j += Character.charCount(r);
+         }
+         if (i < left.length())
+            return 1;
+         return j < right.length() ? -1 : 0;
+      }
+
+      @Override
+      public String toString() {
+         return "KEY_ORDER";
+      }
+   };
+
+   /**
+    * Bounds the probes of {@link #bisect} for each shard requested, as a namespace whose keys
+    * cluster under a long common prefix needs several to find where they are.
+    */
+   private static final int PROBES_PER_SHARD = 16;
+
+   private KeyRanges() {
+   }
+
+   /**
+    * Splits the keys evenly by their first character, without listing them.
+    *
+    * @param alphabet
+    *           the characters keys start with
+    * @param shards
+    *           how many ranges to split into, at most the number of characters in the alphabet
+    * @return the {@code shards - 1} boundaries between the ranges
+    */
+   public static List<String> split(String alphabet, int shards) {
+      int[] characters = alphabet(alphabet);
+      checkArgument(shards > 0, "shards must be positive");
+      checkArgument(shards <= characters.length, "cannot split %s characters into %s shards", characters.length,
+            shards);
+      ImmutableList.Builder<String> boundaries = ImmutableList.builder();
+      for (int i = 1; i < shards; i++) {
+         // a key made of one character ends the range before the keys it starts
+         boundaries.add(new String(Character.toChars(characters[i * characters.length / shards])));
+      }
+      return boundaries.build();
+   }
+
+   /**
+    * Splits the keys by bisecting the keyspace where listing shows there are keys, which suits
+    * namespaces whose keys cluster rather than spread over the alphabet.
+    * <p/>
+    * Each probe lists one key after the middle of a range. If there is one, the range is split
+    * there; otherwise the keys of the range are all in its lower half, which is bisected next.
+    * Ranges are split breadth first, so they end up about as wide as each other, rather than
+    * holding as many keys.
+    *
+    * @param firstKeyAfter
+    *           lists the first key after a marker, or after none given {@code null}
+    * @param after
+    *           the marker to split the keys after, or {@code null} for all of them
+    * @param alphabet
+    *           the characters of the keys; keys made of others are listed all the same, but split
+    *           less evenly
+    * @param shards
+    *           how many ranges to split into at most; fewer when there are fewer keys
+    * @return the boundaries between the ranges
+    */
+   public static List<String> bisect(Function<String, Optional<String>> firstKeyAfter, @Nullable String after,
+         String alphabet, int shards) {
+      checkNotNull(firstKeyAfter, "firstKeyAfter");
+      checkArgument(shards > 0, "shards must be positive");
+      Keyspace keyspace = new Keyspace(alphabet);
+      SortedSet<String> boundaries = new TreeSet<String>(KEY_ORDER);
+      Optional<String> first = firstKeyAfter.apply(after);
+      if (!first.isPresent())
+         return ImmutableList.of();
+      Deque<Range> ranges = new ArrayDeque<Range>();
+      ranges.add(new Range(first.get(), null));
+      for (int probes = 0; boundaries.size() + 1 < shards && !ranges.isEmpty()
+            && probes < shards * PROBES_PER_SHARD; probes++) {
+         Range range = ranges.poll();
+         String middle = keyspace.between(range.first, range.last);
+         if (middle == null)
+            continue;
+         Optional<String> above = firstKeyAfter.apply(middle);
+         if (above.isPresent() && (range.last == null || KEY_ORDER.compare(above.get(), range.last) <= 0)) {
+            boundaries.add(middle);
+            ranges.add(new Range(range.first, middle));
+            ranges.add(new Range(above.get(), range.last));
+         } else {
+            ranges.addFirst(new Range(range.first, middle));
+         }
+      }
+      return ImmutableList.copyOf(boundaries);
+   }
+
+   /**
+    * Lists the keys in the ranges between boundaries, as lazy shards which start listing when
+    * iterated.
+    *
+    * @param listAfter
+    *           lists the keys after a marker, or all of them given {@code null}
+    * @param toKey
+    *           the key of a listed element
+    * @param after
+    *           the marker to list after, or {@code null} to list all the keys
+    * @param boundaries
+    *           in {@link #KEY_ORDER}, after {@code after}
+    * @return one shard more than there are boundaries, in key order
+    */
+   public static <T> List<PagedIterable<T>> listInRanges(Function<String, PagedIterable<T>> listAfter,
+         Function<? super T, String> toKey, @Nullable String after, List<String> boundaries) {
+      checkNotNull(listAfter, "listAfter");
+      checkNotNull(toKey, "toKey");
+      ImmutableList.Builder<PagedIterable<T>> shards = ImmutableList.builder();
+      String previous = after;
+      for (String boundary : boundaries) {
+         checkArgument(previous == null || KEY_ORDER.compare(previous, boundary) < 0,
+               "boundary %s does not follow %s", boundary, previous);
+         shards.add(range(listAfter, toKey, previous, boundary));
+         previous = boundary;
+      }
+      shards.add(range(listAfter, toKey, previous, null));
+      return shards.build();
+   }
+
+   private static <T> PagedIterable<T> range(final Function<String, PagedIterable<T>> listAfter,
+         final Function<? super T, String> toKey, @Nullable final String after, @Nullable final String last) {
+      return new PagedIterable<T>() {
+         @Override
+         public Iterator<IterableWithMarker<T>> iterator() {
+            Iterator<IterableWithMarker<T>> pages = listAfter.apply(after).iterator();
+            return last == null ? pages : new UpToKey<T>(pages, toKey, last);
+         }
+
+         @Override
+         public String toString() {
+            return "range(" + after + "," + last + "]";
+         }
+      };
+   }
+
+   /**
+    * Stops listing at the first page which passes the last key of the range.
+    */
+   private static class UpToKey<T> extends AbstractIterator<IterableWithMarker<T>> {
+      private final Iterator<IterableWithMarker<T>> pages;
+      private final Function<? super T, String> toKey;
+      private final String last;
+      private boolean passed;
+
+      private UpToKey(Iterator<IterableWithMarker<T>> pages, Function<? super T, String> toKey, String last) {
+         this.pages = pages;
+         this.toKey = toKey;
+         this.last = last;
+      }
+
+      @Override
+      protected IterableWithMarker<T> computeNext() {
+         if (passed || !pages.hasNext())
+            return endOfData();
+         IterableWithMarker<T> page = pages.next();
+         ImmutableList.Builder<T> inRange = ImmutableList.builder();
+         for (T element : page) {
+            if (KEY_ORDER.compare(toKey.apply(element), last) > 0) {
+               passed = true;
+               break;
+            }
+            inRange.add(element);
+         }
+         return IterableWithMarkers.from(inRange.build(), passed ? null : page.nextMarker().orNull());
+      }
+   }
+
+   /**
+    * Keys from the first listed in a range to its last, or to the end of the keyspace.
+    */
+   private static class Range {
+      private final String first;
+      @Nullable
+      private final String last;
+
+      private Range(String first, @Nullable String last) {
+         this.first = first;
+         this.last = last;
+      }
+   }
+
+   /**
+    * Reads keys as fractions, whose digits are the characters of an alphabet, so that there is a
+    * key halfway between any two which are far enough apart.
+    */
+   private static class Keyspace {
+      private final int[] alphabet;
+      private final BigInteger base;
+
+      private Keyspace(String alphabet) {
+         this.alphabet = alphabet(alphabet);
+         checkArgument(this.alphabet.length > 0, "alphabet is empty");
+         // digit 0 is the end of a key, which precedes any character
+         this.base = BigInteger.valueOf(this.alphabet.length + 1);
+      }
+
+      /**
+       * @return a key from {@code low}, inclusive, to {@code high}, exclusive, or {@code null} if
+       *         they are too close to split
+       */
+      @Nullable
+      private String between(String low, @Nullable String high) {
+         int length = Math.max(low.length(), high == null ? 0 : high.length()) + 1;
+         BigInteger lowValue = value(low, length);
+         BigInteger highValue = high == null ? base.pow(length) : value(high, length);
+         String middle = key(lowValue.add(highValue).shiftRight(1), length);
+         // characters outside the alphabet are read approximately, so check the result
+         if (KEY_ORDER.compare(low, middle) > 0 || high != null && KEY_ORDER.compare(middle, high) >= 0)
+            return null;
+         return middle;
+      }
+
+      private BigInteger value(String key, int length) {
+         int[] characters = codePoints(key);
+         BigInteger value = BigInteger.ZERO;
+         for (int i = 0; i < length; i++) {
+            value = value.multiply(base);
+            if (i < characters.length)
+               value = value.add(BigInteger.valueOf(digit(characters[i])));
+         }
+         return value;
+      }
+
+      private int digit(int character) {
+         int index = Arrays.binarySearch(alphabet, character);
+         // a character outside the alphabet reads as the one before it
+         return index >= 0 ? index + 1 : Math.max(-index - 1, 1);
+      }
+
+      private String key(BigInteger value, int length) {
+         int[] digits = new int[length];
+         for (int i = length - 1; i >= 0; i--) {
+            BigInteger[] quotientAndRemainder = value.divideAndRemainder(base);
+            digits[i] = quotientAndRemainder[1].intValue();
+            value = quotientAndRemainder[0];
+         }
+         int end = length;
+         while (end > 0 && digits[end - 1] == 0)
+            end--;
+         StringBuilder key = new StringBuilder();
+         for (int i = 0; i < end; i++) {
+            // a key cannot end before its last character, so take the first one instead
+            key.appendCodePoint(alphabet[Math.max(digits[i], 1) - 1]);
+         }
+         return key.toString();
+      }
+   }
+
+   private static int[] alphabet(String characters) {
+      return Ints.toArray(new TreeSet<Integer>(Ints.asList(codePoints(characters))));
+   }
+
+   private static int[] codePoints(String string) {
+      checkNotNull(string, "string");
+      int[] codePoints = new int[string.codePointCount(0, string.length())];
+      for (int i = 0, offset = 0; offset < string.length(); i++) {
+         codePoints[i] = string.codePointAt(offset);
+         offset += Character.charCount(codePoints[i]);
+      }
+      return codePoints;
+   }
+}
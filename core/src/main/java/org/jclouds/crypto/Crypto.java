@@ -47,6 +47,26 @@ public interface Crypto {
 
    Mac hmacSHA1(byte[] key) throws InvalidKeyException;
 
+   /**
+    * Like {@link #hmac}, except that the {@link Mac} is kept for the calling thread and returned,
+    * reset, to its later calls with the same algorithm and key. This saves looking up and
+    * initialising a mac for every request signed with the same credential.
+    * <p/>
+    * The mac must not be passed to other threads, and must be done with before this thread asks
+    * for a mac with the same algorithm and key again.
+    */
+   Mac pooledHmac(String algorithm, byte[] key) throws NoSuchAlgorithmException, InvalidKeyException;
+
+   /**
+    * @see #pooledHmac
+    */
+   Mac pooledHmacSHA256(byte[] key) throws InvalidKeyException;
+
+   /**
+    * @see #pooledHmac
+    */
+   Mac pooledHmacSHA1(byte[] key) throws InvalidKeyException;
+
    Cipher cipher(String algorithm) throws NoSuchAlgorithmException, NoSuchPaddingException;
 
 }
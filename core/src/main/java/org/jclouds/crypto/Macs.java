@@ -16,8 +16,15 @@
  */
 package org.jclouds.crypto;
 
+import static com.google.common.base.Charsets.UTF_8;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
 import javax.crypto.Mac;
 
 import com.google.common.annotations.Beta;
@@ -50,4 +57,46 @@ public class Macs {
       };
    }
 
+   /**
+    * Computes the MAC value of the UTF-8 encoding of {@code data}, which is encoded through a
+    * buffer kept for the calling thread instead of into a copy of the whole input.
+    * 
+    * @param mac
+    *           the mac object
+    * @return the result of {@link Mac#doFinal()}
+    */
+   public static byte[] doFinal(Mac mac, CharSequence data) {
+      checkNotNull(mac, "mac");
+      Utf8Buffer utf8 = UTF8_BUFFERS.get();
+      CharsetEncoder encoder = utf8.encoder.reset();
+      ByteBuffer out = utf8.bytes;
+      CharBuffer in = CharBuffer.wrap(checkNotNull(data, "data"));
+      boolean flushing = false;
+      while (true) {
+         CoderResult result = flushing ? encoder.flush(out) : encoder.encode(in, out, true);
+         mac.update(out.array(), 0, out.position());
+         out.clear();
+         if (result.isUnderflow()) {
+            if (flushing)
+               break;
+            flushing = true;
+         }
+      }
+      return mac.doFinal();
+   }
+
+   private static final class Utf8Buffer {
+      // replaces malformed input, as String.getBytes does
+      private final CharsetEncoder encoder = UTF_8.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+      private final ByteBuffer bytes = ByteBuffer.allocate(1024);
+   }
+
+   private static final ThreadLocal<Utf8Buffer> UTF8_BUFFERS = new ThreadLocal<Utf8Buffer>() {
+      @Override
+      protected Utf8Buffer initialValue() {
+         return new Utf8Buffer();
+      }
+   };
+
 }
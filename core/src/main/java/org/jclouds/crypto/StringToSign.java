@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.crypto;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * functions for building the canonical string a request is signed over
+ * 
+ * @see Macs#doFinal(javax.crypto.Mac, CharSequence)
+ */
+@Beta
+public class StringToSign {
+
+   private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+   private static final ThreadLocal<StringBuilder> BUFFERS = new ThreadLocal<StringBuilder>() {
+      @Override
+      protected StringBuilder initialValue() {
+         return new StringBuilder(512);
+      }
+   };
+
+   /**
+    * Returns an empty buffer kept for the calling thread, so that signing a request does not grow
+    * a new one. Only one string to sign can be built in it at a time.
+    */
+   public static StringBuilder buffer() {
+      StringBuilder buffer = BUFFERS.get();
+      if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+         // don't hold on to the buffer of an unusually large request
+         buffer = new StringBuilder(512);
+         BUFFERS.set(buffer);
+      }
+      buffer.setLength(0);
+      return buffer;
+   }
+
+   /**
+    * Appends {@code chars} in lower case, without a lower-cased copy of them. Characters are
+    * converted independently of the default locale.
+    */
+   public static StringBuilder appendLowerCase(StringBuilder buffer, CharSequence chars) {
+      checkNotNull(chars, "chars");
+      for (int i = 0; i < chars.length(); i++)
+         buffer.append(Character.toLowerCase(chars.charAt(i)));
+      return buffer;
+   }
+
+}
@@ -19,10 +19,14 @@ package org.jclouds.encryption.internal;
 import java.security.InvalidKeyException;
 import java.security.KeyFactory;
 import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.Provider;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.crypto.Cipher;
 import javax.crypto.Mac;
@@ -42,6 +46,25 @@ public class JCECrypto implements Crypto {
    private final CertificateFactory certFactory;
    private final Provider provider;
 
+   /**
+    * Macs of the most recently used algorithms and keys of each thread.
+    */
+   private final ThreadLocal<Map<MacKey, Mac>> pooledMacs = new ThreadLocal<Map<MacKey, Mac>>() {
+      @Override
+      protected Map<MacKey, Mac> initialValue() {
+         return new LinkedHashMap<MacKey, Mac>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<MacKey, Mac> eldest) {
+               return size() > MAX_POOLED_MACS_PER_THREAD;
+            }
+         };
+      }
+   };
+
+   private static final int MAX_POOLED_MACS_PER_THREAD = 16;
+
    @Inject
    public JCECrypto() throws NoSuchAlgorithmException, CertificateException {
       this(null);
@@ -102,6 +125,63 @@ public class JCECrypto implements Crypto {
       }
    }
 
+   @Override
+   public Mac pooledHmac(String algorithm, byte[] key) throws NoSuchAlgorithmException, InvalidKeyException {
+      Map<MacKey, Mac> macs = pooledMacs.get();
+      Mac mac = macs.get(new MacKey(algorithm, key));
+      if (mac == null) {
+         mac = hmac(algorithm, key);
+         macs.put(new MacKey(algorithm, key.clone()), mac);
+      } else {
+         mac.reset();
+      }
+      return mac;
+   }
+
+   @Override
+   public Mac pooledHmacSHA1(byte[] key) throws InvalidKeyException {
+      try {
+         return pooledHmac(HmacSHA1, key);
+      } catch (NoSuchAlgorithmException e) {
+         throw new IllegalStateException("HmacSHA1 must be supported", e);
+      }
+   }
+
+   @Override
+   public Mac pooledHmacSHA256(byte[] key) throws InvalidKeyException {
+      try {
+         return pooledHmac(HmacSHA256, key);
+      } catch (NoSuchAlgorithmException e) {
+         throw new IllegalStateException("HmacSHA256 must be supported", e);
+      }
+   }
+
+   private static final class MacKey {
+      private final String algorithm;
+      private final byte[] key;
+      private final int hashCode;
+
+      private MacKey(String algorithm, byte[] key) {
+         this.algorithm = algorithm;
+         this.key = key;
+         this.hashCode = 31 * algorithm.hashCode() + Arrays.hashCode(key);
+      }
+
+      @Override
+      public int hashCode() {
+         return hashCode;
+      }
+
+      @Override
+      public boolean equals(Object obj) {
+         if (!(obj instanceof MacKey))
+            return false;
+         MacKey that = (MacKey) obj;
+         // compares keys in constant time
+         return algorithm.equals(that.algorithm) && MessageDigest.isEqual(key, that.key);
+      }
+   }
+
    @Override
    public CertificateFactory certFactory() {
       return certFactory;
@@ -26,6 +26,7 @@ import java.io.InputStream;
 import java.io.StringReader;
 
 import javax.annotation.Resource;
+import javax.xml.parsers.SAXParser;
 
 import org.jclouds.http.HttpRequest;
 import org.jclouds.http.HttpResponse;
@@ -53,6 +54,7 @@ public class ParseSax<T> implements Function<HttpResponse, T>, InvocationContext
    private Logger logger = Logger.NULL;
 
    private final XMLReader parser;
+   private final SAXParserPool parsers;
    private final HandlerWithResult<T> handler;
    private HttpRequest request;
 
@@ -62,6 +64,16 @@ public class ParseSax<T> implements Function<HttpResponse, T>, InvocationContext
 
    public ParseSax(XMLReader parser, HandlerWithResult<T> handler) {
       this.parser = checkNotNull(parser, "parser");
+      this.parsers = null;
+      this.handler = checkNotNull(handler, "handler");
+   }
+
+   /**
+    * Parses with a parser from the pool, held only while a document is being parsed.
+    */
+   public ParseSax(SAXParserPool parsers, HandlerWithResult<T> handler) {
+      this.parser = null;
+      this.parsers = checkNotNull(parsers, "parsers");
       this.handler = checkNotNull(handler, "handler");
    }
 
@@ -132,6 +144,19 @@ public class ParseSax<T> implements Function<HttpResponse, T>, InvocationContext
    protected T doParse(InputSource from) throws IOException, SAXException {
       checkNotNull(from, "xml inputsource");
       from.setEncoding("UTF-8");
+      if (parsers == null)
+         return doParse(parser, from);
+      SAXParser pooled = parsers.acquire();
+      T result = doParse(pooled.getXMLReader(), from);
+      // a parser which failed is not reused
+      pooled.getXMLReader().setContentHandler(NO_HANDLER);
+      parsers.release(pooled);
+      return result;
+   }
+
+   private static final DefaultHandler NO_HANDLER = new DefaultHandler();
+
+   private T doParse(XMLReader parser, InputSource from) throws IOException, SAXException {
       parser.setContentHandler(getHandler());
       // This method should accept documents with a BOM (Byte-order mark)
       parser.parse(from);
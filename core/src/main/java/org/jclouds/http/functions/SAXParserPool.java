@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.functions;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+
+/**
+ * Keeps {@link SAXParser}s for reuse, as creating one costs more than parsing a small response.
+ * <p/>
+ * A thread first gets back the parser it released last, without contention. Other idle parsers are
+ * shared, up to {@link #maxIdle} of them. Parsers are {@link SAXParser#reset() reset} as they are
+ * released, and ones which failed to parse should not be released at all.
+ */
+@Singleton
+public class SAXParserPool {
+
+   @VisibleForTesting
+   int maxIdle = 16;
+
+   private final SAXParserFactory factory;
+   private final ThreadLocal<SAXParser> lastReleased = new ThreadLocal<SAXParser>();
+   private final Queue<SAXParser> idle = new ConcurrentLinkedQueue<SAXParser>();
+   private final AtomicInteger idleCount = new AtomicInteger();
+
+   @Inject
+   public SAXParserPool(SAXParserFactory factory) {
+      this.factory = checkNotNull(factory, "factory");
+   }
+
+   public SAXParser acquire() {
+      SAXParser parser = lastReleased.get();
+      if (parser != null) {
+         lastReleased.remove();
+         return parser;
+      }
+      parser = idle.poll();
+      if (parser != null) {
+         idleCount.decrementAndGet();
+         return parser;
+      }
+      try {
+         return factory.newSAXParser();
+      } catch (Exception e) {
+         throw Throwables.propagate(e);
+      }
+   }
+
+   public void release(SAXParser parser) {
+      parser.reset();
+      if (lastReleased.get() == null) {
+         lastReleased.set(parser);
+      } else if (idleCount.incrementAndGet() <= maxIdle) {
+         idle.offer(parser);
+      } else {
+         idleCount.decrementAndGet();
+      }
+   }
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.functions;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.functions.ParseSax.HandlerWithResult;
+import org.jclouds.rest.InvocationContext;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Function;
+import com.google.common.base.Throwables;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Lists;
+
+/**
+ * Parses a list response on an executor, handing each element to the returned {@link Iterable}
+ * through a bounded queue as soon as it has been parsed. Callers can so work on the first elements
+ * of a large response while the rest of it is still being read.
+ * <p/>
+ * Elements are kept once taken, so the iterable can be iterated more than once, but the parse only
+ * proceeds as far as it is consumed. An iterable which is not consumed to its end gives up on the
+ * response once no element was taken for {@link #timeout} milliseconds.
+ */
+public class StreamingParseSax<E> implements Function<HttpResponse, Iterable<E>>,
+      InvocationContext<StreamingParseSax<E>> {
+
+   /**
+    * Implemented by handlers of list responses which can hand each element to a callback as soon
+    * as it has been parsed, instead of adding it to their result.
+    */
+   public interface Handler<E> {
+      void streamTo(Callback<? super E> callback);
+   }
+
+   public interface Callback<E> {
+      void onElement(E element);
+   }
+
+   private static final Object END = new Object();
+
+   @VisibleForTesting
+   int capacity = 100;
+   @VisibleForTesting
+   long timeout = MINUTES.toMillis(10);
+
+   private final ParseSax<?> parser;
+   private final Handler<E> handler;
+   private final Executor executor;
+
+   protected <H extends HandlerWithResult<?> & Handler<E>> StreamingParseSax(ParseSax.Factory factory, H handler,
+         Executor executor) {
+      HandlerWithResult<?> withResult = checkNotNull(handler, "handler");
+      this.parser = factory.create(withResult);
+      this.handler = handler;
+      this.executor = checkNotNull(executor, "executor");
+   }
+
+   @Override
+   public Iterable<E> apply(final HttpResponse from) {
+      checkNotNull(from, "http response");
+      final ElementStream<E> stream = new ElementStream<E>(capacity, timeout, Thread.currentThread());
+      handler.streamTo(stream);
+      executor.execute(new Runnable() {
+         @Override
+         public void run() {
+            try {
+               parser.apply(from);
+            } catch (RuntimeException e) {
+               stream.failure = e;
+            } finally {
+               stream.end();
+            }
+         }
+      });
+      return stream;
+   }
+
+   @Override
+   public StreamingParseSax<E> setContext(HttpRequest request) {
+      parser.setContext(request);
+      return this;
+   }
+
+   private static final class ElementStream<E> implements Iterable<E>, Callback<E> {
+      private final BlockingQueue<Object> queue = new LinkedBlockingQueue<Object>();
+      private final Semaphore permits;
+      private final long timeout;
+      private final Thread caller;
+      private final List<E> taken = Lists.newArrayList();
+      private volatile RuntimeException failure;
+      private boolean ended;
+
+      private ElementStream(int capacity, long timeout, Thread caller) {
+         this.permits = new Semaphore(capacity);
+         this.timeout = timeout;
+         this.caller = caller;
+      }
+
+      /**
+       * Blocks the parse while the queue is full, unless it is parsing on the thread that is to
+       * consume the elements, as with a same thread executor.
+       */
+      @Override
+      public void onElement(E element) {
+         if (Thread.currentThread() != caller) {
+            try {
+               if (!permits.tryAcquire(timeout, MILLISECONDS))
+                  throw new IllegalStateException(String.format("no element taken for %dms; abandoning the parse",
+                        timeout));
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+               throw Throwables.propagate(e);
+            }
+         }
+         queue.add(element);
+      }
+
+      private void end() {
+         queue.add(END);
+      }
+
+      @Override
+      public Iterator<E> iterator() {
+         return new AbstractIterator<E>() {
+            private int index;
+
+            @Override
+            protected E computeNext() {
+               synchronized (ElementStream.this) {
+                  if (index < taken.size())
+                     return taken.get(index++);
+                  if (!ended)
+                     takeNext();
+                  if (index < taken.size())
+                     return taken.get(index++);
+                  if (failure != null)
+                     throw failure;
+                  return endOfData();
+               }
+            }
+         };
+      }
+
+      @SuppressWarnings("unchecked")
+      private void takeNext() {
+         Object next;
+         try {
+            next = queue.take();
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Throwables.propagate(e);
+         }
+         if (next == END) {
+            ended = true;
+         } else {
+            permits.release();
+            taken.add((E) next);
+         }
+      }
+   }
+}
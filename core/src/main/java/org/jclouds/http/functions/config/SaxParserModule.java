@@ -18,18 +18,18 @@ package org.jclouds.http.functions.config;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 
 import org.jclouds.http.functions.ParseSax;
 import org.jclouds.http.functions.ParseSax.HandlerWithResult;
-import org.xml.sax.XMLReader;
+import org.jclouds.http.functions.SAXParserPool;
 
-import com.google.common.base.Throwables;
 import com.google.inject.AbstractModule;
 import com.google.inject.Injector;
+import com.google.inject.MembersInjector;
 import com.google.inject.Provides;
 import com.google.inject.Scopes;
+import com.google.inject.TypeLiteral;
 
 /**
  * Contains logic for parsing objects from Strings.
@@ -40,29 +40,26 @@ public class SaxParserModule extends AbstractModule {
       bind(ParseSax.Factory.class).to(Factory.class).in(Scopes.SINGLETON);
    }
 
+   /**
+    * Creates parsers which borrow their {@link javax.xml.parsers.SAXParser} from the
+    * {@link SAXParserPool} only while parsing, so that creating one per response is cheap.
+    */
    static class Factory implements ParseSax.Factory {
-      private final SAXParserFactory factory;
-      private final Injector i;
+      private final SAXParserPool parsers;
+      private final MembersInjector<ParseSax<?>> membersInjector;
 
       @Inject
-      Factory(SAXParserFactory factory, Injector i) {
-         this.factory = factory;
-         this.i = i;
+      Factory(SAXParserPool parsers, Injector i) {
+         this.parsers = parsers;
+         this.membersInjector = i.getMembersInjector(new TypeLiteral<ParseSax<?>>() {
+         });
       }
 
       public <T> ParseSax<T> create(HandlerWithResult<T> handler) {
-         SAXParser saxParser;
-         try {
-            saxParser = factory.newSAXParser();
-            XMLReader parser = saxParser.getXMLReader();
-            // TODO: switch to @AssistedInject
-            ParseSax<T> returnVal = new ParseSax<T>(parser, handler);
-            i.injectMembers(returnVal);
-            return returnVal;
-         } catch (Exception e) {
-            throw Throwables.propagate(e);
-         }
-
+         // TODO: switch to @AssistedInject
+         ParseSax<T> returnVal = new ParseSax<T>(parsers, handler);
+         membersInjector.injectMembers(returnVal);
+         return returnVal;
       }
    }
 
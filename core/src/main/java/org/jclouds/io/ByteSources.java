@@ -16,9 +16,20 @@
  */
 package org.jclouds.io;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
 import com.google.common.annotations.Beta;
 import com.google.common.collect.Iterables;
 import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
 
 /**
  * functions related to or replacing those in {@link ByteSource}
@@ -30,4 +41,39 @@ public class ByteSources {
    public static ByteSource repeatingArrayByteSource(final byte[] input) {
       return ByteSource.concat(Iterables.cycle(ByteSource.wrap(input)));
    }
+
+   /**
+    * Creates a view of at most {@code length} bytes of {@code file}, starting at {@code offset}.
+    * Streams read straight from a {@link FileChannel} positioned at the offset, so the bytes before
+    * it are neither read nor buffered.
+    */
+   public static ByteSource fileRange(final File file, final long offset, final long length) {
+      checkNotNull(file, "file");
+      checkArgument(offset >= 0, "offset must be non-negative but was: %s", offset);
+      checkArgument(length >= 0, "length must be non-negative but was: %s", length);
+      return new ByteSource() {
+         @Override
+         public InputStream openStream() throws IOException {
+            FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            try {
+               channel.position(offset);
+            } catch (IOException e) {
+               channel.close();
+               throw e;
+            }
+            // closing the stream closes the channel
+            return ByteStreams.limit(Channels.newInputStream(channel), length);
+         }
+
+         @Override
+         public long size() throws IOException {
+            return Math.max(0, Math.min(length, file.length() - offset));
+         }
+
+         @Override
+         public String toString() {
+            return "ByteSources.fileRange(" + file + ", " + offset + ", " + length + ")";
+         }
+      };
+   }
 }
@@ -21,12 +21,11 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 import javax.inject.Singleton;
@@ -38,14 +37,15 @@ import org.jclouds.io.PayloadSlicer;
 import org.jclouds.io.payloads.BaseMutableContentMetadata;
 import org.jclouds.io.payloads.ByteArrayPayload;
 import org.jclouds.io.payloads.ByteSourcePayload;
+import org.jclouds.io.payloads.FileRegionPayload;
 import org.jclouds.io.payloads.InputStreamPayload;
 
 import com.google.common.base.Charsets;
 import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
 import com.google.common.hash.HashCode;
 import com.google.common.io.ByteSource;
 import com.google.common.io.ByteStreams;
-import com.google.common.io.Files;
 
 @Singleton
 public class BasePayloadSlicer implements PayloadSlicer {
@@ -139,7 +139,10 @@ public class BasePayloadSlicer implements PayloadSlicer {
       checkArgument(offset >= 0, "offset is negative");
       checkArgument(length >= 0, "length is negative");
       Payload returnVal;
-      if (input.getRawContent() instanceof File) {
+      if (input instanceof FileRegionPayload) {
+         FileRegionPayload region = (FileRegionPayload) input;
+         returnVal = doSlice(region.getFile(), region.getPosition() + offset, length);
+      } else if (input.getRawContent() instanceof File) {
          returnVal = doSlice((File) input.getRawContent(), offset, length);
       } else if (input.getRawContent() instanceof String) {
          returnVal = doSlice((String) input.getRawContent(), offset, length);
@@ -164,7 +167,7 @@ public class BasePayloadSlicer implements PayloadSlicer {
    }
 
    protected Payload doSlice(File content, long offset, long length) {
-      return doSlice(Files.asByteSource(content), offset, length);
+      return new FileRegionPayload(content, offset, length);
    }
 
    protected Payload doSlice(InputStream content, long offset, long length) {
@@ -205,7 +208,10 @@ public class BasePayloadSlicer implements PayloadSlicer {
                                                        .contentMD5((HashCode) null)
                                                        .build();
       Object rawContent = input.getRawContent();
-      if (rawContent instanceof File) {
+      if (input instanceof FileRegionPayload) {
+         FileRegionPayload region = (FileRegionPayload) input;
+         return doSlice(region.getFile(), region.getPosition(), region.getCount(), meta);
+      } else if (rawContent instanceof File) {
          return doSlice((File) rawContent, meta);
       } else if (rawContent instanceof String) {
          return doSlice((String) rawContent, meta);
@@ -232,11 +238,24 @@ public class BasePayloadSlicer implements PayloadSlicer {
    }
 
    protected Iterable<Payload> doSlice(File rawContent, ContentMetadata meta) {
-      try {
-         return doSlice(new FileInputStream(rawContent), meta);
-      } catch (FileNotFoundException e) {
-         throw Throwables.propagate(e);
+      return doSlice(rawContent, 0, rawContent.length(), meta);
+   }
+
+   /**
+    * Slices {@code count} bytes of the file, from {@code position}, into regions of the length of
+    * {@code meta}, rather than reading them into memory.
+    */
+   protected Iterable<Payload> doSlice(File file, long position, long count, ContentMetadata meta) {
+      long size = checkNotNull(meta.getContentLength(), "content-length");
+      List<Payload> regions = Lists.newArrayList();
+      for (long offset = 0; size > 0 && offset < count; offset += size) {
+         long length = Math.min(size, count - offset);
+         Payload region = new FileRegionPayload(file, position + offset, length);
+         region.setContentMetadata(BaseMutableContentMetadata.fromContentMetadata(meta.toBuilder()
+               .contentLength(length).build()));
+         regions.add(region);
       }
+      return regions;
    }
 
    protected Iterable<Payload> doSlice(InputStream rawContent, ContentMetadata meta) {
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.io.payloads;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.util.Closeables2.closeQuietly;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Closer;
+import com.google.common.io.Files;
+
+/**
+ * A repeatable payload of {@code count} bytes of a file, starting at {@code position}.
+ * <p/>
+ * Drivers which write to a channel can {@link #transferTo} it, which lets the operating system
+ * copy the region straight from the file, without passing it through user space. Others read it
+ * as a stream, which is positioned on the region rather than skipping to it.
+ */
+public class FileRegionPayload extends BasePayload<ByteSource> {
+   private final File file;
+   private final long position;
+   private final long count;
+   private final Closer closer = Closer.create();
+
+   public FileRegionPayload(File file, long position, long count) {
+      super(Files.asByteSource(checkNotNull(file, "file")).slice(position, count));
+      checkArgument(position >= 0, "position is negative");
+      checkArgument(count >= 0, "count is negative");
+      this.file = file;
+      this.position = position;
+      this.count = count;
+      getContentMetadata().setContentLength(count);
+   }
+
+   public File getFile() {
+      return file;
+   }
+
+   public long getPosition() {
+      return position;
+   }
+
+   public long getCount() {
+      return count;
+   }
+
+   @Override
+   public InputStream openStream() throws IOException {
+      FileInputStream in = closer.register(new FileInputStream(file));
+      in.getChannel().position(position);
+      return ByteStreams.limit(in, count);
+   }
+
+   /**
+    * Writes the region to the target, using {@link FileChannel#transferTo}.
+    *
+    * @return the number of bytes written, which is less than {@link #getCount()} only if the file
+    *         is shorter than the region
+    */
+   public long transferTo(WritableByteChannel target) throws IOException {
+      Closer channelCloser = Closer.create();
+      try {
+         FileChannel channel = channelCloser.register(new FileInputStream(file)).getChannel();
+         long end = Math.min(position + count, channel.size());
+         long transferred = 0;
+         while (position + transferred < end) {
+            transferred += channel.transferTo(position + transferred, end - position - transferred, target);
+         }
+         return transferred;
+      } catch (Throwable e) {
+         throw channelCloser.rethrow(e);
+      } finally {
+         channelCloser.close();
+      }
+   }
+
+   @Override
+   public boolean isRepeatable() {
+      return true;
+   }
+
+   /**
+    * closes the streams this payload opened.
+    */
+   @Override
+   public void release() {
+      closeQuietly(closer);
+   }
+}
@@ -16,6 +16,7 @@
  */
 package org.jclouds.json;
 
+import java.io.InputStream;
 import java.lang.reflect.Type;
 
 public interface Json {
@@ -43,4 +44,10 @@ public interface Json {
     */
    <T> T fromJson(String json, Class<T> classOfT);
 
+   /**
+    * Deserialize the generic object from a UTF-8 encoded json stream, without first reading the
+    * stream into a String. The stream is not closed.
+    */
+   <T> T fromJson(InputStream json, Type type);
+
 }
@@ -16,6 +16,10 @@
  */
 package org.jclouds.json.internal;
 
+import static com.google.common.base.Charsets.UTF_8;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.reflect.Type;
 
 import javax.inject.Inject;
@@ -47,6 +51,12 @@ public class GsonWrapper extends ForwardingObject implements Json  {
       return gson.fromJson(json, classOfT);
    }
 
+   @SuppressWarnings("unchecked")
+   @Override
+   public <T> T fromJson(InputStream json, Type type) {
+      return (T) gson.fromJson(new InputStreamReader(json, UTF_8), type);
+   }
+
    @Override
    public String toJson(Object src) {
       return gson.toJson(src);
@@ -64,6 +64,21 @@ import com.google.inject.spi.TypeListener;
  */
 public class LifeCycleModule extends AbstractModule {
 
+   private final boolean closeExecutors;
+
+   public LifeCycleModule() {
+      this(true);
+   }
+
+   /**
+    * @param closeExecutors
+    *           whether closing shuts down the executors, which it must not when they are shared
+    *           with the context this one was derived from
+    */
+   public LifeCycleModule(boolean closeExecutors) {
+      this.closeExecutors = closeExecutors;
+   }
+
    protected void configure() {
 
       Closeable executorCloser = new Closeable() {
@@ -89,9 +104,11 @@ public class LifeCycleModule extends AbstractModule {
          }
       };
 
-      binder().requestInjection(executorCloser);
       Closer closer = new Closer();
-      closer.addToClose(executorCloser);
+      if (closeExecutors) {
+         binder().requestInjection(executorCloser);
+         closer.addToClose(executorCloser);
+      }
       bind(Closer.class).toInstance(closer);
 
       ExecutionList list = new ExecutionList();
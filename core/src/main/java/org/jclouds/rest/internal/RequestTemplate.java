@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.rest.internal;
+
+import static com.google.common.collect.Iterables.concat;
+import static org.jclouds.http.HttpUtils.tryFindHttpMethod;
+import static org.jclouds.reflect.Reflection2.getInvokableParameters;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.ws.rs.FormParam;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+
+import org.jclouds.http.HttpRequestFilter;
+import org.jclouds.http.options.HttpRequestOptions;
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.rest.annotations.BinderParam;
+import org.jclouds.rest.annotations.Endpoint;
+import org.jclouds.rest.annotations.EndpointParam;
+import org.jclouds.rest.annotations.FormParams;
+import org.jclouds.rest.annotations.Headers;
+import org.jclouds.rest.annotations.MapBinder;
+import org.jclouds.rest.annotations.OverrideRequestFilters;
+import org.jclouds.rest.annotations.ParamParser;
+import org.jclouds.rest.annotations.PartParam;
+import org.jclouds.rest.annotations.Payload;
+import org.jclouds.rest.annotations.PayloadParam;
+import org.jclouds.rest.annotations.PayloadParams;
+import org.jclouds.rest.annotations.QueryParams;
+import org.jclouds.rest.annotations.RequestFilters;
+import org.jclouds.rest.annotations.SkipEncoding;
+import org.jclouds.rest.annotations.VirtualHost;
+import org.jclouds.rest.annotations.WrapWith;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Function;
+import com.google.common.base.Optional;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Chars;
+import com.google.common.reflect.Invokable;
+import com.google.common.reflect.Parameter;
+import com.google.inject.Binding;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import com.google.inject.Scopes;
+import com.google.inject.util.Providers;
+
+/**
+ * Everything {@link RestAnnotationProcessor} needs to know about the annotations of an
+ * {@link Invokable} and its declaring type, read once per invokable. Building a request then only
+ * binds the arguments of the invocation against it.
+ * <p/>
+ * The binders, filters and parsers the template names are looked up in the injector of the first
+ * request using them. Singletons are then kept per injector, and other scopes keep their provider,
+ * so later requests skip the injector without changing what they get from it.
+ */
+final class RequestTemplate {
+
+   private static final LoadingCache<Invokable<?, ?>, RequestTemplate> templates = CacheBuilder.newBuilder().build(
+         new CacheLoader<Invokable<?, ?>, RequestTemplate>() {
+            @Override
+            public RequestTemplate load(Invokable<?, ?> invokable) {
+               return new RequestTemplate(invokable);
+            }
+         });
+
+   static RequestTemplate of(Invokable<?, ?> invokable) {
+      return templates.getUnchecked(invokable);
+   }
+
+   /**
+    * A parameter whose argument is bound to a named path, query, form or payload param.
+    */
+   static final class ParamTemplate {
+      final int index;
+      final String key;
+      @Nullable
+      final Class<? extends Function<Object, String>> parser;
+
+      private ParamTemplate(Parameter param, String key) {
+         this.index = param.hashCode(); // guava issue 1243
+         this.key = key;
+         ParamParser parser = param.getAnnotation(ParamParser.class);
+         this.parser = parser != null ? parser.value() : null;
+      }
+   }
+
+   final Invokable<?, ?> invokable;
+   final Optional<String> httpMethod;
+   final List<String> paths;
+   final Optional<List<Character>> skipEncoding;
+   final List<FormParams> formParams;
+   final List<QueryParams> queryParams;
+   final List<Headers> headers;
+   final Optional<Produces> produces;
+   final boolean virtualHost;
+   final List<Class<? extends HttpRequestFilter>> filters;
+   final Optional<Endpoint> endpoint;
+   final List<Parameter> endpointParams;
+   final List<Parameter> parameters;
+   final List<ParamTemplate> pathParams;
+   final List<ParamTemplate> formParamParams;
+   final List<ParamTemplate> queryParamParams;
+   final List<ParamTemplate> payloadParamParams;
+   final List<Parameter> headerParams;
+   final List<Parameter> partParams;
+   final Set<Parameter> binderOrWrapWith;
+   final Set<Integer> optionIndexes;
+   final Optional<Class<? extends org.jclouds.rest.MapBinder>> mapBinder;
+   final boolean payload;
+   final Optional<WrapWith> wrapWith;
+   final Optional<PayloadParams> payloadParams;
+   private final LoadingCache<Injector, ConcurrentMap<Key<?>, Provider<?>>> providers = CacheBuilder.newBuilder()
+         .weakKeys().build(new CacheLoader<Injector, ConcurrentMap<Key<?>, Provider<?>>>() {
+            @Override
+            public ConcurrentMap<Key<?>, Provider<?>> load(Injector injector) {
+               return Maps.newConcurrentMap();
+            }
+         });
+
+   @VisibleForTesting
+   RequestTemplate(Invokable<?, ?> invokable) {
+      this.invokable = invokable;
+      Class<?> owner = invokable.getOwnerType().getRawType();
+      this.httpMethod = tryFindHttpMethod(invokable);
+      this.paths = present(owner.getAnnotation(Path.class), invokable.getAnnotation(Path.class)).transform(
+            new Function<Path, String>() {
+               @Override
+               public String apply(Path input) {
+                  return input.value();
+               }
+            }).toList();
+      SkipEncoding skipEncoding = Optional.fromNullable(invokable.getAnnotation(SkipEncoding.class)).or(
+            Optional.fromNullable(owner.getAnnotation(SkipEncoding.class))).orNull();
+      this.skipEncoding = skipEncoding != null ? Optional.of(Chars.asList(skipEncoding.value())) : Optional
+            .<List<Character>> absent();
+      this.formParams = present(owner.getAnnotation(FormParams.class), invokable.getAnnotation(FormParams.class))
+            .toList();
+      this.queryParams = present(owner.getAnnotation(QueryParams.class), invokable.getAnnotation(QueryParams.class))
+            .toList();
+      this.headers = present(owner.getAnnotation(Headers.class), invokable.getAnnotation(Headers.class)).toList();
+      this.produces = Optional.fromNullable(invokable.getAnnotation(Produces.class)).or(
+            Optional.fromNullable(owner.getAnnotation(Produces.class)));
+      this.virtualHost = owner.isAnnotationPresent(VirtualHost.class)
+            || invokable.isAnnotationPresent(VirtualHost.class);
+      this.filters = filters(owner, invokable);
+      this.endpoint = Optional.fromNullable(invokable.getAnnotation(Endpoint.class)).or(
+            Optional.fromNullable(owner.getAnnotation(Endpoint.class)));
+
+      this.parameters = getInvokableParameters(invokable);
+      this.endpointParams = withAnnotation(EndpointParam.class);
+      ImmutableList.Builder<ParamTemplate> pathParams = ImmutableList.builder();
+      for (Parameter param : withAnnotation(PathParam.class))
+         pathParams.add(new ParamTemplate(param, param.getAnnotation(PathParam.class).value()));
+      this.pathParams = pathParams.build();
+      ImmutableList.Builder<ParamTemplate> formParamParams = ImmutableList.builder();
+      for (Parameter param : withAnnotation(FormParam.class))
+         formParamParams.add(new ParamTemplate(param, param.getAnnotation(FormParam.class).value()));
+      this.formParamParams = formParamParams.build();
+      ImmutableList.Builder<ParamTemplate> queryParamParams = ImmutableList.builder();
+      for (Parameter param : withAnnotation(QueryParam.class))
+         queryParamParams.add(new ParamTemplate(param, param.getAnnotation(QueryParam.class).value()));
+      this.queryParamParams = queryParamParams.build();
+      ImmutableList.Builder<ParamTemplate> payloadParamParams = ImmutableList.builder();
+      for (Parameter param : withAnnotation(PayloadParam.class))
+         payloadParamParams.add(new ParamTemplate(param, param.getAnnotation(PayloadParam.class).value()));
+      this.payloadParamParams = payloadParamParams.build();
+      this.headerParams = withAnnotation(HeaderParam.class);
+      this.partParams = withAnnotation(PartParam.class);
+      this.binderOrWrapWith = ImmutableSet.copyOf(concat(withAnnotation(BinderParam.class),
+            withAnnotation(WrapWith.class)));
+      ImmutableSet.Builder<Integer> optionIndexes = ImmutableSet.builder();
+      for (Parameter param : parameters) {
+         Class<?> type = param.getType().getRawType();
+         if (HttpRequestOptions.class.isAssignableFrom(type) || HttpRequestOptions[].class.isAssignableFrom(type))
+            optionIndexes.add(param.hashCode());
+      }
+      this.optionIndexes = optionIndexes.build();
+
+      MapBinder mapBinder = invokable.getAnnotation(MapBinder.class);
+      this.mapBinder = mapBinder != null ? Optional.<Class<? extends org.jclouds.rest.MapBinder>> of(mapBinder.value())
+            : Optional.<Class<? extends org.jclouds.rest.MapBinder>> absent();
+      this.payload = invokable.isAnnotationPresent(Payload.class);
+      this.wrapWith = Optional.fromNullable(invokable.getAnnotation(WrapWith.class));
+      this.payloadParams = Optional.fromNullable(invokable.getAnnotation(PayloadParams.class));
+   }
+
+   <T> T getInstance(Injector injector, Class<T> type) {
+      return getInstance(injector, Key.get(type));
+   }
+
+   @SuppressWarnings("unchecked")
+   <T> T getInstance(Injector injector, Key<T> key) {
+      ConcurrentMap<Key<?>, Provider<?>> byKey = providers.getUnchecked(injector);
+      Provider<?> provider = byKey.get(key);
+      if (provider == null) {
+         Binding<T> binding = injector.getBinding(key);
+         provider = Scopes.isSingleton(binding) ? Providers.of(binding.getProvider().get()) : binding.getProvider();
+         byKey.putIfAbsent(key, provider);
+      }
+      return (T) provider.get();
+   }
+
+   boolean isNullable(int index) {
+      return parameters.get(index).isAnnotationPresent(Nullable.class);
+   }
+
+   private static List<Class<? extends HttpRequestFilter>> filters(Class<?> owner, Invokable<?, ?> invokable) {
+      ImmutableList.Builder<Class<? extends HttpRequestFilter>> filters = ImmutableList.builder();
+      if (owner.isAnnotationPresent(RequestFilters.class)
+            && !(invokable.isAnnotationPresent(RequestFilters.class) && invokable
+                  .isAnnotationPresent(OverrideRequestFilters.class)))
+         filters.add(owner.getAnnotation(RequestFilters.class).value());
+      if (invokable.isAnnotationPresent(RequestFilters.class))
+         filters.add(invokable.getAnnotation(RequestFilters.class).value());
+      return filters.build();
+   }
+
+   private List<Parameter> withAnnotation(Class<? extends Annotation> annotationType) {
+      ImmutableList.Builder<Parameter> withAnnotation = ImmutableList.builder();
+      for (Parameter param : parameters) {
+         if (param.isAnnotationPresent(annotationType))
+            withAnnotation.add(param);
+      }
+      return withAnnotation.build();
+   }
+
+   private static <A extends Annotation> FluentIterable<A> present(@Nullable A onType, @Nullable A onMethod) {
+      return FluentIterable.from(Optional.presentInstances(ImmutableList.of(Optional.fromNullable(onType),
+            Optional.fromNullable(onMethod))));
+   }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds;
+
+import static org.jclouds.Constants.PROPERTY_LAZY_START;
+
+import java.util.Properties;
+
+import org.jclouds.logging.config.NullLoggingModule;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Module;
+
+/**
+ * Reports where the first context of a provider or api spent its time starting, then compares
+ * building views of it as usual with starting them lazily, and with warming them up after. Each is
+ * timed over {@code test.context-startup.count} contexts, 20 by default.
+ */
+@Test(groups = "performance", singleThreaded = true)
+public abstract class BaseContextStartupPerformanceTest {
+
+   private static final int COUNT = Integer.getInteger("test.context-startup.count", 20);
+
+   protected final String provider;
+   protected final Class<? extends View> viewType;
+
+   protected BaseContextStartupPerformanceTest(String provider, Class<? extends View> viewType) {
+      this.provider = provider;
+      this.viewType = viewType;
+   }
+
+   protected String identity() {
+      return "identity";
+   }
+
+   protected Properties setupProperties() {
+      return new Properties();
+   }
+
+   public void testStartup() {
+      // the first context loads the classes, as a short-lived program would
+      View view = build(true);
+      System.out.printf("TIMING: %s first %s%n", provider, ContextBuilder.warmUp(view.unwrap()));
+      view.unwrap().close();
+
+      // alternate, so that neither gains from the other warming the jvm
+      long built = 0, lazy = 0, warmedUp = 0;
+      for (int i = 0; i < COUNT; i++) {
+         built += start(false, false);
+         lazy += start(true, false);
+         warmedUp += start(true, true);
+      }
+      report("built", built);
+      report("started lazily", lazy);
+      report("started lazily and warmed up", warmedUp);
+   }
+
+   private long start(boolean lazy, boolean warmUp) {
+      long start = System.nanoTime();
+      View view = build(lazy);
+      if (warmUp)
+         ContextBuilder.warmUp(view.unwrap());
+      long nanos = System.nanoTime() - start;
+      view.unwrap().close();
+      return nanos;
+   }
+
+   private void report(String name, long nanos) {
+      System.out.printf("TIMING: %s %s took %.1fms each%n", provider, name, nanos / 1e6 / COUNT);
+   }
+
+   private View build(boolean lazy) {
+      Properties overrides = setupProperties();
+      overrides.setProperty(PROPERTY_LAZY_START, String.valueOf(lazy));
+      return ContextBuilder.newBuilder(provider)
+                           .credentials(identity(), "credential")
+                           .overrides(overrides)
+                           .modules(ImmutableSet.<Module> of(new NullLoggingModule()))
+                           .buildView(viewType);
+   }
+}
@@ -18,21 +18,32 @@ package org.jclouds;
 
 import static com.google.common.base.Suppliers.ofInstance;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
 
 import java.net.URI;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jclouds.concurrent.config.ExecutorServiceModule;
+import org.jclouds.config.SharedWithDerivedContexts;
 import org.jclouds.domain.Credentials;
 import org.jclouds.events.config.EventBusModule;
+import org.jclouds.http.HttpCommandExecutorService;
 import org.jclouds.http.IntegrationTestAsyncClient;
 import org.jclouds.http.IntegrationTestClient;
 import org.jclouds.http.config.ConfiguresHttpCommandExecutorService;
 import org.jclouds.http.config.JavaUrlHttpCommandExecutorServiceModule;
+import org.jclouds.json.Json;
 import org.jclouds.location.Provider;
+import org.jclouds.location.Region;
+import org.jclouds.location.suppliers.RegionIdsSupplier;
+import org.jclouds.logging.Logger;
 import org.jclouds.logging.config.LoggingModule;
 import org.jclouds.logging.config.NullLoggingModule;
 import org.jclouds.logging.jdk.config.JDKLoggingModule;
@@ -46,11 +57,16 @@ import org.testng.annotations.Test;
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.inject.AbstractModule;
 import com.google.inject.Binder;
+import com.google.inject.Injector;
 import com.google.inject.Key;
 import com.google.inject.Module;
+import com.google.inject.Scopes;
+import com.google.inject.Stage;
 import com.google.inject.TypeLiteral;
+import com.google.inject.name.Names;
 
 /**
  * Tests behavior of modules configured in ContextBuilder
@@ -240,4 +256,132 @@ public class ContextBuilderTest {
       builder.modules(Arrays.asList(module1, module2));
 
    }
+
+   private static final Key<Supplier<URI>> PROVIDER_URI = Key.get(new TypeLiteral<Supplier<URI>>() {},
+         Provider.class);
+   private static final Key<Supplier<Set<String>>> REGIONS = Key.get(new TypeLiteral<Supplier<Set<String>>>() {},
+         Region.class);
+
+   static class PoolModule extends AbstractModule implements SharedWithDerivedContexts {
+      @Override
+      protected void configure() {
+         bind(StringBuilder.class).in(Scopes.SINGLETON);
+      }
+
+      @Override
+      public Iterable<Key<?>> getSharedKeys() {
+         return ImmutableSet.<Key<?>> of(Key.get(StringBuilder.class));
+      }
+   }
+
+   public void testDerivedContextSharesResourcesButNotCredentials() {
+      Module logging = new NullLoggingModule();
+      Context parent = testContextBuilder().credentials("foo", "bar")
+            .modules(ImmutableSet.of(logging, new PoolModule())).build();
+      Context child = ContextBuilder.newBuilder(parent).credentials("baz", "qux").build();
+      Injector parentInjector = parent.utils().injector();
+      Injector childInjector = child.utils().injector();
+
+      assertEquals(child.getIdentity(), "baz");
+      assertEquals(parent.getIdentity(), "foo");
+      assertEquals(childInjector.getInstance(ProviderMetadata.class).getEndpoint(), "http://localhost");
+      Key<ListeningExecutorService> userExecutor = Key.get(ListeningExecutorService.class,
+            Names.named(Constants.PROPERTY_USER_THREADS));
+      assertSame(childInjector.getInstance(userExecutor), parentInjector.getInstance(userExecutor));
+      assertSame(childInjector.getInstance(Json.class), parentInjector.getInstance(Json.class));
+      assertSame(childInjector.getInstance(StringBuilder.class), parentInjector.getInstance(StringBuilder.class));
+      // locations read from configuration do not depend on credentials
+      assertSame(childInjector.getInstance(PROVIDER_URI), parentInjector.getInstance(PROVIDER_URI));
+      assertSame(childInjector.getInstance(REGIONS), parentInjector.getInstance(REGIONS));
+      assertNotSame(childInjector.getInstance(HttpCommandExecutorService.class),
+            parentInjector.getInstance(HttpCommandExecutorService.class));
+      // the parent's modules are derived too
+      assertSame(childInjector.getInstance(Logger.LoggerFactory.class).getLogger("jclouds"), Logger.NULL);
+
+      child.close();
+      assertFalse(parentInjector.getInstance(userExecutor).isShutdown());
+      parent.close();
+      assertTrue(parentInjector.getInstance(userExecutor).isShutdown());
+   }
+
+   public void testDerivedContextExpandsEndpointWithItsOwnIdentity() {
+      Context parent = testContextBuilder().endpoint("http://${jclouds.identity}.localhost").credentials("foo", "bar")
+            .modules(ImmutableSet.<Module> of(new NullLoggingModule())).build();
+      Context child = ContextBuilder.newBuilder(parent).credentials("baz", "qux").build();
+
+      assertEquals(parent.utils().injector().getInstance(ProviderMetadata.class).getEndpoint(), "http://foo.localhost");
+      assertEquals(child.utils().injector().getInstance(ProviderMetadata.class).getEndpoint(), "http://baz.localhost");
+      assertEquals(child.utils().injector().getInstance(PROVIDER_URI).get(), URI.create("http://baz.localhost"));
+      child.close();
+      parent.close();
+   }
+
+   public void testDerivedContextReadsLocationsOfTheApiItself() {
+      Module regionsFromTheApi = new AbstractModule() {
+         @Override
+         protected void configure() {
+            bind(RegionIdsSupplier.class).toInstance(new RegionIdsSupplier() {
+               @Override
+               public Set<String> get() {
+                  return ImmutableSet.of("region");
+               }
+            });
+         }
+      };
+      Context parent = testContextBuilder().credentials("foo", "bar")
+            .modules(ImmutableSet.<Module> of(new NullLoggingModule(), regionsFromTheApi)).build();
+      Context child = ContextBuilder.newBuilder(parent).credentials("baz", "qux").build();
+      Injector parentInjector = parent.utils().injector();
+      Injector childInjector = child.utils().injector();
+
+      assertNotSame(childInjector.getInstance(REGIONS), parentInjector.getInstance(REGIONS));
+      assertEquals(childInjector.getInstance(REGIONS).get(), ImmutableSet.of("region"));
+      assertSame(childInjector.getInstance(PROVIDER_URI), parentInjector.getInstance(PROVIDER_URI));
+      child.close();
+      parent.close();
+   }
+
+   static class CountingModule extends AbstractModule {
+      private final AtomicInteger created = new AtomicInteger();
+
+      @Override
+      protected void configure() {
+         bind(StringBuilder.class).toProvider(new com.google.inject.Provider<StringBuilder>() {
+            @Override
+            public StringBuilder get() {
+               created.incrementAndGet();
+               return new StringBuilder();
+            }
+         }).in(Scopes.SINGLETON);
+      }
+   }
+
+   public void testSingletonsAreCreatedWhileBuilding() {
+      CountingModule counting = new CountingModule();
+      Context context = testContextBuilder().modules(ImmutableSet.of(new NullLoggingModule(), counting)).build();
+
+      assertEquals(counting.created.get(), 1);
+      StartupProfile profile = context.utils().injector().getInstance(StartupProfile.class);
+      assertEquals(profile.getStage(), Stage.PRODUCTION);
+      assertTrue(profile.getModuleNanos().containsKey(CountingModule.class.getName()), profile.toString());
+      assertTrue(profile.getInjectorNanos() > 0, profile.toString());
+      context.close();
+   }
+
+   public void testLazyStartCreatesSingletonsWhenWarmedUp() {
+      CountingModule counting = new CountingModule();
+      Properties overrides = new Properties();
+      overrides.setProperty(Constants.PROPERTY_LAZY_START, "true");
+      Context context = testContextBuilder().overrides(overrides)
+            .modules(ImmutableSet.of(new NullLoggingModule(), counting)).build();
+
+      assertEquals(counting.created.get(), 0);
+      StartupProfile profile = ContextBuilder.warmUp(context);
+      assertEquals(counting.created.get(), 1);
+      assertEquals(profile.getStage(), Stage.DEVELOPMENT);
+      assertTrue(profile.getBindingNanos().containsKey(Key.get(StringBuilder.class)), profile.toString());
+      assertTrue(profile.getWarmUpNanos() > 0, profile.toString());
+      assertTrue(profile.toString().contains("slowest bindings"), profile.toString());
+      context.close();
+   }
 }
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.jclouds.http.IntegrationTestAsyncClient;
+import org.jclouds.http.IntegrationTestClient;
+import org.jclouds.logging.config.NullLoggingModule;
+import org.jclouds.providers.AnonymousProviderMetadata;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.inject.Key;
+import com.google.inject.name.Names;
+
+/**
+ * Compares building a context per tenant with deriving them from one context. Each context runs a
+ * task on its user executor, as using it would. There are 200 tenants by default; set
+ * {@code test.context-creation.tenants} to change it.
+ */
+@Test(groups = "performance", singleThreaded = true, testName = "ContextCreationPerformanceTest")
+public class ContextCreationPerformanceTest {
+
+   private static final int TENANTS = Integer.getInteger("test.context-creation.tenants", 200);
+
+   public void testBuiltAgainstDerivedContexts() throws Exception {
+      // warm up the classes and caches shared by both
+      closeAll(buildContexts(10));
+      Context warmup = builder("parent").build();
+      closeAll(deriveContexts(warmup, 10));
+      warmup.close();
+
+      Measurement before = new Measurement();
+      long start = System.nanoTime();
+      List<Context> built = buildContexts(TENANTS);
+      report("built contexts", before, System.nanoTime() - start, new Measurement());
+      closeAll(built);
+
+      before = new Measurement();
+      start = System.nanoTime();
+      Context parent = builder("parent").build();
+      List<Context> derived = deriveContexts(parent, TENANTS);
+      report("derived contexts", before, System.nanoTime() - start, new Measurement());
+      closeAll(derived);
+      parent.close();
+   }
+
+   private static List<Context> buildContexts(int count) throws ExecutionException, InterruptedException {
+      List<Context> contexts = Lists.newArrayListWithCapacity(count);
+      for (int i = 0; i < count; i++)
+         contexts.add(use(builder("tenant" + i).build()));
+      return contexts;
+   }
+
+   private static List<Context> deriveContexts(Context parent, int count) throws ExecutionException,
+         InterruptedException {
+      List<Context> contexts = Lists.newArrayListWithCapacity(count);
+      for (int i = 0; i < count; i++)
+         contexts.add(use(ContextBuilder.newBuilder(parent).credentials("tenant" + i, "secret").build()));
+      return contexts;
+   }
+
+   private static ContextBuilder builder(String identity) {
+      return ContextBuilder
+            .newBuilder(AnonymousProviderMetadata.forClientMappedToAsyncClientOnEndpoint(IntegrationTestClient.class,
+                  IntegrationTestAsyncClient.class, "http://localhost"))
+            .credentials(identity, "secret")
+            .modules(ImmutableSet.of(new NullLoggingModule()));
+   }
+
+   private static Context use(Context context) throws ExecutionException, InterruptedException {
+      context.utils().injector()
+            .getInstance(Key.get(ListeningExecutorService.class, Names.named(Constants.PROPERTY_USER_THREADS)))
+            .submit(new Runnable() {
+               @Override
+               public void run() {
+               }
+            }).get();
+      return context;
+   }
+
+   private static void closeAll(List<Context> contexts) {
+      for (Context context : contexts)
+         context.close();
+   }
+
+   private static void report(String name, Measurement before, long nanos, Measurement after) {
+      System.out.printf("TIMING: %d %s took %.1fms, %.0fKB of heap and %.2f threads each%n", TENANTS, name,
+            nanos / 1e6 / TENANTS, (after.heap - before.heap) / 1024.0 / TENANTS,
+            (after.threads - before.threads) / (double) TENANTS);
+   }
+
+   /**
+    * Heap and threads in use, after collecting garbage.
+    */
+   private static class Measurement {
+      private final long heap;
+      private final int threads;
+
+      private Measurement() {
+         Runtime runtime = Runtime.getRuntime();
+         for (int i = 0; i < 3; i++)
+            System.gc();
+         this.heap = runtime.totalMemory() - runtime.freeMemory();
+         this.threads = Thread.activeCount();
+      }
+   }
+}
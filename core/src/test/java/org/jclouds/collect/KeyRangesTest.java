@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.collect;
+
+import static org.jclouds.collect.KeyRanges.KEY_ORDER;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import com.google.common.base.Function;
+import com.google.common.base.Functions;
+import com.google.common.base.Optional;
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+
+@Test(groups = "unit", testName = "KeyRangesTest")
+public class KeyRangesTest {
+
+   private static final int PAGE_SIZE = 10;
+
+   public void testKeyOrderIsCodePointOrder() {
+      String grinning = new String(Character.toChars(0x1F600));
+      assertTrue("\uFFFF".compareTo(grinning) > 0);
+      assertTrue(KEY_ORDER.compare("\uFFFF", grinning) < 0);
+      assertTrue(KEY_ORDER.compare("a", "ab") < 0);
+      assertEquals(KEY_ORDER.compare("ab", "ab"), 0);
+   }
+
+   public void testSplitByAlphabet() {
+      assertEquals(KeyRanges.split("fedcba9876543210", 4), ImmutableList.of("4", "8", "c"));
+      assertEquals(KeyRanges.split("ab", 1), ImmutableList.of());
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   public void testCannotSplitIntoMoreShardsThanCharacters() {
+      KeyRanges.split("ab", 3);
+   }
+
+   public void testShardsPartitionTheKeysInOrder() {
+      NavigableSet<String> keys = keys("", 1000);
+      AtomicInteger listings = new AtomicInteger();
+
+      List<PagedIterable<String>> shards = KeyRanges.listInRanges(listAfter(keys, listings),
+            Functions.<String> identity(), null, KeyRanges.split("0123456789abcdef", 4));
+
+      assertEquals(shards.size(), 4);
+      assertEquals(concat(shards), ImmutableList.copyOf(keys));
+      for (PagedIterable<String> shard : shards)
+         assertTrue(shard.concat().size() > 200, shard + " has " + shard.concat().size() + " keys");
+      // each shard lists at most the page past its end besides its own
+      listings.set(0);
+      concat(shards);
+      assertTrue(listings.get() <= keys.size() / PAGE_SIZE + shards.size(), listings + " listings");
+   }
+
+   public void testShardsStartAfterTheMarker() {
+      NavigableSet<String> keys = keys("", 100);
+      String marker = Iterables.get(keys, 49);
+
+      List<PagedIterable<String>> shards = KeyRanges.listInRanges(listAfter(keys, new AtomicInteger()),
+            Functions.<String> identity(), marker, ImmutableList.of("c"));
+
+      assertEquals(concat(shards), ImmutableList.copyOf(keys.tailSet(marker, false)));
+   }
+
+   public void testBisectSplitsClusteredKeys() {
+      NavigableSet<String> keys = keys("logs/2014-10-", 1000);
+
+      List<String> boundaries = KeyRanges.bisect(firstKeyAfter(keys), null, KeyRanges.PRINTABLE_ASCII, 8);
+      List<PagedIterable<String>> shards = KeyRanges.listInRanges(listAfter(keys, new AtomicInteger()),
+            Functions.<String> identity(), null, boundaries);
+
+      assertEquals(shards.size(), 8);
+      assertEquals(concat(shards), ImmutableList.copyOf(keys));
+      for (PagedIterable<String> shard : shards)
+         assertTrue(shard.concat().size() > 50, shard + " has " + shard.concat().size() + " keys");
+   }
+
+   public void testBisectStopsAtEachKey() {
+      NavigableSet<String> keys = keys("", 3);
+
+      List<String> boundaries = KeyRanges.bisect(firstKeyAfter(keys), null, KeyRanges.PRINTABLE_ASCII, 8);
+
+      assertTrue(boundaries.size() <= 2, boundaries.toString());
+      assertEquals(concat(KeyRanges.listInRanges(listAfter(keys, new AtomicInteger()),
+            Functions.<String> identity(), null, boundaries)), ImmutableList.copyOf(keys));
+   }
+
+   public void testBisectNothing() {
+      assertEquals(KeyRanges.bisect(firstKeyAfter(new TreeSet<String>(KEY_ORDER)), null,
+            KeyRanges.PRINTABLE_ASCII, 8), ImmutableList.of());
+   }
+
+   /**
+    * Hex digests, as keys spread evenly over their alphabet.
+    */
+   private static NavigableSet<String> keys(String prefix, int count) {
+      NavigableSet<String> keys = new TreeSet<String>(KEY_ORDER);
+      for (int i = 0; i < count; i++)
+         keys.add(prefix + String.format("%08x", i * 0x9E3779B1));
+      return keys;
+   }
+
+   private static Function<String, Optional<String>> firstKeyAfter(final NavigableSet<String> keys) {
+      return new Function<String, Optional<String>>() {
+         @Override
+         public Optional<String> apply(String marker) {
+            if (marker == null)
+               return Optional.fromNullable(keys.isEmpty() ? null : keys.first());
+            return Optional.fromNullable(keys.higher(marker));
+         }
+      };
+   }
+
+   private static Function<String, PagedIterable<String>> listAfter(final NavigableSet<String> keys,
+         final AtomicInteger listings) {
+      return new Function<String, PagedIterable<String>>() {
+         @Override
+         public PagedIterable<String> apply(String marker) {
+            return PagedIterables.advance(page(marker), new Function<Object, IterableWithMarker<String>>() {
+               @Override
+               public IterableWithMarker<String> apply(Object input) {
+                  return page(input.toString());
+               }
+            });
+         }
+
+         private IterableWithMarker<String> page(String marker) {
+            listings.incrementAndGet();
+            List<String> page = FluentIterable.from(marker == null ? keys : keys.tailSet(marker, false))
+                  .limit(PAGE_SIZE).toList();
+            String last = Iterables.getLast(page, null);
+            return IterableWithMarkers.from(page, last != null && !last.equals(keys.last()) ? last : null);
+         }
+      };
+   }
+
+   private static List<String> concat(List<PagedIterable<String>> shards) {
+      ImmutableList.Builder<String> keys = ImmutableList.builder();
+      for (PagedIterable<String> shard : shards)
+         keys.addAll(shard.concat());
+      return keys.build();
+   }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.crypto;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.google.common.io.BaseEncoding.base64;
+import static com.google.common.io.ByteStreams.readBytes;
+import static org.jclouds.crypto.Macs.asByteProcessor;
+import static org.testng.Assert.assertEquals;
+
+import java.io.IOException;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateException;
+
+import org.jclouds.PerformanceTest;
+import org.jclouds.encryption.internal.JCECrypto;
+import org.jclouds.util.Strings2;
+import org.testng.annotations.Test;
+
+/**
+ * Compares signing a typical string to sign with a pooled mac and {@link Macs#doFinal} against a
+ * new mac and a stream of its bytes, as the request signers did before.
+ */
+@Test(groups = "performance", singleThreaded = true, testName = "MacsPerformanceTest")
+public class MacsPerformanceTest extends PerformanceTest {
+
+   private static final String CREDENTIAL = "wJalrXUtnFEMI/K7MDENG/bPxRfiCYEXAMPLEKEY";
+   private static final String TO_SIGN = "PUT\n4gJE4saaMU4BqNR0kLY+lw==\napplication/octet-stream\n"
+         + "Tue, 27 Mar 2007 21:15:45 +0000\nx-amz-meta-author:foo@bar.com\n/quotes/nelson.txt";
+
+   private final Crypto crypto;
+
+   public MacsPerformanceTest() throws NoSuchAlgorithmException, CertificateException {
+      crypto = new JCECrypto();
+   }
+
+   public void testSigningWithPooledMac() throws Exception {
+      assertEquals(signWithPooledMac(), signWithNewMac());
+
+      time("signing with a new mac", new Runnable() {
+         @Override
+         public void run() {
+            try {
+               signWithNewMac();
+            } catch (Exception e) {
+               throw new AssertionError(e);
+            }
+         }
+      });
+      time("signing with a pooled mac", new Runnable() {
+         @Override
+         public void run() {
+            try {
+               signWithPooledMac();
+            } catch (Exception e) {
+               throw new AssertionError(e);
+            }
+         }
+      });
+   }
+
+   private String signWithNewMac() throws InvalidKeyException, IOException {
+      return base64().encode(
+            readBytes(Strings2.toInputStream(TO_SIGN), asByteProcessor(crypto.hmacSHA1(CREDENTIAL.getBytes(UTF_8)))));
+   }
+
+   private String signWithPooledMac() throws InvalidKeyException {
+      return base64().encode(Macs.doFinal(crypto.pooledHmacSHA1(CREDENTIAL.getBytes(UTF_8)), TO_SIGN));
+   }
+
+   private static void time(String name, Runnable task) {
+      // warm up
+      for (int i = 0; i < LOOP_COUNT * 10; i++) {
+         task.run();
+      }
+      int iterations = LOOP_COUNT * 100;
+      long start = System.nanoTime();
+      for (int i = 0; i < iterations; i++) {
+         task.run();
+      }
+      System.out.printf("TIMING: %s took %.3fus per request%n", name, (double) (System.nanoTime() - start)
+            / iterations / 1000);
+   }
+}
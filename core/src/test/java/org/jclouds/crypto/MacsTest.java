@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.crypto;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.google.common.io.ByteStreams.readBytes;
+import static org.jclouds.crypto.Macs.asByteProcessor;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+import java.io.IOException;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.crypto.Mac;
+
+import org.jclouds.encryption.internal.JCECrypto;
+import org.jclouds.util.Strings2;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Strings;
+
+@Test(groups = "unit", testName = "MacsTest")
+public class MacsTest {
+
+   private static final byte[] KEY = "secret".getBytes(UTF_8);
+
+   private final Crypto crypto;
+
+   public MacsTest() throws NoSuchAlgorithmException, CertificateException {
+      crypto = new JCECrypto();
+   }
+
+   public void testDoFinalMatchesStreamedInput() throws InvalidKeyException, IOException {
+      for (String toSign : new String[] { "", "GET\n\n\nThu, 05 Jun 2008 16:38:19 GMT\n/bucket/",
+            "PUT\n\u00fcml\u00e4ut \u20ac \ud83d\udca9\n", Strings.repeat("abc\u00e9", 1000), "\ud800 unpaired" }) {
+         byte[] expected = readBytes(Strings2.toInputStream(toSign), asByteProcessor(crypto.hmacSHA256(KEY)));
+         assertEquals(Macs.doFinal(crypto.pooledHmacSHA256(KEY), toSign), expected, toSign);
+      }
+   }
+
+   public void testPooledHmacIsReusedAndReset() throws InvalidKeyException {
+      Mac mac = crypto.pooledHmacSHA1(KEY);
+      mac.update("left over from a failed signature".getBytes(UTF_8));
+
+      assertSame(crypto.pooledHmacSHA1(KEY), mac);
+      assertEquals(Macs.doFinal(crypto.pooledHmacSHA1(KEY.clone()), "data"), crypto.hmacSHA1(KEY).doFinal(
+            "data".getBytes(UTF_8)));
+   }
+
+   public void testPooledHmacIsPerAlgorithmAndKey() throws InvalidKeyException {
+      Mac mac = crypto.pooledHmacSHA1(KEY);
+
+      assertNotSame(crypto.pooledHmacSHA256(KEY), mac);
+      assertNotSame(crypto.pooledHmacSHA1("other".getBytes(UTF_8)), mac);
+      assertEquals(Macs.doFinal(crypto.pooledHmacSHA1("other".getBytes(UTF_8)), "data"),
+            crypto.hmacSHA1("other".getBytes(UTF_8)).doFinal("data".getBytes(UTF_8)));
+   }
+
+   public void testPooledHmacIsPerThread() throws Exception {
+      final Mac mac = crypto.pooledHmacSHA1(KEY);
+      ExecutorService executor = Executors.newSingleThreadExecutor();
+      try {
+         Mac other = executor.submit(new Callable<Mac>() {
+            @Override
+            public Mac call() throws InvalidKeyException {
+               return crypto.pooledHmacSHA1(KEY);
+            }
+         }).get();
+         assertNotSame(other, mac);
+      } finally {
+         executor.shutdownNow();
+      }
+   }
+
+   public void testKeyIsCopiedIntoThePool() throws InvalidKeyException {
+      byte[] key = "mutable".getBytes(UTF_8);
+      Mac mac = crypto.pooledHmacSHA1(key);
+      key[0] = 'M';
+
+      assertNotSame(crypto.pooledHmacSHA1(key), mac);
+      assertSame(crypto.pooledHmacSHA1("mutable".getBytes(UTF_8)), mac);
+   }
+
+   public void testStringToSignBufferIsEmptied() {
+      StringToSign.buffer().append("GET\n");
+      assertEquals(StringToSign.buffer().length(), 0);
+      assertEquals(StringToSign.appendLowerCase(StringToSign.buffer(), "/Bucket/KEY-\u00c9").toString(),
+            "/bucket/key-\u00e9");
+   }
+}
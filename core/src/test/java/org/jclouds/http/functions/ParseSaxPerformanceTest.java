@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.functions;
+
+import static org.testng.Assert.assertEquals;
+
+import javax.xml.parsers.SAXParserFactory;
+
+import org.jclouds.PerformanceTest;
+import org.jclouds.http.functions.SAXParserPoolTest.FirstElementHandler;
+import org.jclouds.http.functions.config.SaxParserModule;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Throwables;
+import com.google.inject.Guice;
+
+/**
+ * Compares parsing a small response with a parser from the {@link SAXParserPool} with creating a
+ * new parser for each response, as was done before parsers were pooled.
+ */
+@Test(groups = "performance", singleThreaded = true, testName = "ParseSaxPerformanceTest")
+public class ParseSaxPerformanceTest extends PerformanceTest {
+
+   private static final String RESPONSE = "<SendMessageResponse><SendMessageResult>"
+         + "<MD5OfMessageBody>fafb00f5732ab283681e124bf8747ed1</MD5OfMessageBody>"
+         + "<MessageId>c6f4ed8f-5f6b-4c4d-b3ac-8e3ddc0c5c0f</MessageId></SendMessageResult>"
+         + "</SendMessageResponse>";
+
+   private ParseSax.Factory pooled;
+   private SAXParserFactory parserFactory;
+
+   @BeforeClass
+   void setupFactories() {
+      pooled = Guice.createInjector(new SaxParserModule()).getInstance(ParseSax.Factory.class);
+      parserFactory = SAXParserFactory.newInstance();
+   }
+
+   public void testParsingWithPooledParsers() {
+      assertEquals(pooled.create(new FirstElementHandler()).parse(RESPONSE), "SendMessageResponse");
+
+      time("parsing with pooled parsers", new Runnable() {
+         @Override
+         public void run() {
+            pooled.create(new FirstElementHandler()).parse(RESPONSE);
+         }
+      });
+      time("parsing with a new parser per response", new Runnable() {
+         @Override
+         public void run() {
+            try {
+               new ParseSax<String>(parserFactory.newSAXParser().getXMLReader(), new FirstElementHandler())
+                     .parse(RESPONSE);
+            } catch (Exception e) {
+               throw Throwables.propagate(e);
+            }
+         }
+      });
+   }
+
+   private static void time(String name, Runnable task) {
+      // warm up
+      for (int i = 0; i < LOOP_COUNT; i++) {
+         task.run();
+      }
+      int iterations = LOOP_COUNT * 10;
+      long start = System.nanoTime();
+      for (int i = 0; i < iterations; i++) {
+         task.run();
+      }
+      System.out.printf("TIMING: %s took %.3fus per response%n", name, (double) (System.nanoTime() - start)
+            / iterations / 1000);
+   }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.functions;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.testng.annotations.Test;
+import org.xml.sax.Attributes;
+
+@Test(groups = "unit", testName = "SAXParserPoolTest")
+public class SAXParserPoolTest extends BaseHandlerTest {
+
+   public static class FirstElementHandler extends ParseSax.HandlerWithResult<String> {
+      private String first;
+
+      @Override
+      public void startElement(String uri, String localName, String qName, Attributes attributes) {
+         if (first == null)
+            first = qName;
+      }
+
+      @Override
+      public String getResult() {
+         return first;
+      }
+   }
+
+   public void testThreadGetsBackTheParserItReleased() {
+      SAXParserPool pool = new SAXParserPool(SAXParserFactory.newInstance());
+      SAXParser parser = pool.acquire();
+      pool.release(parser);
+
+      assertSame(pool.acquire(), parser);
+   }
+
+   public void testIdleParsersAreSharedBetweenThreads() throws InterruptedException, ExecutionException {
+      final SAXParserPool pool = new SAXParserPool(SAXParserFactory.newInstance());
+      SAXParser first = pool.acquire();
+      SAXParser second = pool.acquire();
+      pool.release(first);
+      pool.release(second);
+
+      SAXParser other = Executors.newSingleThreadExecutor().submit(new Callable<SAXParser>() {
+         @Override
+         public SAXParser call() {
+            return pool.acquire();
+         }
+      }).get();
+
+      assertSame(other, second);
+   }
+
+   public void testIdleParsersAreBounded() {
+      SAXParserPool pool = new SAXParserPool(SAXParserFactory.newInstance());
+      pool.maxIdle = 1;
+      SAXParser first = pool.acquire();
+      SAXParser second = pool.acquire();
+      SAXParser third = pool.acquire();
+      pool.release(first);
+      pool.release(second);
+      pool.release(third);
+
+      assertSame(pool.acquire(), first);
+      assertSame(pool.acquire(), second);
+      SAXParser created = pool.acquire();
+      assertNotSame(created, third);
+   }
+
+   public void testPooledParserIsReusedAfterAFailedParse() {
+      assertEquals(factory.create(new FirstElementHandler()).parse("<a><b/></a>"), "a");
+      try {
+         factory.create(new FirstElementHandler()).parse("<c><d></c>");
+         fail("expected a parse error");
+      } catch (RuntimeException e) {
+         // expected
+      }
+      assertEquals(factory.create(new FirstElementHandler()).parse("<e/>"), "e");
+      assertEquals(factory.create(new FirstElementHandler()).parse("<f><g/></f>"), "f");
+   }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.functions;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.fail;
+
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.jclouds.http.HttpResponse;
+import org.jclouds.io.Payloads;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.MoreExecutors;
+
+@Test(groups = "unit", testName = "StreamingParseSaxTest")
+public class StreamingParseSaxTest extends BaseHandlerTest {
+
+   public static class ItemsHandler extends ParseSax.HandlerWithResult<Set<String>> implements
+         StreamingParseSax.Handler<String> {
+      private final StringBuilder currentText = new StringBuilder();
+      private final Set<String> items = Sets.newLinkedHashSet();
+      private StreamingParseSax.Callback<? super String> callback;
+
+      @Override
+      public void streamTo(StreamingParseSax.Callback<? super String> callback) {
+         this.callback = callback;
+      }
+
+      @Override
+      public Set<String> getResult() {
+         return items;
+      }
+
+      @Override
+      public void endElement(String uri, String name, String qName) {
+         if (qName.equals("item")) {
+            if (callback != null)
+               callback.onElement(currentText.toString().trim());
+            else
+               items.add(currentText.toString().trim());
+         }
+         currentText.setLength(0);
+      }
+
+      @Override
+      public void characters(char[] ch, int start, int length) {
+         currentText.append(ch, start, length);
+      }
+   }
+
+   static class StreamItems extends StreamingParseSax<String> {
+      StreamItems(ParseSax.Factory factory, Executor executor) {
+         super(factory, new ItemsHandler(), executor);
+      }
+   }
+
+   private ExecutorService executor;
+
+   @BeforeClass
+   void setupExecutor() {
+      executor = Executors.newCachedThreadPool();
+   }
+
+   @AfterClass(alwaysRun = true)
+   void shutdownExecutor() {
+      executor.shutdownNow();
+   }
+
+   public void testElementsAreHandedOverBeforeTheResponseIsRead() throws IOException {
+      PipedOutputStream out = new PipedOutputStream();
+      HttpResponse response = response(new PipedInputStream(out));
+
+      Iterator<String> items = new StreamItems(factory, executor).apply(response).iterator();
+
+      out.write("<items><item>a</item><item>b</item>".getBytes(UTF_8));
+      out.flush();
+      assertEquals(items.next(), "a");
+      assertEquals(items.next(), "b");
+
+      out.write("<item>c</item></items>".getBytes(UTF_8));
+      out.close();
+      assertEquals(items.next(), "c");
+      assertFalse(items.hasNext());
+   }
+
+   public void testIterableCanBeIteratedAgain() {
+      StreamItems parser = new StreamItems(factory, executor);
+      parser.capacity = 1;
+      Iterable<String> items = parser.apply(response("<items><item>a</item><item>b</item><item>c</item></items>"));
+
+      Iterator<String> first = items.iterator();
+      assertEquals(first.next(), "a");
+      assertEquals(ImmutableList.copyOf(items), ImmutableList.of("a", "b", "c"));
+      assertEquals(ImmutableList.copyOf(first), ImmutableList.of("b", "c"));
+   }
+
+   public void testParsingOnTheCallingThreadIsNotBounded() {
+      StreamItems parser = new StreamItems(factory, MoreExecutors.sameThreadExecutor());
+      parser.capacity = 1;
+
+      List<String> items = ImmutableList.copyOf(parser.apply(response(
+            "<items><item>a</item><item>b</item><item>c</item></items>")));
+
+      assertEquals(items, ImmutableList.of("a", "b", "c"));
+   }
+
+   public void testParseErrorIsThrownAfterTheElementsParsedBeforeIt() {
+      Iterator<String> items = new StreamItems(factory, executor).apply(response("<items><item>a</item><item>b"))
+            .iterator();
+
+      assertEquals(items.next(), "a");
+      try {
+         items.hasNext();
+         fail("expected the parse error");
+      } catch (RuntimeException e) {
+         // expected
+      }
+   }
+
+   private static HttpResponse response(Object payload) {
+      return HttpResponse.builder().statusCode(200).message("OK").payload(Payloads.newPayload(payload)).build();
+   }
+}
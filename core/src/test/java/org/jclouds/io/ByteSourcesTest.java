@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.io;
+
+import static org.testng.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.ByteSource;
+import com.google.common.io.Files;
+
+@Test(groups = "unit", testName = "ByteSourcesTest")
+public class ByteSourcesTest {
+
+   private File file;
+
+   @BeforeClass
+   public void setUp() throws IOException {
+      file = File.createTempFile("ByteSourcesTest", ".txt");
+      Files.write("abcdefgh", file, Charsets.US_ASCII);
+   }
+
+   @AfterClass(alwaysRun = true)
+   public void tearDown() {
+      if (file != null)
+         file.delete();
+   }
+
+   public void testFileRange() throws IOException {
+      ByteSource range = ByteSources.fileRange(file, 2, 3);
+
+      assertEquals(range.size(), 3);
+      assertEquals(range.asCharSource(Charsets.US_ASCII).read(), "cde");
+      // a view can be read more than once
+      assertEquals(range.asCharSource(Charsets.US_ASCII).read(), "cde");
+   }
+
+   public void testFileRangePastTheEnd() throws IOException {
+      assertEquals(ByteSources.fileRange(file, 6, 10).asCharSource(Charsets.US_ASCII).read(), "gh");
+      assertEquals(ByteSources.fileRange(file, 6, 10).size(), 2);
+      assertEquals(ByteSources.fileRange(file, 10, 10).read().length, 0);
+      assertEquals(ByteSources.fileRange(file, 10, 10).size(), 0);
+   }
+
+   public void testFileRangeOfWholeFile() throws IOException {
+      assertEquals(ByteSources.fileRange(file, 0, Long.MAX_VALUE).asCharSource(Charsets.US_ASCII).read(), "abcdefgh");
+      assertEquals(ByteSources.fileRange(file, 0, Long.MAX_VALUE).size(), 8);
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   public void testFileRangeRejectsNegativeOffset() {
+      ByteSources.fileRange(file, -1, 3);
+   }
+}
@@ -21,13 +21,18 @@ import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.nio.channels.Channels;
 import java.util.Iterator;
 
 import org.jclouds.io.ByteSources;
 import org.jclouds.io.Payload;
 import org.jclouds.io.PayloadSlicer;
 import org.jclouds.io.payloads.ByteSourcePayload;
+import org.jclouds.io.payloads.FilePayload;
+import org.jclouds.io.payloads.FileRegionPayload;
 import org.jclouds.io.payloads.InputStreamPayload;
 import org.jclouds.util.Strings2;
 import org.testng.annotations.Test;
@@ -35,6 +40,7 @@ import org.testng.annotations.Test;
 import com.google.common.base.Charsets;
 import com.google.common.collect.Iterables;
 import com.google.common.io.ByteSource;
+import com.google.common.io.Files;
 
 @Test
 public class BasePayloadSlicerTest {
@@ -81,4 +87,64 @@ public class BasePayloadSlicerTest {
       assertEquals(Iterables.size(slicer.slice(payload, 100)), 11);
       assertEquals(Iterables.size(slicer.slice(payload, 53)), 20);
    }
+
+   @Test
+   public void testSliceFileIntoRegion() throws IOException {
+      File file = tempFile("aaaaaaaaaabbbbbbbbbbccccc");
+      try {
+         Payload slice = new BasePayloadSlicer().slice(new FilePayload(file), 10, 10);
+
+         assertTrue(slice instanceof FileRegionPayload, slice.getClass().getName());
+         assertEquals(slice.getContentMetadata().getContentLength(), Long.valueOf(10));
+         assertEquals(Strings2.toStringAndClose(slice.openStream()), "bbbbbbbbbb");
+         // regions are repeatable
+         assertEquals(Strings2.toStringAndClose(slice.openStream()), "bbbbbbbbbb");
+
+         Payload sliceOfSlice = new BasePayloadSlicer().slice(slice, 5, 3);
+         assertEquals(Strings2.toStringAndClose(sliceOfSlice.openStream()), "bbb");
+         assertEquals(((FileRegionPayload) sliceOfSlice).getPosition(), 15);
+      } finally {
+         file.delete();
+      }
+   }
+
+   @Test
+   public void testIterableSliceFileIntoRegions() throws IOException {
+      File file = tempFile("aaaaaaaaaabbbbbbbbbbccccc");
+      try {
+         Iterator<Payload> iter = new BasePayloadSlicer().slice(new FilePayload(file), 10).iterator();
+
+         assertEquals(Strings2.toStringAndClose(iter.next().openStream()), "aaaaaaaaaa");
+         assertEquals(Strings2.toStringAndClose(iter.next().openStream()), "bbbbbbbbbb");
+         Payload last = iter.next();
+         assertTrue(last instanceof FileRegionPayload, last.getClass().getName());
+         assertEquals(last.getContentMetadata().getContentLength(), Long.valueOf(5));
+         assertEquals(Strings2.toStringAndClose(last.openStream()), "ccccc");
+         assertFalse(iter.hasNext());
+      } finally {
+         file.delete();
+      }
+   }
+
+   @Test
+   public void testTransferRegion() throws IOException {
+      File file = tempFile("aaaaaaaaaabbbbbbbbbbccccc");
+      try {
+         ByteArrayOutputStream out = new ByteArrayOutputStream();
+         assertEquals(new FileRegionPayload(file, 18, 5).transferTo(Channels.newChannel(out)), 5);
+         assertEquals(new String(out.toByteArray(), Charsets.US_ASCII), "bbccc");
+
+         out.reset();
+         assertEquals(new FileRegionPayload(file, 20, 10).transferTo(Channels.newChannel(out)), 5,
+               "a region past the end of the file transfers what there is");
+      } finally {
+         file.delete();
+      }
+   }
+
+   private static File tempFile(String contents) throws IOException {
+      File file = File.createTempFile("BasePayloadSlicerTest", ".txt");
+      Files.write(contents.getBytes(Charsets.US_ASCII), file);
+      return file;
+   }
 }
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.io.internal;
+
+import static org.testng.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import org.jclouds.io.Payload;
+import org.jclouds.io.payloads.FilePayload;
+import org.jclouds.io.payloads.FileRegionPayload;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * Compares sending the parts of a large file as streams which skip to their offset, as slicing
+ * did before, against transferring them as file regions. Both write to a loopback socket, which a
+ * thread drains. The file is sparse, 5 GB split into 100 MB parts by default; set
+ * {@code test.file-slicing.size} and {@code test.file-slicing.part-size} to change them.
+ */
+@Test(groups = "performance", singleThreaded = true, testName = "FileSlicingPerformanceTest")
+public class FileSlicingPerformanceTest {
+
+   private static final long SIZE = Long.getLong("test.file-slicing.size", 5L * 1024 * 1024 * 1024);
+   private static final long PART_SIZE = Long.getLong("test.file-slicing.part-size", 100L * 1024 * 1024);
+
+   private File file;
+   private ServerSocketChannel server;
+   private SocketChannel sink;
+   private Thread drain;
+
+   @BeforeClass
+   void setup() throws IOException {
+      file = File.createTempFile("FileSlicingPerformanceTest", ".bin");
+      RandomAccessFile raf = new RandomAccessFile(file, "rw");
+      try {
+         raf.setLength(SIZE);
+      } finally {
+         raf.close();
+      }
+      server = ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+      sink = SocketChannel.open(server.getLocalAddress());
+      final SocketChannel source = server.accept();
+      drain = new Thread(new Runnable() {
+         @Override
+         public void run() {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+            try {
+               while (source.read(buffer) >= 0)
+                  buffer.clear();
+            } catch (IOException e) {
+            }
+         }
+      }, "drain");
+      drain.start();
+   }
+
+   @AfterClass(alwaysRun = true)
+   void teardown() throws IOException, InterruptedException {
+      if (sink != null)
+         sink.close();
+      if (drain != null)
+         drain.join();
+      if (server != null)
+         server.close();
+      if (file != null)
+         file.delete();
+   }
+
+   public void testSkippingStreamsAgainstFileRegions() throws IOException {
+      // warm up the page cache and the code paths
+      sendSkippingStreams();
+      sendRegions();
+
+      long start = System.nanoTime();
+      assertEquals(sendSkippingStreams(), SIZE);
+      report("streams skipping to each part", start);
+
+      start = System.nanoTime();
+      assertEquals(sendRegions(), SIZE);
+      report("file regions", start);
+   }
+
+   private long sendSkippingStreams() throws IOException {
+      OutputStream out = Channels.newOutputStream(sink);
+      long sent = 0;
+      for (long offset = 0; offset < SIZE; offset += PART_SIZE) {
+         InputStream in = new FileInputStream(file);
+         try {
+            ByteStreams.skipFully(in, offset);
+            sent += ByteStreams.copy(ByteStreams.limit(in, PART_SIZE), out);
+         } finally {
+            in.close();
+         }
+      }
+      return sent;
+   }
+
+   private long sendRegions() throws IOException {
+      long sent = 0;
+      for (Payload part : new BasePayloadSlicer().slice(new FilePayload(file), PART_SIZE)) {
+         sent += ((FileRegionPayload) part).transferTo(sink);
+      }
+      return sent;
+   }
+
+   private static void report(String name, long start) {
+      double seconds = (System.nanoTime() - start) / 1e9;
+      System.out.printf("TIMING: %s took %.3fs for %d parts of %dMB (%.0fMB/s)%n", name, seconds,
+            (SIZE + PART_SIZE - 1) / PART_SIZE, PART_SIZE >> 20, SIZE / seconds / (1 << 20));
+   }
+}
@@ -19,6 +19,7 @@ package org.jclouds.json;
 import static com.google.common.io.BaseEncoding.base16;
 import static com.google.common.primitives.Bytes.asList;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
 
 import java.util.List;
 import java.util.Map;
@@ -26,6 +27,7 @@ import java.util.Properties;
 
 import org.jclouds.json.config.GsonModule;
 import org.jclouds.json.config.GsonModule.DefaultExclusionStrategy;
+import org.jclouds.util.Strings2;
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableList;
@@ -85,6 +87,14 @@ public class JsonTest {
       assertEquals(json.toJson(obj2), json.toJson(obj));
    }
    
+   public void testObjectFromStream() {
+      ObjectNoDefaultConstructor obj = new ObjectNoDefaultConstructor("f\u00f6o", 1);
+      ObjectNoDefaultConstructor obj2 = json.fromJson(Strings2.toInputStream(json.toJson(obj)),
+            ObjectNoDefaultConstructor.class);
+      assertEquals(obj2, obj);
+      assertNull(json.fromJson(Strings2.toInputStream(""), ObjectNoDefaultConstructor.class));
+   }
+
    static class ExcludeStringValue implements DefaultExclusionStrategy {
       public boolean shouldSkipClass(Class<?> clazz) {
         return false;
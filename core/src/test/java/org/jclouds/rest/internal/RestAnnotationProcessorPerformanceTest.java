@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.rest.internal;
+
+import static org.jclouds.providers.AnonymousProviderMetadata.forApiOnEndpoint;
+import static org.jclouds.reflect.Reflection2.method;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+import java.io.Closeable;
+
+import javax.inject.Singleton;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.PerformanceTest;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.filters.BasicAuthentication;
+import org.jclouds.logging.config.NullLoggingModule;
+import org.jclouds.reflect.Invocation;
+import org.jclouds.rest.annotations.Headers;
+import org.jclouds.rest.annotations.ParamParser;
+import org.jclouds.rest.annotations.QueryParams;
+import org.jclouds.rest.annotations.RequestFilters;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.reflect.Invokable;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+
+/**
+ * Compares building a request against the cached {@link RequestTemplate} of a method with also
+ * reading its annotations again, as was done for every request before templates were cached. Then
+ * compares getting the filters and parsers of the method from its template with getting them from
+ * the injector, as was done for every request before the template kept them.
+ */
+@Test(groups = "performance", singleThreaded = true, testName = "RestAnnotationProcessorPerformanceTest")
+public class RestAnnotationProcessorPerformanceTest extends PerformanceTest {
+
+   @RequestFilters(BasicAuthentication.class)
+   @Path("/queues/{jclouds.api-version}")
+   @Produces(MediaType.APPLICATION_XML)
+   public interface QueueApi extends Closeable {
+      @GET
+      @Path("/{queue}/messages")
+      @QueryParams(keys = "Action", values = "ReceiveMessage")
+      @Headers(keys = "x-request-queue", values = "{queue}")
+      String receive(@PathParam("queue") @ParamParser(LowerCase.class) String queue,
+            @QueryParam("MaxNumberOfMessages") int max,
+            @HeaderParam("x-request-id") String requestId);
+   }
+
+   @Singleton
+   public static class LowerCase implements Function<Object, String> {
+      @Override
+      public String apply(Object input) {
+         return input.toString().toLowerCase();
+      }
+   }
+
+   private Injector injector;
+   private RestAnnotationProcessor processor;
+   private Invocation invocation;
+
+   @BeforeClass
+   void setupProcessor() {
+      injector = ContextBuilder.newBuilder(forApiOnEndpoint(QueueApi.class, "http://localhost:9999"))
+            .credentials("identity", "credential")
+            .modules(ImmutableSet.<Module> of(new NullLoggingModule())).buildInjector();
+      processor = injector.getInstance(RestAnnotationProcessor.class);
+      Invokable<?, ?> receive = method(QueueApi.class, "receive", String.class, int.class, String.class);
+      invocation = Invocation.create(receive, ImmutableList.<Object> of("orders", 10, "abc"));
+   }
+
+   public void testBuildingFromCachedTemplate() {
+      HttpRequest request = processor.apply(invocation);
+      assertEquals(request.getRequestLine(),
+            "GET http://localhost:9999/queues/1/orders/messages?Action=ReceiveMessage&MaxNumberOfMessages=10 HTTP/1.1");
+
+      time("building requests from the cached template", new Runnable() {
+         @Override
+         public void run() {
+            processor.apply(invocation);
+         }
+      });
+      time("building requests and reading annotations", new Runnable() {
+         @Override
+         public void run() {
+            new RequestTemplate(invocation.getInvokable());
+            processor.apply(invocation);
+         }
+      });
+   }
+
+   public void testGettingFiltersAndParsersFromTemplate() {
+      final RequestTemplate template = RequestTemplate.of(invocation.getInvokable());
+      assertSame(template.getInstance(injector, LowerCase.class), injector.getInstance(LowerCase.class));
+
+      time("getting filters and parsers from the template", new Runnable() {
+         @Override
+         public void run() {
+            template.getInstance(injector, BasicAuthentication.class);
+            template.getInstance(injector, LowerCase.class);
+         }
+      });
+      time("getting filters and parsers from the injector", new Runnable() {
+         @Override
+         public void run() {
+            injector.getInstance(BasicAuthentication.class);
+            injector.getInstance(LowerCase.class);
+         }
+      });
+   }
+
+   private static void time(String name, Runnable task) {
+      // warm up
+      for (int i = 0; i < LOOP_COUNT; i++) {
+         task.run();
+      }
+      int iterations = LOOP_COUNT * 100;
+      long start = System.nanoTime();
+      for (int i = 0; i < iterations; i++) {
+         task.run();
+      }
+      System.out.printf("TIMING: %s took %.3fus per request%n", name, (double) (System.nanoTime() - start)
+            / iterations / 1000);
+   }
+}
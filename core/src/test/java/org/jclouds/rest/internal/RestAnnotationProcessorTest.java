@@ -22,7 +22,9 @@ import static org.jclouds.io.Payloads.newInputStreamPayload;
 import static org.jclouds.io.Payloads.newStringPayload;
 import static org.jclouds.reflect.Reflection2.method;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
 import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
@@ -1534,12 +1536,23 @@ public class RestAnnotationProcessorTest extends BaseRestApiTest {
       }
    }
 
+   @Singleton
+   static class SingletonRequestFilter implements HttpRequestFilter {
+      public HttpRequest filter(HttpRequest request) throws HttpException {
+         return request;
+      }
+   }
+
    @RequestFilters(TestRequestFilter1.class)
    interface TestRequestFilter {
       @GET
       @RequestFilters(TestRequestFilter2.class)
       void get();
 
+      @GET
+      @RequestFilters(SingletonRequestFilter.class)
+      void getSingleton();
+
       @GET
       @OverrideRequestFilters
       @RequestFilters(TestRequestFilter2.class)
@@ -1562,6 +1575,15 @@ public class RestAnnotationProcessorTest extends BaseRestApiTest {
       assertEquals(request.getFilters().get(1).getClass(), TestRequestFilter2.class);
    }
 
+   public void testRequestFiltersKeepTheirScope() {
+      Invokable<?, ?> method = method(TestRequestFilter.class, "getSingleton");
+      GeneratedHttpRequest first = processor.apply(Invocation.create(method));
+      GeneratedHttpRequest second = processor.apply(Invocation.create(method));
+      assertNotSame(first.getFilters().get(0), second.getFilters().get(0));
+      assertSame(first.getFilters().get(1), second.getFilters().get(1));
+      assertSame(first.getFilters().get(1), injector.getInstance(SingletonRequestFilter.class));
+   }
+
    public void testRequestFilterOverride() throws SecurityException, NoSuchMethodException {
       Invokable<?, ?> method = method(TestRequestFilter.class, "getOverride");
       GeneratedHttpRequest request = processor.apply(Invocation.create(method));
@@ -19,7 +19,9 @@ package org.jclouds.http.apachehc;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.channels.Channels;
 import java.util.Map;
 import java.util.Set;
 
@@ -36,6 +38,7 @@ import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.AbstractHttpEntity;
 import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.FileEntity;
 import org.apache.http.entity.InputStreamEntity;
@@ -51,6 +54,7 @@ import org.jclouds.io.payloads.BasePayload;
 import org.jclouds.io.payloads.ByteArrayPayload;
 import org.jclouds.io.payloads.DelegatingPayload;
 import org.jclouds.io.payloads.FilePayload;
+import org.jclouds.io.payloads.FileRegionPayload;
 import org.jclouds.io.payloads.StringPayload;
 
 import com.google.common.base.Throwables;
@@ -139,6 +143,10 @@ public class ApacheHCUtils {
       } else if (payload instanceof FilePayload) {
          apacheRequest.setEntity(new FileEntity((File) payload.getRawContent(), payload.getContentMetadata()
                .getContentType()));
+      } else if (payload instanceof FileRegionPayload) {
+         FileRegionEntity entity = new FileRegionEntity((FileRegionPayload) payload);
+         entity.setContentType(payload.getContentMetadata().getContentType());
+         apacheRequest.setEntity(entity);
       } else if (payload instanceof ByteArrayPayload) {
          ByteArrayEntity Entity = new ByteArrayEntity((byte[]) payload.getRawContent());
          Entity.setContentType(payload.getContentMetadata().getContentType());
@@ -164,6 +172,47 @@ public class ApacheHCUtils {
       assert apacheRequest.getEntity() != null;
    }
 
+   /**
+    * Writes a region of a file with {@link FileRegionPayload#transferTo}. The client only exposes
+    * the connection as a stream, so the region still passes through the JDK's transfer buffer, but
+    * it is neither reopened and skipped to nor copied through a heap array of our own.
+    */
+   public static class FileRegionEntity extends AbstractHttpEntity {
+      private final FileRegionPayload payload;
+
+      public FileRegionEntity(FileRegionPayload payload) {
+         this.payload = payload;
+      }
+
+      @Override
+      public boolean isRepeatable() {
+         return true;
+      }
+
+      @Override
+      public long getContentLength() {
+         return payload.getCount();
+      }
+
+      @Override
+      public InputStream getContent() throws IOException {
+         return payload.openStream();
+      }
+
+      @Override
+      public void writeTo(OutputStream out) throws IOException {
+         long written = payload.transferTo(Channels.newChannel(out));
+         if (written < payload.getCount())
+            throw new IOException(String.format("%s ended after %s of %s bytes from %s", payload.getFile(), written,
+                  payload.getCount(), payload.getPosition()));
+      }
+
+      @Override
+      public boolean isStreaming() {
+         return false;
+      }
+   }
+
    public static class HttpEntityPayload extends BasePayload<HttpEntity> {
 
       HttpEntityPayload(HttpEntity content) {
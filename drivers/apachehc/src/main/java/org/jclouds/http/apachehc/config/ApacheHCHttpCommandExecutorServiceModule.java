@@ -45,6 +45,7 @@ import org.apache.http.params.CoreConnectionPNames;
 import org.apache.http.params.CoreProtocolPNames;
 import org.apache.http.params.HttpParams;
 import org.apache.http.params.HttpProtocolParams;
+import org.jclouds.config.SharedWithDerivedContexts;
 import org.jclouds.http.HttpCommandExecutorService;
 import org.jclouds.http.HttpUtils;
 import org.jclouds.http.apachehc.ApacheHCHttpCommandExecutorService;
@@ -54,7 +55,9 @@ import org.jclouds.lifecycle.Closer;
 import org.jclouds.proxy.ProxyConfig;
 
 import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableSet;
 import com.google.inject.AbstractModule;
+import com.google.inject.Key;
 import com.google.inject.Provides;
 import com.google.inject.Scopes;
 
@@ -64,7 +67,7 @@ import com.google.inject.Scopes;
  * Note that this uses threads
  */
 @ConfiguresHttpCommandExecutorService
-public class ApacheHCHttpCommandExecutorServiceModule extends AbstractModule {
+public class ApacheHCHttpCommandExecutorServiceModule extends AbstractModule implements SharedWithDerivedContexts {
 
    @Override
    protected void configure() {
@@ -72,6 +75,14 @@ public class ApacheHCHttpCommandExecutorServiceModule extends AbstractModule {
       bindClient();
    }
 
+   /**
+    * Derived contexts pool their connections with their parent.
+    */
+   @Override
+   public Iterable<Key<?>> getSharedKeys() {
+      return ImmutableSet.<Key<?>> of(Key.get(ClientConnectionManager.class), Key.get(HttpClient.class));
+   }
+
    @Singleton
    @Provides
    HttpParams newBasicHttpParams(HttpUtils utils) {
@@ -17,7 +17,7 @@
 package org.jclouds.netty.config;
 
 import org.jclouds.io.PayloadSlicer;
-import org.jclouds.netty.io.NettyPayloadSlicer;
+import org.jclouds.io.internal.BasePayloadSlicer;
 
 import com.google.inject.AbstractModule;
 
@@ -25,7 +25,7 @@ public class NettyPayloadModule extends AbstractModule {
 
    @Override
    protected void configure() {
-      bind(PayloadSlicer.class).to(NettyPayloadSlicer.class);
+      bind(PayloadSlicer.class).to(BasePayloadSlicer.class);
    }
 
 }
@@ -24,6 +24,12 @@ import java.io.RandomAccessFile;
 import org.jboss.netty.buffer.ChannelBuffer;
 import org.jboss.netty.handler.stream.ChunkedFile;
 
+/**
+ * @deprecated {@link org.jclouds.io.internal.BasePayloadSlicer} slices files into
+ *             {@link org.jclouds.io.payloads.FileRegionPayload regions}, which need not be read
+ *             through this stream; will be removed in jclouds 2.1.
+ */
+@Deprecated
 public class ChunkedFileInputStream extends InputStream {
 
    private static final int CHUNK_SIZE = 8192;
@@ -16,20 +16,17 @@
  */
 package org.jclouds.netty.io;
 
-import java.io.File;
-
 import javax.inject.Singleton;
 
-import org.jclouds.io.Payload;
-import org.jclouds.io.Payloads;
 import org.jclouds.io.internal.BasePayloadSlicer;
 
+/**
+ * @deprecated {@link BasePayloadSlicer} slices files into
+ *             {@link org.jclouds.io.payloads.FileRegionPayload regions}, which are repeatable and
+ *             need not be copied through heap buffers; use it instead.
+ */
+@Deprecated
 @Singleton
 public class NettyPayloadSlicer extends BasePayloadSlicer {
 
-   @Override
-   protected Payload doSlice(File content, long offset, long length) {
-      return Payloads.newInputStreamPayload(new ChunkedFileInputStream(content, offset, length));
-   }
-
 }
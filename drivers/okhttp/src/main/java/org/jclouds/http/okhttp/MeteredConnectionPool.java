@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.okhttp;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Objects;
+import com.squareup.okhttp.Address;
+import com.squareup.okhttp.Connection;
+import com.squareup.okhttp.ConnectionPool;
+
+/**
+ * A {@link ConnectionPool} scoped to a single context that keeps track of how
+ * many requests could reuse a pooled connection.
+ */
+public class MeteredConnectionPool extends ConnectionPool {
+
+   private final int maxIdleConnections;
+   private final long keepAliveDurationMs;
+   private final AtomicLong hits = new AtomicLong();
+   private final AtomicLong misses = new AtomicLong();
+
+   public MeteredConnectionPool(int maxIdleConnections, long keepAliveDurationMs) {
+      super(maxIdleConnections, keepAliveDurationMs);
+      this.maxIdleConnections = maxIdleConnections;
+      this.keepAliveDurationMs = keepAliveDurationMs;
+   }
+
+   @Override
+   public synchronized Connection get(Address address) {
+      Connection connection = super.get(address);
+      if (connection != null) {
+         hits.incrementAndGet();
+      } else {
+         misses.incrementAndGet();
+      }
+      return connection;
+   }
+
+   /**
+    * @return the number of requests that were served by a pooled connection
+    */
+   public long getHitCount() {
+      return hits.get();
+   }
+
+   /**
+    * @return the number of requests that had to open a new connection
+    */
+   public long getMissCount() {
+      return misses.get();
+   }
+
+   public int getMaxIdleConnections() {
+      return maxIdleConnections;
+   }
+
+   public long getKeepAliveDurationMs() {
+      return keepAliveDurationMs;
+   }
+
+   @Override
+   public String toString() {
+      return Objects.toStringHelper(this).add("maxIdleConnections", maxIdleConnections)
+            .add("keepAliveDurationMs", keepAliveDurationMs).add("connections", getConnectionCount())
+            .add("hits", getHitCount()).add("misses", getMissCount()).toString();
+   }
+}
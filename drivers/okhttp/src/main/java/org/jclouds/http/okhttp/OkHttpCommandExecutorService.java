@@ -16,6 +16,8 @@
  */
 package org.jclouds.http.okhttp;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.Proxy;
@@ -26,6 +28,7 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocketFactory;
 
 import org.jclouds.Constants;
 import org.jclouds.http.HttpRequest;
@@ -39,6 +42,9 @@ import org.jclouds.io.ContentMetadataCodec;
 
 import com.google.common.base.Function;
 import com.google.common.base.Supplier;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.net.HttpHeaders;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.inject.Inject;
@@ -51,20 +57,35 @@ import com.squareup.okhttp.OkHttpClient;
 @Singleton
 public class OkHttpCommandExecutorService extends JavaUrlHttpCommandExecutorService {
 
+   private final OkHttpClient client;
+
+   /**
+    * Pooled connections are only reused for requests that use the same socket
+    * factory instance, so the factories are cached per {@link SSLContext}.
+    */
+   private final LoadingCache<SSLContext, SSLSocketFactory> socketFactories = CacheBuilder.newBuilder().weakKeys()
+         .build(new CacheLoader<SSLContext, SSLSocketFactory>() {
+            @Override
+            public SSLSocketFactory load(SSLContext context) {
+               return context.getSocketFactory();
+            }
+         });
+
    @Inject
    public OkHttpCommandExecutorService(HttpUtils utils, ContentMetadataCodec contentMetadataCodec,
          @Named(Constants.PROPERTY_IO_WORKER_THREADS) ListeningExecutorService ioExecutor,
          DelegatingRetryHandler retryHandler, IOExceptionRetryHandler ioRetryHandler,
          DelegatingErrorHandler errorHandler, HttpWire wire, @Named("untrusted") HostnameVerifier verifier,
-         @Named("untrusted") Supplier<SSLContext> untrustedSSLContextProvider, Function<URI, Proxy> proxyForURI)
-         throws SecurityException, NoSuchFieldException {
+         @Named("untrusted") Supplier<SSLContext> untrustedSSLContextProvider, Function<URI, Proxy> proxyForURI,
+         OkHttpClient client) throws SecurityException, NoSuchFieldException {
       super(utils, contentMetadataCodec, ioExecutor, retryHandler, ioRetryHandler, errorHandler, wire, verifier,
             untrustedSSLContextProvider, proxyForURI);
+      this.client = checkNotNull(client, "client");
    }
 
    @Override
    protected HttpURLConnection initConnection(HttpRequest request) throws IOException {
-      OkHttpClient client = new OkHttpClient();
+      OkHttpClient client = this.client.clone();
       URL url = request.getEndpoint().toURL();
       client.setProxy(proxyForURI.apply(request.getEndpoint()));
       if (url.getProtocol().equalsIgnoreCase("https")) {
@@ -75,9 +96,9 @@ public class OkHttpCommandExecutorService extends JavaUrlHttpCommandExecutorServ
             // used for providers which e.g. use certs for authentication (like
             // FGCP) Provider provides SSLContext impl (which inits context with
             // key manager)
-            client.setSslSocketFactory(sslContextSupplier.get().getSocketFactory());
+            client.setSslSocketFactory(socketFactories.getUnchecked(sslContextSupplier.get()));
          } else if (utils.trustAllCerts()) {
-            client.setSslSocketFactory(untrustedSSLContextProvider.get().getSocketFactory());
+            client.setSslSocketFactory(socketFactories.getUnchecked(untrustedSSLContextProvider.get()));
          }
       }
       return client.open(url);
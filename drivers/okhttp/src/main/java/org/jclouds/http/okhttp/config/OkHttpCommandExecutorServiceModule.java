@@ -16,13 +16,33 @@
  */
 package org.jclouds.http.okhttp.config;
 
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.jclouds.http.okhttp.config.OkHttpProperties.KEEP_ALIVE_DURATION;
+import static org.jclouds.http.okhttp.config.OkHttpProperties.MAX_IDLE_CONNECTIONS;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import org.jclouds.config.SharedWithDerivedContexts;
 import org.jclouds.http.HttpCommandExecutorService;
+import org.jclouds.http.HttpUtils;
 import org.jclouds.http.config.ConfiguresHttpCommandExecutorService;
 import org.jclouds.http.config.SSLModule;
+import org.jclouds.http.okhttp.MeteredConnectionPool;
 import org.jclouds.http.okhttp.OkHttpCommandExecutorService;
+import org.jclouds.lifecycle.Closer;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.inject.AbstractModule;
+import com.google.inject.Key;
+import com.google.inject.Provides;
 import com.google.inject.Scopes;
+import com.squareup.okhttp.OkHttpClient;
 
 /**
  * Configures the {@link OkHttpCommandExecutorService}.
@@ -30,12 +50,73 @@ import com.google.inject.Scopes;
  * Note that this uses threads.
  */
 @ConfiguresHttpCommandExecutorService
-public class OkHttpCommandExecutorServiceModule extends AbstractModule {
+public class OkHttpCommandExecutorServiceModule extends AbstractModule implements SharedWithDerivedContexts {
 
    @Override
    protected void configure() {
       install(new SSLModule());
+      bind(MeteredConnectionPool.class).toProvider(ConnectionPoolProvider.class).in(Scopes.SINGLETON);
       bind(HttpCommandExecutorService.class).to(OkHttpCommandExecutorService.class).in(Scopes.SINGLETON);
    }
 
+   /**
+    * Derived contexts pool their connections with their parent.
+    */
+   @Override
+   public Iterable<Key<?>> getSharedKeys() {
+      return ImmutableSet.<Key<?>> of(Key.get(MeteredConnectionPool.class), Key.get(OkHttpClient.class));
+   }
+
+   /**
+    * The client shared by all requests of the context. Request specific
+    * settings are applied to clones of this client, so they all use the same
+    * connection pool.
+    */
+   @Provides
+   @Singleton
+   OkHttpClient newOkHttpClient(MeteredConnectionPool connectionPool) {
+      OkHttpClient client = new OkHttpClient();
+      client.setConnectionPool(connectionPool);
+      return client;
+   }
+
+   static class ConnectionPoolProvider implements Provider<MeteredConnectionPool> {
+      private static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+
+      private final HttpUtils utils;
+      private final Closer closer;
+
+      @com.google.inject.Inject(optional = true)
+      @Named(MAX_IDLE_CONNECTIONS)
+      private int maxIdleConnections = -1;
+
+      @com.google.inject.Inject(optional = true)
+      @Named(KEEP_ALIVE_DURATION)
+      private long keepAliveDuration = MINUTES.toMillis(5);
+
+      @Inject
+      ConnectionPoolProvider(HttpUtils utils, Closer closer) {
+         this.utils = utils;
+         this.closer = closer;
+      }
+
+      @Override
+      public MeteredConnectionPool get() {
+         final MeteredConnectionPool pool = new MeteredConnectionPool(maxIdleConnections(), keepAliveDuration);
+         closer.addToClose(new Closeable() {
+            @Override
+            public void close() throws IOException {
+               pool.evictAll();
+            }
+         });
+         return pool;
+      }
+
+      private int maxIdleConnections() {
+         if (maxIdleConnections >= 0)
+            return maxIdleConnections;
+         return utils.getMaxConnections() > 0 ? utils.getMaxConnections() : DEFAULT_MAX_IDLE_CONNECTIONS;
+      }
+   }
+
 }
@@ -0,0 +1,34 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.http.okhttp.config;
+
+public interface OkHttpProperties {
+
+   /**
+    * Maximum number of idle connections kept in the connection pool of the
+    * context. When unset, {@link org.jclouds.Constants#PROPERTY_MAX_CONNECTIONS_PER_CONTEXT} is
+    * used if it is greater than zero.
+    */
+   public static final String MAX_IDLE_CONNECTIONS = "jclouds.okhttp.max-idle-connections";
+
+   /**
+    * Time an idle connection is kept in the pool before being evicted. The
+    * unit is milliseconds. Defaults to five minutes.
+    */
+   public static final String KEEP_ALIVE_DURATION = "jclouds.okhttp.keep-alive-duration";
+
+}
@@ -21,7 +21,10 @@ import static org.jclouds.Constants.PROPERTY_IO_WORKER_THREADS;
 import static org.jclouds.Constants.PROPERTY_MAX_CONNECTIONS_PER_CONTEXT;
 import static org.jclouds.Constants.PROPERTY_MAX_CONNECTIONS_PER_HOST;
 import static org.jclouds.Constants.PROPERTY_USER_THREADS;
+import static org.jclouds.Constants.PROPERTY_RELAX_HOSTNAME;
+import static org.jclouds.Constants.PROPERTY_TRUST_ALL_CERTS;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
 
 import java.io.Closeable;
 import java.util.Properties;
@@ -29,13 +32,18 @@ import java.util.Properties;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 
+import org.jclouds.ContextBuilder;
 import org.jclouds.http.BaseHttpCommandExecutorServiceIntegrationTest;
 import org.jclouds.http.okhttp.config.OkHttpCommandExecutorServiceModule;
+import org.jclouds.lifecycle.Closer;
+import org.jclouds.providers.AnonymousProviderMetadata;
 import org.jclouds.rest.annotations.BinderParam;
 import org.jclouds.rest.annotations.PATCH;
 import org.jclouds.rest.binders.BindToStringPayload;
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Injector;
 import com.google.inject.Module;
 import com.squareup.okhttp.mockwebserver.MockResponse;
 import com.squareup.okhttp.mockwebserver.MockWebServer;
@@ -151,4 +159,36 @@ public class OkHttpCommandExecutorServiceTest extends BaseHttpCommandExecutorSer
          server.shutdown();
       }
    }
+
+   @Test
+   public void testConnectionsArePooledAcrossRequests() throws Exception {
+      MockWebServer server = mockWebServer(new MockResponse().setBody("foo"), new MockResponse().setBody("bar"));
+      Properties properties = new Properties();
+      properties.setProperty(PROPERTY_TRUST_ALL_CERTS, "true");
+      properties.setProperty(PROPERTY_RELAX_HOSTNAME, "true");
+      addOverrideProperties(properties);
+      Injector injector = ContextBuilder
+            .newBuilder(AnonymousProviderMetadata.forApiOnEndpoint(PatchApi.class, server.getUrl("/").toString()))
+            .modules(ImmutableSet.<Module> of(createConnectionModule())).overrides(properties).buildInjector();
+      PatchApi api = injector.getInstance(PatchApi.class);
+      try {
+         MeteredConnectionPool pool = injector.getInstance(MeteredConnectionPool.class);
+         assertSame(injector.getInstance(MeteredConnectionPool.class), pool);
+         assertEquals(pool.getMaxIdleConnections(), 50);
+
+         assertEquals(api.patch("", "foo"), "foo");
+         assertEquals(api.patch("", "bar"), "bar");
+         // The second request must reuse the connection opened by the first one
+         assertEquals(server.takeRequest().getSequenceNumber(), 0);
+         assertEquals(server.takeRequest().getSequenceNumber(), 1);
+         assertEquals(pool.getMissCount(), 1);
+         assertEquals(pool.getHitCount(), 1);
+
+         injector.getInstance(Closer.class).close();
+         assertEquals(pool.getConnectionCount(), 0);
+      } finally {
+         close(api, true);
+         server.shutdown();
+      }
+   }
 }
@@ -22,6 +22,7 @@ import static org.jclouds.aws.ec2.reference.AWSEC2Constants.PROPERTY_EC2_CC_AMI_
 import static org.jclouds.ec2.reference.EC2Constants.PROPERTY_EC2_AMI_OWNERS;
 import static org.jclouds.util.Predicates2.retry;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 import java.util.logging.Logger;
@@ -169,7 +170,8 @@ public class AWSEC2ComputeServiceDependenciesModule extends EC2ComputeServiceDep
    @ClusterCompute
    @Singleton
    protected Set<String> provideClusterComputeIds() {
-      return Sets.newLinkedHashSet();
+      // added to when images are refreshed in the background
+      return Collections.synchronizedSet(Sets.<String> newLinkedHashSet());
    }
 
 }
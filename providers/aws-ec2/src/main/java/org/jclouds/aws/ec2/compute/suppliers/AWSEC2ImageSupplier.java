@@ -22,8 +22,11 @@ import static org.jclouds.aws.ec2.reference.AWSEC2Constants.PROPERTY_EC2_AMI_QUE
 import static org.jclouds.aws.ec2.reference.AWSEC2Constants.PROPERTY_EC2_CC_AMI_QUERY;
 import static org.jclouds.aws.ec2.reference.AWSEC2Constants.PROPERTY_EC2_CC_REGIONS;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.annotation.Resource;
 import javax.inject.Inject;
@@ -41,11 +44,13 @@ import org.jclouds.location.Region;
 import org.jclouds.logging.Logger;
 
 import com.google.common.base.Function;
+import com.google.common.base.Optional;
 import com.google.common.base.Splitter;
 import com.google.common.base.Supplier;
 import com.google.common.base.Throwables;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ForwardingSet;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
@@ -71,13 +76,16 @@ public class AWSEC2ImageSupplier implements Supplier<Set<? extends Image>> {
    private final Map<String, String> queries;
    private final Iterable<String> clusterRegions;
    private final Supplier<LoadingCache<RegionAndName, ? extends Image>> cache;
-   
+   private final ImageCatalogSnapshot snapshot;
+   private final AtomicBoolean snapshotConsulted = new AtomicBoolean();
+
    @Inject
    protected AWSEC2ImageSupplier(@Region Supplier<Set<String>> regions,
             @ImageQuery Map<String, String> queries, @Named(PROPERTY_EC2_CC_REGIONS) String clusterRegions,
             Supplier<LoadingCache<RegionAndName, ? extends Image>> cache,
             CallForImages.Factory factory, @ClusterCompute Set<String> clusterComputeIds,
-            @Named(Constants.PROPERTY_USER_THREADS) ListeningExecutorService userExecutor) {
+            @Named(Constants.PROPERTY_USER_THREADS) ListeningExecutorService userExecutor,
+            ImageCatalogSnapshot snapshot) {
       this.factory = factory;
       this.regions = regions;
       this.queries = queries;
@@ -85,11 +93,60 @@ public class AWSEC2ImageSupplier implements Supplier<Set<? extends Image>> {
       this.cache = cache;
       this.clusterComputeIds = clusterComputeIds;
       this.userExecutor = userExecutor;
+      this.snapshot = snapshot;
    }
    
-   @SuppressWarnings("unchecked")
    @Override
    public Set<? extends Image> get() {
+      if (snapshot.isEnabled() && !snapshotConsulted.getAndSet(true) && loadSnapshot()) {
+         userExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+               try {
+                  refresh(false);
+               } catch (RuntimeException e) {
+                  logger.warn(e, "Error refreshing images from snapshot; keeping the snapshotted images");
+               }
+            }
+         });
+      } else {
+         refresh(true);
+      }
+
+      // TODO Used to be mutable; was this assumed anywhere?
+      return new ForwardingSet<Image>() {
+         protected Set<Image> delegate() {
+            return ImmutableSet.copyOf(cache.get().asMap().values());
+         }
+      };
+   }
+
+   /**
+    * Fills the cache from the image snapshots of both queries, if there are snapshots for all of
+    * their regions.
+    */
+   private boolean loadSnapshot() {
+      String amiQuery = queries.get(PROPERTY_EC2_AMI_QUERY);
+      String ccAmiQuery = queries.get(PROPERTY_EC2_CC_AMI_QUERY);
+      Optional<Iterable<Image>> normalImages = snapshotImages(regions.get(), amiQuery);
+      Optional<Iterable<Image>> clusterImages = snapshotImages(clusterRegions, ccAmiQuery);
+      if (!normalImages.isPresent() || !clusterImages.isPresent())
+         return false;
+      logger.debug(">> loading images from snapshot");
+      putAll(ImmutableSet.copyOf(clusterImages.get()), normalImages.get(), true);
+      return true;
+   }
+
+   private Optional<Iterable<Image>> snapshotImages(Iterable<String> regions, String query) {
+      if (query == null)
+         return Optional.<Iterable<Image>> of(ImmutableSet.<Image> of());
+      CallForImages call = factory.parseImagesFromRegionsUsingFilter(regions,
+            QueryStringToMultimap.INSTANCE.apply(query));
+      Optional<Iterable<org.jclouds.ec2.domain.Image>> images = snapshot.load(query, regions);
+      return images.isPresent() ? Optional.of(call.parse(images.get())) : Optional.<Iterable<Image>> absent();
+   }
+
+   private void refresh(boolean invalidate) {
       String amiQuery = queries.get(PROPERTY_EC2_AMI_QUERY);
       String ccAmiQuery = queries.get(PROPERTY_EC2_CC_AMI_QUERY);
 
@@ -101,6 +158,24 @@ public class AWSEC2ImageSupplier implements Supplier<Set<? extends Image>> {
          logger.warn(e, "Error parsing images in query %s", ccAmiQuery);
          throw Throwables.propagate(e);
       }
+      Iterable<Image> parsedImages;
+      try {
+         parsedImages = normalImages.get();
+      } catch (Exception e) {
+         logger.warn(e, "Error parsing images in query %s", amiQuery);
+         throw Throwables.propagate(e);
+      }
+      putAll(clusterImages, parsedImages, invalidate);
+   }
+
+   /**
+    * @param invalidate
+    *           whether to empty the cache before adding the images. Otherwise images that are no
+    *           longer present are only removed once the new ones are in, so a cache filled from a
+    *           snapshot stays usable while it is refreshed.
+    */
+   @SuppressWarnings("unchecked")
+   private void putAll(ImmutableSet<Image> clusterImages, Iterable<Image> normalImages, boolean invalidate) {
       Iterables.addAll(clusterComputeIds, transform(clusterImages, new Function<Image, String>() {
 
          @Override
@@ -109,35 +184,34 @@ public class AWSEC2ImageSupplier implements Supplier<Set<? extends Image>> {
          }
 
       }));
-      Iterable<? extends Image> parsedImages;
-      try {
-         parsedImages = ImmutableSet.copyOf(concat(clusterImages, normalImages.get()));
-      } catch (Exception e) {
-         logger.warn(e, "Error parsing images in query %s", amiQuery);
-         throw Throwables.propagate(e);
-      }
+      Iterable<? extends Image> parsedImages = ImmutableSet.copyOf(concat(clusterImages, normalImages));
 
       final Map<RegionAndName, ? extends Image> imageMap = ImagesToRegionAndIdMap.imagesToMap(parsedImages);
-      cache.get().invalidateAll();
+      if (invalidate)
+         cache.get().invalidateAll();
       cache.get().asMap().putAll(Map.class.cast(imageMap));
+      if (!invalidate)
+         cache.get().asMap().keySet().retainAll(imageMap.keySet());
       logger.debug("<< images(%d)", imageMap.size());
-      
-      // TODO Used to be mutable; was this assumed anywhere?
-      return new ForwardingSet<Image>() {
-         protected Set<Image> delegate() {
-            return ImmutableSet.copyOf(cache.get().asMap().values());
-         }
-      };
    }
-   
-   private ListenableFuture<Iterable<Image>> images(Iterable<String> regions, String query, String tag) {
+
+   private ListenableFuture<Iterable<Image>> images(final Iterable<String> regions, final String query, String tag) {
       if (query == null) {
          logger.debug(">> no %s specified, skipping image parsing", tag);
          return Futures.<Iterable<Image>> immediateFuture(ImmutableSet.<Image> of());
-      } else {
-         return userExecutor.submit(factory.parseImagesFromRegionsUsingFilter(regions, QueryStringToMultimap.INSTANCE
-                  .apply(query)));
       }
+      final CallForImages call = factory.parseImagesFromRegionsUsingFilter(regions,
+            QueryStringToMultimap.INSTANCE.apply(query));
+      if (!snapshot.isEnabled())
+         return userExecutor.submit(call);
+      return userExecutor.submit(new Callable<Iterable<Image>>() {
+         @Override
+         public Iterable<Image> call() {
+            List<org.jclouds.ec2.domain.Image> images = ImmutableList.copyOf(call.describe());
+            snapshot.store(query, regions, images);
+            return call.parse(images);
+         }
+      });
    }
 
    public static enum QueryStringToMultimap implements Function<String, Multimap<String, String>> {
@@ -67,6 +67,13 @@ public class CallForImages implements Callable<Iterable<Image>> {
    }
 
    public Iterable<Image> call() {
+      return parse(describe());
+   }
+
+   /**
+    * @return the images matching the filter in each region, before they are parsed
+    */
+   public Iterable<? extends org.jclouds.ec2.domain.Image> describe() {
 
       logger.debug(">> providing images");
 
@@ -76,7 +83,11 @@ public class CallForImages implements Callable<Iterable<Image>> {
 
       Iterable<Entry<String, DescribeImagesOptions>> queries = builder.build().entrySet();
 
-      Iterable<Image> returnVal = filter(transform(describer.apply(queries), parser), Predicates.notNull());
+      return describer.apply(queries);
+   }
+
+   public Iterable<Image> parse(Iterable<? extends org.jclouds.ec2.domain.Image> images) {
+      Iterable<Image> returnVal = filter(transform(images, parser), Predicates.notNull());
       if (logger.isDebugEnabled())
          logger.debug("<< images(%s)", Iterables.size(returnVal));
       return returnVal;
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.aws.ec2.compute.suppliers;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.Constants.PROPERTY_PROVIDER;
+import static org.jclouds.aws.ec2.reference.AWSEC2Constants.PROPERTY_EC2_IMAGE_SNAPSHOT_DIR;
+import static org.jclouds.util.Closeables2.closeQuietly;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Resource;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.compute.reference.ComputeServiceConstants;
+import org.jclouds.ec2.domain.Image;
+import org.jclouds.json.Json;
+import org.jclouds.logging.Logger;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import com.google.inject.Inject;
+
+/**
+ * Keeps the images returned by an ami query on local disk, so that a new compute context can fill
+ * its image cache without first describing the images of every region.
+ * <p/>
+ * Snapshots are only kept when {@link org.jclouds.aws.ec2.reference.AWSEC2Constants#PROPERTY_EC2_IMAGE_SNAPSHOT_DIR}
+ * is set. There is one gzipped json file per provider and query, holding the raw images of each
+ * region the query was run against; they are parsed again when loaded, so changes to
+ * {@link org.jclouds.ec2.compute.functions.EC2ImageParser} apply to snapshotted images too.
+ */
+@Singleton
+public class ImageCatalogSnapshot {
+
+   @Resource
+   @Named(ComputeServiceConstants.COMPUTE_LOGGER)
+   protected Logger logger = Logger.NULL;
+
+   @Inject(optional = true)
+   @Named(PROPERTY_EC2_IMAGE_SNAPSHOT_DIR)
+   private String directory = null;
+
+   @Inject(optional = true)
+   @Named(PROPERTY_PROVIDER)
+   private String provider = "aws-ec2";
+
+   private final Json json;
+
+   @Inject
+   ImageCatalogSnapshot(Json json) {
+      this.json = checkNotNull(json, "json");
+   }
+
+   public boolean isEnabled() {
+      return directory != null;
+   }
+
+   /**
+    * @return the snapshotted images of the query in all the given regions, or absent if there is
+    *         no readable snapshot covering every one of them
+    */
+   public Optional<Iterable<Image>> load(String query, Iterable<String> regions) {
+      if (!isEnabled())
+         return Optional.absent();
+      File file = file(query);
+      if (!file.isFile())
+         return Optional.absent();
+      Catalog catalog;
+      InputStream in = null;
+      try {
+         in = new GZIPInputStream(new FileInputStream(file));
+         catalog = json.fromJson(in, Catalog.class);
+      } catch (IOException e) {
+         logger.warn(e, "ignoring unreadable image snapshot %s", file);
+         return Optional.absent();
+      } catch (RuntimeException e) {
+         logger.warn(e, "ignoring unreadable image snapshot %s", file);
+         return Optional.absent();
+      } finally {
+         closeQuietly(in);
+      }
+      if (catalog == null || !query.equals(catalog.query) || catalog.images == null)
+         return Optional.absent();
+      ImmutableList.Builder<Image> images = ImmutableList.builder();
+      for (String region : regions) {
+         List<Image> inRegion = catalog.images.get(region);
+         if (inRegion == null) {
+            logger.debug("<< image snapshot %s has no images for region %s", file, region);
+            return Optional.absent();
+         }
+         images.addAll(inRegion);
+      }
+      return Optional.<Iterable<Image>> of(images.build());
+   }
+
+   /**
+    * Replaces the snapshot of the query with the given images. Failures are logged, as the
+    * snapshot is only an optimization.
+    */
+   public void store(String query, Iterable<String> regions, Iterable<? extends Image> images) {
+      if (!isEnabled())
+         return;
+      ListMultimap<String, Image> byRegion = ArrayListMultimap.create();
+      for (Image image : images) {
+         byRegion.put(image.getRegion(), image);
+      }
+      ImmutableMap.Builder<String, List<Image>> catalog = ImmutableMap.builder();
+      for (String region : regions) {
+         catalog.put(region, byRegion.get(region));
+      }
+      File file = file(query);
+      File temp = null;
+      try {
+         Files.createParentDirs(file);
+         temp = File.createTempFile(file.getName(), ".tmp", file.getParentFile());
+         Writer out = new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(temp)), UTF_8);
+         try {
+            out.write(json.toJson(new Catalog(provider, query, catalog.build())));
+         } finally {
+            out.close();
+         }
+         Files.move(temp, file);
+         logger.debug("<< stored image snapshot %s", file);
+      } catch (IOException e) {
+         logger.warn(e, "could not store image snapshot %s", file);
+         if (temp != null)
+            temp.delete();
+      }
+   }
+
+   private File file(String query) {
+      return new File(directory, provider + "-" + Hashing.md5().hashString(query, UTF_8) + ".json.gz");
+   }
+
+   private static class Catalog {
+      private final String provider;
+      private final String query;
+      private final Map<String, List<Image>> images;
+
+      private Catalog(String provider, String query, Map<String, List<Image>> images) {
+         this.provider = provider;
+         this.query = query;
+         this.images = images;
+      }
+   }
+}
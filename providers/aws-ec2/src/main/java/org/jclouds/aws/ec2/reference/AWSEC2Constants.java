@@ -34,6 +34,15 @@ public final class AWSEC2Constants extends EC2Constants {
    public static final String PROPERTY_EC2_CC_REGIONS = "jclouds.ec2.cc-regions";
    public static final String PROPERTY_EC2_AMI_QUERY = "jclouds.ec2.ami-query";
 
+   /**
+    * directory in which the images found by the ami queries are kept between runs. When set, a new
+    * context fills its image cache from the snapshot there and refreshes it in the background,
+    * instead of waiting for the queries to complete in every region.
+    *
+    * @see org.jclouds.aws.ec2.compute.suppliers.ImageCatalogSnapshot
+    */
+   public static final String PROPERTY_EC2_IMAGE_SNAPSHOT_DIR = "jclouds.ec2.image-snapshot-dir";
+
    private AWSEC2Constants() {
       throw new AssertionError("intentionally unimplemented");
    }
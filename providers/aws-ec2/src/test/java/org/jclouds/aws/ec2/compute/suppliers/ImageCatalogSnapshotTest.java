@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.aws.ec2.compute.suppliers;
+
+import static org.jclouds.Constants.PROPERTY_PROVIDER;
+import static org.jclouds.aws.ec2.reference.AWSEC2Constants.PROPERTY_EC2_IMAGE_SNAPSHOT_DIR;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Properties;
+
+import org.jclouds.ec2.domain.Hypervisor;
+import org.jclouds.ec2.domain.Image;
+import org.jclouds.ec2.domain.Image.Architecture;
+import org.jclouds.ec2.domain.Image.EbsBlockDevice;
+import org.jclouds.ec2.domain.Image.ImageState;
+import org.jclouds.ec2.domain.Image.ImageType;
+import org.jclouds.ec2.domain.RootDeviceType;
+import org.jclouds.ec2.domain.VirtualizationType;
+import org.jclouds.json.config.GsonModule;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.Files;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.name.Names;
+
+@Test(groups = "unit", singleThreaded = true, testName = "ImageCatalogSnapshotTest")
+public class ImageCatalogSnapshotTest {
+   private static final String QUERY = "owner-id=137112412989;state=available;image-type=machine";
+
+   private static final Image EAST = new Image("us-east-1", Architecture.X86_64, "amzn-ami-pv", null, "ami-246f8d4d",
+         "137112412989/amzn-ami-pv", "137112412989", ImageState.AVAILABLE, "available", ImageType.MACHINE, true,
+         ImmutableSet.of("9961934F"), "aki-4438dd2d", null, null, RootDeviceType.EBS, "/dev/sda1",
+         ImmutableMap.of("/dev/sda1", new EbsBlockDevice("snap-d01272b9", 8, true, "standard", null, false)),
+         ImmutableMap.of("Name", "amzn"), VirtualizationType.PARAVIRTUAL, Hypervisor.XEN);
+   private static final Image WEST = new Image("us-west-2", Architecture.I386, null, "windows", "ami-02eb086b",
+         "aws-solutions-amis/SqlSvrStd2003r2", "771350841976", ImageState.AVAILABLE, "available",
+         ImageType.MACHINE, true, ImmutableSet.<String> of(), null, "windows", null, RootDeviceType.INSTANCE_STORE,
+         null, ImmutableMap.<String, EbsBlockDevice> of(), ImmutableMap.<String, String> of(), VirtualizationType.HVM,
+         Hypervisor.XEN);
+
+   private File directory;
+
+   @BeforeMethod
+   public void createDirectory() {
+      directory = Files.createTempDir();
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void deleteDirectory() {
+      for (File file : directory.listFiles()) {
+         file.delete();
+      }
+      directory.delete();
+   }
+
+   public void testImagesSurviveRoundTrip() {
+      ImageCatalogSnapshot snapshot = snapshot(directory.getAbsolutePath());
+
+      snapshot.store(QUERY, ImmutableSet.of("us-east-1", "us-west-2"), ImmutableList.of(EAST, WEST));
+
+      assertEquals(ImmutableSet.copyOf(snapshot.load(QUERY, ImmutableSet.of("us-east-1", "us-west-2")).get()),
+            ImmutableSet.of(EAST, WEST));
+      assertEquals(ImmutableList.copyOf(snapshot.load(QUERY, ImmutableSet.of("us-west-2")).get()),
+            ImmutableList.of(WEST));
+   }
+
+   public void testRegionsWithoutImagesAreCovered() {
+      ImageCatalogSnapshot snapshot = snapshot(directory.getAbsolutePath());
+
+      snapshot.store(QUERY, ImmutableSet.of("us-east-1", "eu-west-1"), ImmutableList.of(EAST));
+
+      assertEquals(ImmutableList.copyOf(snapshot.load(QUERY, ImmutableSet.of("eu-west-1")).get()),
+            ImmutableList.of());
+   }
+
+   public void testAbsentWhenRegionOrQueryNotSnapshotted() {
+      ImageCatalogSnapshot snapshot = snapshot(directory.getAbsolutePath());
+
+      snapshot.store(QUERY, ImmutableSet.of("us-east-1"), ImmutableList.of(EAST));
+
+      assertFalse(snapshot.load(QUERY, ImmutableSet.of("us-east-1", "us-west-2")).isPresent());
+      assertFalse(snapshot.load("owner-id=099720109477", ImmutableSet.of("us-east-1")).isPresent());
+   }
+
+   public void testAbsentWhenUnreadable() throws IOException {
+      ImageCatalogSnapshot snapshot = snapshot(directory.getAbsolutePath());
+      snapshot.store(QUERY, ImmutableSet.of("us-east-1"), ImmutableList.of(EAST));
+      for (File file : directory.listFiles()) {
+         Files.write(new byte[] { 1, 2, 3 }, file);
+      }
+
+      assertFalse(snapshot.load(QUERY, ImmutableSet.of("us-east-1")).isPresent());
+   }
+
+   public void testDisabledWithoutDirectory() {
+      ImageCatalogSnapshot snapshot = snapshot(null);
+
+      snapshot.store(QUERY, ImmutableSet.of("us-east-1"), ImmutableList.of(EAST));
+
+      assertFalse(snapshot.isEnabled());
+      assertFalse(snapshot.load(QUERY, ImmutableSet.of("us-east-1")).isPresent());
+   }
+
+   private static ImageCatalogSnapshot snapshot(String directory) {
+      final Properties properties = new Properties();
+      properties.setProperty(PROPERTY_PROVIDER, "aws-ec2");
+      if (directory != null)
+         properties.setProperty(PROPERTY_EC2_IMAGE_SNAPSHOT_DIR, directory);
+      return Guice.createInjector(new GsonModule(), new AbstractModule() {
+         @Override
+         protected void configure() {
+            Names.bindProperties(binder(), properties);
+         }
+      }).getInstance(ImageCatalogSnapshot.class);
+   }
+}
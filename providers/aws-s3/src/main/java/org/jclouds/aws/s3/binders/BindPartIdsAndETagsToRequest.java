@@ -16,43 +16,13 @@
  */
 package org.jclouds.aws.s3.binders;
 
-import static com.google.common.base.Preconditions.checkArgument;
-import static com.google.common.base.Preconditions.checkNotNull;
-
-import java.util.Map;
-import java.util.Map.Entry;
-
 import javax.inject.Singleton;
-import javax.ws.rs.core.MediaType;
-
-import org.jclouds.http.HttpRequest;
-import org.jclouds.io.Payload;
-import org.jclouds.io.Payloads;
-import org.jclouds.rest.Binder;
 
+/**
+ * @deprecated moved to {@link org.jclouds.s3.binders.BindPartIdsAndETagsToRequest}, and will be removed in
+ *             jclouds 2.1.
+ */
+@Deprecated
 @Singleton
-public class BindPartIdsAndETagsToRequest implements Binder {
-
-   @SuppressWarnings("unchecked")
-   @Override
-   public <R extends HttpRequest> R bindToRequest(R request, Object input) {
-      checkArgument(checkNotNull(input, "input") instanceof Map, "this binder is only valid for Map!");
-      checkNotNull(request, "request");
-
-      Map<Integer, String> map = (Map<Integer, String>) input;
-      checkArgument(!map.isEmpty(), "Please send parts");
-      StringBuilder content = new StringBuilder();
-      content.append("<CompleteMultipartUpload>");
-      for (Entry<Integer, String> entry : map.entrySet()) {
-         content.append("<Part>");
-         content.append("<PartNumber>").append(entry.getKey()).append("</PartNumber>");
-         content.append("<ETag>").append(entry.getValue()).append("</ETag>");
-         content.append("</Part>");
-      }
-      content.append("</CompleteMultipartUpload>");
-      Payload payload = Payloads.newStringPayload(content.toString());
-      payload.getContentMetadata().setContentType(MediaType.TEXT_XML);
-      request.setPayload(payload);
-      return request;
-   }
+public class BindPartIdsAndETagsToRequest extends org.jclouds.s3.binders.BindPartIdsAndETagsToRequest {
 }
@@ -18,6 +18,7 @@ package org.jclouds.aws.s3.blobstore;
 
 import static org.jclouds.s3.domain.ObjectMetadata.StorageClass.REDUCED_REDUNDANCY;
 
+import java.util.List;
 import java.util.Set;
 
 import javax.inject.Inject;
@@ -32,6 +33,7 @@ import org.jclouds.aws.s3.AWSS3Client;
 import org.jclouds.aws.s3.blobstore.options.AWSS3PutObjectOptions;
 import org.jclouds.aws.s3.blobstore.options.AWSS3PutOptions;
 import org.jclouds.aws.s3.blobstore.strategy.AsyncMultipartUploadStrategy;
+import org.jclouds.aws.s3.domain.DeleteResult;
 import org.jclouds.blobstore.BlobStoreContext;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.PageSet;
@@ -55,9 +57,12 @@ import org.jclouds.s3.domain.CannedAccessPolicy;
 import org.jclouds.s3.domain.ObjectMetadata;
 
 import com.google.common.base.Function;
+import com.google.common.base.Functions;
 import com.google.common.base.Supplier;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
@@ -70,6 +75,7 @@ import com.google.common.util.concurrent.ListeningExecutorService;
 @Deprecated
 public class AWSS3AsyncBlobStore extends S3AsyncBlobStore {
 
+   private final AWSS3AsyncClient async;
    private final Provider<AsyncMultipartUploadStrategy> multipartUploadStrategy;
    private final LoadingCache<String, AccessControlList> bucketAcls;
    private final BlobToObject blob2Object;
@@ -87,6 +93,7 @@ public class AWSS3AsyncBlobStore extends S3AsyncBlobStore {
       super(context, blobUtils, userExecutor, defaultLocation, locations, async, sync, convertBucketsToStorageMetadata,
                container2BucketListOptions, bucket2ResourceList, object2Blob, blob2ObjectGetOptions, blob2Object,
                object2BlobMd, fetchBlobMetadataProvider, bucketAcls);
+      this.async = async;
       this.multipartUploadStrategy = multipartUploadStrategy;
       this.bucketAcls = bucketAcls;
       this.blob2Object = blob2Object;
@@ -123,6 +130,25 @@ public class AWSS3AsyncBlobStore extends S3AsyncBlobStore {
                blob2Object.apply(blob), options);
   }
 
+   /**
+    * This implementation invokes {@link AWSS3AsyncClient#deleteObjects} for each
+    * {@value AWSS3BlobStore#MAX_KEYS_PER_DELETE} names.
+    */
+   @Override
+   public ListenableFuture<Void> removeBlobs(final String container, Iterable<String> names) {
+      List<ListenableFuture<Void>> deletes = Lists.newArrayList();
+      for (List<String> keys : Iterables.partition(names, AWSS3BlobStore.MAX_KEYS_PER_DELETE)) {
+         deletes.add(Futures.transform(async.deleteObjects(container, keys), new Function<DeleteResult, Void>() {
+            @Override
+            public Void apply(DeleteResult result) {
+               AWSS3BlobStore.checkDeleted(container, result);
+               return null;
+            }
+         }));
+      }
+      return Futures.transform(Futures.allAsList(deletes), Functions.<Void> constant(null));
+   }
+
    @Override
    public ListenableFuture<Boolean> createContainerInLocation(Location location, String container,
                                                               CreateContainerOptions options) {
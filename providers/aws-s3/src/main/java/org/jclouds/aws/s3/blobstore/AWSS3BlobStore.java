@@ -18,6 +18,8 @@ package org.jclouds.aws.s3.blobstore;
 
 import static org.jclouds.s3.domain.ObjectMetadata.StorageClass.REDUCED_REDUNDANCY;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.inject.Inject;
@@ -29,23 +31,27 @@ import org.jclouds.aws.s3.AWSS3Client;
 import org.jclouds.aws.s3.blobstore.options.AWSS3PutObjectOptions;
 import org.jclouds.aws.s3.blobstore.options.AWSS3PutOptions;
 import org.jclouds.aws.s3.blobstore.strategy.MultipartUploadStrategy;
+import org.jclouds.aws.s3.domain.DeleteResult;
 import org.jclouds.blobstore.BlobStoreContext;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.PageSet;
 import org.jclouds.blobstore.domain.StorageMetadata;
 import org.jclouds.blobstore.functions.BlobToHttpGetOptions;
+import org.jclouds.blobstore.internal.BlobRuntimeException;
 import org.jclouds.blobstore.options.CreateContainerOptions;
 import org.jclouds.blobstore.options.PutOptions;
 import org.jclouds.blobstore.strategy.internal.FetchBlobMetadata;
 import org.jclouds.blobstore.util.BlobUtils;
 import org.jclouds.collect.Memoized;
 import org.jclouds.domain.Location;
+import org.jclouds.io.Payload;
 import org.jclouds.s3.blobstore.S3BlobStore;
 import org.jclouds.s3.blobstore.functions.BlobToObject;
 import org.jclouds.s3.blobstore.functions.BucketToResourceList;
 import org.jclouds.s3.blobstore.functions.ContainerToBucketListOptions;
 import org.jclouds.s3.blobstore.functions.ObjectToBlob;
 import org.jclouds.s3.blobstore.functions.ObjectToBlobMetadata;
+import org.jclouds.s3.blobstore.strategy.StreamingMultipartUploadStrategy;
 import org.jclouds.s3.domain.AccessControlList;
 import org.jclouds.s3.domain.BucketMetadata;
 import org.jclouds.s3.domain.CannedAccessPolicy;
@@ -55,12 +61,17 @@ import com.google.common.base.Function;
 import com.google.common.base.Supplier;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Iterables;
 
 /**
  * Provide AWS S3 specific extensions.
  */
 public class AWSS3BlobStore extends S3BlobStore {
 
+   /** Most keys a multi-object delete accepts. */
+   public static final int MAX_KEYS_PER_DELETE = 1000;
+
+   private final AWSS3Client sync;
    private final Provider<MultipartUploadStrategy> multipartUploadStrategy;
    private final LoadingCache<String, AccessControlList> bucketAcls;
    private final BlobToObject blob2Object;
@@ -73,10 +84,12 @@ public class AWSS3BlobStore extends S3BlobStore {
             ObjectToBlob object2Blob, BlobToHttpGetOptions blob2ObjectGetOptions, BlobToObject blob2Object,
             ObjectToBlobMetadata object2BlobMd, Provider<FetchBlobMetadata> fetchBlobMetadataProvider,
             LoadingCache<String, AccessControlList> bucketAcls,
-            Provider<MultipartUploadStrategy> multipartUploadStrategy) {
+            Provider<MultipartUploadStrategy> multipartUploadStrategy,
+            Provider<StreamingMultipartUploadStrategy> streamingMultipartUploadStrategy) {
       super(context, blobUtils, defaultLocation, locations, sync, convertBucketsToStorageMetadata,
                container2BucketListOptions, bucket2ResourceList, object2Blob, blob2ObjectGetOptions, blob2Object,
-               object2BlobMd, fetchBlobMetadataProvider, bucketAcls);
+               object2BlobMd, fetchBlobMetadataProvider, bucketAcls, streamingMultipartUploadStrategy);
+      this.sync = sync;
       this.multipartUploadStrategy = multipartUploadStrategy;
       this.bucketAcls = bucketAcls;
       this.blob2Object = blob2Object;
@@ -85,6 +98,10 @@ public class AWSS3BlobStore extends S3BlobStore {
    @Override
    public String putBlob(String container, Blob blob, PutOptions options) {
       if (options.isMultipart()) {
+         // slicing needs the length, and re-reads the payload up to each part unless it is repeatable
+         Payload payload = blob.getPayload();
+         if (!payload.isRepeatable() || payload.getContentMetadata().getContentLength() == null)
+            return super.putBlob(container, blob, options);
          // need to use a provider if the strategy object is stateful
          return multipartUploadStrategy.get().execute(container, blob);
 
@@ -114,6 +131,24 @@ public class AWSS3BlobStore extends S3BlobStore {
                options);
    }
 
+   /**
+    * This implementation invokes {@link AWSS3Client#deleteObjects} for each
+    * {@value #MAX_KEYS_PER_DELETE} names.
+    */
+   @Override
+   public void removeBlobs(String container, Iterable<String> names) {
+      for (List<String> keys : Iterables.partition(names, MAX_KEYS_PER_DELETE)) {
+         checkDeleted(container, sync.deleteObjects(container, keys));
+      }
+   }
+
+   static void checkDeleted(String container, DeleteResult result) {
+      Map<String, DeleteResult.Error> errors = result.getErrors();
+      if (!errors.isEmpty())
+         throw new BlobRuntimeException(String.format("could not remove %s blobs from %s: %s", errors.size(),
+               container, errors));
+   }
+
    @Override
    public boolean createContainerInLocation(Location location, String container,
                                             CreateContainerOptions options) {
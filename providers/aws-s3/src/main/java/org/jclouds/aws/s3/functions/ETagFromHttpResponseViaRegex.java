@@ -16,45 +16,22 @@
  */
 package org.jclouds.aws.s3.functions;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
-import org.jclouds.http.HttpResponse;
 import org.jclouds.http.functions.ReturnStringIf2xx;
 
-import com.google.common.base.Function;
-
 /**
- * @see <a href="http://docs.amazonwebservices.com/AmazonS3/latest/API/mpUploadComplete.html" />
+ * @deprecated moved to {@link org.jclouds.s3.functions.ETagFromHttpResponseViaRegex}, and will be removed in
+ *             jclouds 2.1.
  */
+@Deprecated
 @Singleton
-public class ETagFromHttpResponseViaRegex implements Function<HttpResponse, String> {
-   private static Pattern pattern = Pattern.compile("<ETag>([\\S&&[^<]]+)</ETag>");
-   private static String ESCAPED_QUOTE = "&quot;";
-   private final ReturnStringIf2xx returnStringIf200;
+public class ETagFromHttpResponseViaRegex extends org.jclouds.s3.functions.ETagFromHttpResponseViaRegex {
 
    @Inject
    ETagFromHttpResponseViaRegex(ReturnStringIf2xx returnStringIf200) {
-      this.returnStringIf200 = returnStringIf200;
-   }
-
-   @Override
-   public String apply(HttpResponse response) {
-      String value = null;
-      String content = returnStringIf200.apply(response);
-      if (content != null) {
-         Matcher matcher = pattern.matcher(content);
-         if (matcher.find()) {
-            value = matcher.group(1);
-            if (value.indexOf(ESCAPED_QUOTE) != -1) {
-               value = value.replace(ESCAPED_QUOTE, "\"");
-            }
-         }
-      }
-      return value;
+      super(returnStringIf200);
    }
 
 }
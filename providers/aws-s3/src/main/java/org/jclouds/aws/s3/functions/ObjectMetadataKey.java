@@ -18,15 +18,11 @@ package org.jclouds.aws.s3.functions;
 
 import javax.inject.Singleton;
 
-import org.jclouds.s3.domain.ObjectMetadata;
-
-import com.google.common.base.Function;
-
+/**
+ * @deprecated moved to {@link org.jclouds.s3.functions.ObjectMetadataKey}, and will be removed in
+ *             jclouds 2.1.
+ */
+@Deprecated
 @Singleton
-public class ObjectMetadataKey implements Function<Object, String> {
-
-   public String apply(Object from) {
-      return ((ObjectMetadata) from).getKey();
-   }
-
+public class ObjectMetadataKey extends org.jclouds.s3.functions.ObjectMetadataKey {
 }
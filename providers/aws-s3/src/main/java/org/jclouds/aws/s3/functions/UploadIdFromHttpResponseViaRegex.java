@@ -16,43 +16,22 @@
  */
 package org.jclouds.aws.s3.functions;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
-import org.jclouds.http.HttpResponse;
 import org.jclouds.http.functions.ReturnStringIf2xx;
 
-import com.google.common.base.Function;
-
 /**
- * @see <a
- *      href="http://docs.amazonwebservices.com/AmazonS3/latest/API/index.html?mpUploadInitiate.html"
- *      />
+ * @deprecated moved to {@link org.jclouds.s3.functions.UploadIdFromHttpResponseViaRegex}, and will be removed in
+ *             jclouds 2.1.
  */
+@Deprecated
 @Singleton
-public class UploadIdFromHttpResponseViaRegex implements Function<HttpResponse, String> {
-   Pattern pattern = Pattern.compile("<UploadId>([\\S&&[^<]]+)</UploadId>");
-   private final ReturnStringIf2xx returnStringIf200;
+public class UploadIdFromHttpResponseViaRegex extends org.jclouds.s3.functions.UploadIdFromHttpResponseViaRegex {
 
    @Inject
    UploadIdFromHttpResponseViaRegex(ReturnStringIf2xx returnStringIf200) {
-      this.returnStringIf200 = returnStringIf200;
-   }
-
-   @Override
-   public String apply(HttpResponse response) {
-      String value = null;
-      String content = returnStringIf200.apply(response);
-      if (content != null) {
-         Matcher matcher = pattern.matcher(content);
-         if (matcher.find()) {
-            value = matcher.group(1);
-         }
-      }
-      return value;
+      super(returnStringIf200);
    }
 
 }
@@ -30,6 +30,7 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.QueryParam;
 
+import org.jclouds.Fallbacks.NullOnNotFoundOr404;
 import org.jclouds.Fallbacks.TrueOnNotFoundOr404;
 import org.jclouds.Fallbacks.VoidOnNotFoundOr404;
 import org.jclouds.azure.storage.domain.BoundedSet;
@@ -325,4 +326,17 @@ public interface AzureBlobAsyncClient {
    ListenableFuture<ListBlobBlocksResponse> getBlockList(@PathParam("container") @ParamValidators(ContainerNameValidator.class) String container,
                                                          @PathParam("name") String name);
 
+   /**
+    * @see AzureBlobClient#getUncommittedBlockList
+    */
+   @Named("GetBlockList")
+   @GET
+   @Path("{container}/{name}")
+   @XMLResponseParser(BlobBlocksResultsHandler.class)
+   @Fallback(NullOnNotFoundOr404.class)
+   @QueryParams(keys = { "comp", "blocklisttype" }, values = { "blocklist", "uncommitted" })
+   ListenableFuture<ListBlobBlocksResponse> getUncommittedBlockList(
+            @PathParam("container") @ParamValidators(ContainerNameValidator.class) String container,
+            @PathParam("name") String name);
+
 }
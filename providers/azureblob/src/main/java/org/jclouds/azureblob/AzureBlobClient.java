@@ -29,6 +29,7 @@ import org.jclouds.azureblob.domain.PublicAccess;
 import org.jclouds.azureblob.options.CreateContainerOptions;
 import org.jclouds.azureblob.options.ListBlobsOptions;
 import org.jclouds.http.options.GetOptions;
+import org.jclouds.javax.annotation.Nullable;
 
 import com.google.inject.Provides;
 import org.jclouds.io.Payload;
@@ -234,6 +235,16 @@ public interface AzureBlobClient {
     */
    ListBlobBlocksResponse getBlockList(String container, String name);
 
+   /**
+    * Get the IDs of the blocks uploaded to a blob with Put Block that have not yet been committed
+    * with Put Block List.
+    *
+    * @return null if the blob has no uncommitted blocks and does not exist
+    * @see <a href="http://msdn.microsoft.com/en-us/library/windowsazure/dd179400.aspx">Get Block List</a>
+    */
+   @Nullable
+   ListBlobBlocksResponse getUncommittedBlockList(String container, String name);
+
    /**
     * The Get Blob Properties operation returns all user-defined metadata, standard HTTP properties,
     * and system properties for the blob. It does not return the content of the blob.
@@ -22,6 +22,7 @@ import static org.jclouds.azure.storage.options.ListOptions.Builder.includeMetad
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -289,9 +290,14 @@ public class AzureAsyncBlobStore extends BaseAsyncBlobStore {
    }
 
    @Override
-   public ListenableFuture<String> putBlob(String container, Blob blob, PutOptions options) {
+   public ListenableFuture<String> putBlob(final String container, final Blob blob, PutOptions options) {
       if (options.isMultipart()) {
-         throw new UnsupportedOperationException("Multipart upload not supported in AzureAsyncBlobStore");
+         return userExecutor.submit(new Callable<String>() {
+            @Override
+            public String call() {
+               return multipartUploadStrategy.get().execute(container, blob);
+            }
+         });
       }
       return putBlob(container, blob);
    }
@@ -22,7 +22,7 @@ import org.jclouds.blobstore.domain.Blob;
 /**
  * @see <a href="http://msdn.microsoft.com/en-us/library/windowsazure/dd135726.aspx">Azure Put Block Documentation</a>
  */
-@ImplementedBy(AzureBlobBlockUploadStrategy.class)
+@ImplementedBy(ParallelBlockUploadStrategy.class)
 public interface MultipartUploadStrategy {
    /* Maximum number of blocks per upload */
    public static final int MAX_NUMBER_OF_BLOCKS = 50000;
@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.azureblob.blobstore.strategy;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Resource;
+import javax.inject.Named;
+
+import org.jclouds.Constants;
+import org.jclouds.azureblob.AzureBlobAsyncClient;
+import org.jclouds.azureblob.AzureBlobClient;
+import org.jclouds.azureblob.domain.BlobBlockProperties;
+import org.jclouds.azureblob.domain.ListBlobBlocksResponse;
+import org.jclouds.blobstore.domain.Blob;
+import org.jclouds.blobstore.internal.BlobRuntimeException;
+import org.jclouds.blobstore.reference.BlobStoreConstants;
+import org.jclouds.io.Payload;
+import org.jclouds.io.PayloadSlicer;
+import org.jclouds.logging.Logger;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.BaseEncoding;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.inject.Inject;
+
+/**
+ * Uploads the blocks of a blob with up to {@code jclouds.mpu.parallel.degree} concurrent Put Block
+ * requests and assembles them with Put Block List.
+ * <p/>
+ * Block ids are derived from the blob name, its length and the index of the block, so that
+ * repeating a failed upload of the same payload produces the same ids. When
+ * {@code jclouds.mpu.parallel.resume} is enabled, blocks which are already present in the
+ * uncommitted block list of the blob with the expected size are not uploaded again. Only enable
+ * it if an interrupted upload is always retried with the same content, or if the payload has a
+ * content MD5, which is then part of the block ids.
+ */
+public class ParallelBlockUploadStrategy implements MultipartUploadStrategy {
+   @Resource
+   @Named(BlobStoreConstants.BLOBSTORE_LOGGER)
+   private Logger logger = Logger.NULL;
+
+   @VisibleForTesting
+   static final int DEFAULT_PARALLEL_DEGREE = 4;
+   @VisibleForTesting
+   static final int DEFAULT_MIN_RETRIES = 5;
+   @VisibleForTesting
+   static final int DEFAULT_MAX_PERCENT_RETRIES = 10;
+
+   @Inject(optional = true)
+   @Named("jclouds.mpu.parallel.degree")
+   @VisibleForTesting
+   int parallelDegree = DEFAULT_PARALLEL_DEGREE;
+
+   @Inject(optional = true)
+   @Named("jclouds.mpu.parallel.retries.min")
+   @VisibleForTesting
+   int minRetries = DEFAULT_MIN_RETRIES;
+
+   @Inject(optional = true)
+   @Named("jclouds.mpu.parallel.retries.maxpercent")
+   @VisibleForTesting
+   int maxPercentRetries = DEFAULT_MAX_PERCENT_RETRIES;
+
+   @Inject(optional = true)
+   @Named("jclouds.mpu.parallel.resume")
+   @VisibleForTesting
+   boolean resume = false;
+
+   private final AzureBlobClient client;
+   private final AzureBlobAsyncClient asyncClient;
+   private final PayloadSlicer slicer;
+   private final ListeningExecutorService ioExecutor;
+
+   @Inject
+   public ParallelBlockUploadStrategy(AzureBlobClient client, AzureBlobAsyncClient asyncClient, PayloadSlicer slicer,
+         @Named(Constants.PROPERTY_IO_WORKER_THREADS) ListeningExecutorService ioExecutor) {
+      this.client = checkNotNull(client, "client");
+      this.asyncClient = checkNotNull(asyncClient, "asyncClient");
+      this.slicer = checkNotNull(slicer, "slicer");
+      this.ioExecutor = checkNotNull(ioExecutor, "ioExecutor");
+   }
+
+   @Override
+   public String execute(String container, Blob blob) {
+      String blobName = blob.getMetadata().getName();
+      Payload payload = blob.getPayload();
+      Long length = payload.getContentMetadata().getContentLength();
+      checkNotNull(length,
+            "please invoke payload.getContentMetadata().setContentLength(length) prior to azure block upload");
+      checkArgument(length <= (MAX_NUMBER_OF_BLOCKS * MAX_BLOCK_SIZE));
+      int blocks = (int) ((length + MAX_BLOCK_SIZE - 1) / MAX_BLOCK_SIZE);
+      HashCode contentMD5 = payload.getContentMetadata().getContentMD5AsHashCode();
+      List<String> blockIds = Lists.newArrayListWithCapacity(blocks);
+      for (int index = 0; index < blocks; index++) {
+         blockIds.add(blockId(blobName, length, contentMD5, index));
+      }
+
+      Map<String, Long> uploaded = resume ? uncommittedBlocks(container, blobName) : ImmutableMap.<String, Long> of();
+      Queue<Integer> pending = new ConcurrentLinkedQueue<Integer>();
+      for (int index = 0; index < blocks; index++) {
+         Long size = uploaded.get(blockIds.get(index));
+         if (size != null && size == blockSize(length, index)) {
+            logger.debug("skipping block %s of %s in container %s which is already uploaded", index, blobName,
+                  container);
+         } else {
+            pending.add(index);
+         }
+      }
+
+      int maxRetries = Math.max(minRetries, blocks * maxPercentRetries / 100);
+      AtomicInteger errors = new AtomicInteger();
+      Semaphore slots = new Semaphore(parallelDegree);
+      Map<Integer, ListenableFuture<Void>> inFlight = new ConcurrentHashMap<Integer, ListenableFuture<Void>>();
+      logger.debug("uploading %s of %s blocks of %s to container %s (possible max. retries: %d)", pending.size(),
+            blocks, blobName, container, maxRetries);
+      try {
+         while (!pending.isEmpty() && errors.get() <= maxRetries) {
+            List<Integer> round = ImmutableList.copyOf(pending);
+            pending.clear();
+            CountDownLatch latch = new CountDownLatch(round.size());
+            for (Integer index : round) {
+               if (errors.get() > maxRetries) {
+                  latch.countDown();
+                  continue;
+               }
+               slots.acquire();
+               try {
+                  uploadBlock(container, blobName, payload, length, index, blockIds.get(index), slots, inFlight,
+                        errors, maxRetries, pending, latch);
+               } catch (RuntimeException e) {
+                  // slicing or sending the block failed before there was a future to release them
+                  slots.release();
+                  latch.countDown();
+                  cancel(inFlight);
+                  throw e;
+               }
+            }
+            latch.await();
+         }
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         cancel(inFlight);
+         throw new BlobRuntimeException(String.format("interrupted while uploading %s to container %s", blobName,
+               container), e);
+      }
+      if (errors.get() > maxRetries) {
+         cancel(inFlight);
+         throw new BlobRuntimeException(String.format("Too many failed blocks: %s while uploading %s to container %s",
+               errors.get(), blobName, container));
+      }
+      String eTag = client.putBlockList(container, blobName, blockIds);
+      logger.debug("block upload of %s to container %s successfully finished with %s retries", blobName, container,
+            errors.get());
+      return eTag;
+   }
+
+   private void uploadBlock(final String container, final String blobName, Payload payload, long length,
+         final Integer index, String blockId, final Semaphore slots,
+         final Map<Integer, ListenableFuture<Void>> inFlight, final AtomicInteger errors, final int maxRetries,
+         final Queue<Integer> pending, final CountDownLatch latch) {
+      final long start = System.currentTimeMillis();
+      final ListenableFuture<Void> future = asyncClient.putBlock(container, blobName, blockId,
+            slicer.slice(payload, index * MAX_BLOCK_SIZE, blockSize(length, index)));
+      inFlight.put(index, future);
+      future.addListener(new Runnable() {
+         @Override
+         public void run() {
+            try {
+               future.get();
+               logger.debug("uploaded block %s of %s to container %s in %sms", index, blobName, container,
+                     System.currentTimeMillis() - start);
+            } catch (Exception e) {
+               logger.error(e, "error uploading block %s of %s to container %s after %sms", index, blobName,
+                     container, System.currentTimeMillis() - start);
+               if (errors.incrementAndGet() <= maxRetries)
+                  pending.add(index);
+            } finally {
+               inFlight.remove(index);
+               slots.release();
+               latch.countDown();
+            }
+         }
+      }, ioExecutor);
+   }
+
+   private Map<String, Long> uncommittedBlocks(String container, String blobName) {
+      ListBlobBlocksResponse response = client.getUncommittedBlockList(container, blobName);
+      Map<String, Long> sizes = Maps.newHashMap();
+      if (response != null) {
+         for (BlobBlockProperties block : response.getBlocks()) {
+            if (!block.isCommitted())
+               sizes.put(block.getBlockName(), block.getContentLength());
+         }
+      }
+      return sizes;
+   }
+
+   private static void cancel(Map<Integer, ListenableFuture<Void>> inFlight) {
+      for (ListenableFuture<Void> future : inFlight.values()) {
+         future.cancel(false);
+      }
+   }
+
+   private static long blockSize(long length, int index) {
+      return Math.min(MAX_BLOCK_SIZE, length - index * MAX_BLOCK_SIZE);
+   }
+
+   /**
+    * All ids of a blob have to be of the same length, which the base64 encoded md5 guarantees.
+    */
+   @VisibleForTesting
+   static String blockId(String blobName, long length, HashCode contentMD5, int index) {
+      Hasher hasher = Hashing.md5().newHasher().putString(blobName, UTF_8).putLong(length).putLong(MAX_BLOCK_SIZE)
+            .putInt(index);
+      if (contentMD5 != null)
+         hasher.putBytes(contentMD5.asBytes());
+      return BaseEncoding.base64().encode(hasher.hash().asBytes());
+   }
+}
@@ -24,6 +24,7 @@ import static org.testng.Assert.assertEquals;
 import java.io.IOException;
 import java.util.Map;
 
+import org.jclouds.Fallbacks.NullOnNotFoundOr404;
 import org.jclouds.Fallbacks.TrueOnNotFoundOr404;
 import org.jclouds.Fallbacks.VoidOnNotFoundOr404;
 import org.jclouds.azure.storage.filters.SharedKeyLiteAuthentication;
@@ -36,6 +37,7 @@ import org.jclouds.azureblob.functions.ParsePublicAccessHeader;
 import org.jclouds.azureblob.options.CreateContainerOptions;
 import org.jclouds.azureblob.options.ListBlobsOptions;
 import org.jclouds.azureblob.xml.AccountNameEnumerationResultsHandler;
+import org.jclouds.azureblob.xml.BlobBlocksResultsHandler;
 import org.jclouds.azureblob.xml.ContainerNameEnumerationResultsHandler;
 import org.jclouds.blobstore.BlobStoreFallbacks.NullOnContainerNotFound;
 import org.jclouds.blobstore.BlobStoreFallbacks.NullOnKeyNotFound;
@@ -273,6 +275,20 @@ public class AzureBlobAsyncClientTest extends BaseAsyncClientTest<AzureBlobAsync
       assertFallbackClassEquals(method, null);
    }
 
+   public void testGetUncommittedBlockList() throws SecurityException, NoSuchMethodException, IOException {
+      Invokable<?, ?> method = method(AzureBlobAsyncClient.class, "getUncommittedBlockList", String.class, String.class);
+      GeneratedHttpRequest request = processor.createRequest(method, ImmutableList.<Object> of("container", "blob"));
+
+      assertRequestLineEquals(request,
+               "GET https://identity.blob.core.windows.net/container/blob?comp=blocklist&blocklisttype=uncommitted HTTP/1.1");
+      assertNonPayloadHeadersEqual(request, "x-ms-version: 2009-09-19\n");
+      assertPayloadEquals(request, null, null, false);
+
+      assertResponseParserClassEquals(method, request, ParseSax.class);
+      assertSaxResponseParserClassEquals(method, BlobBlocksResultsHandler.class);
+      assertFallbackClassEquals(method, NullOnNotFoundOr404.class);
+   }
+
    @Override
    protected void checkFilters(HttpRequest request) {
       assertEquals(request.getFilters().size(), 1);
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jclouds.azureblob.blobstore.strategy;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.jclouds.azureblob.blobstore.strategy.MultipartUploadStrategy.MAX_BLOCK_SIZE;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.List;
+
+import org.jclouds.azureblob.AzureBlobAsyncClient;
+import org.jclouds.azureblob.AzureBlobClient;
+import org.jclouds.azureblob.domain.BlobBlockProperties;
+import org.jclouds.azureblob.domain.internal.BlobBlockPropertiesImpl;
+import org.jclouds.azureblob.domain.internal.ListBlobBlocksResponseImpl;
+import org.jclouds.blobstore.domain.Blob;
+import org.jclouds.blobstore.domain.MutableBlobMetadata;
+import org.jclouds.blobstore.domain.internal.BlobImpl;
+import org.jclouds.blobstore.domain.internal.MutableBlobMetadataImpl;
+import org.jclouds.blobstore.internal.BlobRuntimeException;
+import org.jclouds.io.MutableContentMetadata;
+import org.jclouds.io.Payload;
+import org.jclouds.io.PayloadSlicer;
+import org.jclouds.io.payloads.BaseMutableContentMetadata;
+import org.jclouds.io.payloads.StringPayload;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+
+@Test(groups = "unit", testName = "ParallelBlockUploadStrategyTest")
+public class ParallelBlockUploadStrategyTest {
+   private static final String CONTAINER = "test-container";
+   private static final String BLOB_NAME = "test-blob";
+   private static final long ONE_MB = 1048576L;
+   private static final long LENGTH = MAX_BLOCK_SIZE * 2 + ONE_MB;
+
+   private AzureBlobClient client;
+   private AzureBlobAsyncClient asyncClient;
+   private PayloadSlicer slicer;
+
+   @BeforeMethod
+   void createMocks() {
+      client = createMock(AzureBlobClient.class);
+      asyncClient = createMock(AzureBlobAsyncClient.class);
+      slicer = createMock(PayloadSlicer.class);
+   }
+
+   public void testBlockIdsAreStableAndOfEqualLength() {
+      String id = ParallelBlockUploadStrategy.blockId(BLOB_NAME, LENGTH, null, 0);
+      assertEquals(ParallelBlockUploadStrategy.blockId(BLOB_NAME, LENGTH, null, 0), id);
+      assertEquals(ParallelBlockUploadStrategy.blockId(BLOB_NAME, LENGTH, null, 12345).length(), id.length());
+      assertNotEquals(ParallelBlockUploadStrategy.blockId(BLOB_NAME, LENGTH, null, 1), id);
+      assertNotEquals(ParallelBlockUploadStrategy.blockId(BLOB_NAME, LENGTH + 1, null, 0), id);
+   }
+
+   public void testExecuteRetriesFailedBlock() {
+      Blob blob = newBlob();
+      Payload payload = blob.getPayload();
+      List<String> ids = blockIds();
+
+      expect(slicer.slice(payload, 0, MAX_BLOCK_SIZE)).andReturn(payload).times(2);
+      expect(slicer.slice(payload, MAX_BLOCK_SIZE, MAX_BLOCK_SIZE)).andReturn(payload);
+      expect(slicer.slice(payload, MAX_BLOCK_SIZE * 2, ONE_MB)).andReturn(payload);
+      expect(asyncClient.putBlock(CONTAINER, BLOB_NAME, ids.get(0), payload))
+            .andReturn(Futures.<Void> immediateFailedFuture(new RuntimeException("timeout")))
+            .andReturn(Futures.<Void> immediateFuture(null));
+      expect(asyncClient.putBlock(CONTAINER, BLOB_NAME, ids.get(1), payload))
+            .andReturn(Futures.<Void> immediateFuture(null));
+      expect(asyncClient.putBlock(CONTAINER, BLOB_NAME, ids.get(2), payload))
+            .andReturn(Futures.<Void> immediateFuture(null));
+      expect(client.putBlockList(eq(CONTAINER), eq(BLOB_NAME), eq(ids))).andReturn("Fake ETAG");
+      replay(client, asyncClient, slicer);
+
+      assertEquals(newStrategy().execute(CONTAINER, blob), "Fake ETAG");
+      verify(client, asyncClient, slicer);
+   }
+
+   public void testExecuteResumesFromUncommittedBlocks() {
+      Blob blob = newBlob();
+      Payload payload = blob.getPayload();
+      List<String> ids = blockIds();
+
+      expect(client.getUncommittedBlockList(CONTAINER, BLOB_NAME)).andReturn(new ListBlobBlocksResponseImpl(
+            ImmutableList.<BlobBlockProperties> of(new BlobBlockPropertiesImpl(ids.get(0), MAX_BLOCK_SIZE, false),
+                  new BlobBlockPropertiesImpl(ids.get(2), ONE_MB - 1, false))));
+      expect(slicer.slice(payload, MAX_BLOCK_SIZE, MAX_BLOCK_SIZE)).andReturn(payload);
+      expect(slicer.slice(payload, MAX_BLOCK_SIZE * 2, ONE_MB)).andReturn(payload);
+      expect(asyncClient.putBlock(CONTAINER, BLOB_NAME, ids.get(1), payload))
+            .andReturn(Futures.<Void> immediateFuture(null));
+      expect(asyncClient.putBlock(CONTAINER, BLOB_NAME, ids.get(2), payload))
+            .andReturn(Futures.<Void> immediateFuture(null));
+      expect(client.putBlockList(eq(CONTAINER), eq(BLOB_NAME), eq(ids))).andReturn("Fake ETAG");
+      replay(client, asyncClient, slicer);
+
+      ParallelBlockUploadStrategy strategy = newStrategy();
+      strategy.resume = true;
+      assertEquals(strategy.execute(CONTAINER, blob), "Fake ETAG");
+      verify(client, asyncClient, slicer);
+   }
+
+   @Test(expectedExceptions = BlobRuntimeException.class)
+   public void testExecuteFailsWhenRetriesAreExhausted() {
+      Blob blob = newBlob();
+      Payload payload = blob.getPayload();
+      List<String> ids = blockIds();
+
+      expect(slicer.slice(payload, 0, MAX_BLOCK_SIZE)).andReturn(payload).times(2);
+      expect(slicer.slice(payload, MAX_BLOCK_SIZE, MAX_BLOCK_SIZE)).andReturn(payload);
+      expect(slicer.slice(payload, MAX_BLOCK_SIZE * 2, ONE_MB)).andReturn(payload);
+      expect(asyncClient.putBlock(CONTAINER, BLOB_NAME, ids.get(0), payload))
+            .andReturn(Futures.<Void> immediateFailedFuture(new RuntimeException("timeout"))).times(2);
+      expect(asyncClient.putBlock(CONTAINER, BLOB_NAME, ids.get(1), payload))
+            .andReturn(Futures.<Void> immediateFuture(null));
+      expect(asyncClient.putBlock(CONTAINER, BLOB_NAME, ids.get(2), payload))
+            .andReturn(Futures.<Void> immediateFuture(null));
+      replay(client, asyncClient, slicer);
+
+      ParallelBlockUploadStrategy strategy = newStrategy();
+      strategy.minRetries = 1;
+      strategy.execute(CONTAINER, blob);
+   }
+
+   public void testExecuteCancelsBlocksInFlightWhenSlicingFails() {
+      Blob blob = newBlob();
+      Payload payload = blob.getPayload();
+      List<String> ids = blockIds();
+      SettableFuture<Void> first = SettableFuture.create();
+
+      expect(slicer.slice(payload, 0, MAX_BLOCK_SIZE)).andReturn(payload);
+      expect(slicer.slice(payload, MAX_BLOCK_SIZE, MAX_BLOCK_SIZE)).andThrow(new IllegalStateException("closed"));
+      expect(asyncClient.putBlock(CONTAINER, BLOB_NAME, ids.get(0), payload)).andReturn(first);
+      replay(client, asyncClient, slicer);
+
+      try {
+         newStrategy().execute(CONTAINER, blob);
+         fail("expected the failure to slice the second block");
+      } catch (IllegalStateException e) {
+         assertEquals(e.getMessage(), "closed");
+      }
+      assertTrue(first.isCancelled());
+      verify(client, asyncClient, slicer);
+   }
+
+   private ParallelBlockUploadStrategy newStrategy() {
+      return new ParallelBlockUploadStrategy(client, asyncClient, slicer, MoreExecutors.sameThreadExecutor());
+   }
+
+   private static List<String> blockIds() {
+      return ImmutableList.of(ParallelBlockUploadStrategy.blockId(BLOB_NAME, LENGTH, null, 0),
+            ParallelBlockUploadStrategy.blockId(BLOB_NAME, LENGTH, null, 1),
+            ParallelBlockUploadStrategy.blockId(BLOB_NAME, LENGTH, null, 2));
+   }
+
+   private static Blob newBlob() {
+      MutableBlobMetadata metadata = new MutableBlobMetadataImpl();
+      MutableContentMetadata contentMetadata = new BaseMutableContentMetadata();
+      contentMetadata.setContentLength(LENGTH);
+      metadata.setName(BLOB_NAME);
+      metadata.setContentMetadata(contentMetadata);
+      Blob blob = new BlobImpl(metadata);
+      Payload payload = new StringPayload("ABCD");
+      payload.setContentMetadata(contentMetadata);
+      blob.setPayload(payload);
+      return blob;
+   }
+}
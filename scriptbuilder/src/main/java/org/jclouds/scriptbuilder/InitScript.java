@@ -240,6 +240,17 @@ public class InitScript extends ForwardingObject implements Statement, AcceptsSt
                               .put("run",
                                     newStatementList(call("default"),
                                           interpret("{varl}INSTANCE_HOME{varr}{fs}{varl}INSTANCE_NAME{varr}.{sh}{lf}")))
+                              // blocks until the exit status is written or the script is no
+                              // longer running, then prints stdout, the marker passed as the
+                              // second argument followed by the exit status, and stderr
+                              .put("wait",
+                                    newStatementList(call("default"),
+                                          interpret("while [ ! -f {varl}LOG_DIR{varr}{fs}rc ]; do{lf}"
+                                                + "   findPid {varl}INSTANCE_NAME{varr} || break{lf}"
+                                                + "   sleep 1{lf}" + "done{lf}"
+                                                + "cat {varl}LOG_DIR{varr}{fs}stdout.log{lf}"
+                                                + "printf '\\n%s %s\\n' \"$2\" \"`cat {varl}LOG_DIR{varr}{fs}rc`\"{lf}"
+                                                + "cat {varl}LOG_DIR{varr}{fs}stderr.log{lf}")))
                               .build()));
    }
 
@@ -136,5 +136,15 @@ run)
    default || exit 1
    $INSTANCE_HOME/$INSTANCE_NAME.sh
    ;;
+wait)
+   default || exit 1
+   while [ ! -f $LOG_DIR/rc ]; do
+      findPid $INSTANCE_NAME || break
+      sleep 1
+   done
+   cat $LOG_DIR/stdout.log
+   printf '\n%s %s\n' "$2" "`cat $LOG_DIR/rc`"
+   cat $LOG_DIR/stderr.log
+   ;;
 esac
 exit $?